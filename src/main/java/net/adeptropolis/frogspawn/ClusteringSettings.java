@@ -8,14 +8,19 @@ package net.adeptropolis.frogspawn;
 import lombok.*;
 import net.adeptropolis.frogspawn.clustering.affiliation.AffiliationMetric;
 import net.adeptropolis.frogspawn.clustering.affiliation.DefaultAffiliationMetric;
+import net.adeptropolis.frogspawn.clustering.execution.DefaultExecutionPolicy;
+import net.adeptropolis.frogspawn.clustering.execution.ExecutionPolicy;
 import net.adeptropolis.frogspawn.clustering.postprocessing.Postprocessor;
 import net.adeptropolis.frogspawn.clustering.postprocessing.SingletonMode;
 import net.adeptropolis.frogspawn.digest.DigestRanking;
+import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.EigenSolver;
+import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.PowerIterationSolver;
 import net.adeptropolis.frogspawn.graphs.similarity.GraphSimilarityMetric;
 import net.adeptropolis.frogspawn.graphs.similarity.NormalizedCutMetric;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static net.adeptropolis.frogspawn.digest.DigestRankings.DEFAULT_COMBINED_RANKING;
 
@@ -44,6 +49,21 @@ public class ClusteringSettings {
   private final long randomSeed = 42133742L;
   @Builder.Default
   private final int maxIterations = 540;
+  @Builder.Default
+  private final EigenSolver eigenSolver = new PowerIterationSolver();
+  @Builder.Default
+  private final boolean multilevelInitialVectors = false;
+  @Builder.Default
+  private final boolean warmStartInitialVectors = false;
+
+  // Execution
+  @Builder.Default
+  private final int parallelism = Runtime.getRuntime().availableProcessors();
+  @Builder.Default
+  private final ExecutionPolicy executionPolicy = new DefaultExecutionPolicy();
+  private final ForkJoinPool forkJoinPool;
+  @Builder.Default
+  private final double materializationThreshold = 0.1;
 
   // Postprocessing
   @Builder.Default
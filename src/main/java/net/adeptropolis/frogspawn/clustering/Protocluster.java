@@ -6,6 +6,7 @@
 package net.adeptropolis.frogspawn.clustering;
 
 import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.WarmStartVector;
 
 /**
  * Protocluster: A cluster candidate
@@ -14,6 +15,7 @@ import net.adeptropolis.frogspawn.graphs.Graph;
 public class Protocluster {
 
   private final Graph graph;
+  private final WarmStartVector warmStartVector;
   private Cluster cluster;
   private GraphType graphType;
 
@@ -26,9 +28,23 @@ public class Protocluster {
    */
 
   Protocluster(Graph graph, GraphType graphType, Cluster cluster) {
+    this(graph, graphType, cluster, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param graph           A graph, i.e. the cluster candidate
+   * @param graphType       Type of the graph. Either <code>ROOT</code>, <code>COMPONENT</code> or <code>SPECTRAL</code>
+   * @param cluster         Parent cluster
+   * @param warmStartVector Eigenvector of a supergraph to start the bisection from. May be <code>null</code>.
+   */
+
+  Protocluster(Graph graph, GraphType graphType, Cluster cluster, WarmStartVector warmStartVector) {
     this.graph = graph;
     this.graphType = graphType;
     this.cluster = cluster;
+    this.warmStartVector = warmStartVector;
   }
 
   /**
@@ -39,6 +55,14 @@ public class Protocluster {
     return graph;
   }
 
+  /**
+   * @return Eigenvector of a supergraph to start the bisection from or <code>null</code> if there is none
+   */
+
+  WarmStartVector getWarmStartVector() {
+    return warmStartVector;
+  }
+
   /**
    * @return Type of the cluster candidate graph
    */
@@ -7,22 +7,41 @@ package net.adeptropolis.frogspawn.clustering;
 
 import net.adeptropolis.frogspawn.ClusteringSettings;
 import net.adeptropolis.frogspawn.clustering.affiliation.AffiliationGuard;
+import net.adeptropolis.frogspawn.clustering.execution.ExecutionMode;
 import net.adeptropolis.frogspawn.clustering.postprocessing.Postprocessing;
 import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.algorithms.ConnectedComponents;
 import net.adeptropolis.frogspawn.graphs.algorithms.SpectralBisector;
 import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.PowerIterationException;
 import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.RandomInitialVectorsSource;
+import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.WarmStartVector;
+import net.adeptropolis.frogspawn.graphs.traversal.ForkJoinTraversalExecutor;
+import net.adeptropolis.frogspawn.graphs.traversal.ParallelOps;
+import net.adeptropolis.frogspawn.graphs.traversal.SequentialTraversalExecutor;
+import net.adeptropolis.frogspawn.graphs.traversal.TraversalExecutor;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * <p>Recursive clustering</p>
  * <p>Take a given graph and return a hierarchy of clusters</p>
+ * <p>All protoclusters that are queued at the same time are independent of each other and processed concurrently
+ * on a work-stealing pool, which is either given by {@link ClusteringSettings#getForkJoinPool()} or created per run
+ * with a size of {@link ClusteringSettings#getParallelism()}. All graph traversals of the run use the same pool.
+ * Any changes to the cluster hierarchy are deferred and committed in queue order, such that the outcome is the same
+ * regardless of the level of parallelism.</p>
+ * <p>The execution policy from the clustering settings decides for every protocluster whether to spend the available
+ * cores on its graph operations (<code>INTRA_GRAPH</code>) or on processing it alongside other protoclusters
+ * (<code>INTER_GRAPH</code>).</p>
  */
 
 public class RecursiveClustering {
@@ -31,11 +50,13 @@ public class RecursiveClustering {
 
   private final Graph graph;
   private final ClusteringSettings settings;
+  private final RandomInitialVectorsSource ivSource;
   private final SpectralBisector bisector;
   private final AffiliationGuard affiliationGuard;
 
   // NOTE: By construction, this type of queue induces the top-town ordering required for determinism
-  // and ensures the correct behaviour of vertex affiliation guards
+  // and ensures the correct behaviour of vertex affiliation guards. Concurrent processing preserves this ordering
+  // because the queue is always drained as a whole and all successors are re-added in their original order.
   private final ConcurrentLinkedQueue<Protocluster> queue;
 
   /**
@@ -48,7 +69,8 @@ public class RecursiveClustering {
   private RecursiveClustering(Graph graph, ClusteringSettings settings) {
     this.graph = graph;
     this.settings = settings;
-    this.bisector = new SpectralBisector(settings, new RandomInitialVectorsSource(settings.getRandomSeed()));
+    this.ivSource = new RandomInitialVectorsSource(settings.getRandomSeed());
+    this.bisector = new SpectralBisector(settings, ivSource);
     this.queue = new ConcurrentLinkedQueue<>();
     this.affiliationGuard = new AffiliationGuard(settings.getAffiliationMetric(),
             graph, settings.getMinClusterSize(), settings.getMinAffiliation());
@@ -59,118 +81,107 @@ public class RecursiveClustering {
   }
 
   /**
-   * Run the recursive clustering
+   * Run the recursive clustering. All protoclusters and graph traversals are processed on the fork/join pool given
+   * in the clustering settings. If there is none, a new pool using the configured level of parallelism is created
+   * for this run and shut down afterwards.
    *
    * @return Root cluster of the generated cluster hierarchy
    */
 
   public Cluster run() {
+    ForkJoinPool pool = settings.getForkJoinPool();
+    boolean ownsPool = (pool == null && settings.getParallelism() > 1);
+    if (ownsPool) {
+      pool = new ForkJoinPool(settings.getParallelism());
+    }
+    TraversalExecutor executor = (pool != null) ? new ForkJoinTraversalExecutor(pool) : SequentialTraversalExecutor.INSTANCE;
+    try {
+      ForkJoinPool protoclusterPool = pool;
+      return ParallelOps.callWith(executor, () -> run(protoclusterPool));
+    } finally {
+      if (ownsPool) {
+        pool.shutdown();
+      }
+    }
+  }
+
+  /**
+   * Run the recursive clustering
+   *
+   * @param pool Work-stealing pool for concurrent processing of protoclusters. May be <code>null</code>.
+   * @return Root cluster of the generated cluster hierarchy
+   */
+
+  private Cluster run(ForkJoinPool pool) {
     LOG.debug("Starting recursive clustering of {} vertices using settings: {}", graph.order(), settings);
     StopWatch stopWatch = new StopWatch();
     stopWatch.start();
     Cluster root = new Cluster(graph);
     Protocluster initialProtocluster = new Protocluster(graph, Protocluster.GraphType.ROOT, root);
     queue.add(initialProtocluster);
-    processQueue();
+    // The root graph is shared among all protocluster tasks. Make sure that its lazily computed vertex weights
+    // are already in place before any of them is started
+    graph.totalWeight();
+    processQueue(pool);
     stopWatch.stop();
-    LOG.debug("Finished clustering {} vertices after {}", graph.order(), stopWatch);
+    LOG.debug("Finished clustering {} vertices after {} using {} eigensolver iterations in {} bisections",
+            graph.order(), stopWatch, bisector.getIterations(), bisector.getBisections());
     return Postprocessing.apply(root, settings);
   }
 
   /**
    * Process all elements of the recursive clustering task queue until it is exhausted.
    * Depending on type of the protocluster, it is either decomposed into its connected components or subject to
-   * spectral bisection.
+   * spectral bisection. All protoclusters that are currently queued are processed before their deferred changes
+   * to the cluster hierarchy are committed in queue order. Protoclusters in <code>INTRA_GRAPH</code> mode are processed
+   * one after another using parallel graph operations, all others are processed concurrently.
+   *
+   * @param pool Work-stealing pool for concurrent processing. May be <code>null</code>, in which case all
+   *             protoclusters are processed sequentially.
    */
 
-  private void processQueue() {
+  private void processQueue(ForkJoinPool pool) {
     while (!queue.isEmpty()) {
-      Protocluster protocluster = queue.poll();
-      if (protocluster.getGraphType() == Protocluster.GraphType.COMPONENT) {
-        bisect(protocluster);
-      } else {
-        decomposeComponents(protocluster);
+      List<ProtoclusterTask> tasks = drainQueue();
+      List<ProtoclusterTask> interGraphTasks = new ArrayList<>(tasks.size());
+      LOG.debug("Processing {} protoclusters", tasks.size());
+      for (ProtoclusterTask task : tasks) {
+        if (pool != null && task.selectExecutionMode(tasks.size()) == ExecutionMode.INTER_GRAPH) {
+          interGraphTasks.add(task);
+        } else {
+          task.invoke();
+        }
       }
-    }
-  }
-
-  /**
-   * Bisect the protocluster's graph such that the normalized cut is minimized.
-   *
-   * @param protocluster A protocluster
-   */
-
-  private void bisect(Protocluster protocluster) {
-    try {
-      bisector.bisect(protocluster.getGraph(), partition -> processPartition(protocluster, partition));
-    } catch (PowerIterationException e) {
-      if (protocluster.getGraph().size() >= settings.getMinClusterSize()) {
-        addTerminalChild(protocluster, protocluster.getGraph());
+      LOG.debug("Processed {} protoclusters in intra-graph mode, continuing with {} in inter-graph mode",
+              tasks.size() - interGraphTasks.size(), interGraphTasks.size());
+      if (interGraphTasks.size() > 1) {
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(interGraphTasks)));
       } else {
-        protocluster.getCluster().addToRemainder(protocluster.getGraph());
+        interGraphTasks.forEach(ProtoclusterTask::invoke);
       }
-      LOG.debug(String.format("%s. Not clustering any further.", e.getMessage()));
-    }
-  }
-
-  /**
-   * Decompose the current protocluster's graph into its connected components. There are 4 possible scenarios:
-   * <ol>
-   *   <li>The input graph was already fully connected. Label the protocluster's graph as connected component and re-add it to the queue</li>
-   *   <li>The connected component is smaller than the minimum cluster size. In that case, add its vertices to the cluster's remainder and terminate</li>
-   *   <li>The connected component order is exactly the minimum cluster size. Add a new child with the connected component vertices</li>
-   *   <li>Else label the component as connected and add a proper new protocluster to the queue</li>
-   * </ol>
-   *
-   * @param protocluster A protocluster
-   */
-
-  private void decomposeComponents(Protocluster protocluster) {
-    ConnectedComponents.find(protocluster.getGraph(), component -> {
-      if (component.order() == protocluster.getGraph().order()) {
-        protocluster.setGraphTypeConnectedComponent();
-        queue.add(protocluster);
-      } else if (component.order() < settings.getMinClusterSize()) {
-        protocluster.getCluster().addToRemainder(component);
-      } else if (component.order() == settings.getMinClusterSize()) {
-        addTerminalChild(protocluster, component);
-      } else if (component.order() > settings.getMinClusterSize()) {
-        enqueueProtocluster(Protocluster.GraphType.COMPONENT, protocluster.getCluster(), component);
+      for (ProtoclusterTask task : tasks) {
+        task.commit();
       }
-    });
+    }
   }
 
   /**
-   * Process a partition coming out of the spectral bisection step. Possible scenarios:
-   * <ol>
-   *   <li>The partition is either smaller than the allowed minimum cluster size or comprises the full
-   *   input graph (which hints an iteration excess or an error). In that case, add its vertices to the cluster's remainder
-   *   and terminate</li>
-   *   <li>
-   *     Ensure affiliation of the resulting subgraph vertices and add all non-compliant vertices to the cluster remainder.
-   *     For the remaining subgraph, one of two conditions may apply:
-   *     <ol>
-   *       <li>The remaining subgraph is smaller than the allowed minimum cluster
-   *       size → Add its vertices to the cluster's remainder and terminate</li>
-   *       <li>Else: Create a new protocluster with graph type <code>SPECTRAL</code> and add it to the queue
-   *       (unless it's exactly as large as the minimum cluster size, in which case a new child cluster is created).</li>
-   *     </ol>
-   *   </li>
-   * </ol>
+   * Remove all protoclusters from the queue and wrap them into tasks. Initial vectors for spectral bisections
+   * are drawn here in queue order, such that every protocluster gets the same vector as in a sequential run.
    *
-   * @param protocluster Current protocluster
-   * @param partition    Cluster candidate partition
+   * @return List of protocluster tasks in queue order
    */
 
-  private void processPartition(Protocluster protocluster, Graph partition) {
-    if (partition.order() < settings.getMinClusterSize() || partition.order() == protocluster.getGraph().order()) {
-      protocluster.getCluster().addToRemainder(partition);
-    } else {
-      Graph guaranteedAffiliationSubgraph = affiliationGuard.ensure(protocluster.getCluster(), partition);
-      if (guaranteedAffiliationSubgraph != null) {
-        processGuaranteedAffiliationSubgraph(protocluster, guaranteedAffiliationSubgraph);
-      }
+  private List<ProtoclusterTask> drainQueue() {
+    List<ProtoclusterTask> tasks = new ArrayList<>(queue.size());
+    Protocluster protocluster;
+    while ((protocluster = queue.poll()) != null) {
+      double[] iv = (protocluster.getGraphType() == Protocluster.GraphType.COMPONENT)
+              ? ivSource.generate(protocluster.getGraph().order())
+              : null;
+      tasks.add(new ProtoclusterTask(protocluster, iv));
     }
+    return tasks;
   }
 
   /**
@@ -188,33 +199,234 @@ public class RecursiveClustering {
   /**
    * Insert a new protocluster into the queue
    *
-   * @param graphType Type of the graph for the new protocluster
-   * @param parent    Parent cluster
-   * @param subgraph  Protocluster graph
+   * @param graphType       Type of the graph for the new protocluster
+   * @param parent          Parent cluster
+   * @param subgraph        Protocluster graph
+   * @param warmStartVector Eigenvector of a supergraph to start the bisection from. May be <code>null</code>.
    */
 
-  private void enqueueProtocluster(Protocluster.GraphType graphType, Cluster parent, Graph subgraph) {
+  private void enqueueProtocluster(Protocluster.GraphType graphType, Cluster parent, Graph subgraph,
+                                   WarmStartVector warmStartVector) {
     Cluster childCluster = new Cluster(parent);
-    Protocluster protocluster = new Protocluster(subgraph, graphType, childCluster);
+    Protocluster protocluster = new Protocluster(subgraph, graphType, childCluster, warmStartVector);
     queue.add(protocluster);
   }
 
   /**
-   * <p>Process a subgraph returned by a affiliation guard.</p>
-   * <p>If the graph is larger than the minimum cluster size, put it back into the processing queue.
-   * Otherwise, create a child cluster from its vertices and terminate here.</p>
-   *
-   * @param protocluster                  Protocluster
-   * @param guaranteedAffiliationSubgraph Subgraph whose vertices fulfil the min affiliation metric wrt. to the graph
+   * <p>Processing task for a single protocluster.</p>
+   * <p>Tasks only ever modify the remainder of their own protocluster's cluster. All other changes to the cluster
+   * hierarchy (i.e. new child clusters and protoclusters) are deferred until {@link #commit()} is called.</p>
    */
 
-  private void processGuaranteedAffiliationSubgraph(Protocluster protocluster, Graph guaranteedAffiliationSubgraph) {
-    if (guaranteedAffiliationSubgraph.size() > settings.getMinClusterSize()) {
-      enqueueProtocluster(Protocluster.GraphType.SPECTRAL, protocluster.getCluster(), guaranteedAffiliationSubgraph);
-    } else {
-      Validate.isTrue(guaranteedAffiliationSubgraph.size() == settings.getMinClusterSize());
-      addTerminalChild(protocluster, guaranteedAffiliationSubgraph);
+  private class ProtoclusterTask extends RecursiveAction {
+
+    private final Protocluster protocluster;
+    private final double[] iv;
+    private final List<Runnable> deferred;
+    private ExecutionMode executionMode;
+
+    /**
+     * Constructor
+     *
+     * @param protocluster A protocluster
+     * @param iv           Initial vector for the spectral bisection. Only required for connected components.
+     */
+
+    ProtoclusterTask(Protocluster protocluster, double[] iv) {
+      this.protocluster = protocluster;
+      this.iv = iv;
+      this.deferred = new ArrayList<>();
+      this.executionMode = ExecutionMode.INTRA_GRAPH;
     }
+
+    /**
+     * Select the execution mode for this task according to the clustering settings' execution policy
+     *
+     * @param concurrentProtoclusters Number of protoclusters that are processed at the same time
+     * @return Execution mode
+     */
+
+    ExecutionMode selectExecutionMode(int concurrentProtoclusters) {
+      Graph graph = protocluster.getGraph();
+      executionMode = settings.getExecutionPolicy().select(graph, concurrentProtoclusters);
+      LOG.trace("Selected {} mode for protocluster with {} vertices and {} edges", executionMode, graph.order(), graph.size());
+      return executionMode;
+    }
+
+    /**
+     * Process the protocluster. In <code>INTER_GRAPH</code> mode, all graph operations are performed sequentially.
+     */
+
+    @Override
+    protected void compute() {
+      if (executionMode == ExecutionMode.INTER_GRAPH) {
+        ParallelOps.runSequentially(this::process);
+      } else {
+        process();
+      }
+    }
+
+    /**
+     * Either decompose the protocluster into its connected components or bisect it, depending on its graph type
+     */
+
+    private void process() {
+      if (protocluster.getGraphType() == Protocluster.GraphType.COMPONENT) {
+        bisect();
+      } else {
+        decomposeComponents();
+      }
+    }
+
+    /**
+     * Apply all deferred changes to the cluster hierarchy in their original order
+     */
+
+    void commit() {
+      deferred.forEach(Runnable::run);
+    }
+
+    /**
+     * Bisect the protocluster's graph such that the normalized cut is minimized. If warm starts are enabled, the
+     * resulting eigenvector is passed on to the new protoclusters.
+     */
+
+    private void bisect() {
+      Graph graph = protocluster.getGraph();
+      List<Graph> partitions = new ArrayList<>(2);
+      double[] v2;
+      try {
+        v2 = bisector.bisect(graph, initialVector(), partitions::add);
+      } catch (PowerIterationException e) {
+        if (graph.size() >= settings.getMinClusterSize()) {
+          deferred.add(() -> addTerminalChild(protocluster, graph));
+        } else {
+          protocluster.getCluster().addToRemainder(graph);
+        }
+        LOG.debug(String.format("%s. Not clustering any further.", e.getMessage()));
+        return;
+      }
+      WarmStartVector warmStartVector = settings.isWarmStartInitialVectors() ? new WarmStartVector(graph, v2) : null;
+      for (Graph partition : partitions) {
+        processPartition(partition, warmStartVector);
+      }
+    }
+
+    /**
+     * Provide the initial vector for the spectral bisection. This is the restriction of the supergraph's eigenvector
+     * if there is one, or the random vector drawn for this task otherwise.
+     *
+     * @return Initial vector
+     */
+
+    private double[] initialVector() {
+      WarmStartVector warmStartVector = protocluster.getWarmStartVector();
+      if (warmStartVector != null) {
+        double[] restricted = warmStartVector.restrict(protocluster.getGraph());
+        if (restricted != null) {
+          return restricted;
+        }
+      }
+      return iv;
+    }
+
+    /**
+     * Decompose the current protocluster's graph into its connected components. There are 4 possible scenarios:
+     * <ol>
+     *   <li>The input graph was already fully connected. Label the protocluster's graph as connected component and re-add it to the queue</li>
+     *   <li>The connected component is smaller than the minimum cluster size. In that case, add its vertices to the cluster's remainder and terminate</li>
+     *   <li>The connected component order is exactly the minimum cluster size. Add a new child with the connected component vertices</li>
+     *   <li>Else label the component as connected and add a proper new protocluster to the queue</li>
+     * </ol>
+     */
+
+    private void decomposeComponents() {
+      ConnectedComponents.find(protocluster.getGraph(), component -> {
+        if (component.order() == protocluster.getGraph().order()) {
+          protocluster.setGraphTypeConnectedComponent();
+          deferred.add(() -> queue.add(protocluster));
+        } else if (component.order() < settings.getMinClusterSize()) {
+          protocluster.getCluster().addToRemainder(component);
+        } else if (component.order() == settings.getMinClusterSize()) {
+          deferred.add(() -> addTerminalChild(protocluster, component));
+        } else if (component.order() > settings.getMinClusterSize()) {
+          Graph materialized = materialize(component);
+          deferred.add(() -> enqueueProtocluster(Protocluster.GraphType.COMPONENT, protocluster.getCluster(), materialized,
+                  protocluster.getWarmStartVector()));
+        }
+      });
+    }
+
+    /**
+     * Process a partition coming out of the spectral bisection step. Possible scenarios:
+     * <ol>
+     *   <li>The partition is either smaller than the allowed minimum cluster size or comprises the full
+     *   input graph (which hints an iteration excess or an error). In that case, add its vertices to the cluster's remainder
+     *   and terminate</li>
+     *   <li>
+     *     Ensure affiliation of the resulting subgraph vertices and add all non-compliant vertices to the cluster remainder.
+     *     For the remaining subgraph, one of two conditions may apply:
+     *     <ol>
+     *       <li>The remaining subgraph is smaller than the allowed minimum cluster
+     *       size → Add its vertices to the cluster's remainder and terminate</li>
+     *       <li>Else: Create a new protocluster with graph type <code>SPECTRAL</code> and add it to the queue
+     *       (unless it's exactly as large as the minimum cluster size, in which case a new child cluster is created).</li>
+     *     </ol>
+     *   </li>
+     * </ol>
+     *
+     * @param partition       Cluster candidate partition
+     * @param warmStartVector Eigenvector that has been used for the bisection. May be <code>null</code>.
+     */
+
+    private void processPartition(Graph partition, WarmStartVector warmStartVector) {
+      if (partition.order() < settings.getMinClusterSize() || partition.order() == protocluster.getGraph().order()) {
+        protocluster.getCluster().addToRemainder(partition);
+      } else {
+        Graph guaranteedAffiliationSubgraph = affiliationGuard.ensure(protocluster.getCluster(), partition);
+        if (guaranteedAffiliationSubgraph != null) {
+          processGuaranteedAffiliationSubgraph(guaranteedAffiliationSubgraph, warmStartVector);
+        }
+      }
+    }
+
+    /**
+     * <p>Process a subgraph returned by a affiliation guard.</p>
+     * <p>If the graph is larger than the minimum cluster size, put it back into the processing queue.
+     * Otherwise, create a child cluster from its vertices and terminate here.</p>
+     *
+     * @param guaranteedAffiliationSubgraph Subgraph whose vertices fulfil the min affiliation metric wrt. to the graph
+     * @param warmStartVector               Eigenvector that has been used for the bisection. May be <code>null</code>.
+     */
+
+    private void processGuaranteedAffiliationSubgraph(Graph guaranteedAffiliationSubgraph,
+                                                      WarmStartVector warmStartVector) {
+      if (guaranteedAffiliationSubgraph.size() > settings.getMinClusterSize()) {
+        Graph materialized = materialize(guaranteedAffiliationSubgraph);
+        deferred.add(() -> enqueueProtocluster(Protocluster.GraphType.SPECTRAL, protocluster.getCluster(), materialized,
+                warmStartVector));
+      } else {
+        Validate.isTrue(guaranteedAffiliationSubgraph.size() == settings.getMinClusterSize());
+        deferred.add(() -> addTerminalChild(protocluster, guaranteedAffiliationSubgraph));
+      }
+    }
+
+    /**
+     * Materialize a graph into its own compact storage if it has become small compared to the storage that it is
+     * backed by. This is done right here so that the cost is spent within the (possibly concurrent) task.
+     *
+     * @param subgraph Subgraph that is about to become a new protocluster
+     * @return Either a materialized copy or the subgraph itself
+     */
+
+    private Graph materialize(Graph subgraph) {
+      Graph materialized = subgraph.materialize(settings.getMaterializationThreshold());
+      if (materialized != subgraph) {
+        LOG.trace("Materialized subgraph with {} vertices and {} edges", materialized.order(), materialized.size());
+      }
+      return materialized;
+    }
+
   }
 
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.clustering.execution;
+
+import net.adeptropolis.frogspawn.graphs.Graph;
+
+/**
+ * <p>Default execution policy</p>
+ * <p>Large graphs and protoclusters without any siblings to share the cores with are processed in
+ * <code>INTRA_GRAPH</code> mode. All others are processed in <code>INTER_GRAPH</code> mode, because the overhead of
+ * parallelizing individual matrix multiplications quickly dominates their actual cost for small graphs.</p>
+ */
+
+public class DefaultExecutionPolicy implements ExecutionPolicy {
+
+  private static final long DEFAULT_MIN_INTRA_GRAPH_SIZE = 1L << 20;
+
+  private final long minIntraGraphSize;
+
+  /**
+   * Constructor using the default minimum graph size of 2^20 edges for <code>INTRA_GRAPH</code> mode
+   */
+
+  public DefaultExecutionPolicy() {
+    this(DEFAULT_MIN_INTRA_GRAPH_SIZE);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param minIntraGraphSize Minimum graph size (i.e. number of edges) required for <code>INTRA_GRAPH</code> mode
+   */
+
+  public DefaultExecutionPolicy(long minIntraGraphSize) {
+    this.minIntraGraphSize = minIntraGraphSize;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public ExecutionMode select(Graph graph, int concurrentProtoclusters) {
+    if (concurrentProtoclusters <= 1 || graph.size() >= minIntraGraphSize) {
+      return ExecutionMode.INTRA_GRAPH;
+    }
+    return ExecutionMode.INTER_GRAPH;
+  }
+
+  /**
+   * @return Minimum graph size required for <code>INTRA_GRAPH</code> mode
+   */
+
+  public long getMinIntraGraphSize() {
+    return minIntraGraphSize;
+  }
+
+  /**
+   * @return Simple class name along with the size threshold
+   */
+
+  @Override
+  public String toString() {
+    return String.format("%s(minIntraGraphSize=%d)", getClass().getSimpleName(), minIntraGraphSize);
+  }
+
+}
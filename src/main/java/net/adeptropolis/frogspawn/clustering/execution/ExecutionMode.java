@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.clustering.execution;
+
+/**
+ * Determines where the available cores are spent while processing a protocluster
+ *
+ * @see ExecutionPolicy
+ */
+
+public enum ExecutionMode {
+
+  /**
+   * Process the protocluster on its own and parallelize all operations on its graph
+   * (e.g. matrix multiplications) instead.
+   */
+
+  INTRA_GRAPH,
+
+  /**
+   * Process the protocluster concurrently with other protoclusters, while all operations
+   * on its graph are performed sequentially.
+   */
+
+  INTER_GRAPH
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.clustering.execution;
+
+import net.adeptropolis.frogspawn.graphs.Graph;
+
+/**
+ * Execution policy: Decide for every protocluster whether to parallelize within its graph or
+ * across multiple protoclusters.
+ *
+ * @see ExecutionMode
+ */
+
+@FunctionalInterface
+public interface ExecutionPolicy {
+
+  /**
+   * Select the execution mode for a protocluster
+   *
+   * @param graph                   The protocluster's graph
+   * @param concurrentProtoclusters Total number of protoclusters that are up for processing at the same time (including this one)
+   * @return Execution mode for the protocluster
+   */
+
+  ExecutionMode select(Graph graph, int concurrentProtoclusters);
+
+}
@@ -121,6 +121,60 @@ public abstract class Graph {
     ParallelEdgeOps.traverse(this, consumer, mode);
   }
 
+  /**
+   * <p>Multiply a contiguous range of rows of the adjacency matrix with a vector, i.e. compute
+   * <code>y[v] = sum_u A[v][u] * x[u]</code> for all <code>v</code> in <code>[start, end)</code>.</p>
+   * <p>Every entry of <code>y</code> within the range is written exactly once and no other entries are touched, so
+   * disjoint ranges may be processed concurrently. Implementations should override this with a dedicated kernel.</p>
+   *
+   * @param x     Argument vector
+   * @param y     Result vector
+   * @param start First row (local vertex id)
+   * @param end   Last row (exclusive)
+   */
+
+  public void multiplyRows(double[] x, double[] y, int start, int end) {
+    RowProductConsumer consumer = new RowProductConsumer(x);
+    for (int v = start; v < end; v++) {
+      consumer.sum = 0;
+      traverseIncidentEdges(v, consumer, TraversalMode.DEFAULT);
+      y[v] = consumer.sum;
+    }
+  }
+
+  /**
+   * Single precision variant of {@link #multiplyRows(double[], double[], int, int)}. Row sums are still accumulated
+   * with double precision, but vectors only require half the memory bandwidth.
+   *
+   * @param x     Argument vector
+   * @param y     Result vector
+   * @param start First row (local vertex id)
+   * @param end   Last row (exclusive)
+   */
+
+  public void multiplyRows(float[] x, float[] y, int start, int end) {
+    FloatRowProductConsumer consumer = new FloatRowProductConsumer(x);
+    for (int v = start; v < end; v++) {
+      consumer.sum = 0;
+      traverseIncidentEdges(v, consumer, TraversalMode.DEFAULT);
+      y[v] = (float) consumer.sum;
+    }
+  }
+
+  /**
+   * <p>Cut the local vertex range into contiguous chunks for parallel traversals.</p>
+   * <p>This default implementation creates chunks of roughly equal numbers of vertices. Graphs with cheap access to
+   * the number of edges per vertex should override it to create chunks of roughly equal numbers of edges instead.</p>
+   *
+   * @param numChunks Desired number of chunks
+   * @return Chunk boundaries, i.e. chunk <code>i</code> ranges from local vertex id <code>chunks[i]</code> (inclusive)
+   * to <code>chunks[i + 1]</code> (exclusive)
+   */
+
+  public int[] partition(int numChunks) {
+    return ParallelOps.uniformChunks(order(), numChunks);
+  }
+
   /**
    * Parallel traversal over all vertices of the graph
    *
@@ -191,6 +245,20 @@ public abstract class Graph {
     return subgraph(new VertexMappingIterator(vertices));
   }
 
+  /**
+   * <p>Materialize this graph into its own compact storage once it has become small compared to the storage that it
+   * is backed by. Global vertex ids are retained.</p>
+   * <p>This default implementation never materializes anything.</p>
+   *
+   * @param maxFraction Maximum ratio between this graph's order and the order of its backing storage that triggers
+   *                    materialization
+   * @return Either a materialized copy of this graph or the graph itself
+   */
+
+  public Graph materialize(double maxFraction) {
+    return this;
+  }
+
   /**
    * Apply a filter to this graph
    *
@@ -275,6 +343,46 @@ public abstract class Graph {
     Graph build();
   }
 
+  /**
+   * Edge consumer summing up the products of edge weights and a vector's entries at the right endpoints
+   */
+
+  private static class RowProductConsumer implements EdgeConsumer {
+
+    private final double[] x;
+    private double sum;
+
+    RowProductConsumer(double[] x) {
+      this.x = x;
+    }
+
+    @Override
+    public void accept(int u, int v, double weight) {
+      sum += weight * x[v];
+    }
+
+  }
+
+  /**
+   * Edge consumer summing up a single row product with a single precision vector
+   */
+
+  private static class FloatRowProductConsumer implements EdgeConsumer {
+
+    private final float[] x;
+    private double sum;
+
+    FloatRowProductConsumer(float[] x) {
+      this.x = x;
+    }
+
+    @Override
+    public void accept(int u, int v, double weight) {
+      sum += weight * x[v];
+    }
+
+  }
+
   /**
    * Iterator providing a mapping between local and global vertex ids
    */
@@ -5,18 +5,23 @@
 
 package net.adeptropolis.frogspawn.graphs.algorithms;
 
-import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet;
-import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntIterators;
 import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.traversal.ParallelEdgeOps;
+import net.adeptropolis.frogspawn.graphs.traversal.ParallelVertexOps;
 import net.adeptropolis.frogspawn.graphs.traversal.TraversalMode;
 import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.Consumer;
 
 /**
- * <p>Compute the connected components of a graph using DFS</p>
+ * <p>Compute the connected components of a graph</p>
+ * <p>All edges are merged into a concurrent union-find structure using the current traversal executor. Roots are
+ * always linked to smaller ones using compare-and-set, so that every component ends up being represented by its
+ * smallest vertex. Paths are shortened by halving them during every lookup. Direction of edges is ignored.</p>
  */
 
 public class ConnectedComponents {
@@ -24,6 +29,7 @@ public class ConnectedComponents {
   private static final Logger LOG = LoggerFactory.getLogger(ConnectedComponents.class.getSimpleName());
 
   private final Graph graph;
+  private final AtomicIntegerArray parents;
 
   /**
    * Create a new ConnectedComponents instance
@@ -33,6 +39,7 @@ public class ConnectedComponents {
 
   private ConnectedComponents(Graph graph) {
     this.graph = graph;
+    this.parents = new AtomicIntegerArray(graph.order());
   }
 
   /**
@@ -44,54 +51,112 @@ public class ConnectedComponents {
    */
 
   public static void find(Graph graph, Consumer<Graph> consumer) {
-    new ConnectedComponents(graph).find(consumer);
+    for (int[] component : components(graph)) {
+      consumer.accept(graph.localSubgraph(IntIterators.wrap(component)));
+    }
+  }
+
+  /**
+   * Find the connected components of a graph as sets of local vertex ids
+   *
+   * @param graph The input graph
+   * @return Sorted arrays of local vertex ids, one per component. Components are ordered by their smallest vertex.
+   */
+
+  public static int[][] components(Graph graph) {
+    return new ConnectedComponents(graph).find();
   }
 
   /**
    * <p>Find all connected components of the graph</p>
    *
-   * @param consumer A consumer for the connected subgraphs
+   * @return Sorted arrays of local vertex ids, one per component
    */
 
-  private void find(Consumer<Graph> consumer) {
+  private int[][] find() {
     StopWatch stopWatch = new StopWatch();
     stopWatch.start();
-    IntLinkedOpenHashSet remaining = new IntLinkedOpenHashSet();
-    for (int i = 0; i < graph.order(); i++) remaining.add(i);
-    int comps = 0;
-    while (!remaining.isEmpty()) {
-      int i = remaining.removeFirstInt();
-      IntOpenHashSet component = processComponent(i);
-      Graph subgraph = graph.localSubgraph(component.iterator());
-      consumer.accept(subgraph);
-      comps++;
-      remaining.removeAll(component);
-    }
+    ParallelVertexOps.traverse(graph, v -> parents.set(v, v));
+    ParallelEdgeOps.traverse(graph, (u, v, weight) -> union(u, v), TraversalMode.DEFAULT);
+    int[] roots = new int[graph.order()];
+    ParallelVertexOps.traverse(graph, v -> roots[v] = root(v));
+    int[][] components = group(roots);
     stopWatch.stop();
-    LOG.trace("Isolated {} connected components in {}", comps, stopWatch);
+    LOG.trace("Isolated {} connected components in {}", components.length, stopWatch);
+    return components;
+  }
+
+  /**
+   * Group vertices by their roots
+   *
+   * @param roots Root of every vertex
+   * @return Sorted arrays of vertices, one per root
+   */
+
+  private static int[][] group(int[] roots) {
+    int[] sizes = new int[roots.length];
+    int numComponents = 0;
+    for (int v = 0; v < roots.length; v++) {
+      if (sizes[roots[v]]++ == 0) {
+        numComponents++;
+      }
+    }
+    int[][] components = new int[numComponents][];
+    int[] componentIds = new int[roots.length];
+    for (int v = 0, component = 0; v < roots.length; v++) {
+      if (roots[v] == v) {
+        componentIds[v] = component;
+        components[component++] = new int[sizes[v]];
+        sizes[v] = 0;
+      }
+    }
+    for (int v = 0; v < roots.length; v++) {
+      int root = roots[v];
+      components[componentIds[root]][sizes[root]++] = v;
+    }
+    return components;
+  }
+
+  /**
+   * Merge the components of two vertices. May be called concurrently.
+   *
+   * @param u Left vertex
+   * @param v Right vertex
+   */
+
+  private void union(int u, int v) {
+    while (true) {
+      int rootU = root(u);
+      int rootV = root(v);
+      if (rootU == rootV) {
+        return;
+      }
+      int larger = Math.max(rootU, rootV);
+      if (parents.compareAndSet(larger, larger, Math.min(rootU, rootV))) {
+        return;
+      }
+    }
   }
 
   /**
-   * Process the current connected component
+   * Find the current root of a vertex and halve the path towards it. May be called concurrently.
    *
-   * @param i First member vertex of the component
-   * @return List of vertices that belong to the same connected component that i does
+   * @param v Vertex
+   * @return Root vertex
    */
 
-  private IntOpenHashSet processComponent(int i) {
-    IntOpenHashSet component = new IntOpenHashSet();
-    IntLinkedOpenHashSet queue = new IntLinkedOpenHashSet();
-    queue.add(i);
-    while (!queue.isEmpty()) {
-      int j = queue.removeFirstInt();
-      component.add(j);
-      graph.traverseIncidentEdges(j, (u, v, weight) -> {
-        if (!queue.contains(v) && !component.contains(v)) {
-          queue.add(v);
-        }
-      }, TraversalMode.DEFAULT);
+  private int root(int v) {
+    while (true) {
+      int parent = parents.get(v);
+      if (parent == v) {
+        return v;
+      }
+      int grandparent = parents.get(parent);
+      if (grandparent != parent) {
+        parents.compareAndSet(v, parent, grandparent);
+      }
+      v = grandparent;
     }
-    return component;
   }
 
 }
@@ -10,6 +10,7 @@ import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.*;
 import net.adeptropolis.frogspawn.graphs.matrices.ShiftedNormalizedLaplacian;
 
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 public class SpectralBisector {
@@ -21,10 +22,14 @@ public class SpectralBisector {
 
   private final ClusteringSettings settings;
   private final RandomInitialVectorsSource ivSource;
+  private final MultilevelInitialVectors multilevelInitialVectors;
+  private final LongAdder bisections = new LongAdder();
+  private final LongAdder iterations = new LongAdder();
 
   public SpectralBisector(ClusteringSettings settings, RandomInitialVectorsSource ivSource) {
     this.settings = settings;
     this.ivSource = ivSource;
+    this.multilevelInitialVectors = new MultilevelInitialVectors(settings);
   }
 
   /**
@@ -32,17 +37,59 @@ public class SpectralBisector {
    *
    * @param graph    The input graph
    * @param consumer A consumer for the resulting partitions
+   * @return The approximate eigenvector that has been used for the bisection, prior to any postprocessing
    * @throws PowerIteration.MaxIterationsExceededException if the number of iterations has been exceeded
    */
 
-  public void bisect(Graph graph, Consumer<Graph> consumer) throws PowerIterationException {
+  public double[] bisect(Graph graph, Consumer<Graph> consumer) throws PowerIterationException {
+    return bisect(graph, ivSource.generate(graph.order()), consumer);
+  }
+
+  /**
+   * Bisects the given graph into two partitons, starting the eigensolver from a given initial vector.
+   * Unlike {@link #bisect(Graph, Consumer)}, this method does not touch the initial vectors source and
+   * is thus safe to be called concurrently. If multilevel initial vectors are enabled in the clustering settings,
+   * the given vector only serves as starting point on the coarsest graph (see {@link MultilevelInitialVectors}).
+   *
+   * @param graph    The input graph
+   * @param iv       Initial vector satisfying <code>||iv|| = 1</code>
+   * @param consumer A consumer for the resulting partitions
+   * @return The approximate eigenvector that has been used for the bisection, prior to any postprocessing
+   * @throws PowerIteration.MaxIterationsExceededException if the number of iterations has been exceeded
+   */
+
+  public double[] bisect(Graph graph, double[] iv, Consumer<Graph> consumer) throws PowerIterationException {
     PartialConvergenceCriterion convergenceCriterion = createConvergenceCriterion(graph);
     ShiftedNormalizedLaplacian ssnl = new ShiftedNormalizedLaplacian(graph);
-    double[] iv = ivSource.generate(graph.order());
-    double[] v2 = PowerIteration.apply(ssnl, convergenceCriterion, iv, settings.getMaxIterations(), false);
-    convergenceCriterion.postprocess(v2);
-    yieldSubgraph(graph, v2, consumer, 1);
-    yieldSubgraph(graph, v2, consumer, -1);
+    double[] initialVector = settings.isMultilevelInitialVectors() ? multilevelInitialVectors.refine(graph, iv) : iv;
+    double[] v2;
+    try {
+      v2 = settings.getEigenSolver().apply(ssnl, convergenceCriterion, initialVector, settings.getMaxIterations());
+    } finally {
+      bisections.increment();
+      iterations.add(ssnl.getMultiplications());
+    }
+    double[] partitioning = v2.clone();
+    convergenceCriterion.postprocess(partitioning);
+    yieldSubgraph(graph, partitioning, consumer, 1);
+    yieldSubgraph(graph, partitioning, consumer, -1);
+    return v2;
+  }
+
+  /**
+   * @return Number of bisections that have been attempted so far, including failed ones
+   */
+
+  public long getBisections() {
+    return bisections.sum();
+  }
+
+  /**
+   * @return Total number of eigensolver iterations (i.e. matrix-vector products) over all bisections so far
+   */
+
+  public long getIterations() {
+    return iterations.sum();
   }
 
   /**
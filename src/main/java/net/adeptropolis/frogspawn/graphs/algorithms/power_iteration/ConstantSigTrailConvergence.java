@@ -68,20 +68,54 @@ public class ConstantSigTrailConvergence implements PartialConvergenceCriterion
   public boolean satisfied(double[] previous, double[] current, int iterations) {
     int converged = 0;
     for (int v = 0; v < graph.order(); v++) {
-      byte sig = (byte) Math.signum(current[v]);
-      if (sig == prevSig[v]) {
-        constSigTrail[v]++;
-        if (hasConstantTrail(v)) {
-          converged++;
-        }
-      } else {
-        constSigTrail[v] = 0;
+      if (updateTrail(v, (byte) Math.signum(current[v]))) {
+        converged++;
       }
-      prevSig[v] = sig;
     }
     return converged >= threshold;
   }
 
+  /**
+   * <p>Assess whether a single precision power iteration has (partially) converged. Only signs are taken into account,
+   * so no conversion to double precision is required.</p>
+   *
+   * @param previous   Result of the previous iteration
+   * @param current    Result of the current iteration
+   * @param iterations Number of iterations
+   * @return True if and only if the convergence criterion is satisfied.
+   */
+
+  @Override
+  public boolean satisfied(float[] previous, float[] current, int iterations) {
+    int converged = 0;
+    for (int v = 0; v < graph.order(); v++) {
+      if (updateTrail(v, (byte) Math.signum(current[v]))) {
+        converged++;
+      }
+    }
+    return converged >= threshold;
+  }
+
+  /**
+   * Update the sign trail of an eigenvector entry
+   *
+   * @param v   Index of a particular eigenvector entry
+   * @param sig Current signum of the entry
+   * @return <code>true</code> if and only if the signum is now constant over the full window
+   */
+
+  private boolean updateTrail(int v, byte sig) {
+    boolean constant = false;
+    if (sig == prevSig[v]) {
+      constSigTrail[v]++;
+      constant = hasConstantTrail(v);
+    } else {
+      constSigTrail[v] = 0;
+    }
+    prevSig[v] = sig;
+    return constant;
+  }
+
   /**
    * Determine whether an eigenvector entry signum is constant over the full window
    *
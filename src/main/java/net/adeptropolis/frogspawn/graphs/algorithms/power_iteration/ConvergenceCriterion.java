@@ -5,6 +5,8 @@
 
 package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
 
+import net.adeptropolis.frogspawn.helpers.Vectors;
+
 /**
  * <p>A convergence criterion for the power iteration</p>
  *
@@ -25,4 +27,19 @@ public interface ConvergenceCriterion {
 
   boolean satisfied(double[] previous, double[] current, int iterations);
 
+  /**
+   * <p>Assess whether a single precision power iteration has converged. Criteria that can deal with single precision
+   * vectors directly should override this. By default, both vectors are converted to double precision.</p>
+   *
+   * @param previous   Result of the previous iteration
+   * @param current    Result of the current iteration
+   * @param iterations Number of iterations
+   * @return True if and only if the convergence criterion is satisfied.
+   * @see MixedPrecisionSolver
+   */
+
+  default boolean satisfied(float[] previous, float[] current, int iterations) {
+    return satisfied(Vectors.toDouble(previous), Vectors.toDouble(current), iterations);
+  }
+
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import net.adeptropolis.frogspawn.graphs.matrices.SquareMatrix;
+
+/**
+ * <p>Iterative solver for the eigenvector associated with the largest eigenvalue of a symmetric matrix</p>
+ * <p>Solvers pass a sequence of approximations to a convergence criterion and return the first one that satisfies
+ * it. The maximum number of iterations refers to the number of matrix-vector products.</p>
+ *
+ * @see PowerIterationSolver
+ * @see LanczosSolver
+ */
+
+public interface EigenSolver {
+
+  /**
+   * Find the eigenvector associated with the largest eigenvalue of a symmetric matrix
+   *
+   * @param matrix               Matrix
+   * @param convergenceCriterion Convergence criterion
+   * @param initialVector        Initial vector satisfying <code>||x|| = 1</code>
+   * @param maxIterations        Maximum number of matrix-vector products
+   * @return The approximate eigenvector
+   * @throws PowerIterationException If the maximum number of iterations has been exceeded
+   */
+
+  double[] apply(SquareMatrix matrix, ConvergenceCriterion convergenceCriterion, double[] initialVector,
+                 int maxIterations) throws PowerIterationException;
+
+}
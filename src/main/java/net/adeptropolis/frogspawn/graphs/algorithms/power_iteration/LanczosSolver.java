@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import net.adeptropolis.frogspawn.graphs.matrices.SquareMatrix;
+import net.adeptropolis.frogspawn.helpers.Vectors;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * <p>Eigensolver using the restarted Lanczos method with full reorthogonalization</p>
+ * <p>Every matrix-vector product extends an orthonormal basis of the Krylov subspace spanned by the initial vector.
+ * After each step, the Ritz vector belonging to the largest eigenvalue of the projected tridiagonal matrix is passed
+ * to the convergence criterion. Unlike the power method, whose convergence depends on the ratio of the two largest
+ * eigenvalues, this usually requires only a fraction of the matrix-vector products. Once the basis has reached the
+ * restart length, the iteration is restarted from the current Ritz vector, so at most <code>restartLength + 1</code>
+ * vectors are held in memory.</p>
+ * <p>When used with the shifted normalized Laplacian, the trivial eigenvector <code>v0</code> is deflated by the
+ * matrix itself and thus never contributes to any Ritz vector. Ritz vectors are oriented towards their predecessors,
+ * such that sign-based convergence criteria can be applied.</p>
+ */
+
+public class LanczosSolver implements EigenSolver {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LanczosSolver.class.getSimpleName());
+
+  private static final int DEFAULT_RESTART_LENGTH = 16;
+  private static final double BREAKDOWN_THRESHOLD = 1E-12;
+  private static final double REORTHOGONALIZATION_THRESHOLD = 0.7;
+  private static final double EPS = Math.ulp(1.0);
+
+  private final int restartLength;
+
+  /**
+   * Constructor using the default restart length of 16
+   */
+
+  public LanczosSolver() {
+    this(DEFAULT_RESTART_LENGTH);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param restartLength Maximum size of the Krylov basis before restarting
+   */
+
+  public LanczosSolver(int restartLength) {
+    Validate.isTrue(restartLength >= 2, "Restart length must be at least 2");
+    this.restartLength = restartLength;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public double[] apply(SquareMatrix matrix, ConvergenceCriterion convergenceCriterion, double[] initialVector,
+                        int maxIterations) throws PowerIteration.MaxIterationsExceededException {
+    int n = matrix.size();
+    int m = Math.max(1, Math.min(restartLength, n));
+    double[][] basis = new double[m + 1][];
+    double[] alpha = new double[m];
+    double[] beta = new double[m];
+    double[] previous = initialVector.clone();
+    double[] current = new double[n];
+    StopWatch stopWatch = new StopWatch();
+    stopWatch.start();
+    int iterations = 0;
+    while (true) {
+      basis[0] = copy(previous, basis[0]);
+      Vectors.normalize2(basis[0]);
+      for (int j = 0; j < m; j++) {
+        if (iterations >= maxIterations) {
+          throw new PowerIteration.MaxIterationsExceededException(
+                  String.format("Exceeded maximum number of iterations (%d)", maxIterations));
+        }
+        double[] next = basis[j + 1] = copy(matrix.multiply(basis[j]), basis[j + 1]);
+        alpha[j] = Vectors.scalarProduct(basis[j], next);
+        double norm = Vectors.norm2(next);
+        orthogonalize(next, basis, j + 1);
+        beta[j] = Vectors.norm2(next);
+        if (beta[j] < REORTHOGONALIZATION_THRESHOLD * norm) {
+          // Cancellation may have left components along the basis, so repeat once
+          orthogonalize(next, basis, j + 1);
+          beta[j] = Vectors.norm2(next);
+        }
+        iterations++;
+        // The first Ritz vector of every cycle is the starting vector itself, so it is never passed on
+        if (j > 0 || beta[j] < BREAKDOWN_THRESHOLD) {
+          ritzVector(basis, alpha, beta, j + 1, previous, current);
+          if (convergenceCriterion.satisfied(previous, current, iterations - 1)) {
+            stopWatch.stop();
+            LOG.trace("Lanczos iteration for size {} finished after {} rounds in {}", n, iterations, stopWatch);
+            return current;
+          }
+          double[] tmp = previous;
+          previous = current;
+          current = tmp;
+        }
+        if (beta[j] < BREAKDOWN_THRESHOLD) {
+          // The basis spans an invariant subspace, so restart from the (exact) Ritz vector
+          break;
+        }
+        scale(next, 1.0 / beta[j]);
+      }
+    }
+  }
+
+  /**
+   * Compute the Ritz vector associated with the largest Ritz value of the current basis
+   *
+   * @param basis       Orthonormal basis
+   * @param alpha       Diagonal of the projected tridiagonal matrix
+   * @param beta        Off-diagonal of the projected tridiagonal matrix
+   * @param k           Current basis size
+   * @param orientation Vector that the result should be oriented towards
+   * @param result      Target vector
+   */
+
+  private static void ritzVector(double[][] basis, double[] alpha, double[] beta, int k, double[] orientation,
+                                 double[] result) {
+    double[] s = largestEigenvector(alpha, beta, k);
+    Arrays.fill(result, 0);
+    for (int i = 0; i < k; i++) {
+      double[] q = basis[i];
+      double si = s[i];
+      for (int v = 0; v < result.length; v++) {
+        result[v] += si * q[v];
+      }
+    }
+    Vectors.normalize2(result);
+    if (Vectors.scalarProduct(result, orientation) < 0) {
+      scale(result, -1);
+    }
+  }
+
+  /**
+   * Compute the eigenvector belonging to the largest eigenvalue of a symmetric tridiagonal matrix using the implicit
+   * QL method
+   *
+   * @param alpha Diagonal
+   * @param beta  Off-diagonal, with <code>beta[i]</code> coupling rows <code>i</code> and <code>i + 1</code>
+   * @param k     Matrix size
+   * @return Normalized eigenvector
+   */
+
+  static double[] largestEigenvector(double[] alpha, double[] beta, int k) {
+    double[] d = new double[k];
+    double[] e = new double[k];
+    double[][] z = new double[k][k];
+    for (int i = 0; i < k; i++) {
+      d[i] = alpha[i];
+      e[i] = (i < k - 1) ? beta[i] : 0;
+      z[i][i] = 1;
+    }
+    double f = 0;
+    double tst1 = 0;
+    for (int l = 0; l < k; l++) {
+      tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+      int m = l;
+      while (m < k - 1 && Math.abs(e[m]) > EPS * tst1) {
+        m++;
+      }
+      if (m > l) {
+        do {
+          double g = d[l];
+          double p = (d[l + 1] - g) / (2 * e[l]);
+          double r = Math.hypot(p, 1);
+          if (p < 0) {
+            r = -r;
+          }
+          d[l] = e[l] / (p + r);
+          d[l + 1] = e[l] * (p + r);
+          double dl1 = d[l + 1];
+          double h = g - d[l];
+          for (int i = l + 2; i < k; i++) {
+            d[i] -= h;
+          }
+          f += h;
+          p = d[m];
+          double c = 1;
+          double c2 = c;
+          double c3 = c;
+          double el1 = e[l + 1];
+          double s = 0;
+          double s2 = 0;
+          for (int i = m - 1; i >= l; i--) {
+            c3 = c2;
+            c2 = c;
+            s2 = s;
+            g = c * e[i];
+            h = c * p;
+            r = Math.hypot(p, e[i]);
+            e[i + 1] = s * r;
+            s = e[i] / r;
+            c = p / r;
+            p = c * d[i] - s * g;
+            d[i + 1] = h + s * (c * g + s * d[i]);
+            for (int row = 0; row < k; row++) {
+              h = z[row][i + 1];
+              z[row][i + 1] = s * z[row][i] + c * h;
+              z[row][i] = c * z[row][i] - s * h;
+            }
+          }
+          p = -s * s2 * c3 * el1 * e[l] / dl1;
+          e[l] = s * p;
+          d[l] = c * p;
+        } while (Math.abs(e[l]) > EPS * tst1);
+      }
+      d[l] += f;
+      e[l] = 0;
+    }
+    int largest = 0;
+    for (int i = 1; i < k; i++) {
+      if (d[i] > d[largest]) {
+        largest = i;
+      }
+    }
+    double[] vec = new double[k];
+    for (int i = 0; i < k; i++) {
+      vec[i] = z[i][largest];
+    }
+    return vec;
+  }
+
+  /**
+   * Remove the components of a vector along the first basis vectors
+   *
+   * @param vec   Vector
+   * @param basis Orthonormal basis
+   * @param k     Number of basis vectors
+   */
+
+  private static void orthogonalize(double[] vec, double[][] basis, int k) {
+    for (int i = 0; i < k; i++) {
+      double[] q = basis[i];
+      double c = Vectors.scalarProduct(q, vec);
+      for (int v = 0; v < vec.length; v++) {
+        vec[v] -= c * q[v];
+      }
+    }
+  }
+
+  /**
+   * In-place scaling of a vector
+   *
+   * @param vec    Vector
+   * @param factor Factor
+   */
+
+  private static void scale(double[] vec, double factor) {
+    for (int v = 0; v < vec.length; v++) {
+      vec[v] *= factor;
+    }
+  }
+
+  /**
+   * Copy a vector into a target buffer, allocating the latter if necessary
+   *
+   * @param vec    Vector
+   * @param target Target buffer or <code>null</code>
+   * @return The target buffer
+   */
+
+  private static double[] copy(double[] vec, double[] target) {
+    double[] buf = (target != null) ? target : new double[vec.length];
+    System.arraycopy(vec, 0, buf, 0, vec.length);
+    return buf;
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import net.adeptropolis.frogspawn.graphs.matrices.FloatSquareMatrix;
+import net.adeptropolis.frogspawn.graphs.matrices.SquareMatrix;
+import net.adeptropolis.frogspawn.helpers.Vectors;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Eigensolver using the power method with single precision vectors</p>
+ * <p>Matrix-vector products are bound by memory bandwidth rather than arithmetic. Iterating with single precision
+ * vectors halves the number of bytes that have to be moved for every vector access, while sums are still accumulated
+ * with double precision (see {@link FloatSquareMatrix}). As sign-based convergence criteria do not depend on the exact
+ * values of any entries, this rarely makes a difference.</p>
+ * <p>The signs of entries that are close to zero may however be dominated by rounding errors. If any entry of the
+ * converged vector is smaller than <code>ambiguityThreshold / sqrt(n)</code>, i.e. a small fraction of an average
+ * entry, the iteration is continued with double precision for at least <code>refinementRounds</code> rounds until the
+ * convergence criterion is satisfied again. Since the latter keeps its state, the double precision stage only has to
+ * settle the ambiguous signs.</p>
+ * <p>Matrices not supporting single precision products are handled by the plain power method. Note that criteria
+ * requiring high precision, such as {@link DeltaNormConvergence} with a small threshold, may not be satisfiable using
+ * single precision vectors at all.</p>
+ *
+ * @see PowerIteration
+ */
+
+public class MixedPrecisionSolver implements EigenSolver {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MixedPrecisionSolver.class.getSimpleName());
+
+  private static final double DEFAULT_AMBIGUITY_THRESHOLD = 1E-5;
+  private static final int DEFAULT_REFINEMENT_ROUNDS = 4;
+
+  private final double ambiguityThreshold;
+  private final int refinementRounds;
+
+  /**
+   * Constructor using an ambiguity threshold of 1E-5 and at least 4 refinement rounds
+   */
+
+  public MixedPrecisionSolver() {
+    this(DEFAULT_AMBIGUITY_THRESHOLD, DEFAULT_REFINEMENT_ROUNDS);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param ambiguityThreshold Magnitude of entries relative to <code>1 / sqrt(n)</code> below which their signs are
+   *                           considered ambiguous
+   * @param refinementRounds   Minimum number of double precision rounds if any sign is ambiguous
+   */
+
+  public MixedPrecisionSolver(double ambiguityThreshold, int refinementRounds) {
+    Validate.isTrue(ambiguityThreshold >= 0, "Ambiguity threshold must not be negative");
+    Validate.isTrue(refinementRounds >= 1, "Number of refinement rounds must be positive");
+    this.ambiguityThreshold = ambiguityThreshold;
+    this.refinementRounds = refinementRounds;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public double[] apply(SquareMatrix matrix, ConvergenceCriterion convergenceCriterion, double[] initialVector,
+                        int maxIterations) throws PowerIterationException {
+    if (!(matrix instanceof FloatSquareMatrix)) {
+      return PowerIteration.apply(matrix, convergenceCriterion, initialVector, maxIterations, false);
+    }
+    FloatSquareMatrix floatMatrix = (FloatSquareMatrix) matrix;
+    int n = matrix.size();
+    float[] x = new float[n];
+    float[] y = Vectors.toFloat(initialVector);
+    StopWatch stopWatch = new StopWatch();
+    stopWatch.start();
+    for (int i = 0; ; i++) {
+      System.arraycopy(y, 0, x, 0, n);
+      if (i >= maxIterations) {
+        throw new PowerIteration.MaxIterationsExceededException(
+                String.format("Exceeded maximum number of iterations (%d)", maxIterations));
+      }
+      y = floatMatrix.multiply(x);
+      Vectors.normalize2(y);
+      if (convergenceCriterion.satisfied(x, y, i)) {
+        stopWatch.stop();
+        LOG.trace("Mixed precision iteration for size {} finished after {} rounds in {}", n, i + 1, stopWatch);
+        double[] result = Vectors.toDouble(y);
+        int ambiguous = countAmbiguous(y);
+        if (ambiguous == 0) {
+          return result;
+        }
+        LOG.trace("Refining {} ambiguous signs using double precision", ambiguous);
+        return refine(matrix, convergenceCriterion, result, i + 1, maxIterations);
+      }
+    }
+  }
+
+  /**
+   * Continue the iteration with double precision
+   *
+   * @param matrix               Matrix
+   * @param convergenceCriterion Convergence criterion
+   * @param vec                  Result of the single precision stage
+   * @param offset               Number of iterations that have already been performed
+   * @param maxIterations        Maximum total number of iterations
+   * @return The refined eigenvector
+   * @throws PowerIterationException If the maximum number of iterations has been exceeded
+   */
+
+  private double[] refine(SquareMatrix matrix, ConvergenceCriterion convergenceCriterion, double[] vec, int offset,
+                          int maxIterations) throws PowerIterationException {
+    ConvergenceCriterion refinementCriterion = (previous, current, iterations) ->
+            convergenceCriterion.satisfied(previous, current, offset + iterations) && iterations + 1 >= refinementRounds;
+    return PowerIteration.apply(matrix, refinementCriterion, vec, maxIterations - offset, false);
+  }
+
+  /**
+   * Count all entries whose signs may be dominated by rounding errors
+   *
+   * @param vec Normalized vector
+   * @return Number of ambiguous entries
+   */
+
+  private int countAmbiguous(float[] vec) {
+    double threshold = ambiguityThreshold / Math.sqrt(vec.length);
+    int ambiguous = 0;
+    for (float value : vec) {
+      if (Math.abs(value) < threshold) {
+        ambiguous++;
+      }
+    }
+    return ambiguous;
+  }
+
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.adeptropolis.frogspawn.ClusteringSettings;
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
+import net.adeptropolis.frogspawn.graphs.matrices.ShiftedNormalizedLaplacian;
+import net.adeptropolis.frogspawn.graphs.traversal.EdgeConsumer;
+import net.adeptropolis.frogspawn.graphs.traversal.TraversalMode;
+import net.adeptropolis.frogspawn.helpers.Vectors;
+import org.apache.commons.lang3.time.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>Multilevel initial vectors for the spectral bisection</p>
+ * <p>The graph is repeatedly coarsened by contracting a heavy-edge matching until only a few hundred vertices are left.
+ * Vertices that remain unmatched are merged with their heaviest neighbours. The eigenvector of the coarsest graph's
+ * shifted normalized Laplacian is computed using the configured eigensolver and then prolonged back level by level,
+ * being refined on every intermediate level. On the original graph, the eigensolver thus starts from a vector that
+ * already reflects its global structure and only has to settle the details.</p>
+ * <p>Coarsening preserves vertex weights, i.e. the weight of every coarse vertex is the total weight of the vertices
+ * that have been merged into it. Edges within merged vertices become self-loops.</p>
+ */
+
+public class MultilevelInitialVectors {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MultilevelInitialVectors.class.getSimpleName());
+
+  private static final int MIN_ORDER = 4096;
+  private static final int COARSEST_ORDER = 256;
+  private static final double MIN_REDUCTION = 0.75;
+
+  private final ClusteringSettings settings;
+
+  /**
+   * Constructor
+   *
+   * @param settings Clustering settings. Provides the eigensolver and its convergence parameters.
+   */
+
+  public MultilevelInitialVectors(ClusteringSettings settings) {
+    this.settings = settings;
+  }
+
+  /**
+   * Compute a multilevel initial vector for the shifted normalized Laplacian of a graph. Graphs with less than 4096
+   * vertices or that cannot be coarsened substantially keep their initial vector, as the eigensolver converges
+   * quickly on them anyway.
+   *
+   * @param graph A connected graph
+   * @param iv    Random initial vector satisfying <code>||iv|| = 1</code>. Restricted to the coarsest graph.
+   * @return Initial vector satisfying <code>||v|| = 1</code>
+   */
+
+  public double[] refine(Graph graph, double[] iv) {
+    if (graph.order() < MIN_ORDER) {
+      return iv;
+    }
+    StopWatch stopWatch = new StopWatch();
+    stopWatch.start();
+    List<Level> levels = coarsen(graph);
+    if (levels.isEmpty()) {
+      return iv;
+    }
+    double[] vec = iv;
+    for (Level level : levels) {
+      vec = level.restrict(vec);
+    }
+    Graph coarsest = levels.get(levels.size() - 1).coarse;
+    vec = solve(coarsest, vec);
+    for (int i = levels.size() - 1; i >= 0; i--) {
+      vec = levels.get(i).prolong(vec);
+      if (i > 0) {
+        vec = solve(levels.get(i).fine, vec);
+      }
+    }
+    stopWatch.stop();
+    LOG.trace("Computed multilevel initial vector for size {} using {} levels in {}", graph.order(),
+            levels.size(), stopWatch);
+    return vec;
+  }
+
+  /**
+   * Coarsen a graph until it is small enough or contraction does not reduce its order and number of edges
+   * substantially anymore
+   *
+   * @param graph A connected graph
+   * @return All coarsening levels, starting with the original graph
+   */
+
+  private static List<Level> coarsen(Graph graph) {
+    List<Level> levels = new ArrayList<>();
+    Graph current = graph;
+    while (current.order() > COARSEST_ORDER) {
+      Level level = Level.contract(current);
+      if (level == null) {
+        break;
+      }
+      levels.add(level);
+      current = level.coarse;
+    }
+    return levels;
+  }
+
+  /**
+   * Approximate the eigenvector of a graph's shifted normalized Laplacian, starting from a given vector. Falls back to
+   * the latter if the eigensolver fails to converge.
+   *
+   * @param graph A connected graph
+   * @param iv    Initial vector
+   * @return Approximate eigenvector satisfying <code>||v|| = 1</code>
+   */
+
+  private double[] solve(Graph graph, double[] iv) {
+    ShiftedNormalizedLaplacian ssnl = new ShiftedNormalizedLaplacian(graph);
+    ConstantSigTrailConvergence convergenceCriterion = new ConstantSigTrailConvergence(graph,
+            settings.getTrailSize(), settings.getConvergenceThreshold());
+    try {
+      return settings.getEigenSolver().apply(ssnl, convergenceCriterion, iv, settings.getMaxIterations());
+    } catch (PowerIterationException e) {
+      LOG.trace("Eigensolver failed on coarsened graph of size {}: {}", graph.order(), e.getMessage());
+      return iv;
+    }
+  }
+
+  /**
+   * A single coarsening step, mapping the vertices of a fine graph to those of a coarse graph
+   */
+
+  private static final class Level {
+
+    private final Graph fine;
+    private final Graph coarse;
+    private final int[] coarseIds;
+
+    /**
+     * Constructor
+     *
+     * @param fine      Fine graph
+     * @param coarse    Coarse graph
+     * @param coarseIds Coarse vertex for every fine vertex
+     */
+
+    private Level(Graph fine, Graph coarse, int[] coarseIds) {
+      this.fine = fine;
+      this.coarse = coarse;
+      this.coarseIds = coarseIds;
+    }
+
+    /**
+     * Coarsen a graph. Vertices are visited in order and matched with the unmatched neighbour sharing the heaviest
+     * edge, if any. As this leaves most leaves of star-like structures unmatched, any remaining vertices are merged
+     * into the coarse vertex of their heaviest neighbour afterwards.
+     *
+     * @param fine Fine graph
+     * @return New coarsening level or <code>null</code> if contraction is not worthwhile
+     */
+
+    static Level contract(Graph fine) {
+      int n = fine.order();
+      int[] coarseIds = new int[n];
+      Arrays.fill(coarseIds, -1);
+      HeaviestNeighbour heaviest = new HeaviestNeighbour(coarseIds);
+      int numCoarse = 0;
+      for (int v = 0; v < n; v++) {
+        if (coarseIds[v] < 0) {
+          int u = heaviest.find(fine, v, true);
+          if (u >= 0) {
+            coarseIds[v] = coarseIds[u] = numCoarse++;
+          }
+        }
+      }
+      for (int v = 0; v < n; v++) {
+        if (coarseIds[v] < 0) {
+          // All neighbours of unmatched vertices have been matched already
+          int u = heaviest.find(fine, v, false);
+          coarseIds[v] = (u >= 0) ? coarseIds[u] : numCoarse++;
+        }
+      }
+      if (numCoarse > MIN_REDUCTION * n) {
+        return null;
+      }
+      Graph coarse = contract(fine, coarseIds, numCoarse);
+      return (coarse != null) ? new Level(fine, coarse, coarseIds) : null;
+    }
+
+    /**
+     * Build the coarse graph, merging parallel edges. This is skipped if too few edges could be merged, which is
+     * typically the case for expander-like graphs, where coarse eigenvectors are just as expensive as fine ones.
+     *
+     * @param fine      Fine graph
+     * @param coarseIds Coarse vertex for every fine vertex
+     * @param numCoarse Number of coarse vertices
+     * @return Coarse graph or <code>null</code> if contraction is not worthwhile
+     */
+
+    private static Graph contract(Graph fine, int[] coarseIds, int numCoarse) {
+      int[] offsets = new int[numCoarse + 1];
+      for (int coarseId : coarseIds) {
+        offsets[coarseId + 1]++;
+      }
+      for (int c = 0; c < numCoarse; c++) {
+        offsets[c + 1] += offsets[c];
+      }
+      int[] members = new int[coarseIds.length];
+      int[] fill = Arrays.copyOf(offsets, numCoarse);
+      for (int v = 0; v < coarseIds.length; v++) {
+        members[fill[coarseIds[v]]++] = v;
+      }
+      double[] accumulator = new double[numCoarse];
+      IntArrayList touched = new IntArrayList();
+      IntArrayList left = new IntArrayList();
+      IntArrayList right = new IntArrayList();
+      DoubleArrayList weights = new DoubleArrayList();
+      long[] fineSize = {0};
+      EdgeConsumer accumulate = (u, v, weight) -> {
+        fineSize[0]++;
+        int target = coarseIds[v];
+        if (accumulator[target] == 0) {
+          touched.add(target);
+        }
+        accumulator[target] += weight;
+      };
+      for (int c = 0; c < numCoarse; c++) {
+        for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+          fine.traverseIncidentEdges(members[i], accumulate, TraversalMode.DEFAULT);
+        }
+        for (int i = 0; i < touched.size(); i++) {
+          int target = touched.getInt(i);
+          left.add(c);
+          right.add(target);
+          weights.add(accumulator[target]);
+          accumulator[target] = 0;
+        }
+        touched.clear();
+      }
+      if (left.size() > MIN_REDUCTION * fineSize[0]) {
+        return null;
+      }
+      Graph coarse = new SparseGraphBuilder()
+              .expectedSize(left.size())
+              .addAllDirected(left.toIntArray(), right.toIntArray(), weights.toDoubleArray())
+              .build();
+      // Isolated fine vertices would result in trailing coarse vertices without any edges
+      return (coarse.order() == numCoarse) ? coarse : null;
+    }
+
+    /**
+     * Restrict a vector of the fine graph to the coarse graph by summing up the entries of merged vertices
+     *
+     * @param vec Fine vector
+     * @return Normalized coarse vector
+     */
+
+    double[] restrict(double[] vec) {
+      double[] restricted = new double[coarse.order()];
+      for (int v = 0; v < vec.length; v++) {
+        restricted[coarseIds[v]] += vec[v];
+      }
+      Vectors.normalize2(restricted);
+      return restricted;
+    }
+
+    /**
+     * Prolong an eigenvector of the coarse graph's shifted normalized Laplacian to the fine graph. As the underlying
+     * eigenvectors of the random walk Laplacian are piecewise constant across merged vertices, every entry is scaled
+     * by the square root of the fine vertex' share of the coarse vertex weight.
+     *
+     * @param vec Coarse vector
+     * @return Normalized fine vector
+     */
+
+    double[] prolong(double[] vec) {
+      double[] fineWeights = fine.weights();
+      double[] coarseWeights = coarse.weights();
+      double[] prolonged = new double[fine.order()];
+      for (int v = 0; v < prolonged.length; v++) {
+        int c = coarseIds[v];
+        prolonged[v] = vec[c] * Math.sqrt(fineWeights[v] / coarseWeights[c]);
+      }
+      Vectors.normalize2(prolonged);
+      return prolonged;
+    }
+
+  }
+
+  /**
+   * Edge consumer selecting the neighbour sharing the heaviest edge with a vertex
+   */
+
+  private static final class HeaviestNeighbour implements EdgeConsumer {
+
+    private final int[] coarseIds;
+    private boolean unmatchedOnly;
+    private int neighbour;
+    private double weight;
+
+    /**
+     * Constructor
+     *
+     * @param coarseIds Coarse vertex for every fine vertex, with <code>-1</code> denoting unmatched vertices
+     */
+
+    HeaviestNeighbour(int[] coarseIds) {
+      this.coarseIds = coarseIds;
+    }
+
+    /**
+     * Find the neighbour of a vertex that shares the heaviest edge with it. Self-loops are ignored.
+     *
+     * @param graph         Graph
+     * @param v             Vertex
+     * @param unmatchedOnly Whether to only consider unmatched neighbours
+     * @return Neighbour or <code>-1</code> if there is none
+     */
+
+    int find(Graph graph, int v, boolean unmatchedOnly) {
+      this.unmatchedOnly = unmatchedOnly;
+      this.neighbour = -1;
+      this.weight = 0;
+      graph.traverseIncidentEdges(v, this, TraversalMode.DEFAULT);
+      return neighbour;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public void accept(int u, int v, double weight) {
+      if (u != v && weight > this.weight && (!unmatchedOnly || coarseIds[v] < 0)) {
+        this.neighbour = v;
+        this.weight = weight;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import net.adeptropolis.frogspawn.graphs.matrices.SquareMatrix;
+
+/**
+ * Eigensolver using the classic power method. This is the default.
+ *
+ * @see PowerIteration
+ */
+
+public class PowerIterationSolver implements EigenSolver {
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public double[] apply(SquareMatrix matrix, ConvergenceCriterion convergenceCriterion, double[] initialVector,
+                        int maxIterations) throws PowerIterationException {
+    return PowerIteration.apply(matrix, convergenceCriterion, initialVector, maxIterations, false);
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.helpers.Vectors;
+
+/**
+ * <p>Initial vectors derived from the eigenvector of a parent graph</p>
+ * <p>The (unprocessed) eigenvector that has been used to bisect a graph is retained, such that the bisections of its
+ * subgraphs may start from its restriction to their vertices instead of a random vector. As the restriction is
+ * mostly aligned with the subgraph's own trivial eigenvector <code>v0</code>, the latter is removed from it. The
+ * remainder reflects the position of every vertex relative to the previous cut, which usually carries a good deal of
+ * information about the subgraph's own structure.</p>
+ */
+
+public class WarmStartVector {
+
+  private static final double MIN_NORM = 1E-9;
+
+  private final Graph graph;
+  private final double[] vector;
+
+  /**
+   * Constructor
+   *
+   * @param graph  Parent graph
+   * @param vector Approximate eigenvector of the parent graph's shifted normalized Laplacian
+   */
+
+  public WarmStartVector(Graph graph, double[] vector) {
+    this.graph = graph;
+    this.vector = vector;
+  }
+
+  /**
+   * Restrict the parent eigenvector to a subgraph. Entries are rescaled from the parent's vertex weights to those of
+   * the subgraph, i.e. the underlying random walk eigenvector is restricted.
+   *
+   * @param subgraph Any subgraph of the parent graph
+   * @return Initial vector satisfying <code>||v|| = 1</code> that is orthogonal to the subgraph's trivial eigenvector,
+   * or <code>null</code> if the restriction is constant
+   */
+
+  public double[] restrict(Graph subgraph) {
+    double[] parentWeights = graph.weights();
+    double[] weights = subgraph.weights();
+    double[] sqrtWeights = new double[subgraph.order()];
+    double[] restricted = new double[subgraph.order()];
+    double v0Product = 0;
+    for (int i = 0; i < restricted.length; i++) {
+      int v = graph.localVertexId(subgraph.globalVertexId(i));
+      sqrtWeights[i] = Math.sqrt(weights[i]);
+      restricted[i] = vector[v] * sqrtWeights[i] / Math.sqrt(parentWeights[v]);
+      v0Product += restricted[i] * sqrtWeights[i];
+    }
+    double scale = v0Product / subgraph.totalWeight();
+    for (int i = 0; i < restricted.length; i++) {
+      restricted[i] -= scale * sqrtWeights[i];
+    }
+    if (Vectors.norm2(restricted) < MIN_NORM) {
+      return null;
+    }
+    Vectors.normalize2(restricted);
+    return restricted;
+  }
+
+}
@@ -5,8 +5,14 @@
 
 package net.adeptropolis.frogspawn.graphs.implementations;
 
-import net.adeptropolis.frogspawn.graphs.implementations.arrays.BigDoubles;
 import net.adeptropolis.frogspawn.graphs.implementations.arrays.BigInts;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.BinnedDoubles;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.CompressedInts;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.DoubleStorage;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.IntStorage;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.InterpolationSearch;
+
+import java.util.Arrays;
 
 /**
  * Storage class for large, sparse graphs
@@ -17,6 +23,15 @@ import net.adeptropolis.frogspawn.graphs.implementations.arrays.BigInts;
  * Wikipedia: Compressed sparse row (CSR, CRS or Yale format)
  * </a>
  * </p>
+ * <p>Edges and weights may either be held on the heap or be memory-mapped from a file (see {@link SparseGraphFile}).
+ * Vertex pointers are always kept on the heap. They are accessed for every single row and only require as much space
+ * as the vectors that are used when clustering the graph anyway.</p>
+ * <p>Symmetric datastores only hold the lower triangle of the adjacency matrix, i.e. every undirected edge is stored
+ * once in the row of its larger endpoint. Additionally, they keep an index of the upper triangle, which lists the
+ * larger endpoints of all edges incident to a vertex in ascending order. Upper weights are not duplicated but looked
+ * up in the lower triangle. This saves a third of the memory required for edges and weights.</p>
+ * <p>Edges may also be stored in compressed form (see {@link CompressedInts}). Since adjacency lists are sorted, this
+ * usually reduces them to a third of their size or less. Traversals and row products decode them sequentially.</p>
  *
  * @see SparseGraphBuilder
  */
@@ -25,9 +40,13 @@ public class CSRDatastore {
 
   static final long serialVersionUID = 5572670833943799413L;
 
+  private static final int BIN_MASK = (1 << BigInts.BIN_BITS) - 1;
+
   public final long[] pointers;
-  public final BigInts edges;
-  public final BigDoubles weights;
+  public final IntStorage edges;
+  public final DoubleStorage weights;
+  public final long[] upperPointers;
+  public final IntStorage upperEdges;
   private final int order;
   private final long size;
 
@@ -41,12 +60,230 @@ public class CSRDatastore {
    * @param weights  Edge weights
    */
 
-  CSRDatastore(int order, long size, long[] pointers, BigInts edges, BigDoubles weights) {
+  CSRDatastore(int order, long size, long[] pointers, IntStorage edges, DoubleStorage weights) {
+    this(order, size, pointers, edges, weights, null, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param order         Number of vertices
+   * @param size          Number of stored edges
+   * @param pointers      Vertex pointers
+   * @param edges         Right endpoints of all edges
+   * @param weights       Edge weights
+   * @param upperPointers Vertex pointers into the upper triangle index. <code>null</code> for non-symmetric storage.
+   * @param upperEdges    Upper triangle index. <code>null</code> for non-symmetric storage.
+   */
+
+  CSRDatastore(int order, long size, long[] pointers, IntStorage edges, DoubleStorage weights, long[] upperPointers,
+               IntStorage upperEdges) {
     this.order = order;
     this.size = size;
     this.pointers = pointers;
     this.edges = edges;
     this.weights = weights;
+    this.upperPointers = upperPointers;
+    this.upperEdges = upperEdges;
+  }
+
+  /**
+   * Build the upper triangle index of a symmetric datastore from its lower triangle. Since rows are visited in
+   * ascending order, the larger endpoints of every vertex end up in ascending order as well.
+   *
+   * @param pointers      Vertex pointers into the lower triangle
+   * @param edges         Uncompressed right endpoints of the lower triangle
+   * @param upperPointers Target array for the vertex pointers into the index
+   * @return Upper triangle index
+   */
+
+  static BigInts upperIndex(long[] pointers, IntStorage edges, long[] upperPointers) {
+    int order = pointers.length - 1;
+    for (int u = 0; u < order; u++) {
+      for (long ptr = pointers[u]; ptr < pointers[u + 1]; ptr++) {
+        int v = edges.get(ptr);
+        if (v < u) upperPointers[v + 1]++;
+      }
+    }
+    for (int v = 0; v < order; v++) {
+      upperPointers[v + 1] += upperPointers[v];
+    }
+    BigInts upperEdges = new BigInts(upperPointers[order]);
+    long[] next = Arrays.copyOf(upperPointers, order);
+    for (int u = 0; u < order; u++) {
+      for (long ptr = pointers[u]; ptr < pointers[u + 1]; ptr++) {
+        int v = edges.get(ptr);
+        if (v < u) upperEdges.set(next[v]++, u);
+      }
+    }
+    return upperEdges;
+  }
+
+  /**
+   * @return Whether only the lower triangle of the adjacency matrix is being stored
+   */
+
+  public boolean isSymmetric() {
+    return upperPointers != null;
+  }
+
+  /**
+   * @return Whether edges are stored in compressed form
+   */
+
+  public boolean isCompressed() {
+    return edges instanceof CompressedInts;
+  }
+
+  /**
+   * Create a decoder for compressed edges
+   *
+   * @param ptr Edge pointer of the first edge to be decoded
+   * @return A new decoder or <code>null</code> if edges are not compressed
+   */
+
+  CompressedInts.Decoder decoder(long ptr) {
+    return (edges instanceof CompressedInts) ? ((CompressedInts) edges).decoder(ptr) : null;
+  }
+
+  /**
+   * Look up the weight of an edge from the lower triangle
+   *
+   * @param u Left endpoint
+   * @param v Right endpoint. Must not be larger than <code>u</code>.
+   * @return Edge weight
+   */
+
+  double lowerWeight(int u, int v) {
+    return weights.get(InterpolationSearch.search(edges, v, pointers[u], pointers[u + 1] - 1));
+  }
+
+  /**
+   * Compute the product between a range of rows of a symmetric adjacency matrix and a vector. Every stored edge
+   * within the range contributes to both of its rows, so upper weights only need to be looked up for edges whose
+   * larger endpoint lies beyond the range.
+   *
+   * @param x     Argument vector
+   * @param y     Result vector
+   * @param start First row (inclusive)
+   * @param end   Last row (exclusive)
+   */
+
+  void multiplySymmetric(DenseVector x, DenseVector y, int start, int end) {
+    y.clear(start, end);
+    CompressedInts.Decoder decoder = decoder(pointers[start]);
+    for (int u = start; u < end; u++) {
+      double sum = 0;
+      for (long ptr = pointers[u]; ptr < pointers[u + 1]; ptr++) {
+        int v = (decoder != null) ? decoder.next() : edges.get(ptr);
+        double weight = weights.get(ptr);
+        sum += weight * x.get(v);
+        if (v >= start && v < u) {
+          y.add(v, weight * x.get(u));
+        }
+      }
+      y.add(u, sum);
+    }
+    for (int v = start; v < end; v++) {
+      double sum = 0;
+      for (long ptr = upperPointers[v + 1] - 1; ptr >= upperPointers[v]; ptr--) {
+        int u = upperEdges.get(ptr);
+        if (u < end) {
+          break;
+        }
+        sum += lowerWeight(u, v) * x.get(u);
+      }
+      y.add(v, sum);
+    }
+  }
+
+  /**
+   * Compute the scalar product between a row of the adjacency matrix and a vector. For heap storage, loops run directly
+   * over the storage bins of edges and (double or single precision) weights.
+   *
+   * @param v Row (i.e. vertex id)
+   * @param x Vector
+   * @return Row product
+   */
+
+  double rowProduct(int v, DenseVector x) {
+    if (edges instanceof BigInts && weights instanceof BinnedDoubles) {
+      return binnedRowProduct(v, x, (BigInts) edges, (BinnedDoubles) weights);
+    }
+    double sum = 0;
+    for (long ptr = pointers[v]; ptr < pointers[v + 1]; ptr++) {
+      sum += weights.get(ptr) * x.get(edges.get(ptr));
+    }
+    return sum;
+  }
+
+  /**
+   * Compute the scalar product between a row of the adjacency matrix and a vector using the storage bins of heap-based
+   * edges and weights
+   *
+   * @param v          Row (i.e. vertex id)
+   * @param x          Vector
+   * @param binEdges   Edges
+   * @param binWeights Weights
+   * @return Row product
+   */
+
+  private double binnedRowProduct(int v, DenseVector x, BigInts binEdges, BinnedDoubles binWeights) {
+    long ptr = pointers[v];
+    long high = pointers[v + 1];
+    double sum = 0;
+    while (ptr < high) {
+      int bin = (int) (ptr >> BigInts.BIN_BITS);
+      int offset = (int) (ptr & BIN_MASK);
+      int end = (int) Math.min(BIN_MASK + 1L, offset + (high - ptr));
+      int[] edgesBin = binEdges.bin(bin);
+      for (int i = offset; i < end; i++) {
+        sum += binWeights.get(bin, i) * x.get(edgesBin[i]);
+      }
+      ptr += end - offset;
+    }
+    return sum;
+  }
+
+  /**
+   * Compute the product between a range of rows of the adjacency matrix and a vector by decoding compressed edges.
+   * Since the rows of a range are stored contiguously, a single decoder suffices. Heap-based weights are read directly
+   * from their storage bins.
+   *
+   * @param x     Argument vector
+   * @param y     Result vector
+   * @param start First row (inclusive)
+   * @param end   Last row (exclusive)
+   */
+
+  void multiplyCompressed(DenseVector x, DenseVector y, int start, int end) {
+    CompressedInts.Decoder decoder = ((CompressedInts) edges).decoder(pointers[start]);
+    if (weights instanceof BinnedDoubles) {
+      BinnedDoubles binWeights = (BinnedDoubles) weights;
+      for (int v = start; v < end; v++) {
+        double sum = 0;
+        long ptr = pointers[v];
+        long high = pointers[v + 1];
+        while (ptr < high) {
+          int bin = (int) (ptr >> BigInts.BIN_BITS);
+          int offset = (int) (ptr & BIN_MASK);
+          int binEnd = (int) Math.min(BIN_MASK + 1L, offset + (high - ptr));
+          for (int i = offset; i < binEnd; i++) {
+            sum += binWeights.get(bin, i) * x.get(decoder.next());
+          }
+          ptr += binEnd - offset;
+        }
+        y.set(v, sum);
+      }
+      return;
+    }
+    for (int v = start; v < end; v++) {
+      double sum = 0;
+      for (long ptr = pointers[v]; ptr < pointers[v + 1]; ptr++) {
+        sum += weights.get(ptr) * x.get(decoder.next());
+      }
+      y.set(v, sum);
+    }
   }
 
   /**
@@ -58,7 +295,7 @@ public class CSRDatastore {
   }
 
   /**
-   * @return Number of edges
+   * @return Number of stored edges. For symmetric storage, this only counts the lower triangle.
    */
 
   long size() {
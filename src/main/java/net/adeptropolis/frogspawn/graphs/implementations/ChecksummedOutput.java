@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Buffered little-endian output to a file channel that keeps track of the number of bytes and the CRC32 checksum of
+ * everything that has been written through it
+ */
+
+final class ChecksummedOutput {
+
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+  private final CRC32 crc = new CRC32();
+  private long bytes = 0;
+
+  /**
+   * Constructor
+   *
+   * @param channel File channel. Data is written starting from its current position.
+   */
+
+  ChecksummedOutput(FileChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Write an int
+   *
+   * @param value Value
+   * @throws IOException If buffered data could not be written
+   */
+
+  void putInt(int value) throws IOException {
+    ensureCapacity(Integer.BYTES).putInt(value);
+  }
+
+  /**
+   * Write a long
+   *
+   * @param value Value
+   * @throws IOException If buffered data could not be written
+   */
+
+  void putLong(long value) throws IOException {
+    ensureCapacity(Long.BYTES).putLong(value);
+  }
+
+  /**
+   * Write a float
+   *
+   * @param value Value
+   * @throws IOException If buffered data could not be written
+   */
+
+  void putFloat(float value) throws IOException {
+    ensureCapacity(Float.BYTES).putFloat(value);
+  }
+
+  /**
+   * Write a double
+   *
+   * @param value Value
+   * @throws IOException If buffered data could not be written
+   */
+
+  void putDouble(double value) throws IOException {
+    ensureCapacity(Double.BYTES).putDouble(value);
+  }
+
+  /**
+   * Write an array of bytes
+   *
+   * @param values Values
+   * @throws IOException If buffered data could not be written
+   */
+
+  void put(byte[] values) throws IOException {
+    int offset = 0;
+    while (offset < values.length) {
+      int length = Math.min(values.length - offset, ensureCapacity(1).remaining());
+      buf.put(values, offset, length);
+      offset += length;
+    }
+  }
+
+  /**
+   * Write all buffered data to the channel
+   *
+   * @throws IOException If the data could not be written
+   */
+
+  void flush() throws IOException {
+    buf.flip();
+    crc.update(buf.duplicate());
+    bytes += buf.remaining();
+    while (buf.hasRemaining()) {
+      channel.write(buf);
+    }
+    buf.clear();
+  }
+
+  /**
+   * @return Number of bytes written so far, including those that have not yet been flushed
+   */
+
+  long bytes() {
+    return bytes + buf.position();
+  }
+
+  /**
+   * @return CRC32 checksum of all data that has been flushed
+   */
+
+  long checksum() {
+    return crc.getValue();
+  }
+
+  /**
+   * Make sure that the buffer has room for a given number of bytes, flushing it if necessary
+   *
+   * @param numBytes Number of bytes
+   * @return The buffer
+   * @throws IOException If buffered data could not be written
+   */
+
+  private ByteBuffer ensureCapacity(int numBytes) throws IOException {
+    if (buf.remaining() < numBytes) {
+      flush();
+    }
+    return buf;
+  }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import net.adeptropolis.frogspawn.graphs.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>Thread-safe builder for sparse graphs</p>
+ * <p>Every producer thread appends its edges to a buffer of its own, such that adding edges never contends for a
+ * lock. Building the graph copies all buffers into the edge buffer of a regular {@link SparseGraphBuilder} in parallel,
+ * which then sorts and reduces them as usual. Storage options such as symmetric storage or spilling to disk are
+ * therefore taken from that builder. Note that the edges are held twice while being copied.</p>
+ * <p>All producers must have finished adding edges before calling {@link #build()}. Buffers are emptied while
+ * building, so that no edges remain reachable from the producers' thread-local storage. Any further attempt to add
+ * edges or to build the graph again is rejected.</p>
+ */
+
+public class ConcurrentSparseGraphBuilder implements Graph.Builder {
+
+  private static final int CHUNK_SIZE = 1 << 16;
+
+  private final SparseGraphBuilder builder;
+  private final boolean symmetric;
+  private final Queue<EdgeBuffer> buffers = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<EdgeBuffer> localBuffer = ThreadLocal.withInitial(this::newBuffer);
+  private volatile boolean built = false;
+
+  /**
+   * Default constructor
+   */
+
+  public ConcurrentSparseGraphBuilder() {
+    this(new SparseGraphBuilder());
+  }
+
+  /**
+   * Constructor
+   *
+   * @param builder Builder used for sorting and reducing the edges. Must have been fully configured and be empty.
+   */
+
+  public ConcurrentSparseGraphBuilder(SparseGraphBuilder builder) {
+    this.builder = builder;
+    this.symmetric = builder.isSymmetric();
+  }
+
+  /**
+   * Add a new undirected edge to the graph. May be called concurrently.
+   *
+   * @param u      left vertex
+   * @param v      right vertex
+   * @param weight edge weight
+   * @return this
+   */
+
+  @Override
+  @SuppressWarnings("squid:S2234")
+  public ConcurrentSparseGraphBuilder add(int u, int v, double weight) {
+    validateState();
+    validateWeight(weight);
+    EdgeBuffer buffer = localBuffer.get();
+    if (symmetric) {
+      buffer.append(Math.max(u, v), Math.min(u, v), weight);
+    } else {
+      buffer.append(u, v, weight);
+      if (u != v) buffer.append(v, u, weight);
+    }
+    return this;
+  }
+
+  /**
+   * Add a new directed edge to the graph. May be called concurrently.
+   *
+   * @param u      left vertex
+   * @param v      right vertex
+   * @param weight edge weight
+   * @return this
+   */
+
+  @Override
+  public ConcurrentSparseGraphBuilder addDirected(int u, int v, double weight) {
+    if (symmetric) {
+      throw new GraphConstructionException("Tried to add a directed edge to a symmetric graph");
+    }
+    validateState();
+    validateWeight(weight);
+    localBuffer.get().append(u, v, weight);
+    return this;
+  }
+
+  /**
+   * Build the graph. Must only be called once all producers have finished.
+   *
+   * @return A new immutable Graph instance
+   */
+
+  @Override
+  public SparseGraph build() {
+    validateState();
+    built = true;
+    List<EdgeBuffer.Chunk> chunks = new ArrayList<>();
+    for (EdgeBuffer buffer : buffers) {
+      chunks.addAll(buffer.chunks);
+      buffer.clear();
+    }
+    buffers.clear();
+    localBuffer.remove();
+    int[][] u = new int[chunks.size()][];
+    int[][] v = new int[chunks.size()][];
+    double[][] weights = new double[chunks.size()][];
+    int[] lengths = new int[chunks.size()];
+    for (int i = 0; i < chunks.size(); i++) {
+      EdgeBuffer.Chunk chunk = chunks.get(i);
+      u[i] = chunk.u;
+      v[i] = chunk.v;
+      weights[i] = chunk.weights;
+      lengths[i] = chunk.length;
+    }
+    chunks.clear();
+    builder.appendAllParallel(u, v, weights, lengths);
+    return builder.build();
+  }
+
+  /**
+   * Reject any use of the builder once the graph has been built
+   */
+
+  private void validateState() {
+    if (built) {
+      throw new GraphConstructionException("The graph has already been built");
+    }
+  }
+
+  /**
+   * Reject negative edge weights
+   *
+   * @param weight Edge weight
+   */
+
+  private static void validateWeight(double weight) {
+    if (weight < 0) {
+      throw new GraphConstructionException("Tried to add an edge with negative weight");
+    }
+  }
+
+  /**
+   * Create and register a new edge buffer for the current thread
+   *
+   * @return A new edge buffer
+   */
+
+  private EdgeBuffer newBuffer() {
+    EdgeBuffer buffer = new EdgeBuffer();
+    buffers.add(buffer);
+    return buffer;
+  }
+
+  /**
+   * Edge buffer of a single producer thread, consisting of fixed-size chunks
+   */
+
+  private static class EdgeBuffer {
+
+    private final List<Chunk> chunks = new ArrayList<>();
+    private Chunk current = null;
+
+    /**
+     * Append an edge
+     *
+     * @param u      left vertex
+     * @param v      right vertex
+     * @param weight edge weight
+     */
+
+    void append(int u, int v, double weight) {
+      if (current == null || current.length == CHUNK_SIZE) {
+        current = new Chunk();
+        chunks.add(current);
+      }
+      current.u[current.length] = u;
+      current.v[current.length] = v;
+      current.weights[current.length] = weight;
+      current.length++;
+    }
+
+    /**
+     * Release all chunks
+     */
+
+    void clear() {
+      chunks.clear();
+      current = null;
+    }
+
+    /**
+     * A chunk of buffered edges
+     */
+
+    private static class Chunk {
+
+      private final int[] u = new int[CHUNK_SIZE];
+      private final int[] v = new int[CHUNK_SIZE];
+      private final double[] weights = new double[CHUNK_SIZE];
+      private int length = 0;
+
+    }
+
+  }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import java.util.Arrays;
+
+/**
+ * <p>Vertex-indexed vector of either double or single precision as seen by the row product kernels</p>
+ * <p>Kernels are written once against this view instead of once per precision. Their accessor call sites see both
+ * implementations as soon as both precisions are in use within the same JVM, e.g. by the mixed precision solver. Such
+ * bimorphic call sites are still inlined by HotSpot behind a type check, at the cost of one well-predicted branch
+ * per access.</p>
+ */
+
+abstract class DenseVector {
+
+  /**
+   * Wrap a double precision vector
+   *
+   * @param values Vector entries
+   * @return A new view
+   */
+
+  static DenseVector of(double[] values) {
+    return new Doubles(values);
+  }
+
+  /**
+   * Wrap a single precision vector
+   *
+   * @param values Vector entries
+   * @return A new view
+   */
+
+  static DenseVector of(float[] values) {
+    return new Floats(values);
+  }
+
+  /**
+   * @param i Index
+   * @return Entry at index <code>i</code>
+   */
+
+  abstract double get(int i);
+
+  /**
+   * Overwrite an entry, rounding it to the vector's precision
+   *
+   * @param i     Index
+   * @param value New value
+   */
+
+  abstract void set(int i, double value);
+
+  /**
+   * Add to an entry, rounding the result to the vector's precision
+   *
+   * @param i     Index
+   * @param value Summand
+   */
+
+  abstract void add(int i, double value);
+
+  /**
+   * Set a range of entries to zero
+   *
+   * @param from First index (inclusive)
+   * @param to   Last index (exclusive)
+   */
+
+  abstract void clear(int from, int to);
+
+  /**
+   * Double precision vector
+   */
+
+  private static final class Doubles extends DenseVector {
+
+    private final double[] values;
+
+    Doubles(double[] values) {
+      this.values = values;
+    }
+
+    @Override
+    double get(int i) {
+      return values[i];
+    }
+
+    @Override
+    void set(int i, double value) {
+      values[i] = value;
+    }
+
+    @Override
+    void add(int i, double value) {
+      values[i] += value;
+    }
+
+    @Override
+    void clear(int from, int to) {
+      Arrays.fill(values, from, to, 0);
+    }
+
+  }
+
+  /**
+   * Single precision vector
+   */
+
+  private static final class Floats extends DenseVector {
+
+    private final float[] values;
+
+    Floats(float[] values) {
+      this.values = values;
+    }
+
+    @Override
+    double get(int i) {
+      return values[i];
+    }
+
+    @Override
+    void set(int i, double value) {
+      values[i] = (float) value;
+    }
+
+    @Override
+    void add(int i, double value) {
+      values[i] = (float) (values[i] + value);
+    }
+
+    @Override
+    void clear(int from, int to) {
+      Arrays.fill(values, from, to, 0);
+    }
+
+  }
+
+}
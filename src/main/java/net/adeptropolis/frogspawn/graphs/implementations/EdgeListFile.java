@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.LongToIntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * <p>Compact binary format for unsorted edge lists, meant for handing graphs over from other applications without a
+ * round-trip through text</p>
+ * <p>A file starts with a fixed-size header holding format flags, the number of edges and a CRC32 checksum of all
+ * edges. It is followed by one record per edge, consisting of both vertex ids (as ints or longs) and the weight (as
+ * float or double). All values are stored in little-endian byte order. Vertex labels may be provided in a separate
+ * {@link LabelDictionary}.</p>
+ * <p>Edges are read in batches, which are passed to a {@link SparseGraphBuilder} using bulk insertion once the
+ * checksum has been verified in a preceding pass.</p>
+ *
+ * @see EdgeListWriter
+ */
+
+public final class EdgeListFile {
+
+  static final int MAGIC = 0x4653454c;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 32;
+
+  static final int FLAG_LONG_IDS = 1;
+  static final int FLAG_FLOAT_WEIGHTS = 2;
+  static final int FLAG_DIRECTED = 4;
+
+  private static final int BATCH_SIZE = 1 << 16;
+
+  private final Path file;
+  private final int flags;
+  private final long size;
+  private final long checksum;
+
+  /**
+   * Constructor. Reads and validates the file header.
+   *
+   * @param file Edge list file
+   * @throws IOException If the file could not be read or is no valid edge list file
+   */
+
+  private EdgeListFile(Path file) throws IOException {
+    this.file = file;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      while (header.hasRemaining() && channel.read(header) >= 0) {
+        // Keep on reading until the header is complete
+      }
+      header.flip();
+      if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+        throw new IOException(String.format("%s is not an edge list file", file));
+      }
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException(String.format("Unsupported edge list file version %d in %s", version, file));
+      }
+      flags = header.getInt();
+      header.getInt();
+      size = header.getLong();
+      checksum = header.getLong();
+      if (channel.size() != HEADER_BYTES + size * recordBytes()) {
+        throw new IOException(String.format("Edge list file %s is truncated", file));
+      }
+    }
+  }
+
+  /**
+   * Open an edge list file
+   *
+   * @param file Edge list file
+   * @return A new instance
+   * @throws IOException If the file could not be read or is no valid edge list file
+   */
+
+  public static EdgeListFile open(Path file) throws IOException {
+    return new EdgeListFile(file);
+  }
+
+  /**
+   * @return Number of edges
+   */
+
+  public long size() {
+    return size;
+  }
+
+  /**
+   * @return Whether vertex ids are stored as longs
+   */
+
+  public boolean hasLongIds() {
+    return (flags & FLAG_LONG_IDS) != 0;
+  }
+
+  /**
+   * @return Whether all edges are directed
+   */
+
+  public boolean isDirected() {
+    return (flags & FLAG_DIRECTED) != 0;
+  }
+
+  /**
+   * Build a graph from this edge list. Vertex ids are used as they are.
+   *
+   * @return A new graph
+   * @throws IOException If the file could not be read or is corrupt
+   */
+
+  public SparseGraph graph() throws IOException {
+    return graph(new SparseGraphBuilder());
+  }
+
+  /**
+   * Build a graph from this edge list using a given builder. Vertex ids are used as they are.
+   *
+   * @param builder Graph builder
+   * @return A new graph
+   * @throws IOException If the file could not be read or is corrupt
+   */
+
+  public SparseGraph graph(SparseGraphBuilder builder) throws IOException {
+    if (hasLongIds()) {
+      throw new GraphConstructionException("Edge lists with long vertex ids require an id mapping");
+    }
+    return graph(builder, id -> (int) id);
+  }
+
+  /**
+   * Build a graph from this edge list using a given builder and a mapping of the stored vertex ids. The checksum is
+   * verified in a separate pass before any edge is passed to the builder, such that corrupt files never reach it.
+   *
+   * @param builder Graph builder
+   * @param ids     Mapping from stored to graph vertex ids
+   * @return A new graph
+   * @throws IOException If the file could not be read, is corrupt or contains ids that are mapped to negative values
+   */
+
+  public SparseGraph graph(SparseGraphBuilder builder, LongToIntFunction ids) throws IOException {
+    int recordBytes = recordBytes();
+    ByteBuffer buf = ByteBuffer.allocate(BATCH_SIZE * recordBytes).order(ByteOrder.LITTLE_ENDIAN);
+    int[] u = new int[BATCH_SIZE];
+    int[] v = new int[BATCH_SIZE];
+    double[] weights = new double[BATCH_SIZE];
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      verify(channel, buf);
+      builder.expectedSize((isDirected() || builder.isSymmetric()) ? size : 2 * size);
+      channel.position(HEADER_BYTES);
+      for (long remaining = size; remaining > 0; ) {
+        int batchSize = readBatch(channel, buf, remaining);
+        for (int i = 0; i < batchSize; i++) {
+          u[i] = vertexId(ids, hasLongIds() ? buf.getLong() : buf.getInt());
+          v[i] = vertexId(ids, hasLongIds() ? buf.getLong() : buf.getInt());
+          weights[i] = ((flags & FLAG_FLOAT_WEIGHTS) != 0) ? buf.getFloat() : buf.getDouble();
+        }
+        if (batchSize < BATCH_SIZE) {
+          u = Arrays.copyOf(u, batchSize);
+          v = Arrays.copyOf(v, batchSize);
+          weights = Arrays.copyOf(weights, batchSize);
+        }
+        if (isDirected()) {
+          builder.addAllDirected(u, v, weights);
+        } else {
+          builder.addAll(u, v, weights);
+        }
+        remaining -= batchSize;
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Compare the checksum of all edge records with the one from the header
+   *
+   * @param channel File channel
+   * @param buf     Batch buffer
+   * @throws IOException If the file could not be read or the checksums differ
+   */
+
+  private void verify(FileChannel channel, ByteBuffer buf) throws IOException {
+    CRC32 crc = new CRC32();
+    channel.position(HEADER_BYTES);
+    for (long remaining = size; remaining > 0; ) {
+      remaining -= readBatch(channel, buf, remaining);
+      crc.update(buf);
+    }
+    if (crc.getValue() != checksum) {
+      throw new IOException(String.format("Checksum mismatch in %s", file));
+    }
+  }
+
+  /**
+   * Read the next batch of edge records into a buffer and flip it
+   *
+   * @param channel   File channel
+   * @param buf       Batch buffer
+   * @param remaining Number of records that have not been read yet
+   * @return Number of records in the batch
+   * @throws IOException If the file could not be read or is truncated
+   */
+
+  private int readBatch(FileChannel channel, ByteBuffer buf, long remaining) throws IOException {
+    int batchSize = (int) Math.min(BATCH_SIZE, remaining);
+    buf.clear().limit(batchSize * recordBytes());
+    while (buf.hasRemaining()) {
+      if (channel.read(buf) < 0) {
+        throw new IOException(String.format("Edge list file %s is truncated", file));
+      }
+    }
+    buf.flip();
+    return batchSize;
+  }
+
+  /**
+   * Map a stored vertex id onto a graph vertex id
+   *
+   * @param ids Mapping from stored to graph vertex ids
+   * @param id  Stored vertex id
+   * @return Graph vertex id
+   * @throws IOException If the id is mapped to a negative value
+   */
+
+  private int vertexId(LongToIntFunction ids, long id) throws IOException {
+    int vertexId = ids.applyAsInt(id);
+    if (vertexId < 0) {
+      throw new IOException(String.format("Invalid vertex id %d in %s", id, file));
+    }
+    return vertexId;
+  }
+
+  /**
+   * @return Number of bytes per edge record
+   */
+
+  private int recordBytes() {
+    int idBytes = hasLongIds() ? Long.BYTES : Integer.BYTES;
+    int weightBytes = ((flags & FLAG_FLOAT_WEIGHTS) != 0) ? Float.BYTES : Double.BYTES;
+    return 2 * idBytes + weightBytes;
+  }
+
+}
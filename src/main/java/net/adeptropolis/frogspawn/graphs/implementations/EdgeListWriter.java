@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>Streaming writer for binary edge lists</p>
+ * <p>Edges may be added in any order. Vertex ids are stored as ints unless {@link #longIds()} has been chosen, and
+ * weights as doubles unless {@link #floatWeights()} has been chosen. Both options need to be set before adding the
+ * first edge.</p>
+ *
+ * @see EdgeListFile
+ */
+
+public class EdgeListWriter implements Closeable {
+
+  private final FileChannel channel;
+  private final ChecksummedOutput out;
+  private int flags = 0;
+  private long size = 0;
+
+  /**
+   * Constructor
+   *
+   * @param file Target file. Will be overwritten if it already exists.
+   * @throws IOException If the file could not be created
+   */
+
+  public EdgeListWriter(Path file) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    this.channel.position(EdgeListFile.HEADER_BYTES);
+    this.out = new ChecksummedOutput(channel);
+  }
+
+  /**
+   * Store vertex ids as longs
+   *
+   * @return this
+   */
+
+  public EdgeListWriter longIds() {
+    return setFlag(EdgeListFile.FLAG_LONG_IDS);
+  }
+
+  /**
+   * Store weights with single precision
+   *
+   * @return this
+   */
+
+  public EdgeListWriter floatWeights() {
+    return setFlag(EdgeListFile.FLAG_FLOAT_WEIGHTS);
+  }
+
+  /**
+   * Mark all edges as directed. Otherwise, every edge is added in both directions when building a graph.
+   *
+   * @return this
+   */
+
+  public EdgeListWriter directed() {
+    return setFlag(EdgeListFile.FLAG_DIRECTED);
+  }
+
+  /**
+   * Add a new edge
+   *
+   * @param u      Left endpoint
+   * @param v      Right endpoint
+   * @param weight Edge weight
+   * @return this
+   * @throws IOException If the edge could not be written
+   */
+
+  public EdgeListWriter add(long u, long v, double weight) throws IOException {
+    if ((flags & EdgeListFile.FLAG_LONG_IDS) != 0) {
+      out.putLong(u);
+      out.putLong(v);
+    } else if (u != (int) u || v != (int) v) {
+      throw new GraphConstructionException("Vertex ids exceed the int range. Use longIds() instead.");
+    } else {
+      out.putInt((int) u);
+      out.putInt((int) v);
+    }
+    if ((flags & EdgeListFile.FLAG_FLOAT_WEIGHTS) != 0) {
+      out.putFloat((float) weight);
+    } else {
+      out.putDouble(weight);
+    }
+    size++;
+    return this;
+  }
+
+  /**
+   * Finish the file by writing the header
+   *
+   * @throws IOException If the file could not be written
+   */
+
+  @Override
+  public void close() throws IOException {
+    try {
+      out.flush();
+      ByteBuffer header = ByteBuffer.allocate(EdgeListFile.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(EdgeListFile.MAGIC);
+      header.putInt(EdgeListFile.VERSION);
+      header.putInt(flags);
+      header.putInt(0);
+      header.putLong(size);
+      header.putLong(out.checksum());
+      header.flip();
+      long pos = 0;
+      while (header.hasRemaining()) {
+        pos += channel.write(header, pos);
+      }
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Set a format flag
+   *
+   * @param flag Flag
+   * @return this
+   */
+
+  private EdgeListWriter setFlag(int flag) {
+    if (size > 0) {
+      throw new IllegalStateException("Format options must be set before adding any edges");
+    }
+    flags |= flag;
+    return this;
+  }
+
+}
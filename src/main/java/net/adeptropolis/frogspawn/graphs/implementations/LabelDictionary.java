@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * <p>Binary file format for vertex labels accompanying an {@link EdgeListFile}</p>
+ * <p>The label of vertex <code>i</code> is stored as the <code>i</code>-th entry of the file. A fixed-size header
+ * holds the number of labels and a CRC32 checksum of all entries. Every label is stored as a length-prefixed byte
+ * string whose encoding is up to the caller.</p>
+ */
+
+public final class LabelDictionary {
+
+  static final int MAGIC = 0x46534c44;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 24;
+
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  /**
+   * Private constructor
+   */
+
+  private LabelDictionary() {
+
+  }
+
+  /**
+   * Write a label dictionary
+   *
+   * @param file   Target file. Will be overwritten if it already exists.
+   * @param labels Encoded labels, ordered by vertex id
+   * @throws IOException If the file could not be written
+   */
+
+  public static void write(Path file, Iterable<byte[]> labels) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      channel.position(HEADER_BYTES);
+      ChecksummedOutput out = new ChecksummedOutput(channel);
+      long count = 0;
+      for (byte[] label : labels) {
+        out.putInt(label.length);
+        out.put(label);
+        count++;
+      }
+      out.flush();
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(MAGIC);
+      header.putInt(VERSION);
+      header.putLong(count);
+      header.putLong(out.checksum());
+      header.flip();
+      long pos = 0;
+      while (header.hasRemaining()) {
+        pos += channel.write(header, pos);
+      }
+    }
+  }
+
+  /**
+   * Pass all labels to a consumer, ordered by vertex id
+   *
+   * @param file     Label dictionary
+   * @param consumer Consumer of encoded labels
+   * @return Number of labels
+   * @throws IOException If the file could not be read or is corrupt
+   */
+
+  public static long forEach(Path file, Consumer<byte[]> consumer) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      buf.flip();
+      if (!fill(channel, buf, HEADER_BYTES) || buf.getInt() != MAGIC) {
+        throw new IOException(String.format("%s is not a label dictionary", file));
+      }
+      int version = buf.getInt();
+      if (version != VERSION) {
+        throw new IOException(String.format("Unsupported label dictionary version %d in %s", version, file));
+      }
+      long count = buf.getLong();
+      long checksum = buf.getLong();
+      CRC32 crc = new CRC32();
+      for (long i = 0; i < count; i++) {
+        if (!fill(channel, buf, Integer.BYTES)) {
+          throw new IOException(String.format("Label dictionary %s is truncated", file));
+        }
+        updateChecksum(crc, buf, Integer.BYTES);
+        byte[] label = new byte[buf.getInt()];
+        for (int offset = 0; offset < label.length; ) {
+          if (!fill(channel, buf, 1)) {
+            throw new IOException(String.format("Label dictionary %s is truncated", file));
+          }
+          int length = Math.min(label.length - offset, buf.remaining());
+          updateChecksum(crc, buf, length);
+          buf.get(label, offset, length);
+          offset += length;
+        }
+        consumer.accept(label);
+      }
+      if (crc.getValue() != checksum) {
+        throw new IOException(String.format("Checksum mismatch in %s", file));
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Make sure that a read buffer holds at least a given number of bytes, refilling it from a channel if necessary
+   *
+   * @param channel  Channel
+   * @param buf      Buffer in read mode
+   * @param numBytes Number of bytes
+   * @return <code>false</code> if the channel has been exhausted before
+   * @throws IOException If the channel could not be read
+   */
+
+  private static boolean fill(FileChannel channel, ByteBuffer buf, int numBytes) throws IOException {
+    if (buf.remaining() >= numBytes) {
+      return true;
+    }
+    buf.compact();
+    while (buf.position() < numBytes && channel.read(buf) > 0) {
+      // Keep on reading until enough bytes are available or the channel is exhausted
+    }
+    buf.flip();
+    return buf.remaining() >= numBytes;
+  }
+
+  /**
+   * Add bytes at the current position of a buffer to a checksum
+   *
+   * @param crc      Checksum
+   * @param buf      Buffer
+   * @param numBytes Number of bytes
+   */
+
+  private static void updateChecksum(CRC32 crc, ByteBuffer buf, int numBytes) {
+    ByteBuffer bytes = buf.duplicate();
+    bytes.limit(bytes.position() + numBytes);
+    crc.update(bytes);
+  }
+
+}
@@ -9,11 +9,20 @@ import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntIterators;
 import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.VertexIterator;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.CompressedInts;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.InterpolationSearch;
 import net.adeptropolis.frogspawn.graphs.traversal.EdgeConsumer;
 import net.adeptropolis.frogspawn.graphs.traversal.TraversalMode;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
- * Compressed sparse graph implementation
+ * <p>Compressed sparse graph implementation</p>
+ * <p>Graphs created by materializing a subgraph use local ids within their own datastore and carry a sorted id map
+ * that translates them back into the global ids of the original graph.</p>
+ * <p>Graphs may be written to files and reopened by memory-mapping their edges and weights. This allows for clustering
+ * graphs that are larger than the heap.</p>
  */
 
 public class SparseGraph extends Graph {
@@ -21,6 +30,7 @@ public class SparseGraph extends Graph {
   static final long serialVersionUID = 3908340146557361096L;
 
   private final CSRDatastore datastore;
+  private final int[] idMap;
 
   /**
    * Constructor
@@ -29,7 +39,27 @@ public class SparseGraph extends Graph {
    */
 
   SparseGraph(CSRDatastore datastore) {
+    this(datastore, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param datastore Graph datastore
+   * @param idMap     Sorted mapping from local to global vertex ids. May be <code>null</code> if both are identical.
+   */
+
+  SparseGraph(CSRDatastore datastore, int[] idMap) {
     this.datastore = datastore;
+    this.idMap = idMap;
+  }
+
+  /**
+   * @return Graph datastore
+   */
+
+  CSRDatastore datastore() {
+    return datastore;
   }
 
   /**
@@ -42,13 +72,39 @@ public class SparseGraph extends Graph {
     return new SparseGraphBuilder();
   }
 
+  /**
+   * Open a graph that has previously been written to a file. Edges and weights are memory-mapped instead of being
+   * loaded into the heap, so this is fast even for very large graphs.
+   *
+   * @param file Graph file
+   * @return A new graph backed by the file
+   * @throws IOException If the file could not be read or is no valid graph file
+   * @see #write(Path)
+   * @see SparseGraphFile
+   */
+
+  public static SparseGraph open(Path file) throws IOException {
+    return SparseGraphFile.open(file).graph();
+  }
+
+  /**
+   * Write this graph to a file, such that it can be reopened using {@link #open(Path)}
+   *
+   * @param file Target file. Will be overwritten if it already exists.
+   * @throws IOException If the file could not be written
+   */
+
+  public void write(Path file) throws IOException {
+    SparseGraphWriter.write(this, file);
+  }
+
   /**
    * {@inheritDoc}
    */
 
   @Override
   public long size() {
-    return datastore.edges.size();
+    return datastore.isSymmetric() ? datastore.edges.size() + datastore.upperEdges.size() : datastore.edges.size();
   }
 
   /**
@@ -75,7 +131,7 @@ public class SparseGraph extends Graph {
 
   @Override
   public IntIterator globalVertexIdIterator() {
-    return IntIterators.fromTo(0, order());
+    return (idMap == null) ? IntIterators.fromTo(0, order()) : IntIterators.wrap(idMap.clone());
   }
 
   /**
@@ -100,13 +156,11 @@ public class SparseGraph extends Graph {
 
     long low = datastore.pointers[v];
     long high = datastore.pointers[v + 1];
-    if (low == high) {
-      return;
-    }
 
     int rightEndpoint;
+    CompressedInts.Decoder decoder = datastore.decoder(low);
     for (long ptr = low; ptr < high; ptr++) {
-      rightEndpoint = datastore.edges.get(ptr);
+      rightEndpoint = (decoder != null) ? decoder.next() : datastore.edges.get(ptr);
       if (mode == TraversalMode.LOWER_TRIANGULAR && v < rightEndpoint) {
         break;
       }
@@ -116,6 +170,123 @@ public class SparseGraph extends Graph {
       }
     }
 
+    if (datastore.isSymmetric() && mode == TraversalMode.DEFAULT) {
+      traverseUpper(v, consumer);
+    }
+
+  }
+
+  /**
+   * Traverse all edges from the upper triangle of a symmetric datastore that are incident to a given vertex. Weights
+   * are looked up in the lower triangle.
+   *
+   * @param v        Vertex id
+   * @param consumer An instance of <code>EdgeConsumer</code>
+   */
+
+  private void traverseUpper(int v, EdgeConsumer consumer) {
+    for (long ptr = datastore.upperPointers[v]; ptr < datastore.upperPointers[v + 1]; ptr++) {
+      int rightEndpoint = datastore.upperEdges.get(ptr);
+      consumer.accept(v, rightEndpoint, datastore.lowerWeight(rightEndpoint, v));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public void multiplyRows(double[] x, double[] y, int start, int end) {
+    multiplyRows(DenseVector.of(x), DenseVector.of(y), start, end);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public void multiplyRows(float[] x, float[] y, int start, int end) {
+    multiplyRows(DenseVector.of(x), DenseVector.of(y), start, end);
+  }
+
+  /**
+   * Compute the product between a range of rows of the adjacency matrix and a vector of either precision
+   *
+   * @param x     Argument vector
+   * @param y     Result vector
+   * @param start First row (inclusive)
+   * @param end   Last row (exclusive)
+   */
+
+  private void multiplyRows(DenseVector x, DenseVector y, int start, int end) {
+    if (datastore.isSymmetric()) {
+      datastore.multiplySymmetric(x, y, start, end);
+      return;
+    }
+    if (datastore.isCompressed()) {
+      datastore.multiplyCompressed(x, y, start, end);
+      return;
+    }
+    for (int v = start; v < end; v++) {
+      y.set(v, datastore.rowProduct(v, x));
+    }
+  }
+
+  /**
+   * Create chunks of roughly equal cost, where the cost of every vertex is given by its number of edges plus one.
+   * This only requires a binary search over the edge pointers per chunk. For symmetric datastores, edges from the
+   * upper triangle are counted as well.
+   *
+   * @param numChunks Desired number of chunks
+   * @return Chunk boundaries
+   */
+
+  @Override
+  public int[] partition(int numChunks) {
+    int n = Math.max(1, Math.min(numChunks, order()));
+    int[] chunks = new int[n + 1];
+    if (order() == 0) {
+      return chunks;
+    }
+    long totalCost = cost(order());
+    for (int i = 1; i < n; i++) {
+      chunks[i] = lowerCostBound(totalCost * i / n, chunks[i - 1]);
+    }
+    chunks[n] = order();
+    return chunks;
+  }
+
+  /**
+   * Cumulative cost of traversing all vertices preceding a given vertex
+   *
+   * @param v Vertex id
+   * @return Cumulative traversal cost
+   */
+
+  private long cost(int v) {
+    return datastore.isSymmetric() ? datastore.pointers[v] + datastore.upperPointers[v] + v : datastore.pointers[v] + v;
+  }
+
+  /**
+   * Find the smallest vertex whose cumulative cost is at least as high as a given target
+   *
+   * @param target Target cost
+   * @param from   Smallest vertex id to consider
+   * @return Vertex id
+   */
+
+  private int lowerCostBound(long target, int from) {
+    int low = from;
+    int high = order();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (cost(mid) < target) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
   }
 
   /**
@@ -124,7 +295,7 @@ public class SparseGraph extends Graph {
 
   @Override
   public int globalVertexId(int localVertexId) {
-    return localVertexId;
+    return (idMap == null) ? localVertexId : idMap[localVertexId];
   }
 
   /**
@@ -133,7 +304,7 @@ public class SparseGraph extends Graph {
 
   @Override
   public int localVertexId(int globalVertexId) {
-    return globalVertexId;
+    return (idMap == null) ? globalVertexId : InterpolationSearch.search(idMap, globalVertexId, 0, order() - 1);
   }
 
   /**
@@ -142,7 +313,10 @@ public class SparseGraph extends Graph {
 
   @Override
   public Graph subgraph(IntIterator vertices) {
-    return new SparseSubgraph(datastore, vertices);
+    if (idMap == null) {
+      return new SparseSubgraph(datastore, vertices);
+    }
+    return new SparseSubgraph(datastore, new SparseSubgraph.StorageIdIterator(idMap, vertices), idMap);
   }
 
   /**
@@ -177,7 +351,7 @@ public class SparseGraph extends Graph {
 
     @Override
     public int globalId() {
-      return idx - 1;
+      return globalVertexId(idx - 1);
     }
   }
 
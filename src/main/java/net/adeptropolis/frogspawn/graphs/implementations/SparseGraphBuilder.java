@@ -11,25 +11,65 @@ import it.unimi.dsi.fastutil.longs.LongComparator;
 import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.implementations.arrays.BigDoubles;
 import net.adeptropolis.frogspawn.graphs.implementations.arrays.BigInts;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.CompressedInts;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.DoubleStorage;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.IntStorage;
+import net.adeptropolis.frogspawn.graphs.traversal.ParallelOps;
 import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
 /**
  * <p>Build new Graph instances</p>
  * <p>This little gizmo creates a new compressed sparse graph from an arbitrary
  * number of (not necessarily unique or sorted) weighted edge triples.</p>
+ * <p>The edge buffer is partitioned into buckets of contiguous left endpoint ranges holding roughly equal numbers of
+ * edges. Buckets are then sorted and reduced independently using the current traversal executor.</p>
+ * <p>The edge buffer starts small and grows geometrically, unless its size has been announced in advance using
+ * {@link #expectedSize(long)}. Before growing, the buffer is sorted and reduced to see whether that frees enough space
+ * already. This is repeated as long as it pays off, such that inputs with many duplicate edges never need to hold all
+ * of them at once.</p>
+ * <p>Optionally, the edge buffer may be spilled to disk whenever it exceeds a given memory budget. In that case, the
+ * sorted runs are eventually merged into a graph file whose edges and weights are memory-mapped.</p>
+ * <p>Alternatively, graphs may be built with symmetric storage, which only keeps the lower triangle of the adjacency
+ * matrix (see {@link CSRDatastore}). In any case, edges may be stored in compressed form (see
+ * {@link CompressedInts}) and weights with reduced precision (see {@link WeightStorage}).</p>
  */
 
 public class SparseGraphBuilder implements Graph.Builder {
 
   private static final Logger LOG = LoggerFactory.getLogger(SparseGraphBuilder.class.getSimpleName());
-  private static final long INITIAL_SIZE = 1 << 24;
-  private static final long GROW_SIZE = 1 << 24;
+  private static final long INITIAL_SIZE = 1 << BigInts.BIN_BITS;
+  private static final int MIN_REDUCTION_RATIO = 4;
+  private static final long MIN_BUCKET_SIZE = 1 << 16;
+  private static final int NUM_SLOTS = 1 << 12;
+  private static final int BUFFERED_EDGE_BYTES = 2 * Integer.BYTES + Double.BYTES;
   private final BigInts[] edges = {new BigInts(INITIAL_SIZE), new BigInts(INITIAL_SIZE)};
   private final BigDoubles weights = new BigDoubles(INITIAL_SIZE);
+  private final List<Path> runs = new ArrayList<>();
   private long size = INITIAL_SIZE;
   private long ptr = 0L;
+  private int maxVertex = -1;
+  private Path spillDirectory = null;
+  private long maxBufferedEdges = Long.MAX_VALUE;
+  private boolean symmetric = false;
+  private boolean compressed = false;
+  private boolean reduceOnGrowth = true;
+  private WeightStorage weightStorage = WeightStorage.DOUBLE;
 
   /**
    * Default Constructor
@@ -39,6 +79,106 @@ public class SparseGraphBuilder implements Graph.Builder {
 
   }
 
+  /**
+   * Enable spilling to disk. Whenever the edge buffer exceeds a given memory budget, it is sorted, reduced and written
+   * to a temporary file. Building the graph then merges all of these runs into a graph file whose edges and weights
+   * are memory-mapped (see {@link SparseGraphFile}), such that neither the buffer nor the graph need to fit into the
+   * heap.
+   *
+   * @param directory    Directory for temporary files
+   * @param memoryBudget Maximum number of bytes to be used by the edge buffer
+   * @return this
+   */
+
+  public SparseGraphBuilder spillTo(Path directory, long memoryBudget) {
+    if (symmetric) {
+      throw new GraphConstructionException("Spilling is not supported for symmetric storage");
+    }
+    if (compressed) {
+      throw new GraphConstructionException("Spilling is not supported for compressed storage");
+    }
+    if (weightStorage != WeightStorage.DOUBLE) {
+      throw new GraphConstructionException("Spilling is only supported for double precision weights");
+    }
+    spillDirectory = directory;
+    maxBufferedEdges = Math.max(1, memoryBudget / BUFFERED_EDGE_BYTES);
+    if (ptr >= maxBufferedEdges) {
+      spill();
+    }
+    if (size > maxBufferedEdges) {
+      resize(maxBufferedEdges);
+    }
+    return this;
+  }
+
+  /**
+   * Pre-allocate the edge buffer for a given number of edges, which avoids growing it incrementally. Note that every
+   * undirected edge occupies two entries of the buffer, or one when using symmetric storage. When spilling to disk, the
+   * buffer never exceeds the memory budget.
+   *
+   * @param expectedSize Expected number of buffer entries
+   * @return this
+   */
+
+  public SparseGraphBuilder expectedSize(long expectedSize) {
+    long newSize = Math.min(Math.max(ptr, expectedSize), maxBufferedEdges);
+    if (newSize > size) {
+      resize(newSize);
+    }
+    return this;
+  }
+
+  /**
+   * Only store the lower triangle of the adjacency matrix, i.e. every undirected edge is stored once. Graphs built in
+   * this mode behave exactly like regular graphs, but require a third less memory for their edges and weights. Adding
+   * directed edges is not possible in this mode, and neither is spilling to disk.
+   *
+   * @return this
+   */
+
+  public SparseGraphBuilder symmetric() {
+    if (spillDirectory != null) {
+      throw new GraphConstructionException("Spilling is not supported for symmetric storage");
+    }
+    if (ptr > 0) {
+      throw new GraphConstructionException("Symmetric storage must be enabled before adding any edges");
+    }
+    symmetric = true;
+    return this;
+  }
+
+  /**
+   * Store edges in compressed form, i.e. as variable-length gaps between consecutive neighbours. This usually shrinks
+   * them to a third of their size or less, at the cost of having to decode them on traversal. Spilling to disk is not
+   * possible in this mode.
+   *
+   * @return this
+   */
+
+  public SparseGraphBuilder compressed() {
+    if (spillDirectory != null) {
+      throw new GraphConstructionException("Spilling is not supported for compressed storage");
+    }
+    compressed = true;
+    return this;
+  }
+
+  /**
+   * Choose how edge weights are stored. Weights are always aggregated with double precision and only converted once
+   * the graph is being built. Spilling to disk requires double precision weights.
+   *
+   * @param storage Weight storage strategy. Defaults to {@link WeightStorage#DOUBLE}.
+   * @return this
+   */
+
+  public SparseGraphBuilder weightStorage(WeightStorage storage) {
+    if (spillDirectory != null && storage != WeightStorage.DOUBLE) {
+      throw new GraphConstructionException("Spilling is only supported for double precision weights");
+    }
+    weightStorage = storage;
+    return this;
+  }
+
   /**
    * Add a new undirected edge to the graph.
    *
@@ -51,8 +191,12 @@ public class SparseGraphBuilder implements Graph.Builder {
   @Override
   @SuppressWarnings("squid:S2234")
   public SparseGraphBuilder add(int u, int v, double weight) {
-    addDirected(u, v, weight);
-    if (u != v) addDirected(v, u, weight);
+    if (symmetric) {
+      append(Math.max(u, v), Math.min(u, v), weight);
+    } else {
+      append(u, v, weight);
+      if (u != v) append(v, u, weight);
+    }
     return this;
   }
 
@@ -67,11 +211,230 @@ public class SparseGraphBuilder implements Graph.Builder {
 
   @Override
   public Graph.Builder addDirected(int u, int v, double weight) {
+    if (symmetric) {
+      throw new GraphConstructionException("Tried to add a directed edge to a symmetric graph");
+    }
+    append(u, v, weight);
+    return this;
+  }
+
+  /**
+   * Add new undirected edges in bulk. This is considerably faster than adding them one by one.
+   *
+   * @param u       left vertices
+   * @param v       right vertices
+   * @param weights edge weights
+   * @return this
+   */
+
+  public SparseGraphBuilder addAll(int[] u, int[] v, double[] weights) {
+    validateBulk(u, v, weights);
+    if (symmetric) {
+      for (int i = 0; i < u.length; i++) {
+        add(u[i], v[i], weights[i]);
+      }
+      return this;
+    }
+    int batchSize = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBufferedEdges / 2));
+    for (int from = 0; from < u.length; from += batchSize) {
+      int length = Math.min(batchSize, u.length - from);
+      reserve(2L * length);
+      appendAll(u, v, weights, from, length);
+      if (hasSelfLoops(u, v, from, length)) {
+        for (int i = from; i < from + length; i++) {
+          if (u[i] != v[i]) append(v[i], u[i], weights[i]);
+        }
+      } else {
+        appendAll(v, u, weights, from, length);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Add new directed edges in bulk. This is considerably faster than adding them one by one.
+   *
+   * @param u       left vertices
+   * @param v       right vertices
+   * @param weights edge weights
+   * @return this
+   */
+
+  public SparseGraphBuilder addAllDirected(int[] u, int[] v, double[] weights) {
+    if (symmetric) {
+      throw new GraphConstructionException("Tried to add a directed edge to a symmetric graph");
+    }
+    validateBulk(u, v, weights);
+    int batchSize = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBufferedEdges));
+    for (int from = 0; from < u.length; from += batchSize) {
+      int length = Math.min(batchSize, u.length - from);
+      reserve(length);
+      appendAll(u, v, weights, from, length);
+    }
+    return this;
+  }
+
+  /**
+   * Validate the arguments of a bulk insertion
+   *
+   * @param u       left vertices
+   * @param v       right vertices
+   * @param weights edge weights
+   */
+
+  private static void validateBulk(int[] u, int[] v, double[] weights) {
+    if (u.length != v.length || u.length != weights.length) {
+      throw new GraphConstructionException("Tried to add edges from arrays of different lengths");
+    }
+    for (int i = 0; i < u.length; i++) {
+      if (weights[i] < 0) {
+        throw new GraphConstructionException("Tried to add an edge with negative weight");
+      }
+    }
+  }
+
+  /**
+   * Check a range of edges for self-loops
+   *
+   * @param u      left vertices
+   * @param v      right vertices
+   * @param from   first index
+   * @param length number of edges
+   * @return <code>true</code> if there is at least one self-loop within the range
+   */
+
+  private static boolean hasSelfLoops(int[] u, int[] v, int from, int length) {
+    for (int i = from; i < from + length; i++) {
+      if (u[i] == v[i]) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Append a new edge to the edge buffer
+   *
+   * @param u      left vertex
+   * @param v      right vertex
+   * @param weight edge weight
+   */
+
+  private void append(int u, int v, double weight) {
     if (weight < 0) {
       throw new GraphConstructionException("Tried to add an edge with negative weight");
     }
+    reserve(1);
+    maxVertex = Math.max(maxVertex, u);
     set(ptr++, u, v, weight);
-    return this;
+  }
+
+  /**
+   * Append a range of edges to the edge buffer. Capacity must have been reserved beforehand.
+   *
+   * @param u       left vertices
+   * @param v       right vertices
+   * @param weights edge weights
+   * @param from    first index
+   * @param length  number of edges
+   */
+
+  private void appendAll(int[] u, int[] v, double[] weights, int from, int length) {
+    for (int i = from; i < from + length; i++) {
+      maxVertex = Math.max(maxVertex, u[i]);
+    }
+    edges[0].set(ptr, u, from, length);
+    edges[1].set(ptr, v, from, length);
+    this.weights.set(ptr, weights, from, length);
+    ptr += length;
+  }
+
+  /**
+   * Append multiple ranges of edges to the edge buffer. Edges are taken as they are, i.e. undirected edges need to have
+   * been added in both directions or, when using symmetric storage, with their larger endpoint first. Unless spilling
+   * to disk, the ranges are copied in parallel.
+   *
+   * @param u       left vertices for every range
+   * @param v       right vertices for every range
+   * @param weights edge weights for every range
+   * @param lengths number of edges in every range
+   */
+
+  void appendAllParallel(int[][] u, int[][] v, double[][] weights, int[] lengths) {
+    if (maxBufferedEdges < Long.MAX_VALUE) {
+      for (int i = 0; i < lengths.length; i++) {
+        reserve(lengths[i]);
+        appendAll(u[i], v[i], weights[i], 0, lengths[i]);
+      }
+      return;
+    }
+    long[] offsets = new long[lengths.length + 1];
+    for (int i = 0; i < lengths.length; i++) {
+      offsets[i + 1] = offsets[i] + lengths[i];
+    }
+    long total = offsets[lengths.length];
+    if (total == 0) {
+      return;
+    }
+    reserve(total);
+    long start = ptr;
+    // Touch the last element first, such that the parallel copies below do not need to update the buffer sizes
+    set(start + total - 1, 0, 0, 0);
+    int[] maxVertices = new int[lengths.length];
+    ParallelOps.executeChunks(lengths.length, i -> {
+      int max = -1;
+      for (int j = 0; j < lengths[i]; j++) {
+        max = Math.max(max, u[i][j]);
+      }
+      maxVertices[i] = max;
+      edges[0].set(start + offsets[i], u[i], 0, lengths[i]);
+      edges[1].set(start + offsets[i], v[i], 0, lengths[i]);
+      this.weights.set(start + offsets[i], weights[i], 0, lengths[i]);
+    });
+    for (int max : maxVertices) {
+      maxVertex = Math.max(maxVertex, max);
+    }
+    ptr += total;
+  }
+
+  /**
+   * @return Whether this builder uses symmetric storage
+   */
+
+  boolean isSymmetric() {
+    return symmetric;
+  }
+
+  /**
+   * Make sure that the edge buffer is able to hold a given number of additional edges. Spills the buffer if that would
+   * exceed the memory budget. Otherwise, the buffer is reduced or grown if necessary.
+   *
+   * @param numEdges Number of additional edges. Must not exceed the memory budget.
+   */
+
+  private void reserve(long numEdges) {
+    if (ptr + numEdges > maxBufferedEdges && ptr > 0) {
+      spill();
+    }
+    if (ptr + numEdges <= size) {
+      return;
+    }
+    if (reduceOnGrowth && ptr > 0) {
+      long bufferedEdges = ptr;
+      sortAndReduce(null);
+      reduceOnGrowth = (bufferedEdges - ptr) * MIN_REDUCTION_RATIO >= bufferedEdges;
+      LOG.debug("Reduced edge buffer from {} to {} edges", bufferedEdges, ptr);
+      if (reduceOnGrowth && ptr + numEdges <= size) {
+        return;
+      }
+    }
+    resize(Math.min(maxBufferedEdges, Math.max(ptr + numEdges, size + size / 2)));
+  }
+
+  /**
+   * @return Current capacity of the edge buffer. Only used for testing.
+   */
+
+  long capacity() {
+    return size;
   }
 
   /**
@@ -82,6 +445,13 @@ public class SparseGraphBuilder implements Graph.Builder {
 
   @Override
   public SparseGraph build() {
+    if (!runs.isEmpty()) {
+      try {
+        return buildFromRuns();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
     CSRDatastore datastore = buildDatastore();
     return new SparseGraph(datastore);
   }
@@ -99,43 +469,173 @@ public class SparseGraphBuilder implements Graph.Builder {
     if (ptr == 0L) {
       return new CSRDatastore(0, 0, new long[0], new BigInts(0), new BigDoubles(0));
     }
-    sort();
-    reduce();
+    int graphSize = maxVertex + 1;
+    long[] pointers = new long[graphSize + 1];
+    sortAndReduce(pointers);
     compact();
-    int graphSize = edges[0].get(ptr - 1) + 1;
-    long[] pointers = computePointers(graphSize);
+    for (int v = 0; v < graphSize; v++) {
+      pointers[v + 1] += pointers[v];
+    }
+    IntStorage storedEdges = compressed ? CompressedInts.compress(edges[1]) : edges[1];
+    DoubleStorage storedWeights = weightStorage.store(weights);
+    if (symmetric) {
+      long[] upperPointers = new long[graphSize + 1];
+      BigInts upperEdges = CSRDatastore.upperIndex(pointers, edges[1], upperPointers);
+      stopWatch.stop();
+      LOG.debug("Finished building symmetric graph with {} vertices and {} edges in {}", graphSize, ptr, stopWatch);
+      return new CSRDatastore(graphSize, ptr, pointers, storedEdges, storedWeights, upperPointers, upperEdges);
+    }
     stopWatch.stop();
     LOG.debug("Finished building graph with {} vertices and {} edges in {}", graphSize, ptr, stopWatch);
-    return new CSRDatastore(graphSize, ptr, pointers, edges[1], weights);
+    return new CSRDatastore(graphSize, ptr, pointers, storedEdges, storedWeights);
+  }
+
+  /**
+   * Sort the edge buffer and reduce multiple occurrences of an edge to a single instance with accumulated weights.
+   * The buffer is first partitioned into buckets of contiguous left endpoint ranges, which are then processed in
+   * parallel. Finally, the reduced buckets are moved next to each other.
+   *
+   * @param degrees If not <code>null</code>, the degree of every vertex <code>v</code> is added to
+   *                <code>degrees[v + 1]</code>
+   */
+
+  private void sortAndReduce(long[] degrees) {
+    int numBuckets = (int) Math.max(1, Math.min(ParallelOps.defaultNumChunks(), ptr / MIN_BUCKET_SIZE));
+    long[] buckets = (numBuckets > 1) ? partition(numBuckets) : new long[]{0, ptr};
+    long[] reducedSizes = new long[buckets.length - 1];
+    ParallelOps.executeChunks(reducedSizes.length,
+            bucket -> reducedSizes[bucket] = sortAndReduce(buckets[bucket], buckets[bucket + 1], degrees));
+    long writePtr = 0;
+    for (int bucket = 0; bucket < reducedSizes.length; bucket++) {
+      for (long i = buckets[bucket]; i < buckets[bucket] + reducedSizes[bucket]; i++) {
+        if (writePtr < i) set(writePtr, edges[0].get(i), edges[1].get(i), weights.get(i));
+        writePtr++;
+      }
+    }
+    ptr = writePtr;
+  }
+
+  /**
+   * <p>Reorder the edge buffer in-place such that it consists of contiguous buckets, where every bucket holds all edges
+   * whose left endpoints lie within a certain range.</p>
+   * <p>Bucket ranges are chosen from a histogram of left endpoints, such that all buckets hold roughly the same number
+   * of edges.</p>
+   *
+   * @param numBuckets Number of buckets
+   * @return Bucket boundaries, i.e. bucket <code>i</code> ranges from <code>buckets[i]</code> (inclusive) to
+   * <code>buckets[i + 1]</code> (exclusive)
+   */
+
+  private long[] partition(int numBuckets) {
+    long[][] chunkHistograms = new long[numBuckets][NUM_SLOTS];
+    ParallelOps.executeChunks(numBuckets, chunk -> {
+      for (long i = ptr * chunk / numBuckets; i < ptr * (chunk + 1) / numBuckets; i++) {
+        chunkHistograms[chunk][slot(edges[0].get(i))]++;
+      }
+    });
+    int[] slotBuckets = new int[NUM_SLOTS];
+    long[] buckets = new long[numBuckets + 1];
+    long cumulativeCount = 0;
+    for (int slot = 0; slot < NUM_SLOTS; slot++) {
+      slotBuckets[slot] = (int) Math.min(numBuckets - 1, cumulativeCount * numBuckets / ptr);
+      for (long[] histogram : chunkHistograms) {
+        cumulativeCount += histogram[slot];
+      }
+      buckets[slotBuckets[slot] + 1] = cumulativeCount;
+    }
+    for (int bucket = 1; bucket <= numBuckets; bucket++) {
+      buckets[bucket] = Math.max(buckets[bucket], buckets[bucket - 1]);
+    }
+    permute(buckets, slotBuckets);
+    return buckets;
   }
 
   /**
-   * Sort the edge buffer
+   * Move every edge into its bucket by following permutation cycles (American flag sort)
+   *
+   * @param buckets     Bucket boundaries
+   * @param slotBuckets Mapping from histogram slots to buckets
    */
 
-  private void sort() {
+  private void permute(long[] buckets, int[] slotBuckets) {
+    long[] next = new long[buckets.length - 1];
+    System.arraycopy(buckets, 0, next, 0, next.length);
+    for (int bucket = 0; bucket < next.length; bucket++) {
+      while (next[bucket] < buckets[bucket + 1]) {
+        long i = next[bucket];
+        int u = edges[0].get(i);
+        int v = edges[1].get(i);
+        double weight = weights.get(i);
+        int target = slotBuckets[slot(u)];
+        while (target != bucket) {
+          long j = next[target]++;
+          int displacedU = edges[0].get(j);
+          int displacedV = edges[1].get(j);
+          double displacedWeight = weights.get(j);
+          set(j, u, v, weight);
+          u = displacedU;
+          v = displacedV;
+          weight = displacedWeight;
+          target = slotBuckets[slot(u)];
+        }
+        set(i, u, v, weight);
+        next[bucket]++;
+      }
+    }
+  }
+
+  /**
+   * Map a left endpoint to its histogram slot
+   *
+   * @param u Left endpoint
+   * @return Slot
+   */
+
+  private int slot(int u) {
+    return (int) ((long) u * NUM_SLOTS / (maxVertex + 1L));
+  }
+
+  /**
+   * Sort and reduce a range of the edge buffer. The reduced edges are stored at the beginning of the range.
+   *
+   * @param from    First index (inclusive)
+   * @param to      Last index (exclusive)
+   * @param degrees If not <code>null</code>, the degree of every vertex <code>v</code> is added to
+   *                <code>degrees[v + 1]</code>
+   * @return Number of remaining edges
+   */
+
+  private long sortAndReduce(long from, long to, long[] degrees) {
+    if (from == to) {
+      return 0;
+    }
     EdgeSortOps ops = new EdgeSortOps();
-    BigArrays.quickSort(0, ptr, ops, ops);
+    BigArrays.quickSort(from, to, ops, ops);
+    return reduce(from, to, degrees);
   }
 
   /**
    * <p>Reduce multiple occurrences of an edge to a single instance with accumulated weights</p>
-   * NOTE: This method assumes that the edge buffer has already been sorted!
+   * NOTE: This method assumes that the given range of the edge buffer has already been sorted!
+   *
+   * @param from    First index (inclusive)
+   * @param to      Last index (exclusive)
+   * @param degrees If not <code>null</code>, the degree of every vertex <code>v</code> is added to
+   *                <code>degrees[v + 1]</code>
+   * @return Number of remaining edges
    */
 
-  private void reduce() {
-
-    if (ptr == 0) return;
+  private long reduce(long from, long to, long[] degrees) {
 
-    int[] currentEdge = new int[]{edges[0].get(0), edges[1].get(0)};
-    double currentValue = weights.get(0);
+    int[] currentEdge = new int[]{edges[0].get(from), edges[1].get(from)};
+    double currentValue = weights.get(from);
 
     int[] edge = new int[2];
     double val;
 
-    long writePtr = 0;
+    long writePtr = from;
 
-    for (long scrollPtr = 1; scrollPtr < ptr; scrollPtr++) {
+    for (long scrollPtr = from + 1; scrollPtr < to; scrollPtr++) {
 
       edge[0] = edges[0].get(scrollPtr);
       edge[1] = edges[1].get(scrollPtr);
@@ -144,15 +644,18 @@ public class SparseGraphBuilder implements Graph.Builder {
       if (edge[0] == currentEdge[0] && edge[1] == currentEdge[1]) {
         currentValue += val;
       } else {
-        if (writePtr < scrollPtr) set(writePtr++, currentEdge[0], currentEdge[1], currentValue);
+        if (degrees != null) degrees[currentEdge[0] + 1]++;
+        if (writePtr < scrollPtr) set(writePtr, currentEdge[0], currentEdge[1], currentValue);
+        writePtr++;
         currentEdge[0] = edge[0];
         currentEdge[1] = edge[1];
         currentValue = val;
       }
     }
 
+    if (degrees != null) degrees[currentEdge[0] + 1]++;
     set(writePtr++, currentEdge[0], currentEdge[1], currentValue);
-    ptr = writePtr;
+    return writePtr - from;
 
   }
 
@@ -165,30 +668,113 @@ public class SparseGraphBuilder implements Graph.Builder {
   }
 
   /**
-   * For every vertex, compute its pointer relative to both arrays storing edges and weights
-   *
-   * @param graphSize Size of the graph
-   * @return Array whose i-th entry points to the first edge of vertex i
+   * Sort and reduce the edge buffer and write it to a new temporary file. The buffer is emptied afterwards.
    */
 
-  private long[] computePointers(int graphSize) {
-
-    long[] pointers = new long[graphSize + 1];
-    pointers[0] = 0;
-    pointers[graphSize] = ptr;
+  private void spill() {
+    try {
+      sortAndReduce(null);
+      Path run = Files.createTempFile(spillDirectory, "edges", ".run");
+      try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+        ChecksummedOutput out = new ChecksummedOutput(channel);
+        for (long i = 0; i < ptr; i++) {
+          out.putInt(edges[0].get(i));
+          out.putInt(edges[1].get(i));
+          out.putDouble(weights.get(i));
+        }
+        out.flush();
+      }
+      runs.add(run);
+      LOG.debug("Spilled {} edges to {}", ptr, run);
+      ptr = 0;
+      maxVertex = -1;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 
-    int prevVertex = 0;
-    int v;
+  /**
+   * Merge all spilled runs into a new graph file and open it. Multiple occurrences of an edge across runs are reduced
+   * to a single instance. The graph file is deleted as soon as the graph has been opened, such that its space is
+   * released once the graph is no longer referenced.
+   *
+   * @return A new graph backed by the merged file
+   * @throws IOException If the runs could not be merged
+   */
 
-    for (long i = 0; i < ptr; i++) {
-      v = edges[0].get(i);
-      if (v > prevVertex) {
-        for (int j = prevVertex + 1; j <= v; j++) pointers[j] = i;
-        prevVertex = v;
+  private SparseGraph buildFromRuns() throws IOException {
+    StopWatch stopWatch = new StopWatch();
+    stopWatch.start();
+    if (ptr > 0) {
+      spill();
+    }
+    Path file = Files.createTempFile(spillDirectory, "graph", ".fsg");
+    SparseGraph graph;
+    try {
+      SparseGraphWriter writer = new SparseGraphWriter(file);
+      try {
+        mergeRuns(writer);
+      } catch (IOException | RuntimeException e) {
+        writer.abort(e);
+        throw e;
+      }
+      writer.close();
+      graph = SparseGraph.open(file);
+    } catch (IOException | RuntimeException e) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException suppressed) {
+        e.addSuppressed(suppressed);
       }
+      throw e;
     }
+    try {
+      Files.delete(file);
+    } catch (IOException e) {
+      file.toFile().deleteOnExit();
+    }
+    stopWatch.stop();
+    LOG.debug("Finished merging graph with {} vertices and {} edges in {}", graph.order(), graph.size(), stopWatch);
+    return graph;
+  }
+
+  /**
+   * Merge all spilled runs into a graph writer and delete them afterwards
+   *
+   * @param writer Graph writer
+   * @throws IOException If the runs could not be read or the graph could not be written
+   */
 
-    return pointers;
+  private void mergeRuns(SparseGraphWriter writer) throws IOException {
+    List<RunReader> readers = new ArrayList<>();
+    try {
+      PriorityQueue<RunReader> queue = new PriorityQueue<>();
+      for (Path run : runs) {
+        RunReader reader = new RunReader(run, readers.size());
+        readers.add(reader);
+        if (reader.next()) queue.add(reader);
+      }
+      RunReader current = queue.poll();
+      while (current != null) {
+        int u = current.u;
+        int v = current.v;
+        double weight = 0;
+        while (current != null && current.u == u && current.v == v) {
+          weight += current.weight;
+          if (current.next()) queue.add(current);
+          current = queue.poll();
+        }
+        writer.add(u, v, weight);
+      }
+    } finally {
+      for (RunReader reader : readers) {
+        reader.close();
+      }
+      for (Path run : runs) {
+        Files.deleteIfExists(run);
+      }
+      runs.clear();
+    }
   }
 
   /**
@@ -201,7 +787,6 @@ public class SparseGraphBuilder implements Graph.Builder {
    */
 
   private void set(long idx, int u, int v, double weight) {
-    if (idx >= size) resize(size + GROW_SIZE);
     edges[0].set(idx, u);
     edges[1].set(idx, v);
     weights.set(idx, weight);
@@ -256,4 +841,84 @@ public class SparseGraphBuilder implements Graph.Builder {
 
   }
 
+  /**
+   * Sequential reader for spilled runs, ordered by the current edge and run index
+   */
+
+  private static class RunReader implements Comparable<RunReader>, Closeable {
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final int index;
+    private int u;
+    private int v;
+    private double weight;
+
+    /**
+     * Constructor
+     *
+     * @param run   Run file
+     * @param index Run index
+     * @throws IOException If the file could not be opened
+     */
+
+    RunReader(Path run, int index) throws IOException {
+      this.channel = FileChannel.open(run, StandardOpenOption.READ);
+      this.index = index;
+      buf.flip();
+    }
+
+    /**
+     * Advance to the next edge
+     *
+     * @return <code>false</code> if there are no more edges
+     * @throws IOException If the file could not be read
+     */
+
+    boolean next() throws IOException {
+      if (buf.remaining() < BUFFERED_EDGE_BYTES) {
+        buf.compact();
+        while (buf.hasRemaining() && channel.read(buf) > 0) {
+          // Keep on reading until the buffer is full or the file is exhausted
+        }
+        buf.flip();
+        if (buf.remaining() < BUFFERED_EDGE_BYTES) {
+          return false;
+        }
+      }
+      u = buf.getInt();
+      v = buf.getInt();
+      weight = buf.getDouble();
+      return true;
+    }
+
+    /**
+     * Compare by (1) left endpoint (2) right endpoint (3) run index
+     *
+     * @param other Another reader
+     * @return Comparison result
+     */
+
+    @Override
+    public int compareTo(RunReader other) {
+      int c = Integer.compare(u, other.u);
+      if (c == 0) c = Integer.compare(v, other.v);
+      return (c != 0) ? c : Integer.compare(index, other.index);
+    }
+
+    /**
+     * Close the underlying file
+     *
+     * @throws IOException If the file could not be closed
+     */
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+
+  }
+
 }
@@ -0,0 +1,403 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.MappedDoubles;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.MappedInts;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * <p>Versioned binary file format for sparse graphs and their vertex labels</p>
+ * <p>A file starts with a fixed-size header holding the graph's order and size, as well as offset, length and CRC32
+ * checksum for each of the following sections: vertex pointers, id map, edges, weights and labels. The header is
+ * protected by a checksum of its own. All values are stored in little-endian byte order and every section starts at a
+ * multiple of 8 bytes.</p>
+ * <p>Opening a graph only reads the vertex pointers and id map into the heap, whereas edges and weights are
+ * memory-mapped. Their checksums are therefore only validated on request using {@link #verify()}. Labels are stored
+ * as a sequence of length-prefixed byte strings whose encoding is up to the caller.</p>
+ * <p>As a single mapping cannot exceed 2 GiB, all sections are read through consecutive windows of at most 1 GiB.</p>
+ *
+ * @see SparseGraphWriter
+ */
+
+public final class SparseGraphFile {
+
+  static final int MAGIC = 0x46535047;
+  static final int VERSION = 1;
+
+  static final int POINTERS = 0;
+  static final int ID_MAP = 1;
+  static final int EDGES = 2;
+  static final int WEIGHTS = 3;
+  static final int LABELS = 4;
+  static final int NUM_SECTIONS = 5;
+
+  static final int FLAG_ID_MAP = 1;
+  static final int FLAG_LABELS = 2;
+
+  static final int CHECKSUMMED_HEADER_BYTES = 24 + 24 * NUM_SECTIONS;
+  static final int HEADER_BYTES = CHECKSUMMED_HEADER_BYTES + Long.BYTES;
+
+  private static final long WINDOW_BYTES = 1L << 30;
+
+  private final Path file;
+  private final long windowBytes;
+  private final int order;
+  private final int flags;
+  private final long size;
+  private final long[] offsets = new long[NUM_SECTIONS];
+  private final long[] lengths = new long[NUM_SECTIONS];
+  private final long[] checksums = new long[NUM_SECTIONS];
+
+  /**
+   * Constructor. Reads and validates the file header.
+   *
+   * @param file        Graph file
+   * @param windowBytes Maximum number of bytes that are mapped at once. Must be a positive multiple of 8.
+   * @throws IOException If the file could not be read or is no valid graph file
+   */
+
+  private SparseGraphFile(Path file, long windowBytes) throws IOException {
+    Validate.isTrue(windowBytes > 0 && windowBytes % Long.BYTES == 0, "Window size must be a positive multiple of 8");
+    this.file = file;
+    this.windowBytes = windowBytes;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      while (header.hasRemaining() && channel.read(header) >= 0) {
+        // Keep on reading until the header is complete
+      }
+      header.flip();
+      if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+        throw new IOException(String.format("%s is not a graph file", file));
+      }
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException(String.format("Unsupported graph file version %d in %s", version, file));
+      }
+      CRC32 crc = new CRC32();
+      crc.update(header.array(), 0, CHECKSUMMED_HEADER_BYTES);
+      if (header.getLong(CHECKSUMMED_HEADER_BYTES) != crc.getValue()) {
+        throw new IOException(String.format("Header checksum mismatch in %s", file));
+      }
+      order = header.getInt();
+      flags = header.getInt();
+      size = header.getLong();
+      for (int i = 0; i < NUM_SECTIONS; i++) {
+        offsets[i] = header.getLong();
+        lengths[i] = header.getLong();
+        checksums[i] = header.getLong();
+        if (offsets[i] + lengths[i] > channel.size()) {
+          throw new IOException(String.format("Graph file %s is truncated", file));
+        }
+      }
+    }
+  }
+
+  /**
+   * Open a graph file
+   *
+   * @param file Graph file
+   * @return A new instance
+   * @throws IOException If the file could not be read or is no valid graph file
+   */
+
+  public static SparseGraphFile open(Path file) throws IOException {
+    return new SparseGraphFile(file, WINDOW_BYTES);
+  }
+
+  /**
+   * Open a graph file using a custom window size
+   *
+   * @param file        Graph file
+   * @param windowBytes Maximum number of bytes that are mapped at once. Must be a positive multiple of 8.
+   * @return A new instance
+   * @throws IOException If the file could not be read or is no valid graph file
+   */
+
+  static SparseGraphFile open(Path file, long windowBytes) throws IOException {
+    return new SparseGraphFile(file, windowBytes);
+  }
+
+  /**
+   * @return Number of vertices
+   */
+
+  public int order() {
+    return order;
+  }
+
+  /**
+   * @return Number of edges
+   */
+
+  public long size() {
+    return size;
+  }
+
+  /**
+   * @return Whether the file contains vertex labels
+   */
+
+  public boolean hasLabels() {
+    return (flags & FLAG_LABELS) != 0;
+  }
+
+  /**
+   * Load the graph. Vertex pointers and id map are read into the heap and checked against their checksums. Edges and
+   * weights are memory-mapped. Before mapping anything, section lengths and vertex pointers are checked for
+   * consistency with the graph's order and size, such that inconsistent files never read beyond their sections.
+   *
+   * @return A new graph backed by the file
+   * @throws IOException If the file could not be read, is corrupt or inconsistent
+   */
+
+  public SparseGraph graph() throws IOException {
+    validateLengths();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      verify(channel, POINTERS);
+      long[] pointers = new long[order + 1];
+      new SectionReader(channel, POINTERS).read(pointers);
+      validatePointers(pointers);
+      int[] idMap = null;
+      if ((flags & FLAG_ID_MAP) != 0) {
+        verify(channel, ID_MAP);
+        idMap = new int[order];
+        new SectionReader(channel, ID_MAP).read(idMap);
+      }
+      MappedInts edges = MappedInts.map(channel, offsets[EDGES], size);
+      MappedDoubles weights = MappedDoubles.map(channel, offsets[WEIGHTS], size);
+      return new SparseGraph(new CSRDatastore(order, size, pointers, edges, weights), idMap);
+    }
+  }
+
+  /**
+   * Check that the section lengths agree with the graph's order and size
+   *
+   * @throws IOException If any section length is inconsistent
+   */
+
+  private void validateLengths() throws IOException {
+    boolean consistent = order >= 0 && size >= 0
+            && lengths[POINTERS] == (order + 1L) * Long.BYTES
+            && ((flags & FLAG_ID_MAP) == 0 || lengths[ID_MAP] == (long) order * Integer.BYTES)
+            && lengths[EDGES] >= size * Integer.BYTES
+            && lengths[WEIGHTS] >= size * Double.BYTES;
+    if (!consistent) {
+      throw new IOException(String.format("Inconsistent section lengths in %s", file));
+    }
+  }
+
+  /**
+   * Check that the vertex pointers start at zero, are monotone and end at the graph's size
+   *
+   * @param pointers Vertex pointers
+   * @throws IOException If the pointers are inconsistent
+   */
+
+  private void validatePointers(long[] pointers) throws IOException {
+    boolean consistent = pointers[0] == 0 && pointers[order] == size;
+    for (int v = 0; v < order && consistent; v++) {
+      consistent = pointers[v] <= pointers[v + 1];
+    }
+    if (!consistent) {
+      throw new IOException(String.format("Inconsistent vertex pointers in %s", file));
+    }
+  }
+
+  /**
+   * Pass all vertex labels to a consumer, ordered by their global vertex ids
+   *
+   * @param consumer Consumer of encoded labels
+   * @throws IOException If the file could not be read or is corrupt
+   */
+
+  public void forEachLabel(Consumer<byte[]> consumer) throws IOException {
+    if (!hasLabels()) {
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      verify(channel, LABELS);
+      SectionReader labels = new SectionReader(channel, LABELS);
+      while (labels.hasRemaining()) {
+        byte[] label = new byte[labels.readInt()];
+        labels.read(label);
+        consumer.accept(label);
+      }
+    }
+  }
+
+  /**
+   * Validate all sections of the file against their checksums. This requires reading the whole file.
+   *
+   * @throws IOException If the file could not be read or is corrupt
+   */
+
+  public void verify() throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      for (int section = 0; section < NUM_SECTIONS; section++) {
+        verify(channel, section);
+      }
+    }
+  }
+
+  /**
+   * Validate a section against its checksum
+   *
+   * @param channel File channel
+   * @param section Section index
+   * @throws IOException If the section could not be read or is corrupt
+   */
+
+  private void verify(FileChannel channel, int section) throws IOException {
+    CRC32 crc = new CRC32();
+    for (long pos = 0; pos < lengths[section]; pos += windowBytes) {
+      long length = Math.min(windowBytes, lengths[section] - pos);
+      crc.update(channel.map(FileChannel.MapMode.READ_ONLY, offsets[section] + pos, length));
+    }
+    checkSum(section, crc.getValue());
+  }
+
+  /**
+   * Compare a checksum against the one stored in the header
+   *
+   * @param section  Section index
+   * @param checksum Actual checksum
+   * @throws IOException If the checksums do not agree
+   */
+
+  private void checkSum(int section, long checksum) throws IOException {
+    if (checksum != checksums[section]) {
+      throw new IOException(String.format("Checksum mismatch in section %d of %s", section, file));
+    }
+  }
+
+  /**
+   * Sequential reader for a single section, mapping one window at a time. Since windows are multiples of 8 bytes and
+   * sections are aligned accordingly, longs and ints never cross a window boundary, whereas labels may.
+   */
+
+  private final class SectionReader {
+
+    private final FileChannel channel;
+    private final int section;
+    private long position = 0;
+    private ByteBuffer window = null;
+
+    /**
+     * Constructor
+     *
+     * @param channel File channel
+     * @param section Section index
+     */
+
+    SectionReader(FileChannel channel, int section) {
+      this.channel = channel;
+      this.section = section;
+    }
+
+    /**
+     * @return Whether there are any bytes left in the section
+     */
+
+    boolean hasRemaining() {
+      return (window != null && window.hasRemaining()) || position < lengths[section];
+    }
+
+    /**
+     * Fill an array of longs
+     *
+     * @param values Target array
+     * @throws IOException If the section could not be read or is too short
+     */
+
+    void read(long[] values) throws IOException {
+      for (int i = 0; i < values.length; ) {
+        ByteBuffer buf = window();
+        int n = Math.min(values.length - i, buf.remaining() / Long.BYTES);
+        buf.asLongBuffer().get(values, i, n);
+        buf.position(buf.position() + n * Long.BYTES);
+        i += n;
+      }
+    }
+
+    /**
+     * Fill an array of ints
+     *
+     * @param values Target array
+     * @throws IOException If the section could not be read or is too short
+     */
+
+    void read(int[] values) throws IOException {
+      for (int i = 0; i < values.length; ) {
+        ByteBuffer buf = window();
+        int n = Math.min(values.length - i, buf.remaining() / Integer.BYTES);
+        buf.asIntBuffer().get(values, i, n);
+        buf.position(buf.position() + n * Integer.BYTES);
+        i += n;
+      }
+    }
+
+    /**
+     * Fill an array of bytes
+     *
+     * @param values Target array
+     * @throws IOException If the section could not be read or is too short
+     */
+
+    void read(byte[] values) throws IOException {
+      for (int i = 0; i < values.length; ) {
+        ByteBuffer buf = window();
+        int n = Math.min(values.length - i, buf.remaining());
+        buf.get(values, i, n);
+        i += n;
+      }
+    }
+
+    /**
+     * Read a single int
+     *
+     * @return Value
+     * @throws IOException If the section could not be read or is too short
+     */
+
+    int readInt() throws IOException {
+      byte[] bytes = new byte[Integer.BYTES];
+      read(bytes);
+      return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    }
+
+    /**
+     * Provide the current window, mapping the next one if the current one has been exhausted
+     *
+     * @return Window with remaining bytes
+     * @throws IOException If the section could not be read or is too short
+     */
+
+    private ByteBuffer window() throws IOException {
+      if (window == null || !window.hasRemaining()) {
+        if (position >= lengths[section]) {
+          throw new IOException(String.format("Unexpected end of section %d in %s", section, file));
+        }
+        long length = Math.min(windowBytes, lengths[section] - position);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offsets[section] + position, length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        position += length;
+      }
+      return window;
+    }
+
+  }
+
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.traversal.TraversalMode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * <p>Streaming writer for graph files</p>
+ * <p>Edges are expected to arrive in the order of the adjacency matrix, i.e. sorted by left endpoint first and right
+ * endpoint second. Every undirected edge must therefore be added in both directions. Edges and labels are streamed to
+ * disk right away, so only the vertex pointers are held in memory. This allows for writing graphs that do not fit into
+ * the heap, e.g. from the output of an external sort.</p>
+ *
+ * @see SparseGraphFile
+ */
+
+public class SparseGraphWriter implements Closeable {
+
+  private final Path file;
+  private final FileChannel channel;
+  private final ChecksummedOutput edges;
+  private final Path weightsFile;
+  private final FileChannel weightsChannel;
+  private final ChecksummedOutput weights;
+  private final Path labelsFile;
+  private final FileChannel labelsChannel;
+  private final ChecksummedOutput labels;
+  private final LongArrayList pointers = new LongArrayList();
+
+  private int[] idMap = null;
+  private int minOrder = 0;
+  private boolean hasLabels = false;
+  private int lastLeft = -1;
+  private int lastRight = -1;
+  private int maxRight = -1;
+  private long size = 0;
+  private boolean closed = false;
+
+  /**
+   * Constructor
+   *
+   * @param file Target file. Will be overwritten if it already exists.
+   * @throws IOException If the file could not be created
+   */
+
+  public SparseGraphWriter(Path file) throws IOException {
+    Path dir = file.toAbsolutePath().getParent();
+    String prefix = file.getFileName().toString();
+    this.file = file;
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    this.channel.position(SparseGraphFile.HEADER_BYTES);
+    this.edges = new ChecksummedOutput(channel);
+    this.weightsFile = Files.createTempFile(dir, prefix, ".weights");
+    this.weightsChannel = FileChannel.open(weightsFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.weights = new ChecksummedOutput(weightsChannel);
+    this.labelsFile = Files.createTempFile(dir, prefix, ".labels");
+    this.labelsChannel = FileChannel.open(labelsFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.labels = new ChecksummedOutput(labelsChannel);
+    this.pointers.add(0L);
+  }
+
+  /**
+   * Write a graph to a file. Graphs whose global vertex ids differ from their local ones are stored with an id map.
+   *
+   * @param graph A graph
+   * @param file  Target file. Will be overwritten if it already exists.
+   * @throws IOException If the file could not be written
+   */
+
+  public static void write(Graph graph, Path file) throws IOException {
+    forGraph(graph, file).close();
+  }
+
+  /**
+   * Create a writer that has already been fed with all edges of a graph, such that only labels may be added before
+   * closing it. Graphs whose global vertex ids differ from their local ones are stored with an id map.
+   *
+   * @param graph A graph
+   * @param file  Target file. Will be overwritten if it already exists.
+   * @return A new writer
+   * @throws IOException If the edges could not be written
+   */
+
+  public static SparseGraphWriter forGraph(Graph graph, Path file) throws IOException {
+    SparseGraphWriter writer = new SparseGraphWriter(file);
+    try {
+      writer.minOrder = graph.order();
+      int[] vertices = graph.collectVertices();
+      if (vertices.length > 0 && vertices[vertices.length - 1] != vertices.length - 1) {
+        writer.setIdMap(vertices);
+      }
+      writer.addEdges(graph);
+    } catch (IOException | RuntimeException e) {
+      writer.abort(e);
+      throw e;
+    }
+    return writer;
+  }
+
+  /**
+   * Set a mapping from the vertex ids used in this file to global vertex ids
+   *
+   * @param idMap Sorted mapping from local to global vertex ids. Also defines the order of the graph.
+   * @return this
+   */
+
+  public SparseGraphWriter setIdMap(int[] idMap) {
+    this.idMap = idMap;
+    this.minOrder = Math.max(minOrder, idMap.length);
+    return this;
+  }
+
+  /**
+   * Add a new edge
+   *
+   * @param u      Left endpoint
+   * @param v      Right endpoint
+   * @param weight Edge weight
+   * @return this
+   * @throws IOException If the edge could not be written
+   */
+
+  public SparseGraphWriter add(int u, int v, double weight) throws IOException {
+    if (u < lastLeft || (u == lastLeft && v <= lastRight)) {
+      throw new GraphConstructionException(String.format("Edge (%d, %d) is out of order", u, v));
+    }
+    if (u < 0 || v < 0) {
+      throw new GraphConstructionException("Tried to add an edge with negative vertex id");
+    }
+    if (weight < 0) {
+      throw new GraphConstructionException("Tried to add an edge with negative weight");
+    }
+    while (pointers.size() <= u) {
+      pointers.add(size);
+    }
+    edges.putInt(v);
+    weights.putDouble(weight);
+    size++;
+    lastLeft = u;
+    lastRight = v;
+    maxRight = Math.max(maxRight, v);
+    return this;
+  }
+
+  /**
+   * Add the next vertex label. Labels must be added in the order of their global vertex ids.
+   *
+   * @param label Encoded label
+   * @return this
+   * @throws IOException If the label could not be written
+   */
+
+  public SparseGraphWriter addLabel(byte[] label) throws IOException {
+    labels.putInt(label.length);
+    labels.put(label);
+    hasLabels = true;
+    return this;
+  }
+
+  /**
+   * Finish the file by appending weights, labels and vertex pointers and writing the header. Must only be called once
+   * all edges and labels have been written successfully. Does nothing if the writer has already been closed or aborted.
+   *
+   * @throws IOException If the file could not be written
+   */
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      int order = Math.max(minOrder, Math.max(lastLeft, maxRight) + 1);
+      while (pointers.size() <= order) {
+        pointers.add(size);
+      }
+      long[] offsets = new long[SparseGraphFile.NUM_SECTIONS];
+      long[] lengths = new long[SparseGraphFile.NUM_SECTIONS];
+      long[] checksums = new long[SparseGraphFile.NUM_SECTIONS];
+      offsets[SparseGraphFile.EDGES] = SparseGraphFile.HEADER_BYTES;
+      finishSection(edges, SparseGraphFile.EDGES, lengths, checksums);
+      appendSection(weightsChannel, weights, SparseGraphFile.WEIGHTS, offsets, lengths, checksums);
+      appendSection(labelsChannel, labels, SparseGraphFile.LABELS, offsets, lengths, checksums);
+      offsets[SparseGraphFile.POINTERS] = channel.position();
+      ChecksummedOutput pointersOut = new ChecksummedOutput(channel);
+      for (long pointer : pointers) {
+        pointersOut.putLong(pointer);
+      }
+      finishSection(pointersOut, SparseGraphFile.POINTERS, lengths, checksums);
+      if (idMap != null) {
+        offsets[SparseGraphFile.ID_MAP] = channel.position();
+        ChecksummedOutput idMapOut = new ChecksummedOutput(channel);
+        for (int id : idMap) {
+          idMapOut.putInt(id);
+        }
+        finishSection(idMapOut, SparseGraphFile.ID_MAP, lengths, checksums);
+      }
+      writeHeader(order, offsets, lengths, checksums);
+    } finally {
+      channel.close();
+      weightsChannel.close();
+      labelsChannel.close();
+      Files.deleteIfExists(weightsFile);
+      Files.deleteIfExists(labelsFile);
+    }
+  }
+
+  /**
+   * Discard an incomplete file after a failure. Closes all channels and deletes the temporary files as well as the
+   * target file, such that no truncated graph file is left behind. Errors during cleanup are attached to the cause.
+   *
+   * @param cause The failure that caused the writer to be aborted
+   */
+
+  void abort(Throwable cause) {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    for (Closeable resource : new Closeable[]{channel, weightsChannel, labelsChannel}) {
+      try {
+        resource.close();
+      } catch (IOException e) {
+        cause.addSuppressed(e);
+      }
+    }
+    for (Path path : new Path[]{weightsFile, labelsFile, file}) {
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        cause.addSuppressed(e);
+      }
+    }
+  }
+
+  /**
+   * Stream all edges of a graph, using local vertex ids
+   *
+   * @param graph A graph
+   * @throws IOException If the edges could not be written
+   */
+
+  private void addEdges(Graph graph) throws IOException {
+    try {
+      for (int v = 0; v < graph.order(); v++) {
+        graph.traverseIncidentEdges(v, (u, w, weight) -> {
+          try {
+            add(u, w, weight);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }, TraversalMode.DEFAULT);
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Flush a section that has been written to the main file and pad it to a multiple of 8 bytes
+   *
+   * @param out       Section output
+   * @param section   Section index
+   * @param lengths   Section lengths
+   * @param checksums Section checksums
+   * @throws IOException If the section could not be written
+   */
+
+  private void finishSection(ChecksummedOutput out, int section, long[] lengths, long[] checksums) throws IOException {
+    out.flush();
+    lengths[section] = out.bytes();
+    checksums[section] = out.checksum();
+    pad();
+  }
+
+  /**
+   * Append a section that has been buffered in a temporary file to the main file
+   *
+   * @param source    Temporary file channel
+   * @param out       Section output
+   * @param section   Section index
+   * @param offsets   Section offsets
+   * @param lengths   Section lengths
+   * @param checksums Section checksums
+   * @throws IOException If the section could not be written
+   */
+
+  private void appendSection(FileChannel source, ChecksummedOutput out, int section, long[] offsets, long[] lengths,
+                             long[] checksums) throws IOException {
+    out.flush();
+    offsets[section] = channel.position();
+    long length = out.bytes();
+    for (long pos = 0; pos < length; ) {
+      pos += source.transferTo(pos, length - pos, channel);
+    }
+    lengths[section] = length;
+    checksums[section] = out.checksum();
+    pad();
+  }
+
+  /**
+   * Pad the main file with zeros up to the next multiple of 8 bytes
+   *
+   * @throws IOException If the padding could not be written
+   */
+
+  private void pad() throws IOException {
+    int padding = (int) (-channel.position() & 7L);
+    ByteBuffer zeros = ByteBuffer.allocate(padding);
+    while (zeros.hasRemaining()) {
+      channel.write(zeros);
+    }
+  }
+
+  /**
+   * Write the file header
+   *
+   * @param order     Number of vertices
+   * @param offsets   Section offsets
+   * @param lengths   Section lengths
+   * @param checksums Section checksums
+   * @throws IOException If the header could not be written
+   */
+
+  private void writeHeader(int order, long[] offsets, long[] lengths, long[] checksums) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(SparseGraphFile.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(SparseGraphFile.MAGIC);
+    header.putInt(SparseGraphFile.VERSION);
+    header.putInt(order);
+    header.putInt(((idMap != null) ? SparseGraphFile.FLAG_ID_MAP : 0) | (hasLabels ? SparseGraphFile.FLAG_LABELS : 0));
+    header.putLong(size);
+    for (int i = 0; i < SparseGraphFile.NUM_SECTIONS; i++) {
+      header.putLong(offsets[i]);
+      header.putLong(lengths[i]);
+      header.putLong(checksums[i]);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(header.array(), 0, SparseGraphFile.CHECKSUMMED_HEADER_BYTES);
+    header.putLong(crc.getValue());
+    header.flip();
+    long pos = 0;
+    while (header.hasRemaining()) {
+      pos += channel.write(header, pos);
+    }
+  }
+
+}
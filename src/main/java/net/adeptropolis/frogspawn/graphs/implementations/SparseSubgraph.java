@@ -9,16 +9,24 @@ import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntIterators;
 import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.VertexIterator;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.BigDoubles;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.BigInts;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.CompressedInts;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.DoubleStorage;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.IntStorage;
 import net.adeptropolis.frogspawn.graphs.implementations.arrays.InterpolationSearch;
 import net.adeptropolis.frogspawn.graphs.traversal.EdgeConsumer;
 import net.adeptropolis.frogspawn.graphs.traversal.ParallelEdgeOps;
 import net.adeptropolis.frogspawn.graphs.traversal.TraversalMode;
 
 import java.util.Arrays;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Compressed sparse subgraph implementation, i.e. a subgraph of {@link SparseGraph}
+ * <p>Compressed sparse subgraph implementation, i.e. a subgraph of {@link SparseGraph}</p>
+ * <p>Vertices are internally identified by their ids within the underlying datastore. For subgraphs of materialized
+ * graphs, these differ from the global vertex ids and are translated using the materialized graph's id map.</p>
+ * <p>Compressed adjacency lists do not allow for fast random access. They are therefore always traversed sequentially
+ * and searched within the vertex set, regardless of their length.</p>
  */
 
 public class SparseSubgraph extends Graph {
@@ -27,6 +35,7 @@ public class SparseSubgraph extends Graph {
 
   private final CSRDatastore datastore;
   private final int[] vertices;
+  private final int[] idMap;
   private long cachedNumEdges = -1L;
 
   /**
@@ -37,8 +46,22 @@ public class SparseSubgraph extends Graph {
    */
 
   SparseSubgraph(CSRDatastore datastore, IntIterator vertices) {
+    this(datastore, vertices, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param datastore The underlying graph datastore
+   * @param vertices  An iterator of datastore vertex ids
+   * @param idMap     Sorted mapping from datastore vertex ids to global vertex ids. May be <code>null</code> if both
+   *                  are identical.
+   */
+
+  SparseSubgraph(CSRDatastore datastore, IntIterator vertices, int[] idMap) {
     this.datastore = datastore;
     this.vertices = IntIterators.unwrap(vertices);
+    this.idMap = idMap;
     Arrays.parallelSort(this.vertices, 0, order());
   }
 
@@ -51,9 +74,11 @@ public class SparseSubgraph extends Graph {
     if (cachedNumEdges >= 0) {
       return cachedNumEdges;
     } else {
-      EdgeCountingConsumer edgeCountingConsumer = new EdgeCountingConsumer();
-      traverseParallel(edgeCountingConsumer);
-      cachedNumEdges = edgeCountingConsumer.getCount();
+      long numEdges = 0;
+      for (EdgeCountingConsumer consumer : ParallelEdgeOps.traverseChunked(this, EdgeCountingConsumer::new, TraversalMode.DEFAULT)) {
+        numEdges += consumer.getCount();
+      }
+      cachedNumEdges = numEdges;
       return cachedNumEdges;
     }
   }
@@ -73,7 +98,14 @@ public class SparseSubgraph extends Graph {
 
   @Override
   public int[] collectVertices() {
-    return vertices.clone();
+    if (idMap == null) {
+      return vertices.clone();
+    }
+    int[] globalIds = new int[order()];
+    for (int i = 0; i < order(); i++) {
+      globalIds[i] = idMap[vertices[i]];
+    }
+    return globalIds;
   }
 
   /**
@@ -82,7 +114,7 @@ public class SparseSubgraph extends Graph {
 
   @Override
   public IntIterator globalVertexIdIterator() {
-    return IntIterators.wrap(vertices);
+    return (idMap == null) ? IntIterators.wrap(vertices) : IntIterators.wrap(collectVertices());
   }
 
   /**
@@ -105,19 +137,68 @@ public class SparseSubgraph extends Graph {
       return;
     }
 
-    int globalId = globalVertexId(v);
+    int storageId = vertices[v];
 
-    long low = datastore.pointers[globalId];
-    long high = datastore.pointers[globalId + 1];
+    long low = datastore.pointers[storageId];
+    long high = datastore.pointers[storageId + 1];
 
-    if (low == high) {
-      return;
+    if (low < high) {
+      if (order() > high - low || datastore.isCompressed()) {
+        traverseByAdjacent(v, consumer, low, high, mode);
+      } else {
+        traverseByVertices(v, consumer, low, high, mode);
+      }
     }
 
-    if (order() > high - low) {
-      traverseByAdjacent(v, consumer, low, high, mode);
-    } else {
-      traverseByVertices(v, consumer, low, high, mode);
+    if (datastore.isSymmetric() && mode == TraversalMode.DEFAULT) {
+      traverseUpper(v, storageId, consumer);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public void multiplyRows(double[] x, double[] y, int start, int end) {
+    multiplyRows(DenseVector.of(x), DenseVector.of(y), start, end);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public void multiplyRows(float[] x, float[] y, int start, int end) {
+    multiplyRows(DenseVector.of(x), DenseVector.of(y), start, end);
+  }
+
+  /**
+   * Compute the product between a range of rows of the adjacency matrix and a vector of either precision
+   *
+   * @param x     Argument vector
+   * @param y     Result vector
+   * @param start First row (inclusive)
+   * @param end   Last row (exclusive)
+   */
+
+  private void multiplyRows(DenseVector x, DenseVector y, int start, int end) {
+    for (int v = start; v < end; v++) {
+      int storageId = vertices[v];
+      long low = datastore.pointers[storageId];
+      long high = datastore.pointers[storageId + 1];
+      double sum = 0;
+      if (low < high) {
+        if (order() > high - low || datastore.isCompressed()) {
+          sum = rowProductByAdjacent(x, low, high);
+        } else {
+          sum = rowProductByVertices(x, low, high);
+        }
+      }
+      if (datastore.isSymmetric()) {
+        sum += upperRowProduct(x, v, storageId);
+      }
+      y.set(v, sum);
     }
   }
 
@@ -136,7 +217,7 @@ public class SparseSubgraph extends Graph {
 
   @Override
   public int globalVertexId(int localVertexId) {
-    return vertices[localVertexId];
+    return (idMap == null) ? vertices[localVertexId] : idMap[vertices[localVertexId]];
   }
 
   /**
@@ -145,7 +226,11 @@ public class SparseSubgraph extends Graph {
 
   @Override
   public int localVertexId(int globalVertexId) {
-    return InterpolationSearch.search(vertices, globalVertexId, 0, order() - 1);
+    int storageId = (idMap == null) ? globalVertexId : InterpolationSearch.search(idMap, globalVertexId, 0, idMap.length - 1);
+    if (storageId < 0) {
+      return -1;
+    }
+    return InterpolationSearch.search(vertices, storageId, 0, order() - 1);
   }
 
   /**
@@ -154,7 +239,53 @@ public class SparseSubgraph extends Graph {
 
   @Override
   public Graph subgraph(IntIterator vertices) {
-    return new SparseSubgraph(datastore, vertices);
+    return new SparseSubgraph(datastore, (idMap == null) ? vertices : new StorageIdIterator(idMap, vertices), idMap);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public Graph materialize(double maxFraction) {
+    return (order() < maxFraction * datastore.order()) ? materialize() : this;
+  }
+
+  /**
+   * Copy this subgraph into a new, compact datastore. Edges are stored with local vertex ids, such that traversals
+   * no longer need to search the adjacency lists of the original datastore. Global vertex ids are retained. The copy
+   * uses the same layout as the original datastore, i.e. symmetric storage, compressed edges and the weight storage
+   * strategy are preserved.
+   *
+   * @return Materialized graph
+   */
+
+  public SparseGraph materialize() {
+    TraversalMode mode = datastore.isSymmetric() ? TraversalMode.LOWER_TRIANGULAR : TraversalMode.DEFAULT;
+    long[] pointers = new long[order() + 1];
+    traverse((u, v, weight) -> pointers[u + 1]++, mode);
+    for (int v = 0; v < order(); v++) {
+      pointers[v + 1] += pointers[v];
+    }
+    long numEdges = pointers[order()];
+    BigInts edges = new BigInts(numEdges);
+    BigDoubles weights = new BigDoubles(numEdges);
+    long[] ptr = new long[1];
+    traverse((u, v, weight) -> {
+      edges.set(ptr[0], v);
+      weights.set(ptr[0], weight);
+      ptr[0]++;
+    }, mode);
+    IntStorage storedEdges = datastore.isCompressed() ? CompressedInts.compress(edges) : edges;
+    DoubleStorage storedWeights = WeightStorage.of(datastore.weights).store(weights);
+    if (datastore.isSymmetric()) {
+      long[] upperPointers = new long[order() + 1];
+      BigInts upperEdges = CSRDatastore.upperIndex(pointers, edges, upperPointers);
+      return new SparseGraph(new CSRDatastore(order(), numEdges, pointers, storedEdges, storedWeights, upperPointers,
+              upperEdges), collectVertices());
+    }
+    return new SparseGraph(new CSRDatastore(order(), numEdges, pointers, storedEdges, storedWeights),
+            collectVertices());
   }
 
   /**
@@ -171,10 +302,12 @@ public class SparseSubgraph extends Graph {
 
     int secPtr = 0;
     int rightEndpoint;
+    CompressedInts.Decoder decoder = datastore.decoder(low);
 
     for (long ptr = low; ptr < high; ptr++) {
 
-      rightEndpoint = InterpolationSearch.search(vertices, datastore.edges.get(ptr), secPtr, order() - 1);
+      int storageId = (decoder != null) ? decoder.next() : datastore.edges.get(ptr);
+      rightEndpoint = InterpolationSearch.search(vertices, storageId, secPtr, order() - 1);
 
       if (mode == TraversalMode.LOWER_TRIANGULAR && leftEndpoint < rightEndpoint) {
         break;
@@ -222,24 +355,152 @@ public class SparseSubgraph extends Graph {
   }
 
   /**
-   * Consumer counting the total number of distinct edges of the graph
+   * Traverse all neighbours of a given local vertex from the upper triangle of a symmetric datastore. These are
+   * larger than the vertex itself, so the search within the vertex set starts right after it.
+   *
+   * @param leftEndpoint A local vertex id
+   * @param storageId    Datastore id of the vertex
+   * @param consumer     An instance of <code>EdgeConsumer</code>
    */
 
-  private static class EdgeCountingConsumer implements EdgeConsumer {
+  private void traverseUpper(final int leftEndpoint, final int storageId, final EdgeConsumer consumer) {
+    int secPtr = leftEndpoint + 1;
+    int rightEndpoint;
+    for (long ptr = datastore.upperPointers[storageId]; ptr < datastore.upperPointers[storageId + 1] && secPtr < order(); ptr++) {
+      int u = datastore.upperEdges.get(ptr);
+      rightEndpoint = InterpolationSearch.search(vertices, u, secPtr, order() - 1);
+      if (rightEndpoint >= 0) {
+        consumer.accept(leftEndpoint, rightEndpoint, datastore.lowerWeight(u, storageId));
+        secPtr = rightEndpoint + 1;
+      }
+    }
+  }
 
-    private final AtomicLong cnt;
+  /**
+   * Row product over the upper triangle of a symmetric datastore. Mirrors
+   * {@link #traverseUpper(int, int, EdgeConsumer)}.
+   *
+   * @param x            Argument vector
+   * @param leftEndpoint A local vertex id
+   * @param storageId    Datastore id of the vertex
+   * @return Row product
+   */
+
+  private double upperRowProduct(final DenseVector x, final int leftEndpoint, final int storageId) {
+    double sum = 0;
+    int secPtr = leftEndpoint + 1;
+    int rightEndpoint;
+    for (long ptr = datastore.upperPointers[storageId]; ptr < datastore.upperPointers[storageId + 1] && secPtr < order(); ptr++) {
+      int u = datastore.upperEdges.get(ptr);
+      rightEndpoint = InterpolationSearch.search(vertices, u, secPtr, order() - 1);
+      if (rightEndpoint >= 0) {
+        sum += datastore.lowerWeight(u, storageId) * x.get(rightEndpoint);
+        secPtr = rightEndpoint + 1;
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Row product computed by searching all neighbours of a vertex within the vertex set.
+   * Mirrors {@link #traverseByAdjacent(int, EdgeConsumer, long, long, TraversalMode)}.
+   *
+   * @param x    Argument vector
+   * @param low  Initial edge pointer
+   * @param high Maximum edge pointer (exclusive!)
+   * @return Row product
+   */
 
-    EdgeCountingConsumer() {
-      cnt = new AtomicLong();
+  private double rowProductByAdjacent(final DenseVector x, final long low, final long high) {
+    double sum = 0;
+    int secPtr = 0;
+    int rightEndpoint;
+    CompressedInts.Decoder decoder = datastore.decoder(low);
+    for (long ptr = low; ptr < high; ptr++) {
+      int storageId = (decoder != null) ? decoder.next() : datastore.edges.get(ptr);
+      rightEndpoint = InterpolationSearch.search(vertices, storageId, secPtr, order() - 1);
+      if (rightEndpoint >= 0) {
+        sum += datastore.weights.get(ptr) * x.get(rightEndpoint);
+        secPtr = rightEndpoint + 1;
+      }
+      if (secPtr >= order()) break;
     }
+    return sum;
+  }
+
+  /**
+   * Row product computed by searching all members of the vertex set within the neighbours of a vertex.
+   * Mirrors {@link #traverseByVertices(int, EdgeConsumer, long, long, TraversalMode)}.
+   *
+   * @param x    Argument vector
+   * @param low  Initial edge pointer
+   * @param high Maximum edge pointer (exclusive!)
+   * @return Row product
+   */
+
+  private double rowProductByVertices(final DenseVector x, final long low, final long high) {
+    double sum = 0;
+    long ptr = low;
+    long retrievedIdx;
+    for (int i = 0; i < order(); i++) {
+      retrievedIdx = InterpolationSearch.search(datastore.edges, vertices[i], ptr, high - 1);
+      if (retrievedIdx >= 0 && retrievedIdx < high) {
+        sum += datastore.weights.get(retrievedIdx) * x.get(i);
+        ptr = retrievedIdx + 1;
+      }
+      if (ptr >= high) break;
+    }
+    return sum;
+  }
+
+  /**
+   * Translates global vertex ids into datastore vertex ids using a sorted id map
+   */
+
+  static class StorageIdIterator implements IntIterator {
+
+    private final int[] idMap;
+    private final IntIterator globalIds;
+
+    /**
+     * Constructor
+     *
+     * @param idMap     Sorted mapping from datastore vertex ids to global vertex ids
+     * @param globalIds Global vertex ids
+     */
+
+    StorageIdIterator(int[] idMap, IntIterator globalIds) {
+      this.idMap = idMap;
+      this.globalIds = globalIds;
+    }
+
+    @Override
+    public int nextInt() {
+      return InterpolationSearch.search(idMap, globalIds.nextInt(), 0, idMap.length - 1);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return globalIds.hasNext();
+    }
+
+  }
+
+  /**
+   * Consumer counting the number of edges within a single traversal chunk
+   */
+
+  private static class EdgeCountingConsumer implements EdgeConsumer {
+
+    private long cnt = 0;
 
     @Override
     public void accept(int u, int v, double weight) {
-      cnt.incrementAndGet();
+      cnt++;
     }
 
     long getCount() {
-      return cnt.get();
+      return cnt;
     }
 
   }
@@ -262,7 +523,7 @@ public class SparseSubgraph extends Graph {
       if (vertices == null || localId == vertices.length) {
         return false;
       }
-      globalId = vertices[localId++];
+      globalId = globalVertexId(localId++);
       return true;
     }
 
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.BigDoubles;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.BigFloats;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.ConstantDoubles;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.DoubleStorage;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.QuantizedDoubles;
+
+/**
+ * Storage strategies for the edge weights of sparse graphs
+ *
+ * @see SparseGraphBuilder#weightStorage(WeightStorage)
+ */
+
+public enum WeightStorage {
+
+  /**
+   * Double precision, i.e. 8 bytes per edge
+   */
+
+  DOUBLE {
+    @Override
+    DoubleStorage store(BigDoubles weights) {
+      return weights;
+    }
+  },
+
+  /**
+   * Single precision, i.e. 4 bytes per edge
+   */
+
+  FLOAT {
+    @Override
+    DoubleStorage store(BigDoubles weights) {
+      return BigFloats.of(weights);
+    }
+  },
+
+  /**
+   * 16-bit quantization with a common scale for the whole graph, i.e. 2 bytes per edge. Integer weights of up to
+   * 65535 are stored exactly and positive weights never drop to zero (see {@link QuantizedDoubles}).
+   */
+
+  QUANTIZED {
+    @Override
+    DoubleStorage store(BigDoubles weights) {
+      return QuantizedDoubles.of(weights);
+    }
+  },
+
+  /**
+   * Implicit unit weights for unweighted graphs, i.e. no memory at all. All edge weights, including those that have
+   * been aggregated from multiple instances of the same edge, are 1.
+   */
+
+  UNIT {
+    @Override
+    DoubleStorage store(BigDoubles weights) {
+      return new ConstantDoubles(1, weights.size());
+    }
+  };
+
+  /**
+   * Determine the strategy that a given weight storage has been created with. Storage that is not held on the heap,
+   * e.g. memory-mapped weights, is treated as double precision.
+   *
+   * @param storage Weight storage
+   * @return Storage strategy
+   */
+
+  static WeightStorage of(DoubleStorage storage) {
+    if (storage instanceof BigFloats) {
+      return FLOAT;
+    } else if (storage instanceof QuantizedDoubles) {
+      return QUANTIZED;
+    } else if (storage instanceof ConstantDoubles) {
+      return UNIT;
+    }
+    return DOUBLE;
+  }
+
+  /**
+   * Convert reduced edge weights into their final storage
+   *
+   * @param weights Edge weights
+   * @return Weight storage
+   */
+
+  abstract DoubleStorage store(BigDoubles weights);
+
+}
@@ -17,7 +17,7 @@ import java.util.stream.LongStream;
  * A big (i.e. long-indexed) array of doubles.
  */
 
-public class BigDoubles implements LongComparator, BigSwapper {
+public class BigDoubles implements LongComparator, BigSwapper, BinnedDoubles {
 
   public static final int BIN_BITS = 17;
   private static final int BIN_MASK = (1 << BIN_BITS) - 1;
@@ -45,11 +45,11 @@ public class BigDoubles implements LongComparator, BigSwapper {
   public void resize(long capacity) {
     int currentBins = (data != null) ? data.length : 0;
     int requestedBins = Math.max(1, (int) (((capacity - 1) >> BIN_BITS) + 1));
+    if (size > capacity) size = capacity;
     if (requestedBins == currentBins) return;
     double[][] newData = new double[requestedBins][];
     if (data != null) System.arraycopy(data, 0, newData, 0, Math.min(currentBins, requestedBins));
     for (int i = currentBins; i < requestedBins; i++) newData[i] = new double[1 << BIN_BITS];
-    if (currentBins > requestedBins) size = capacity;
     data = newData;
   }
 
@@ -80,6 +80,28 @@ public class BigDoubles implements LongComparator, BigSwapper {
     data[bin][(int) (idx & BIN_MASK)] = value;
   }
 
+  /**
+   * Copy a range of values from an array. The capacity needs to suffice for all values.
+   *
+   * @param idx    Index of the first value
+   * @param values Source array
+   * @param offset Offset of the first value within the source array
+   * @param length Number of values
+   */
+
+  public void set(long idx, double[] values, int offset, int length) {
+    if (length == 0) return;
+    if (idx + length > size) size = idx + length;
+    while (length > 0) {
+      int binOffset = (int) (idx & BIN_MASK);
+      int n = Math.min(length, (1 << BIN_BITS) - binOffset);
+      System.arraycopy(values, offset, data[(int) (idx >> BIN_BITS)], binOffset, n);
+      idx += n;
+      offset += n;
+      length -= n;
+    }
+  }
+
   /**
    * Sort (in-place)
    *
@@ -91,6 +113,28 @@ public class BigDoubles implements LongComparator, BigSwapper {
     return this;
   }
 
+  /**
+   * Direct access to a storage bin. Elements <code>[bin &lt;&lt; BIN_BITS, (bin + 1) &lt;&lt; BIN_BITS)</code>
+   * are stored at offsets <code>[0, 1 &lt;&lt; BIN_BITS)</code> of the returned array. Meant for tight loops over
+   * ranges of elements.
+   *
+   * @param bin Bin index
+   * @return Storage bin
+   */
+
+  public double[] bin(int bin) {
+    return data[bin];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public double get(int bin, int offset) {
+    return data[bin][offset];
+  }
+
   /**
    * Bin count
    *
@@ -121,6 +165,7 @@ public class BigDoubles implements LongComparator, BigSwapper {
    * @return Value at index idx
    */
 
+  @Override
   public double get(long idx) {
     return data[(int) (idx >> BIN_BITS)][(int) (idx & BIN_MASK)];
   }
@@ -184,6 +229,7 @@ public class BigDoubles implements LongComparator, BigSwapper {
    * @return Largest stored index + 1
    */
 
+  @Override
   public long size() {
     return size;
   }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+/**
+ * A big (i.e. long-indexed), immutable sequence of doubles that are stored with single precision. Requires half the
+ * memory of {@link BigDoubles}.
+ */
+
+public class BigFloats implements BinnedDoubles {
+
+  private static final int BIN_BITS = BigDoubles.BIN_BITS;
+  private static final int BIN_MASK = (1 << BIN_BITS) - 1;
+
+  private final float[][] data;
+  private final long size;
+
+  /**
+   * Constructor
+   *
+   * @param data Storage bins
+   * @param size Number of values
+   */
+
+  private BigFloats(float[][] data, long size) {
+    this.data = data;
+    this.size = size;
+  }
+
+  /**
+   * Create a new instance from a sequence of doubles, rounding them to single precision
+   *
+   * @param values Values
+   * @return A new instance
+   */
+
+  public static BigFloats of(DoubleStorage values) {
+    long size = values.size();
+    float[][] data = new float[(int) ((size + BIN_MASK) >> BIN_BITS)][];
+    for (int bin = 0; bin < data.length; bin++) {
+      long offset = (long) bin << BIN_BITS;
+      data[bin] = new float[(int) Math.min(BIN_MASK + 1L, size - offset)];
+      for (int i = 0; i < data[bin].length; i++) {
+        data[bin][i] = (float) values.get(offset + i);
+      }
+    }
+    return new BigFloats(data, size);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public double get(long idx) {
+    return data[(int) (idx >> BIN_BITS)][(int) (idx & BIN_MASK)];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Direct access to a storage bin. Bins are laid out exactly like those of {@link BigDoubles#bin(int)}.
+   *
+   * @param bin Bin index
+   * @return Storage bin
+   */
+
+  public float[] bin(int bin) {
+    return data[bin];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public double get(int bin, int offset) {
+    return data[bin][offset];
+  }
+
+}
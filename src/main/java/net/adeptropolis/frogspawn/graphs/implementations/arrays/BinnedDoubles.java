@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+/**
+ * Heap-based sequence of doubles whose values are held in storage bins of <code>1 &lt;&lt; BigDoubles.BIN_BITS</code>
+ * elements, i.e. laid out exactly like the bins of {@link BigInts}. Allows tight loops over ranges of values to skip
+ * the index arithmetic of {@link #get(long)}, regardless of the precision that the values are stored with.
+ */
+
+public interface BinnedDoubles extends DoubleStorage {
+
+  /**
+   * Retrieve value from a storage bin
+   *
+   * @param bin    Bin index
+   * @param offset Offset within the bin
+   * @return Value at index <code>(bin &lt;&lt; BIN_BITS) + offset</code>
+   */
+
+  double get(int bin, int offset);
+
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * <p>A big (i.e. long-indexed), immutable sequence of ints in compressed form</p>
+ * <p>Values are grouped into blocks of 64, where each value is stored as the difference to its predecessor within
+ * the block. Differences are zigzag-encoded and written in groups of four, each of which is preceded by a tag byte
+ * holding the number of bytes (1-4) of every value. Sorted sequences with small gaps, such as the adjacency lists of
+ * a sparse graph, thus mostly require one or two bytes per value. Unlike for classic variable-length integers,
+ * decoding a group does not involve any data-dependent branches.</p>
+ * <p>Random access has to decode up to a whole block. Sequential access should therefore use a {@link Decoder},
+ * which decodes every block only once.</p>
+ */
+
+public final class CompressedInts implements IntStorage {
+
+  static final int BLOCK_BITS = 6;
+  static final int DEFAULT_SEGMENT_BITS = 27;
+
+  private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+  private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+  private static final int GROUP_SIZE = 4;
+  private static final int PADDING = Integer.BYTES - 1;
+  private static final int[] MASKS = {0xFF, 0xFFFF, 0xFFFFFF, 0xFFFFFFFF};
+
+  private final byte[][] segments;
+  private final long[] blocks;
+  private final int segmentBits;
+  private final long size;
+
+  /**
+   * Constructor
+   *
+   * @param segments    Encoded data
+   * @param blocks      Start positions of all blocks, given as segment index and offset within that segment
+   * @param segmentBits Number of bits used for segment offsets within block positions
+   * @param size        Number of values
+   */
+
+  private CompressedInts(byte[][] segments, long[] blocks, int segmentBits, long size) {
+    this.segments = segments;
+    this.blocks = blocks;
+    this.segmentBits = segmentBits;
+    this.size = size;
+  }
+
+  /**
+   * Compress a sequence of ints
+   *
+   * @param values Values
+   * @return A new compressed instance
+   */
+
+  public static CompressedInts compress(IntStorage values) {
+    return compress(values, DEFAULT_SEGMENT_BITS);
+  }
+
+  /**
+   * Compress a sequence of ints into segments of a given size. Blocks never cross segment boundaries.
+   *
+   * @param values      Values
+   * @param segmentBits Binary logarithm of the maximum segment size in bytes
+   * @return A new compressed instance
+   */
+
+  static CompressedInts compress(IntStorage values, int segmentBits) {
+    long size = values.size();
+    long numBlocks = (size + BLOCK_MASK) >>> BLOCK_BITS;
+    if (numBlocks > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("Too many values to compress");
+    }
+    long[] blocks = new long[(int) numBlocks];
+    IntArrayList segmentLengths = new IntArrayList();
+    long segmentSize = (1L << segmentBits) - PADDING;
+    long offset = 0;
+    int[] deltas = new int[BLOCK_SIZE];
+    for (int block = 0; block < blocks.length; block++) {
+      int blockBytes = encodedLength(deltas, deltas(values, block, deltas));
+      if (offset + blockBytes > segmentSize) {
+        segmentLengths.add((int) offset);
+        offset = 0;
+      }
+      blocks[block] = ((long) segmentLengths.size() << segmentBits) | offset;
+      offset += blockBytes;
+    }
+    segmentLengths.add((int) offset);
+    byte[][] segments = new byte[segmentLengths.size()][];
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = new byte[segmentLengths.getInt(i) + PADDING];
+    }
+    int segmentMask = (1 << segmentBits) - 1;
+    for (int block = 0; block < blocks.length; block++) {
+      int length = deltas(values, block, deltas);
+      encode(deltas, length, segments[(int) (blocks[block] >>> segmentBits)], (int) (blocks[block] & segmentMask));
+    }
+    return new CompressedInts(segments, blocks, segmentBits, size);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public int get(long idx) {
+    return decoder(idx).next();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  /**
+   * @return Number of bytes occupied by the encoded data and the block index
+   */
+
+  public long bytes() {
+    long bytes = (long) blocks.length * Long.BYTES;
+    for (byte[] segment : segments) {
+      bytes += segment.length;
+    }
+    return bytes;
+  }
+
+  /**
+   * Create a decoder for sequential access
+   *
+   * @param idx Index of the first value to be returned
+   * @return A new decoder
+   */
+
+  public Decoder decoder(long idx) {
+    return new Decoder(idx);
+  }
+
+  /**
+   * Compute the zigzag-encoded differences between consecutive values of a block. The first value is relative to 0.
+   *
+   * @param values Values
+   * @param block  Block index
+   * @param deltas Target array
+   * @return Number of values within the block
+   */
+
+  private static int deltas(IntStorage values, int block, int[] deltas) {
+    long from = (long) block << BLOCK_BITS;
+    int length = (int) Math.min(BLOCK_SIZE, values.size() - from);
+    int prev = 0;
+    for (int i = 0; i < length; i++) {
+      int value = values.get(from + i);
+      deltas[i] = zigzag(value - prev);
+      prev = value;
+    }
+    return length;
+  }
+
+  /**
+   * Number of bytes required to encode a block
+   *
+   * @param deltas Zigzag-encoded differences
+   * @param length Number of values
+   * @return Number of bytes
+   */
+
+  private static int encodedLength(int[] deltas, int length) {
+    int bytes = 0;
+    for (int i = 0; i < length; i++) {
+      if (i % GROUP_SIZE == 0) {
+        bytes += GROUP_SIZE + 1;
+      }
+      bytes += byteLength(deltas[i]) - 1;
+    }
+    return bytes;
+  }
+
+  /**
+   * Encode a block. Incomplete groups are padded with zeros.
+   *
+   * @param deltas Zigzag-encoded differences
+   * @param length Number of values
+   * @param target Target segment
+   * @param pos    Start position within the segment
+   */
+
+  private static void encode(int[] deltas, int length, byte[] target, int pos) {
+    for (int group = 0; group < length; group += GROUP_SIZE) {
+      int tagPos = pos++;
+      int tag = 0;
+      for (int i = 0; i < GROUP_SIZE; i++) {
+        int delta = (group + i < length) ? deltas[group + i] : 0;
+        int len = byteLength(delta);
+        tag |= (len - 1) << (2 * i);
+        for (int b = 0; b < len; b++) {
+          target[pos++] = (byte) (delta >>> (8 * b));
+        }
+      }
+      target[tagPos] = (byte) tag;
+    }
+  }
+
+  /**
+   * Map signed to unsigned ints, such that values of small magnitude remain small
+   *
+   * @param value Signed value
+   * @return Unsigned value
+   */
+
+  private static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  /**
+   * Inverse of {@link #zigzag(int)}
+   *
+   * @param value Unsigned value
+   * @return Signed value
+   */
+
+  private static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Number of bytes required for an unsigned int
+   *
+   * @param value Unsigned value
+   * @return Number of bytes (1-4)
+   */
+
+  private static int byteLength(int value) {
+    return (31 - Integer.numberOfLeadingZeros(value | 1)) / 8 + 1;
+  }
+
+  /**
+   * Sequential decoder. Every block is decoded into a small buffer at once.
+   */
+
+  public final class Decoder {
+
+    private final int[] buffer = new int[BLOCK_SIZE];
+    private int block;
+    private int offset;
+
+    /**
+     * Constructor
+     *
+     * @param idx Index of the first value to be returned
+     */
+
+    private Decoder(long idx) {
+      block = (int) (idx >>> BLOCK_BITS);
+      offset = (int) (idx & BLOCK_MASK);
+      if (offset > 0) {
+        decodeBlock();
+      }
+    }
+
+    /**
+     * Decode the next value
+     *
+     * @return Value
+     */
+
+    public int next() {
+      if (offset == 0) {
+        decodeBlock();
+      }
+      int value = buffer[offset];
+      if (++offset == BLOCK_SIZE) {
+        offset = 0;
+        block++;
+      }
+      return value;
+    }
+
+    /**
+     * Decode the current block into the buffer
+     */
+
+    private void decodeBlock() {
+      byte[] segment = segments[(int) (blocks[block] >>> segmentBits)];
+      int pos = (int) (blocks[block] & ((1L << segmentBits) - 1));
+      int length = (int) Math.min(BLOCK_SIZE, size - ((long) block << BLOCK_BITS));
+      int value = 0;
+      for (int group = 0; group < length; group += GROUP_SIZE) {
+        int tag = segment[pos++];
+        for (int i = group; i < group + GROUP_SIZE; i++) {
+          int len = tag & 3;
+          int raw = (segment[pos] & 0xFF) | (segment[pos + 1] & 0xFF) << 8 | (segment[pos + 2] & 0xFF) << 16
+                  | segment[pos + 3] << 24;
+          value += unzigzag(raw & MASKS[len]);
+          buffer[i] = value;
+          pos += len + 1;
+          tag >>= 2;
+        }
+      }
+    }
+
+  }
+
+}
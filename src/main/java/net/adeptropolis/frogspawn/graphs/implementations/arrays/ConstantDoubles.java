@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+/**
+ * A big (i.e. long-indexed) sequence of doubles that all share the same value. Does not require any memory apart from
+ * the instance itself, e.g. for the weights of unweighted graphs.
+ */
+
+public class ConstantDoubles implements DoubleStorage {
+
+  private final double value;
+  private final long size;
+
+  /**
+   * Constructor
+   *
+   * @param value Value
+   * @param size  Number of values
+   */
+
+  public ConstantDoubles(double value, long size) {
+    this.value = value;
+    this.size = size;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public double get(long idx) {
+    return value;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+/**
+ * Read access to a big (i.e. long-indexed) sequence of ints, regardless of whether it is held on the heap or not.
+ */
+
+public interface IntStorage {
+
+  /**
+   * Retrieve value
+   *
+   * @param idx Index
+   * @return Value at index idx
+   */
+
+  int get(long idx);
+
+  /**
+   * @return Number of stored values
+   */
+
+  long size();
+
+}
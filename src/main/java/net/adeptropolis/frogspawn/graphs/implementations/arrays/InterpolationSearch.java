@@ -16,16 +16,16 @@ public class InterpolationSearch {
   }
 
   /**
-   * Search in BigInts
+   * Search in big int storage
    *
-   * @param ints Big integer array
+   * @param ints Big integer storage
    * @param key  Search key
    * @param low  Lower end of the search window. Inclusive.
    * @param high Higher end of the search window. Inclusive(!)
    * @return Index of the first item matching the key. -1 otherwise.
    */
 
-  public static long search(BigInts ints, int key, long low, long high) {
+  public static long search(IntStorage ints, int key, long low, long high) {
 
     int lowVal = ints.get(low);
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A big (i.e. long-indexed) sequence of ints that is memory-mapped from a file instead of being held on the heap.
+ * The data is paged in by the operating system on demand.
+ */
+
+public class MappedInts implements IntStorage {
+
+  private final IntBuffer[] segments;
+  private final long size;
+
+  /**
+   * Constructor
+   *
+   * @param segments Mapped segments
+   * @param size     Number of values
+   */
+
+  private MappedInts(IntBuffer[] segments, long size) {
+    this.segments = segments;
+    this.size = size;
+  }
+
+  /**
+   * Map a region of a file that holds ints in little-endian byte order
+   *
+   * @param channel  File channel. The mapping stays valid after the channel has been closed.
+   * @param position Byte offset of the region within the file
+   * @param size     Number of values
+   * @return Mapped ints
+   * @throws IOException If the region could not be mapped
+   */
+
+  public static MappedInts map(FileChannel channel, long position, long size) throws IOException {
+    ByteBuffer[] buffers = MappedSegments.map(channel, position, size, Integer.BYTES);
+    IntBuffer[] segments = new IntBuffer[buffers.length];
+    for (int i = 0; i < buffers.length; i++) {
+      segments[i] = buffers[i].asIntBuffer();
+    }
+    return new MappedInts(segments, size);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public int get(long idx) {
+    return segments[(int) (idx >> MappedSegments.SEGMENT_BITS)].get((int) (idx & MappedSegments.SEGMENT_MASK));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+}
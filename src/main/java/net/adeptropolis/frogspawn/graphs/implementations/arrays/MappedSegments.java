@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>Maps a region of a file into memory.</p>
+ * <p>A single mapped buffer is limited to 2GB, so larger regions are mapped as a sequence of segments holding
+ * <code>1 &lt;&lt; SEGMENT_BITS</code> elements each. All data is stored in little-endian byte order.</p>
+ */
+
+final class MappedSegments {
+
+  static final int SEGMENT_BITS = 27;
+  static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+  private MappedSegments() {
+  }
+
+  /**
+   * Map a file region read-only
+   *
+   * @param channel      File channel
+   * @param position     Byte offset of the region within the file
+   * @param count        Number of elements in the region
+   * @param elementBytes Number of bytes per element
+   * @return Mapped segments
+   * @throws IOException If the region could not be mapped
+   */
+
+  static ByteBuffer[] map(FileChannel channel, long position, long count, int elementBytes) throws IOException {
+    int numSegments = (int) ((count + SEGMENT_MASK) >> SEGMENT_BITS);
+    ByteBuffer[] segments = new ByteBuffer[numSegments];
+    for (int i = 0; i < numSegments; i++) {
+      long first = (long) i << SEGMENT_BITS;
+      long length = Math.min(count - first, 1L << SEGMENT_BITS);
+      segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + first * elementBytes, length * elementBytes)
+              .order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return segments;
+  }
+
+}
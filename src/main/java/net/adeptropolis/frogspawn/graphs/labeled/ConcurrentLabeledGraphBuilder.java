@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled;
+
+import net.adeptropolis.frogspawn.graphs.implementations.ConcurrentSparseGraphBuilder;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraph;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.Labeling;
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.StripedLabeling;
+
+/**
+ * <p>Thread-safe variant of {@link LabeledGraphBuilder}, which allows for adding edges from many producer threads
+ * without contending for a global lock.</p>
+ * <p>The labeling needs to be thread-safe as well, e.g. {@link StripedLabeling}. All producers must have finished
+ * before building the graph.</p>
+ *
+ * @param <V> Label type
+ * @see ConcurrentSparseGraphBuilder
+ */
+
+public class ConcurrentLabeledGraphBuilder<V> {
+
+  private final Labeling<V> labeling;
+  private final ConcurrentSparseGraphBuilder builder;
+
+  /**
+   * Constructor
+   *
+   * @param labeling Instance of a thread-safe vertex labeling
+   */
+
+  public ConcurrentLabeledGraphBuilder(Labeling<V> labeling) {
+    this(labeling, new SparseGraphBuilder());
+  }
+
+  /**
+   * Constructor
+   *
+   * @param labeling Instance of a thread-safe vertex labeling
+   * @param builder  Builder used for sorting and reducing the edges. Must have been fully configured and be empty.
+   */
+
+  public ConcurrentLabeledGraphBuilder(Labeling<V> labeling, SparseGraphBuilder builder) {
+    this.labeling = labeling;
+    this.builder = new ConcurrentSparseGraphBuilder(builder);
+  }
+
+  /**
+   * Add a new undirected edge to the graph. May be called concurrently.
+   *
+   * @param left   left vertex label
+   * @param right  right vertex label
+   * @param weight edge weight
+   * @return this
+   */
+
+  public ConcurrentLabeledGraphBuilder<V> add(V left, V right, double weight) {
+    builder.add(labeling.id(left), labeling.id(right), weight);
+    return this;
+  }
+
+  /**
+   * Build the labeled graph. Must only be called once all producers have finished.
+   *
+   * @return New immutable LabeledGraph instance
+   */
+
+  public LabeledGraph<V> build() {
+    SparseGraph graph = builder.build();
+    return new LabeledGraph<>(graph, labeling);
+  }
+
+}
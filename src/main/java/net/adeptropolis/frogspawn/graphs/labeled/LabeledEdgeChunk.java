@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.Labeling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Buffer for the labeled edges of a single chunk of input, using chunk-local vertex ids</p>
+ * <p>Local ids are assigned in order of first occurrence within the chunk. Passing all chunks to a labeling in input
+ * order thus assigns global ids in order of first occurrence within the whole input, regardless of how the chunks
+ * have been filled concurrently.</p>
+ *
+ * @param <V> Label type
+ */
+
+final class LabeledEdgeChunk<V> implements LabeledEdgeConsumer<V> {
+
+  private final Object2IntOpenHashMap<V> ids = new Object2IntOpenHashMap<>();
+  private final List<V> labels = new ArrayList<>();
+  private final IntArrayList left = new IntArrayList();
+  private final IntArrayList right = new IntArrayList();
+  private final DoubleArrayList weights = new DoubleArrayList();
+
+  /**
+   * Constructor
+   */
+
+  LabeledEdgeChunk() {
+    ids.defaultReturnValue(-1);
+  }
+
+  /**
+   * Add a new undirected edge to the chunk
+   *
+   * @param left   Left vertex label
+   * @param right  Right vertex label
+   * @param weight Edge weight
+   */
+
+  @Override
+  public void accept(V left, V right, double weight) {
+    this.left.add(localId(left));
+    this.right.add(localId(right));
+    weights.add(weight);
+  }
+
+  /**
+   * Assign global ids to all labels of this chunk and pass its edges to a graph builder
+   *
+   * @param labeling Global labeling
+   * @param builder  Graph builder
+   */
+
+  void addTo(Labeling<V> labeling, SparseGraphBuilder builder) {
+    int[] globalIds = new int[labels.size()];
+    for (int i = 0; i < globalIds.length; i++) {
+      globalIds[i] = labeling.id(labels.get(i));
+    }
+    int[] u = left.toIntArray();
+    int[] v = right.toIntArray();
+    for (int i = 0; i < u.length; i++) {
+      u[i] = globalIds[u[i]];
+      v[i] = globalIds[v[i]];
+    }
+    builder.addAll(u, v, weights.toDoubleArray());
+  }
+
+  /**
+   * Look up or assign the chunk-local id of a label
+   *
+   * @param label Vertex label
+   * @return Local id
+   */
+
+  private int localId(V label) {
+    int id = ids.getInt(label);
+    if (id < 0) {
+      id = labels.size();
+      ids.put(label, id);
+      labels.add(label);
+    }
+    return id;
+  }
+
+}
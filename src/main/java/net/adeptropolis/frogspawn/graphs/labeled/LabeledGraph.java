@@ -8,10 +8,15 @@ package net.adeptropolis.frogspawn.graphs.labeled;
 import it.unimi.dsi.fastutil.ints.IntIterators;
 import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.filters.GraphFilter;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphWriter;
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.LabelCodec;
 import net.adeptropolis.frogspawn.graphs.labeled.labelings.Labeling;
 import net.adeptropolis.frogspawn.graphs.traversal.EdgeConsumer;
 import net.adeptropolis.frogspawn.graphs.traversal.TraversalMode;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.function.Predicate;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -232,5 +237,28 @@ public class LabeledGraph<V> {
     return builder.build();
   }
 
+  /**
+   * Write this graph together with its labels to a file. It can be loaded again using
+   * {@link LabeledGraphSource#fromFile(Path, Labeling, LabelCodec)}.
+   *
+   * @param file  Target file. Will be overwritten if it already exists.
+   * @param codec Label codec
+   * @throws IOException If the file could not be written
+   */
+
+  public void write(Path file, LabelCodec<V> codec) throws IOException {
+    try (SparseGraphWriter writer = SparseGraphWriter.forGraph(graph, file)) {
+      labeling.labels().forEachOrdered(label -> {
+        try {
+          writer.addLabel(codec.encode(label));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
 
 }
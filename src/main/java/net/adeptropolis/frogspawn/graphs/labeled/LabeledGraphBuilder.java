@@ -10,7 +10,8 @@ import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
 import net.adeptropolis.frogspawn.graphs.labeled.labelings.Labeling;
 
 /**
- * Provides a convenient builder for compressed sparse graphs from labels instead of integers.
+ * Provides a convenient builder for compressed sparse graphs from labels instead of integers. Adding edges is
+ * synchronized. Use {@link ConcurrentLabeledGraphBuilder} for ingesting edges from many threads.
  *
  * @param <V> Label type
  */
@@ -5,14 +5,27 @@
 
 package net.adeptropolis.frogspawn.graphs.labeled;
 
+import net.adeptropolis.frogspawn.graphs.implementations.EdgeListFile;
+import net.adeptropolis.frogspawn.graphs.implementations.LabelDictionary;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraph;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphFile;
 import net.adeptropolis.frogspawn.graphs.labeled.labelings.DefaultLabeling;
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.LabelCodec;
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.Labeling;
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.LongLabeling;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongToIntFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 /**
- * Parser(s) for labeled graphs. Right now, only TSV is supported
+ * Parser(s) for labeled graphs. Right now, TSV, graph files and binary edge lists are supported
  */
 
 public class LabeledGraphSource {
@@ -47,4 +60,128 @@ public class LabeledGraphSource {
     return builder.build();
   }
 
+  /**
+   * Read a labeled graph from a Tab-delimited file using a fast byte-level parser. Plain files are parsed in parallel,
+   * whereas gzip-compressed ones are parsed sequentially. Either way, vertex ids are assigned in order of first
+   * occurrence, just like {@link #fromTSV(Stream)} would.
+   * <p>The expected format is <code>weight left right</code></p>
+   *
+   * @param file Plain or gzip-compressed TSV file
+   * @return A new weighted graph
+   * @throws IOException If the file could not be read
+   */
+
+  public static LabeledGraph<String> fromTSV(Path file) throws IOException {
+    return fromTSV(file, TSVParser.MIN_CHUNK_BYTES);
+  }
+
+  /**
+   * Read a labeled graph from a Tab-delimited file using a custom minimum chunk size. Every chunk is parsed using
+   * chunk-local vertex ids, which are then mapped to global ones chunk by chunk in file order.
+   *
+   * @param file          Plain or gzip-compressed TSV file
+   * @param minChunkBytes Minimum number of bytes per chunk of plain files
+   * @return A new weighted graph
+   * @throws IOException If the file could not be read
+   */
+
+  static LabeledGraph<String> fromTSV(Path file, long minChunkBytes) throws IOException {
+    List<LabeledEdgeChunk<String>> chunks = TSVParser.parse(file, LabeledEdgeChunk::new, minChunkBytes);
+    Labeling<String> labeling = new DefaultLabeling<>();
+    SparseGraphBuilder builder = new SparseGraphBuilder();
+    for (int i = 0; i < chunks.size(); i++) {
+      chunks.get(i).addTo(labeling, builder);
+      chunks.set(i, null);
+    }
+    return new LabeledGraph<>(builder.build(), labeling);
+  }
+
+  /**
+   * Load a labeled graph from a graph file. Edges and weights are memory-mapped, so this does not require any sorting.
+   *
+   * @param file     Graph file as written by {@link LabeledGraph#write(Path, LabelCodec)}
+   * @param labeling Empty labeling instance that assigns consecutive ids to new labels, e.g. DefaultLabeling
+   * @param codec    Label codec
+   * @param <V>      Label type
+   * @return A new labeled graph
+   * @throws IOException If the file could not be read or is corrupt
+   * @see SparseGraphFile
+   */
+
+  public static <V> LabeledGraph<V> fromFile(Path file, Labeling<V> labeling, LabelCodec<V> codec) throws IOException {
+    SparseGraphFile graphFile = SparseGraphFile.open(file);
+    graphFile.forEachLabel(consecutiveLabels(labeling, codec));
+    return new LabeledGraph<>(graphFile.graph(), labeling);
+  }
+
+  /**
+   * Load a labeled graph from a binary edge list with int vertex ids and a label dictionary, whose <code>i</code>-th
+   * entry is the label of vertex <code>i</code>. Edges are passed to the graph builder in bulk, such that neither text
+   * parsing nor label hashing is required for them.
+   *
+   * @param edges    Edge list file
+   * @param labels   Label dictionary
+   * @param labeling Empty labeling instance that assigns consecutive ids to new labels, e.g. DefaultLabeling
+   * @param codec    Label codec
+   * @param <V>      Label type
+   * @return A new labeled graph
+   * @throws IOException If the files could not be read or are corrupt
+   * @see EdgeListFile
+   * @see LabelDictionary
+   */
+
+  public static <V> LabeledGraph<V> fromEdgeList(Path edges, Path labels, Labeling<V> labeling, LabelCodec<V> codec)
+          throws IOException {
+    LabelDictionary.forEach(labels, consecutiveLabels(labeling, codec));
+    return new LabeledGraph<>(EdgeListFile.open(edges).graph(), labeling);
+  }
+
+  /**
+   * Load a labeled graph from a binary edge list, using the stored vertex ids as labels. These are held in a
+   * {@link LongLabeling}, which avoids boxing them.
+   *
+   * @param edges Edge list file with int or long vertex ids
+   * @return A new labeled graph
+   * @throws IOException If the file could not be read or is corrupt
+   * @see EdgeListFile
+   */
+
+  public static LabeledGraph<Long> fromEdgeList(Path edges) throws IOException {
+    return fromEdgeList(edges, new LongLabeling());
+  }
+
+  /**
+   * Load a labeled graph from a binary edge list, using the stored vertex ids as labels
+   *
+   * @param edges    Edge list file with int or long vertex ids
+   * @param labeling Empty labeling instance. Instances of {@link LongLabeling} are used without boxing any labels.
+   * @return A new labeled graph
+   * @throws IOException If the file could not be read or is corrupt
+   * @see EdgeListFile
+   */
+
+  public static LabeledGraph<Long> fromEdgeList(Path edges, Labeling<Long> labeling) throws IOException {
+    LongToIntFunction ids = (labeling instanceof LongLabeling) ? ((LongLabeling) labeling)::id : labeling::id;
+    SparseGraph graph = EdgeListFile.open(edges).graph(new SparseGraphBuilder(), ids);
+    return new LabeledGraph<>(graph, labeling);
+  }
+
+  /**
+   * Create a consumer that feeds encoded labels into a labeling and makes sure that they are assigned consecutive ids
+   *
+   * @param labeling Empty labeling instance
+   * @param codec    Label codec
+   * @param <V>      Label type
+   * @return Consumer of encoded labels
+   */
+
+  private static <V> Consumer<byte[]> consecutiveLabels(Labeling<V> labeling, LabelCodec<V> codec) {
+    int[] numLabels = new int[1];
+    return bytes -> {
+      if (labeling.id(codec.decode(bytes)) != numLabels[0]++) {
+        throw new IllegalArgumentException("Labelings are required to assign consecutive ids to new labels");
+      }
+    };
+  }
+
 }
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled;
+
+import net.adeptropolis.frogspawn.graphs.traversal.ParallelOps;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * <p>Byte-level parser for tab-separated edge lists of the form <code>weight left right</code></p>
+ * <p>Lines are split on tabs without any regular expressions, and weights are parsed from the raw bytes. Plain files
+ * are split into chunks at line boundaries, which are then parsed in parallel using the current traversal executor.
+ * Every chunk is passed to a consumer of its own, such that callers may merge them in file order.
+ * Gzip-compressed files are detected by their magic number and parsed sequentially. Lines that do not consist of a
+ * numeric weight followed by two labels are skipped.</p>
+ */
+
+final class TSVParser {
+
+  private static final int BUFFER_BYTES = 1 << 20;
+  static final long MIN_CHUNK_BYTES = 1L << 24;
+  private static final int MAX_FAST_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+          1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+          1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  /**
+   * Private constructor
+   */
+
+  private TSVParser() {
+
+  }
+
+  /**
+   * Parse a file chunk by chunk. Every chunk is passed to a consumer of its own, which is only ever invoked by a single
+   * thread. The consumers are returned in the order of their chunks within the file.
+   *
+   * @param file      Plain or gzip-compressed TSV file
+   * @param consumers Supplier of a new consumer per chunk
+   * @param <T>       Consumer type
+   * @return Chunk consumers in file order
+   * @throws IOException If the file could not be read
+   */
+
+  static <T extends LabeledEdgeConsumer<String>> List<T> parse(Path file, Supplier<T> consumers) throws IOException {
+    return parse(file, consumers, MIN_CHUNK_BYTES);
+  }
+
+  /**
+   * Parse a file chunk by chunk using a custom minimum chunk size
+   *
+   * @param file          Plain or gzip-compressed TSV file
+   * @param consumers     Supplier of a new consumer per chunk
+   * @param minChunkBytes Minimum number of bytes per chunk of plain files
+   * @param <T>           Consumer type
+   * @return Chunk consumers in file order
+   * @throws IOException If the file could not be read
+   */
+
+  static <T extends LabeledEdgeConsumer<String>> List<T> parse(Path file, Supplier<T> consumers, long minChunkBytes)
+          throws IOException {
+    if (isGzipped(file)) {
+      T consumer = consumers.get();
+      try (InputStream in = new GZIPInputStream(Files.newInputStream(file), BUFFER_BYTES)) {
+        parse(Channels.newChannel(in), Long.MAX_VALUE, false, consumer);
+      }
+      return Collections.singletonList(consumer);
+    }
+    long size = Files.size(file);
+    int numChunks = (int) Math.max(1, Math.min(ParallelOps.defaultNumChunks(), size / minChunkBytes));
+    List<T> chunks = new ArrayList<>(numChunks);
+    for (int i = 0; i < numChunks; i++) {
+      chunks.add(consumers.get());
+    }
+    try {
+      ParallelOps.executeChunks(numChunks, chunk -> {
+        long start = size * chunk / numChunks;
+        long end = size * (chunk + 1) / numChunks;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+          channel.position(Math.max(0, start - 1));
+          parse(channel, end - Math.max(0, start - 1), start > 0, chunks.get(chunk));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return chunks;
+  }
+
+  /**
+   * Parse all lines starting within a given number of bytes from the current position of a channel. The last of
+   * these lines is read completely, even if it exceeds that limit.
+   *
+   * @param channel   Input channel
+   * @param limit     Maximum offset of line starts relative to the initial position
+   * @param skipFirst Whether to skip everything up to and including the first line break
+   * @param consumer  Edge consumer
+   * @throws IOException If the input could not be read
+   */
+
+  static void parse(ReadableByteChannel channel, long limit, boolean skipFirst, LabeledEdgeConsumer<String> consumer)
+          throws IOException {
+    byte[] buf = new byte[BUFFER_BYTES];
+    long offset = 0;
+    int pos = 0;
+    int len = 0;
+    boolean skip = skipFirst;
+    boolean eof = false;
+    while (true) {
+      int lineEnd = indexOf(buf, (byte) '\n', pos, len);
+      if (lineEnd < 0 && !eof) {
+        System.arraycopy(buf, pos, buf, 0, len - pos);
+        offset += pos;
+        len -= pos;
+        pos = 0;
+        if (len == buf.length) {
+          buf = Arrays.copyOf(buf, 2 * buf.length);
+        }
+        int read = channel.read(ByteBuffer.wrap(buf, len, buf.length - len));
+        if (read < 0) {
+          eof = true;
+        } else {
+          len += read;
+        }
+        continue;
+      }
+      if (lineEnd < 0) {
+        lineEnd = len;
+      }
+      if (offset + pos >= limit || pos >= len) {
+        return;
+      }
+      if (skip) {
+        skip = false;
+      } else {
+        parseLine(buf, pos, lineEnd, consumer);
+      }
+      pos = lineEnd + 1;
+    }
+  }
+
+  /**
+   * Parse a single line. Malformed lines are skipped.
+   *
+   * @param buf      Buffer
+   * @param from     First byte of the line
+   * @param to       End of the line (exclusive), not including the line break
+   * @param consumer Edge consumer
+   */
+
+  static void parseLine(byte[] buf, int from, int to, LabeledEdgeConsumer<String> consumer) {
+    if (to > from && buf[to - 1] == '\r') {
+      to--;
+    }
+    int pos = from;
+    while (pos < to && isWhitespace(buf[pos])) {
+      pos++;
+    }
+    int weightStart = pos;
+    while (pos < to && (isDigit(buf[pos]) || buf[pos] == '.')) {
+      pos++;
+    }
+    int weightEnd = pos;
+    if (weightEnd == weightStart || pos == to || buf[pos] != '\t') {
+      return;
+    }
+    pos = skipTabs(buf, pos, to);
+    int leftStart = pos;
+    int leftEnd = indexOf(buf, (byte) '\t', pos, to);
+    if (leftEnd < 0) {
+      return;
+    }
+    pos = skipTabs(buf, leftEnd, to);
+    if (pos == to) {
+      return;
+    }
+    double weight = parseWeight(buf, weightStart, weightEnd);
+    consumer.accept(new String(buf, leftStart, leftEnd - leftStart, StandardCharsets.UTF_8),
+            new String(buf, pos, to - pos, StandardCharsets.UTF_8), weight);
+  }
+
+  /**
+   * Parse a non-negative decimal number consisting of digits and at most one decimal point. Numbers with up to 15
+   * significant digits are computed directly, which yields the same correctly rounded result as
+   * {@link Double#parseDouble(String)}. Others are delegated to the latter.
+   *
+   * @param buf  Buffer
+   * @param from First byte
+   * @param to   Last byte (exclusive)
+   * @return Parsed value
+   * @throws NumberFormatException If the bytes do not represent a valid number
+   */
+
+  static double parseWeight(byte[] buf, int from, int to) {
+    long mantissa = 0;
+    int digits = 0;
+    int scale = -1;
+    for (int i = from; i < to; i++) {
+      if (buf[i] == '.') {
+        if (scale >= 0) {
+          return slowParse(buf, from, to);
+        }
+        scale = 0;
+      } else {
+        mantissa = 10 * mantissa + (buf[i] - '0');
+        if (mantissa > 0) digits++;
+        if (scale >= 0) scale++;
+      }
+    }
+    if (digits > MAX_FAST_DIGITS || scale >= POWERS_OF_TEN.length || (scale >= 0 && to - from == 1)) {
+      return slowParse(buf, from, to);
+    }
+    return (scale > 0) ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+  }
+
+  /**
+   * Parse a number using {@link Double#parseDouble(String)}
+   *
+   * @param buf  Buffer
+   * @param from First byte
+   * @param to   Last byte (exclusive)
+   * @return Parsed value
+   */
+
+  private static double slowParse(byte[] buf, int from, int to) {
+    return Double.parseDouble(new String(buf, from, to - from, StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Check whether a file starts with the gzip magic number
+   *
+   * @param file File
+   * @return <code>true</code> if the file is gzip-compressed
+   * @throws IOException If the file could not be read
+   */
+
+  private static boolean isGzipped(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer magic = ByteBuffer.allocate(2);
+      while (magic.hasRemaining() && channel.read(magic) >= 0) {
+        // Keep on reading until both bytes are available
+      }
+      return magic.position() == 2 && magic.get(0) == (byte) 0x1f && magic.get(1) == (byte) 0x8b;
+    }
+  }
+
+  /**
+   * Find the first occurrence of a byte within a range
+   *
+   * @param buf  Buffer
+   * @param b    Byte
+   * @param from First index (inclusive)
+   * @param to   Last index (exclusive)
+   * @return Index of the first occurrence or -1
+   */
+
+  private static int indexOf(byte[] buf, byte b, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (buf[i] == b) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Skip consecutive tabs
+   *
+   * @param buf  Buffer
+   * @param from First index
+   * @param to   Last index (exclusive)
+   * @return Index of the first byte that is no tab
+   */
+
+  private static int skipTabs(byte[] buf, int from, int to) {
+    while (from < to && buf[from] == '\t') {
+      from++;
+    }
+    return from;
+  }
+
+  /**
+   * @param b Byte
+   * @return Whether the byte is an ASCII digit
+   */
+
+  private static boolean isDigit(byte b) {
+    return b >= '0' && b <= '9';
+  }
+
+  /**
+   * @param b Byte
+   * @return Whether the byte is a space or tab
+   */
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t';
+  }
+
+}
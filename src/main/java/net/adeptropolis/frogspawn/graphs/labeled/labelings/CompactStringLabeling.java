@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled.labelings;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * <p>Memory-efficient graph labeling for strings</p>
+ * <p>Instead of retaining any <code>String</code> instances, all labels are stored as length-prefixed UTF-8 byte
+ * strings in a paged byte arena. Ids are looked up using an open-addressing hash table over the raw bytes that holds
+ * nothing but the ids themselves. Apart from the label bytes, this requires about 16 bytes per label on average.</p>
+ * <p>Labels are decoded into new strings on every call to {@link #label(int)}, so this labeling trades some lookup
+ * speed for memory. Use {@link #id(byte[], int, int)} to look up labels that are already available as UTF-8.</p>
+ */
+
+public class CompactStringLabeling implements Labeling<String> {
+
+  private static final int PAGE_BITS = 24;
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final float LOAD_FACTOR = 0.75f;
+  private static final int INITIAL_CAPACITY = 1 << 10;
+
+  private byte[][] pages;
+  private int numPages;
+  private int pagePos;
+  private long[] pointers;
+  private int numLabels;
+  private int[] table;
+  private int mask;
+  private int maxFill;
+  private boolean committed;
+
+  /**
+   * Constructor
+   */
+
+  public CompactStringLabeling() {
+    this.pages = new byte[1][];
+    this.pages[0] = new byte[INITIAL_CAPACITY];
+    this.numPages = 1;
+    this.pagePos = 0;
+    this.pointers = new long[INITIAL_CAPACITY];
+    this.numLabels = 0;
+    allocateTable(HashCommon.arraySize(INITIAL_CAPACITY, LOAD_FACTOR));
+    this.committed = false;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public String label(int v) {
+    commit();
+    if (v < 0 || v >= numLabels) {
+      return null;
+    }
+    byte[] page = pages[(int) (pointers[v] >>> Integer.SIZE)];
+    int pos = (int) pointers[v];
+    int length = readLength(page, pos);
+    int start = pos + lengthBytes(length);
+    return new String(page, start, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Either lookup or update (depending on whether the labeling has been committed yet)
+   *
+   * @param label Vertex label
+   * @return Global vertex id (or -1 in case of mismatch)
+   */
+
+  @Override
+  public int id(String label) {
+    byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+    return id(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Either lookup or update a label given as UTF-8 bytes (depending on whether the labeling has been committed yet)
+   *
+   * @param utf8 Buffer holding the UTF-8 encoded label
+   * @param from First byte of the label
+   * @param to   End of the label (exclusive)
+   * @return Global vertex id (or -1 in case of mismatch)
+   */
+
+  public int id(byte[] utf8, int from, int to) {
+    int slot = hash(utf8, from, to) & mask;
+    while (table[slot] >= 0) {
+      if (matches(table[slot], utf8, from, to)) {
+        return table[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    if (committed) {
+      return -1;
+    }
+    int id = append(utf8, from, to);
+    table[slot] = id;
+    if (numLabels > maxFill) {
+      allocateTable(table.length << 1);
+      for (int i = 0; i < numLabels; i++) {
+        insert(i);
+      }
+    }
+    return id;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public Stream<String> labels() {
+    commit();
+    return IntStream.range(0, numLabels).mapToObj(this::label);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public Labeling<String> newInstance() {
+    return new CompactStringLabeling();
+  }
+
+  /**
+   * Freeze the labeling and release any unused buffer space
+   */
+
+  private void commit() {
+    if (!committed) {
+      pointers = Arrays.copyOf(pointers, numLabels);
+      pages = Arrays.copyOf(pages, numPages);
+      pages[numPages - 1] = Arrays.copyOf(pages[numPages - 1], pagePos);
+      committed = true;
+    }
+  }
+
+  /**
+   * Append a new label to the arena
+   *
+   * @param utf8 Buffer holding the UTF-8 encoded label
+   * @param from First byte of the label
+   * @param to   End of the label (exclusive)
+   * @return Id of the new label
+   */
+
+  private int append(byte[] utf8, int from, int to) {
+    int length = to - from;
+    int required = lengthBytes(length) + length;
+    byte[] page = pages[numPages - 1];
+    if (page.length - pagePos < required) {
+      page = ensurePage(required);
+    }
+    if (numLabels == pointers.length) {
+      pointers = Arrays.copyOf(pointers, pointers.length + (pointers.length >> 1));
+    }
+    pointers[numLabels] = ((long) (numPages - 1) << Integer.SIZE) | pagePos;
+    pagePos = writeLength(page, pagePos, length);
+    System.arraycopy(utf8, from, page, pagePos, length);
+    pagePos += length;
+    return numLabels++;
+  }
+
+  /**
+   * Make room for a given number of bytes. The current page is grown up to the regular page size, after which a new
+   * page is started. Labels exceeding the page size get a page of their own.
+   *
+   * @param required Number of bytes
+   * @return Page with enough free space
+   */
+
+  private byte[] ensurePage(int required) {
+    byte[] page = pages[numPages - 1];
+    if (pagePos + required <= PAGE_SIZE) {
+      long newSize = Math.max(pagePos + (long) required, Math.min(PAGE_SIZE, 2L * page.length));
+      pages[numPages - 1] = Arrays.copyOf(page, (int) newSize);
+      return pages[numPages - 1];
+    }
+    pages[numPages - 1] = Arrays.copyOf(page, pagePos);
+    if (numPages == pages.length) {
+      pages = Arrays.copyOf(pages, 2 * pages.length);
+    }
+    pages[numPages++] = new byte[Math.max(PAGE_SIZE, required)];
+    pagePos = 0;
+    return pages[numPages - 1];
+  }
+
+  /**
+   * Compare a stored label against the given bytes
+   *
+   * @param id   Label id
+   * @param utf8 Buffer
+   * @param from First byte
+   * @param to   End (exclusive)
+   * @return Whether the bytes are equal
+   */
+
+  private boolean matches(int id, byte[] utf8, int from, int to) {
+    byte[] page = pages[(int) (pointers[id] >>> Integer.SIZE)];
+    int pos = (int) pointers[id];
+    int length = readLength(page, pos);
+    if (length != to - from) {
+      return false;
+    }
+    int start = pos + lengthBytes(length);
+    for (int i = 0; i < length; i++) {
+      if (page[start + i] != utf8[from + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Insert an existing label into the hash table
+   *
+   * @param id Label id
+   */
+
+  private void insert(int id) {
+    byte[] page = pages[(int) (pointers[id] >>> Integer.SIZE)];
+    int pos = (int) pointers[id];
+    int length = readLength(page, pos);
+    int start = pos + lengthBytes(length);
+    int slot = hash(page, start, start + length) & mask;
+    while (table[slot] >= 0) {
+      slot = (slot + 1) & mask;
+    }
+    table[slot] = id;
+  }
+
+  /**
+   * Allocate a new, empty hash table
+   *
+   * @param capacity Table capacity. Must be a power of two.
+   */
+
+  private void allocateTable(int capacity) {
+    table = new int[capacity];
+    Arrays.fill(table, -1);
+    mask = capacity - 1;
+    maxFill = HashCommon.maxFill(capacity, LOAD_FACTOR);
+  }
+
+  /**
+   * @param buf  Buffer
+   * @param from First byte
+   * @param to   End (exclusive)
+   * @return Hash code of the given bytes
+   */
+
+  private static int hash(byte[] buf, int from, int to) {
+    int h = 1;
+    for (int i = from; i < to; i++) {
+      h = 31 * h + buf[i];
+    }
+    return HashCommon.mix(h);
+  }
+
+  /**
+   * @param length Label length
+   * @return Number of bytes of the variable-length encoding of the given length
+   */
+
+  private static int lengthBytes(int length) {
+    int numBytes = 1;
+    while ((length >>>= 7) != 0) {
+      numBytes++;
+    }
+    return numBytes;
+  }
+
+  /**
+   * Write a label length using a variable-length encoding with 7 bits per byte
+   *
+   * @param buf    Buffer
+   * @param pos    Position
+   * @param length Label length
+   * @return Position after the encoded length
+   */
+
+  private static int writeLength(byte[] buf, int pos, int length) {
+    while ((length & ~0x7f) != 0) {
+      buf[pos++] = (byte) ((length & 0x7f) | 0x80);
+      length >>>= 7;
+    }
+    buf[pos++] = (byte) length;
+    return pos;
+  }
+
+  /**
+   * Read a label length
+   *
+   * @param buf Buffer
+   * @param pos Position
+   * @return Label length
+   */
+
+  private static int readLength(byte[] buf, int pos) {
+    int length = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = buf[pos++];
+      length |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        return length;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled.labelings;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * <p>Graph labeling for numeric labels that avoids boxing them</p>
+ * <p>New labels are assigned consecutive ids using a primitive hash map. Once the labeling has been committed (i.e. on
+ * the first reverse lookup), the map is replaced by a plain array of labels together with a permutation of all ids
+ * sorted by label, which is used for binary searching. This requires 8 bytes per label in total.</p>
+ * <p>Use {@link #id(int)} and {@link #intLabel(int)} instead of their boxed counterparts whenever possible.</p>
+ */
+
+public class IntLabeling implements Labeling<Integer> {
+
+  private Int2IntOpenHashMap indices;
+  private int[] labels;
+  private int[] sortedIds;
+
+  /**
+   * Constructor
+   */
+
+  public IntLabeling() {
+    this(Int2IntOpenHashMap.DEFAULT_INITIAL_SIZE);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param expectedSize Expected number of labels
+   */
+
+  public IntLabeling(int expectedSize) {
+    this.indices = new Int2IntOpenHashMap(expectedSize);
+    this.indices.defaultReturnValue(-1);
+    this.labels = null;
+    this.sortedIds = null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public Integer label(int v) {
+    ensureLabels();
+    if (v < 0 || v >= labels.length) {
+      return null;
+    }
+    return labels[v];
+  }
+
+  /**
+   * @param v Global vertex id
+   * @return The label associated with a given global vertex id
+   * @throws ArrayIndexOutOfBoundsException If there is no such vertex
+   */
+
+  public int intLabel(int v) {
+    ensureLabels();
+    return labels[v];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public int id(Integer label) {
+    return id(label.intValue());
+  }
+
+  /**
+   * Either lookup or update (depending on whether the labeling has been committed yet)
+   *
+   * @param label Vertex label
+   * @return Global vertex id (or -1 in case of mismatch)
+   */
+
+  public int id(int label) {
+    if (labels != null) {
+      return find(label);
+    }
+    int index = indices.get(label);
+    if (index >= 0) {
+      return index;
+    }
+    index = indices.size();
+    indices.put(label, index);
+    return index;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public Stream<Integer> labels() {
+    ensureLabels();
+    return Arrays.stream(labels).boxed();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public Labeling<Integer> newInstance() {
+    return new IntLabeling();
+  }
+
+  /**
+   * Binary search for a label in the committed labeling
+   *
+   * @param label Vertex label
+   * @return Global vertex id or -1 if the label is not present
+   */
+
+  private int find(int label) {
+    int lo = 0;
+    int hi = sortedIds.length - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      int midLabel = labels[sortedIds[mid]];
+      if (midLabel < label) {
+        lo = mid + 1;
+      } else if (midLabel > label) {
+        hi = mid - 1;
+      } else {
+        return sortedIds[mid];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Ensure that the labeling has been committed
+   */
+
+  private void ensureLabels() {
+    if (labels == null) {
+      commit();
+    }
+  }
+
+  /**
+   * Build the label buffer and the sorted id permutation, and release the hash map
+   */
+
+  private void commit() {
+    int[] committed = new int[indices.size()];
+    indices.int2IntEntrySet().fastForEach(entry -> committed[entry.getIntValue()] = entry.getIntKey());
+    indices = null;
+    int[] ids = new int[committed.length];
+    Arrays.setAll(ids, i -> i);
+    IntArrays.parallelQuickSortIndirect(ids, committed);
+    sortedIds = ids;
+    labels = committed;
+  }
+
+}
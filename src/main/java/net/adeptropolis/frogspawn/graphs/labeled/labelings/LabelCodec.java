@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled.labelings;
+
+/**
+ * Conversion of vertex labels from and to bytes, as used when storing labeled graphs in files
+ *
+ * @param <T> Label type
+ */
+
+public interface LabelCodec<T> {
+
+  /**
+   * @param label Label
+   * @return Binary representation of the label
+   */
+
+  byte[] encode(T label);
+
+  /**
+   * @param bytes Binary representation of a label
+   * @return Label
+   */
+
+  T decode(byte[] bytes);
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled.labelings;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores string labels as UTF-8
+ */
+
+public class StringLabelCodec implements LabelCodec<String> {
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public byte[] encode(String label) {
+    return label.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public String decode(byte[] bytes) {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled.labelings;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+/**
+ * <p>Thread-safe graph labeling</p>
+ * <p>Labels are distributed over a number of independent open-addressing hash tables by their hash codes. Looking up
+ * labels that are already known does not require any locks at all. New labels are inserted while holding a lock of
+ * their table only, so concurrent producers rarely contend with each other. Ids are still assigned densely, but their
+ * order depends on the interleaving of the producers.</p>
+ *
+ * @param <T> Label type
+ */
+
+public class StripedLabeling<T> implements Labeling<T> {
+
+  private static final int STRIPE_BITS = 6;
+  private static final int NUM_STRIPES = 1 << STRIPE_BITS;
+  private static final int INITIAL_CAPACITY = 16;
+  private static final float LOAD_FACTOR = 0.75f;
+  private static final Object NULL_LABEL = new Object();
+
+  private final Stripe[] stripes;
+  private final AtomicInteger numLabels = new AtomicInteger();
+  private volatile Object[] labels;
+
+  /**
+   * Constructor
+   */
+
+  public StripedLabeling() {
+    this.stripes = new Stripe[NUM_STRIPES];
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      stripes[i] = new Stripe();
+    }
+    this.labels = null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public T label(int v) {
+    Object[] committed = ensureLabels();
+    if (v >= committed.length) {
+      return null;
+    }
+    return (T) committed[v];
+  }
+
+  /**
+   * Either lookup or update (depending on whether the label buffer has been built yet). May be called concurrently.
+   *
+   * @param label Vertex label
+   * @return Global vertex id (or -1 in case of mismatch)
+   */
+
+  @Override
+  public int id(T label) {
+    Object key = (label != null) ? label : NULL_LABEL;
+    int hash = HashCommon.mix(key.hashCode());
+    // The tables use the low bits of the mixed hash codes, so stripes are chosen by the high ones
+    Stripe stripe = stripes[hash >>> (Integer.SIZE - STRIPE_BITS)];
+    int index = stripe.table.get(key, hash);
+    if (index >= 0 || labels != null) {
+      return index;
+    }
+    synchronized (stripe) {
+      index = stripe.table.get(key, hash);
+      if (index >= 0 || labels != null) {
+        return index;
+      }
+      index = numLabels.getAndIncrement();
+      stripe.insert(key, hash, index);
+      return index;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Stream<T> labels() {
+    return Arrays.stream(ensureLabels()).map(label -> (T) label);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public Labeling<T> newInstance() {
+    return new StripedLabeling<>();
+  }
+
+  /**
+   * Ensure that the label buffer has been properly set up
+   *
+   * @return The label buffer
+   */
+
+  private Object[] ensureLabels() {
+    Object[] committed = labels;
+    if (committed == null) {
+      committed = commit();
+    }
+    return committed;
+  }
+
+  /**
+   * Build the label buffer
+   *
+   * @return The label buffer
+   */
+
+  private synchronized Object[] commit() {
+    if (labels == null) {
+      Object[] committed = new Object[numLabels.get()];
+      for (Stripe stripe : stripes) {
+        synchronized (stripe) {
+          stripe.table.forEach((key, idx) -> committed[idx] = (key != NULL_LABEL) ? key : null);
+        }
+      }
+      labels = committed;
+    }
+    return labels;
+  }
+
+  /**
+   * A single stripe, consisting of a hash table that is replaced by a larger one whenever it becomes too full. Any
+   * modifications require holding the stripe's lock.
+   */
+
+  private static final class Stripe {
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private int size = 0;
+
+    /**
+     * Insert a new label
+     *
+     * @param key  Label
+     * @param hash Mixed hash code of the label
+     * @param id   Label id
+     */
+
+    void insert(Object key, int hash, int id) {
+      if (++size > HashCommon.maxFill(table.capacity(), LOAD_FACTOR)) {
+        Table grown = new Table(table.capacity() << 1);
+        table.forEach((existing, idx) -> grown.insert(existing, HashCommon.mix(existing.hashCode()), idx));
+        table = grown;
+      }
+      table.insert(key, hash, id);
+    }
+
+  }
+
+  /**
+   * Open-addressing hash table with linear probing that may be read concurrently to a single writer. Ids are always
+   * written before their keys, which are published using volatile semantics.
+   */
+
+  private static final class Table {
+
+    private final AtomicReferenceArray<Object> keys;
+    private final int[] ids;
+    private final int mask;
+
+    /**
+     * Constructor
+     *
+     * @param capacity Capacity. Must be a power of two.
+     */
+
+    Table(int capacity) {
+      this.keys = new AtomicReferenceArray<>(capacity);
+      this.ids = new int[capacity];
+      this.mask = capacity - 1;
+    }
+
+    /**
+     * @return Table capacity
+     */
+
+    int capacity() {
+      return ids.length;
+    }
+
+    /**
+     * Lookup a label
+     *
+     * @param key  Label
+     * @param hash Mixed hash code of the label
+     * @return Label id or -1 if the label is not present
+     */
+
+    int get(Object key, int hash) {
+      for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+        Object existing = keys.get(slot);
+        if (existing == null) {
+          return -1;
+        }
+        if (existing.equals(key)) {
+          return ids[slot];
+        }
+      }
+    }
+
+    /**
+     * Insert a label that is not yet present
+     *
+     * @param key  Label
+     * @param hash Mixed hash code of the label
+     * @param id   Label id
+     */
+
+    void insert(Object key, int hash, int id) {
+      int slot = hash & mask;
+      while (keys.get(slot) != null) {
+        slot = (slot + 1) & mask;
+      }
+      ids[slot] = id;
+      keys.set(slot, key);
+    }
+
+    /**
+     * Pass all labels and their ids to a consumer
+     *
+     * @param consumer Consumer
+     */
+
+    void forEach(EntryConsumer consumer) {
+      for (int slot = 0; slot < ids.length; slot++) {
+        Object key = keys.get(slot);
+        if (key != null) {
+          consumer.accept(key, ids[slot]);
+        }
+      }
+    }
+
+  }
+
+  /**
+   * Consumer of table entries
+   */
+
+  @FunctionalInterface
+  private interface EntryConsumer {
+
+    /**
+     * @param key Label
+     * @param id  Label id
+     */
+
+    void accept(Object key, int id);
+
+  }
+
+}
@@ -6,20 +6,20 @@
 package net.adeptropolis.frogspawn.graphs.matrices;
 
 import net.adeptropolis.frogspawn.graphs.Graph;
-import net.adeptropolis.frogspawn.graphs.traversal.EdgeConsumer;
+import net.adeptropolis.frogspawn.graphs.traversal.ParallelEdgeOps;
 import org.apache.commons.lang3.Validate;
 
-import java.util.Arrays;
-
 /**
  * <p>Adjacency matrix of a graph</p>
+ * <p>Matrix-vector products are computed row by row over contiguous, edge-balanced chunks using the graph's dedicated
+ * row kernel. Every entry of the result is written exactly once.</p>
  */
 
-public class AdjacencyMatrix implements SquareMatrix, EdgeConsumer {
+public class AdjacencyMatrix implements FloatSquareMatrix {
 
   private final Graph graph;
   private final double[] result;
-  private double[] argument;
+  private float[] floatResult;
 
   /**
    * Constructor
@@ -38,33 +38,34 @@ public class AdjacencyMatrix implements SquareMatrix, EdgeConsumer {
    */
 
   public double[] multiply(double[] argument) {
-    Arrays.fill(result, 0);
     Validate.isTrue(argument.length == graph.order(), "Argument length mismatch");
-    this.argument = argument;
-    graph.traverseParallel(this);
+    ParallelEdgeOps.traverseVertexRanges(graph, (start, end) -> graph.multiplyRows(argument, result, start, end));
     return result;
   }
 
   /**
-   * {@inheritDoc}
+   * @param argument Vertex-indexed single precision vector
+   * @return The product Av, with A being this instance and v the argument.
    */
 
   @Override
-  public int size() {
-    return graph.order();
+  public float[] multiply(float[] argument) {
+    Validate.isTrue(argument.length == graph.order(), "Argument length mismatch");
+    if (floatResult == null) {
+      floatResult = new float[graph.order()];
+    }
+    float[] y = floatResult;
+    ParallelEdgeOps.traverseVertexRanges(graph, (start, end) -> graph.multiplyRows(argument, y, start, end));
+    return y;
   }
 
   /**
-   * Internal: Callback for graph traversal
-   *
-   * @param i row
-   * @param j column
-   * @param v value
+   * {@inheritDoc}
    */
 
   @Override
-  public void accept(int i, int j, double v) {
-    result[i] += v * argument[j];
+  public int size() {
+    return graph.order();
   }
 
 }
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.matrices;
+
+/**
+ * <p>Square matrix that additionally supports matrix-vector products with single precision vectors</p>
+ * <p>Only vectors are held with single precision. Implementations should still accumulate sums with double precision,
+ * such that the products merely differ from their double precision counterparts by rounding of their in- and
+ * outputs.</p>
+ */
+
+public interface FloatSquareMatrix extends SquareMatrix {
+
+  /**
+   * @param argument A vertex-indexed single precision vector
+   * @return Matrix-vector product
+   */
+
+  float[] multiply(float[] argument);
+
+}
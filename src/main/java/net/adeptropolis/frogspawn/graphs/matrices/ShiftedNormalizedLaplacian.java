@@ -15,13 +15,17 @@ import net.adeptropolis.frogspawn.helpers.Vectors;
  * All computations are performed on the fly.</p>
  */
 
-public class ShiftedNormalizedLaplacian implements SquareMatrix {
+public class ShiftedNormalizedLaplacian implements FloatSquareMatrix {
 
   private final Graph graph;
   private final double[] invSqrtWeights;
   private final double[] argument;
   private final AdjacencyMatrix adjacencyMatrix;
   private final double[] v0;
+  private float[] floatInvSqrtWeights;
+  private float[] floatArgument;
+  private float[] floatV0;
+  private int multiplications;
 
   /**
    * Constructor
@@ -36,6 +40,7 @@ public class ShiftedNormalizedLaplacian implements SquareMatrix {
     double[] sqrtWeights = computeSqrtWeights(graph);
     this.v0 = computeV0(graph, sqrtWeights);
     this.invSqrtWeights = invertEntries(sqrtWeights);
+    this.multiplications = 0;
   }
 
   /**
@@ -94,6 +99,7 @@ public class ShiftedNormalizedLaplacian implements SquareMatrix {
    */
 
   public double[] multiply(double[] x) {
+    multiplications++;
     for (int i = 0; i < graph.order(); i++) {
       argument[i] = x[i] * invSqrtWeights[i];
     }
@@ -105,6 +111,30 @@ public class ShiftedNormalizedLaplacian implements SquareMatrix {
     return result;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>Single precision copies of the vertex weights and <code>v0</code> are created upon first use.</p>
+   */
+
+  @Override
+  public float[] multiply(float[] x) {
+    if (floatV0 == null) {
+      floatInvSqrtWeights = Vectors.toFloat(invSqrtWeights);
+      floatV0 = Vectors.toFloat(v0);
+      floatArgument = new float[graph.order()];
+    }
+    multiplications++;
+    for (int i = 0; i < graph.order(); i++) {
+      floatArgument[i] = x[i] * floatInvSqrtWeights[i];
+    }
+    float[] result = adjacencyMatrix.multiply(floatArgument);
+    double mu = 2 * Vectors.scalarProduct(floatV0, x);
+    for (int i = 0; i < graph.order(); i++) {
+      result[i] = (float) (x[i] + (double) result[i] * floatInvSqrtWeights[i] - mu * floatV0[i]);
+    }
+    return result;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -114,4 +144,12 @@ public class ShiftedNormalizedLaplacian implements SquareMatrix {
     return graph.order();
   }
 
+  /**
+   * @return Number of matrix-vector products computed so far
+   */
+
+  public int getMultiplications() {
+    return multiplications;
+  }
+
 }
\ No newline at end of file
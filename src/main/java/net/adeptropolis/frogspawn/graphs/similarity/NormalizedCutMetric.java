@@ -6,9 +6,12 @@
 package net.adeptropolis.frogspawn.graphs.similarity;
 
 import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.traversal.EdgeConsumer;
 import net.adeptropolis.frogspawn.graphs.traversal.ParallelEdgeOps;
+import net.adeptropolis.frogspawn.graphs.traversal.TraversalMode;
 
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Graph similarity metric using the normalized cut
@@ -37,7 +40,8 @@ public class NormalizedCutMetric implements GraphSimilarityMetric {
   }
 
   /**
-   * Traverse the graph and accumulate weights
+   * Traverse the graph and accumulate weights. Every traversal chunk uses its own accumulator, which are then reduced
+   * in chunk order to keep the result deterministic.
    *
    * @param supergraph A graph
    * @param subgraph   Subgraph
@@ -46,21 +50,7 @@ public class NormalizedCutMetric implements GraphSimilarityMetric {
 
   private Accumulator collectWeights(Graph supergraph, Graph subgraph) {
     boolean[] sub = subgraphMap(supergraph, subgraph);
-    Accumulator[] accumulators = createAccumulators();
-    supergraph.traverseParallel((u, v, weight) -> {
-      Accumulator acc = accumulators[ParallelEdgeOps.slice(u)];
-      if (!sub[u] && !sub[v]) {
-        acc.complementWeights += weight;
-      } else {
-        if (sub[u] && sub[v]) {
-          acc.subgraphWeights += weight;
-        } else {
-          acc.subgraphWeights += weight;
-          acc.complementWeights += weight;
-          acc.cuts += weight;
-        }
-      }
-    });
+    List<Accumulator> accumulators = ParallelEdgeOps.traverseChunked(supergraph, () -> new Accumulator(sub), TraversalMode.DEFAULT);
     return reduce(accumulators);
   }
 
@@ -106,33 +96,19 @@ public class NormalizedCutMetric implements GraphSimilarityMetric {
     return subgraphLocalIds;
   }
 
-  /**
-   * Create new accumulators
-   *
-   * @return Array of new accumulators
-   */
-
-  private Accumulator[] createAccumulators() {
-    Accumulator[] accumulators = new Accumulator[ParallelEdgeOps.slices()];
-    for (int i = 0; i < ParallelEdgeOps.slices(); i++) {
-      accumulators[i] = new Accumulator();
-    }
-    return accumulators;
-  }
-
   /**
    * Reduce multiple accumulators into a single instance by just adding values
    *
-   * @param accumulators Array of accumulators
+   * @param accumulators List of accumulators
    * @return Single accumulator with summed up values
    */
 
-  private static Accumulator reduce(Accumulator[] accumulators) {
-    Accumulator acc = new Accumulator();
-    for (int i = 0; i < ParallelEdgeOps.slices(); i++) {
-      acc.subgraphWeights += accumulators[i].subgraphWeights;
-      acc.complementWeights += accumulators[i].complementWeights;
-      acc.cuts += accumulators[i].cuts;
+  private static Accumulator reduce(List<Accumulator> accumulators) {
+    Accumulator acc = new Accumulator(null);
+    for (Accumulator other : accumulators) {
+      acc.subgraphWeights += other.subgraphWeights;
+      acc.complementWeights += other.complementWeights;
+      acc.cuts += other.cuts;
     }
     return acc;
   }
@@ -148,15 +124,49 @@ public class NormalizedCutMetric implements GraphSimilarityMetric {
 
 
   /**
-   * Per-thread accumulator
+   * Per-chunk accumulator
    */
 
-  private static class Accumulator {
+  private static class Accumulator implements EdgeConsumer {
 
+    private final boolean[] sub;
     double subgraphWeights = 0;
     double complementWeights = 0;
     double cuts = 0;
 
+    /**
+     * Constructor
+     *
+     * @param sub Subgraph lookup table as returned by <code>subgraphMap</code>
+     */
+
+    Accumulator(boolean[] sub) {
+      this.sub = sub;
+    }
+
+    /**
+     * Accumulate the weight of a single edge
+     *
+     * @param u      Left endpoint
+     * @param v      Right endpoint
+     * @param weight Edge weight
+     */
+
+    @Override
+    public void accept(int u, int v, double weight) {
+      if (!sub[u] && !sub[v]) {
+        complementWeights += weight;
+      } else {
+        if (sub[u] && sub[v]) {
+          subgraphWeights += weight;
+        } else {
+          subgraphWeights += weight;
+          complementWeights += weight;
+          cuts += weight;
+        }
+      }
+    }
+
   }
 
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.traversal;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>Traversal executor backed by a fork/join pool</p>
+ * <p>The chunk range is split recursively until single chunks remain, which are then processed by the pool's workers.
+ * When called from within a worker of the same pool, the calling thread takes part in processing the chunks instead
+ * of blocking. Nested traversals are therefore safe.</p>
+ */
+
+public class ForkJoinTraversalExecutor implements TraversalExecutor {
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructor
+   *
+   * @param pool Fork/join pool
+   */
+
+  public ForkJoinTraversalExecutor(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public void execute(int numChunks, IntConsumer action) {
+    if (numChunks <= 0) {
+      return;
+    }
+    ChunkRangeTask task = new ChunkRangeTask(action, 0, numChunks);
+    if (ForkJoinTask.getPool() == pool) {
+      task.invoke();
+    } else {
+      pool.invoke(task);
+    }
+  }
+
+  /**
+   * @return The underlying fork/join pool
+   */
+
+  public ForkJoinPool getPool() {
+    return pool;
+  }
+
+  /**
+   * Recursive task over a range of chunk indices
+   */
+
+  private static class ChunkRangeTask extends RecursiveAction {
+
+    private final IntConsumer action;
+    private final int start;
+    private final int end;
+
+    /**
+     * Constructor
+     *
+     * @param action Action to be applied to every chunk index
+     * @param start  First chunk index
+     * @param end    Last chunk index (exclusive)
+     */
+
+    ChunkRangeTask(IntConsumer action, int start, int end) {
+      this.action = action;
+      this.start = start;
+      this.end = end;
+    }
+
+    /**
+     * Process a single chunk or split the range in halves
+     */
+
+    @Override
+    protected void compute() {
+      if (end - start == 1) {
+        action.accept(start);
+      } else {
+        int mid = (start + end) >>> 1;
+        invokeAll(new ChunkRangeTask(action, start, mid), new ChunkRangeTask(action, mid, end));
+      }
+    }
+
+  }
+
+}
@@ -7,31 +7,24 @@ package net.adeptropolis.frogspawn.graphs.traversal;
 
 import net.adeptropolis.frogspawn.graphs.Graph;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 /**
- * Parallel Edge Operations
+ * <p>Parallel Edge Operations</p>
+ * <p>The vertex range is cut into contiguous chunks as given by {@link Graph#partition(int)}, which are then processed
+ * by the current {@link TraversalExecutor}.</p>
  */
 
-public final class ParallelEdgeOps extends ParallelOps implements Runnable {
-
-  private final EdgeConsumer consumer;
-  private final TraversalMode mode;
+public final class ParallelEdgeOps extends ParallelOps {
 
   /**
-   * Constructor
-   *
-   * @param graph    Graph whose edges should be traversed
-   * @param consumer Instance of EdgeConsumer
-   * @param slice    Slice (essentially an identifier for the individual thread workload)
-   * @param mode     Selected traversal mode
-   * @param latch    Countdown latch
+   * Private constructor. This class only provides static methods.
    */
 
-  private ParallelEdgeOps(Graph graph, EdgeConsumer consumer, int slice, TraversalMode mode, CountDownLatch latch) {
-    super(graph, slice, latch);
-    this.consumer = consumer;
-    this.mode = mode;
+  private ParallelEdgeOps() {
   }
 
   /**
@@ -43,8 +36,8 @@ public final class ParallelEdgeOps extends ParallelOps implements Runnable {
    */
 
   public static void traverse(Graph graph, EdgeConsumer consumer, TraversalMode mode) {
-    if (graph.order() >= PARALLELIZATION_THRESHOLD) {
-      traverseParallel(graph, mode, consumer);
+    if (parallelize(graph)) {
+      traverseParallel(graph, graph.partition(defaultNumChunks()), chunk -> consumer, mode);
     } else {
       for (int i = 0; i < graph.order(); i++) {
         graph.traverseIncidentEdges(i, consumer, mode);
@@ -53,58 +46,80 @@ public final class ParallelEdgeOps extends ParallelOps implements Runnable {
   }
 
   /**
-   * Parallel traversal over all edges of a given graph
+   * <p>Parallel traversal over all edges of a given graph using a separate consumer for every chunk.</p>
+   * <p>Every consumer is only ever accessed by a single thread, so it may safely accumulate state without any
+   * synchronization. Because chunk boundaries only depend on the graph, the returned consumers have seen the same edges
+   * in the same order regardless of whether the graph has actually been traversed in parallel.</p>
    *
-   * @param graph    Graph
-   * @param mode     Traversal mode
-   * @param consumer Instance of EdgeConsumer
+   * @param graph     Graph
+   * @param consumers Supplier of new EdgeConsumer instances
+   * @param mode      Traversal mode
+   * @param <C>       Consumer type
+   * @return List of all consumers in chunk order
    */
 
-  private static void traverseParallel(Graph graph, TraversalMode mode, EdgeConsumer consumer) {
-    CountDownLatch latch = new CountDownLatch(THREAD_POOL_SIZE);
-    for (int i = 0; i < THREAD_POOL_SIZE; i++) {
-      EXECUTOR.submit(new ParallelEdgeOps(graph, consumer, i, mode, latch));
+  public static <C extends EdgeConsumer> List<C> traverseChunked(Graph graph, Supplier<C> consumers, TraversalMode mode) {
+    int[] chunks = graph.partition(defaultNumChunks());
+    List<C> chunkConsumers = new ArrayList<>(chunks.length - 1);
+    for (int i = 0; i < chunks.length - 1; i++) {
+      chunkConsumers.add(consumers.get());
     }
-    try {
-      latch.await();
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new ParallelOpsException(e);
+    if (parallelize(graph)) {
+      traverseParallel(graph, chunks, chunkConsumers::get, mode);
+    } else {
+      for (int i = 0; i < chunks.length - 1; i++) {
+        traverseRange(graph, chunkConsumers.get(i), chunks[i], chunks[i + 1], mode);
+      }
     }
+    return chunkConsumers;
   }
 
   /**
-   * Return the slice a vertex will fall into during traversal.
+   * <p>Parallel traversal over contiguous ranges of vertices that are balanced by their number of edges.</p>
+   * <p>This is meant for dedicated kernels that process whole rows of the adjacency matrix at once instead of
+   * consuming edges one by one. Small graphs are passed on as a single range.</p>
    *
-   * @param v Local vertex id
-   * @return Slice index
+   * @param graph    Graph
+   * @param consumer Consumer of vertex ranges
    */
 
-  public static int slice(int v) {
-    return v % THREAD_POOL_SIZE;
+  public static void traverseVertexRanges(Graph graph, VertexRangeConsumer consumer) {
+    if (parallelize(graph)) {
+      int[] chunks = graph.partition(defaultNumChunks());
+      executor().execute(chunks.length - 1, chunk -> consumer.accept(chunks[chunk], chunks[chunk + 1]));
+    } else {
+      consumer.accept(0, graph.order());
+    }
   }
 
   /**
-   * Return the maximum number of slices
+   * Parallel traversal over all edges of a given graph
    *
-   * @return Maximum slice index (exclusive)
+   * @param graph     Graph
+   * @param chunks    Chunk boundaries
+   * @param consumers Mapping from chunk indices to EdgeConsumer instances
+   * @param mode      Traversal mode
    */
 
-  public static int slices() {
-    return THREAD_POOL_SIZE;
+  private static void traverseParallel(Graph graph, int[] chunks, IntFunction<? extends EdgeConsumer> consumers, TraversalMode mode) {
+    executor().execute(chunks.length - 1,
+            chunk -> traverseRange(graph, consumers.apply(chunk), chunks[chunk], chunks[chunk + 1], mode));
   }
 
   /**
-   * Runnable entry point. Traverse all edges from the current slice and decrease the latch upon completion.
+   * Traverse all edges incident to a contiguous range of vertices
+   *
+   * @param graph    Graph
+   * @param consumer Instance of EdgeConsumer
+   * @param start    First local vertex id
+   * @param end      Last local vertex id (exclusive)
+   * @param mode     Traversal mode
    */
 
-  @Override
-  public void run() {
-    int v;
-    for (int i = 0; (v = i * THREAD_POOL_SIZE + slice) < graph.order(); i++) {
+  private static void traverseRange(Graph graph, EdgeConsumer consumer, int start, int end, TraversalMode mode) {
+    for (int v = start; v < end; v++) {
       graph.traverseIncidentEdges(v, consumer, mode);
     }
-    latch.countDown();
   }
 
 }
@@ -7,65 +7,154 @@ package net.adeptropolis.frogspawn.graphs.traversal;
 
 import net.adeptropolis.frogspawn.graphs.Graph;
 
-import java.lang.Thread.UncaughtExceptionHandler;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 /**
- * Base class for parallel graph traversal operations
+ * <p>Base class for parallel graph traversal operations</p>
+ * <p>The executor used for a traversal is determined as follows: An executor that has been set for the current thread
+ * using {@link #runWith(TraversalExecutor, Runnable)} always takes precedence. Otherwise, traversals that are started
+ * from within a fork/join pool use that very pool. All other traversals use a shared default pool.</p>
  */
 
-abstract class ParallelOps {
+public abstract class ParallelOps {
 
   /**
    * Minimum number of vertices required to allow for parallel traversal (as opposed to single-threaded)
    */
   static final int PARALLELIZATION_THRESHOLD = 128;
 
-  static final int THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors();
-  static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
-          THREAD_POOL_SIZE, THREAD_POOL_SIZE, Long.MAX_VALUE, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DaemonThreadOps());
+  /**
+   * Number of chunks per processor that the vertex range is cut into. Using more than one chunk per processor allows
+   * idle threads to take over work from the remaining chunks if the workload turns out to be unbalanced.
+   */
+  static final int CHUNKS_PER_PROCESSOR = 8;
+
+  static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
 
-  final Graph graph;
-  final int slice;
-  final CountDownLatch latch;
+  private static final TraversalExecutor DEFAULT_EXECUTOR = new ForkJoinTraversalExecutor(new ForkJoinPool(AVAILABLE_PROCESSORS));
+  private static final ThreadLocal<TraversalExecutor> EXECUTOR = new ThreadLocal<>();
 
   /**
-   * Constructor
+   * Run an action such that all parallel graph operations that it triggers from within the current thread
+   * use a given executor.
    *
-   * @param graph The graph that whose edge are to be traversed
-   * @param slice Graph slice processed by this thread
-   * @param latch CountDown latch
+   * @param executor Traversal executor
+   * @param action   Action
    */
 
-  ParallelOps(Graph graph, int slice, CountDownLatch latch) {
-    this.graph = graph;
-    this.slice = slice;
-    this.latch = latch;
+  public static void runWith(TraversalExecutor executor, Runnable action) {
+    callWith(executor, () -> {
+      action.run();
+      return null;
+    });
   }
 
-  static class DaemonThreadOps implements ThreadFactory, UncaughtExceptionHandler {
-
-    private final AtomicInteger threadId;
+  /**
+   * Compute a result such that all parallel graph operations that it triggers from within the current thread
+   * use a given executor.
+   *
+   * @param executor Traversal executor
+   * @param action   Action computing the result
+   * @param <T>      Result type
+   * @return Result of the action
+   */
 
-    DaemonThreadOps() {
-      threadId = new AtomicInteger();
+  public static <T> T callWith(TraversalExecutor executor, Supplier<T> action) {
+    TraversalExecutor previous = EXECUTOR.get();
+    EXECUTOR.set(executor);
+    try {
+      return action.get();
+    } finally {
+      if (previous != null) {
+        EXECUTOR.set(previous);
+      } else {
+        EXECUTOR.remove();
+      }
     }
+  }
+
+  /**
+   * Run an action such that all parallel graph operations that it triggers from within the current thread
+   * are performed sequentially instead.
+   *
+   * @param action Action
+   */
+
+  public static void runSequentially(Runnable action) {
+    runWith(SequentialTraversalExecutor.INSTANCE, action);
+  }
+
+  /**
+   * Process a number of independent chunks of work using the current traversal executor. This allows for operations
+   * other than graph traversals, such as graph construction, to respect the executor settings.
+   *
+   * @param numChunks Number of chunks
+   * @param action    Action to be invoked for every chunk index
+   */
+
+  public static void executeChunks(int numChunks, IntConsumer action) {
+    executor().execute(numChunks, action);
+  }
+
+  /**
+   * Determine the executor to be used for traversals started from the current thread
+   *
+   * @return Traversal executor
+   */
 
-    @Override
-    @SuppressWarnings("NullableProblems")
-    public Thread newThread(Runnable runnable) {
-      Thread thread = new Thread(runnable, String.format("worker-thread-%d", threadId.getAndIncrement()));
-      thread.setDaemon(true);
-      thread.setPriority(5);
-      thread.setUncaughtExceptionHandler(this);
-      return thread;
+  static TraversalExecutor executor() {
+    TraversalExecutor executor = EXECUTOR.get();
+    if (executor != null) {
+      return executor;
     }
+    ForkJoinPool currentPool = ForkJoinTask.getPool();
+    if (currentPool != null) {
+      return new ForkJoinTraversalExecutor(currentPool);
+    }
+    return DEFAULT_EXECUTOR;
+  }
+
+  /**
+   * Determine whether operations on a given graph are worth being run in parallel
+   *
+   * @param graph A graph
+   * @return <code>true</code> if the graph is large enough
+   */
+
+  static boolean parallelize(Graph graph) {
+    return graph.order() >= PARALLELIZATION_THRESHOLD;
+  }
+
+  /**
+   * Default number of chunks to be requested for parallel traversals. This purposely does not depend on the
+   * executor, such that results accumulated per chunk are the same regardless of how they have been executed.
+   *
+   * @return Number of chunks
+   */
+
+  public static int defaultNumChunks() {
+    return AVAILABLE_PROCESSORS * CHUNKS_PER_PROCESSOR;
+  }
+
+  /**
+   * Cut a vertex range into contiguous chunks of roughly equal numbers of vertices
+   *
+   * @param order     Number of vertices
+   * @param numChunks Desired number of chunks
+   * @return Chunk boundaries, i.e. chunk <code>i</code> ranges from <code>chunks[i]</code> (inclusive)
+   * to <code>chunks[i + 1]</code> (exclusive). There is always at least one (possibly empty) chunk.
+   */
 
-    @Override
-    public void uncaughtException(Thread thread, Throwable throwable) {
-      throw new ParallelOpsException(throwable);
+  public static int[] uniformChunks(int order, int numChunks) {
+    int n = Math.max(1, Math.min(numChunks, order));
+    int[] chunks = new int[n + 1];
+    for (int i = 1; i <= n; i++) {
+      chunks[i] = (int) ((long) order * i / n);
     }
+    return chunks;
   }
 
 }
@@ -7,40 +7,29 @@ package net.adeptropolis.frogspawn.graphs.traversal;
 
 import net.adeptropolis.frogspawn.graphs.Graph;
 
-import java.util.concurrent.CountDownLatch;
-
 /**
  * Parallel Vertex Operations
  */
 
-public final class ParallelVertexOps extends ParallelOps implements Runnable {
-
-  private final VertexConsumer consumer;
+public final class ParallelVertexOps extends ParallelOps {
 
   /**
-   * Constructor
-   *
-   * @param graph    Graph whose vertices should be traversed
-   * @param consumer Instance of VertexConsumer
-   * @param slice    Slice (essentially an identifier for the individual thread workload)
-   * @param latch    Countdown latch
+   * Private constructor. This class only provides static methods.
    */
 
-  private ParallelVertexOps(Graph graph, VertexConsumer consumer, int slice, CountDownLatch latch) {
-    super(graph, slice, latch);
-    this.consumer = consumer;
+  private ParallelVertexOps() {
   }
 
   /**
    * Traverse over all vertices of a given graph. Graphs larger than <code>PARALLELIZATION_THRESHOLD</code>
-   * will be traversed in parallel.
+   * will be traversed using the current traversal executor.
    *
    * @param graph    Graph
    * @param consumer Instance of VertexConsumer
    */
 
   public static void traverse(Graph graph, VertexConsumer consumer) {
-    if (graph.order() >= PARALLELIZATION_THRESHOLD) {
+    if (parallelize(graph)) {
       traverseParallel(graph, consumer);
     } else {
       for (int i = 0; i < graph.order(); i++) {
@@ -50,36 +39,20 @@ public final class ParallelVertexOps extends ParallelOps implements Runnable {
   }
 
   /**
-   * Parallel traversal over all vertices of a given graph
+   * Parallel traversal over all vertices of a given graph. The vertex range is cut into contiguous chunks
+   * of equal size.
    *
    * @param graph    Graph
    * @param consumer Instance of VertexConsumer
    */
 
   private static void traverseParallel(Graph graph, VertexConsumer consumer) {
-    CountDownLatch latch = new CountDownLatch(THREAD_POOL_SIZE);
-    for (int i = 0; i < THREAD_POOL_SIZE; i++) {
-      EXECUTOR.submit(new ParallelVertexOps(graph, consumer, i, latch));
-    }
-    try {
-      latch.await();
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new ParallelOpsException(e);
-    }
-  }
-
-  /**
-   * Runnable entry point. Traverse all vertices from the current slice and decrease the latch upon completion.
-   */
-
-  @Override
-  public void run() {
-    int v;
-    for (int i = 0; (v = i * THREAD_POOL_SIZE + slice) < graph.order(); i++) {
-      consumer.accept(v);
-    }
-    latch.countDown();
+    int[] chunks = uniformChunks(graph.order(), defaultNumChunks());
+    executor().execute(chunks.length - 1, chunk -> {
+      for (int v = chunks[chunk]; v < chunks[chunk + 1]; v++) {
+        consumer.accept(v);
+      }
+    });
   }
 
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.traversal;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Traversal executor processing all chunks in order on the calling thread
+ */
+
+public final class SequentialTraversalExecutor implements TraversalExecutor {
+
+  public static final SequentialTraversalExecutor INSTANCE = new SequentialTraversalExecutor();
+
+  /**
+   * Constructor
+   */
+
+  private SequentialTraversalExecutor() {
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+
+  @Override
+  public void execute(int numChunks, IntConsumer action) {
+    for (int i = 0; i < numChunks; i++) {
+      action.accept(i);
+    }
+  }
+
+  /**
+   * @return Just the simple name
+   */
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName();
+  }
+
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.traversal;
+
+import java.util.function.IntConsumer;
+
+/**
+ * <p>Executes the chunks of a graph traversal</p>
+ * <p>Executors can be set for the scope of an action using {@link ParallelOps#runWith(TraversalExecutor, Runnable)}</p>
+ */
+
+@FunctionalInterface
+public interface TraversalExecutor {
+
+  /**
+   * Process all chunks of a traversal. Must not return before every chunk has been processed.
+   *
+   * @param numChunks Number of chunks
+   * @param action    Action to be applied to every chunk index in <code>[0, numChunks)</code>
+   */
+
+  void execute(int numChunks, IntConsumer action);
+
+}
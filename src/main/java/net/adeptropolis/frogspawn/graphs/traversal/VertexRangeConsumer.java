@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.traversal;
+
+@FunctionalInterface
+public interface VertexRangeConsumer {
+
+  void accept(int start, int end);
+
+}
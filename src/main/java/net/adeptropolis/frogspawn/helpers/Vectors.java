@@ -33,6 +33,23 @@ public class Vectors {
     return prod;
   }
 
+  /**
+   * Compute the scalar product of two single precision vectors. The sum is accumulated with double precision.
+   *
+   * @param v left argument
+   * @param w right argument
+   * @return <code>v ⋅ w</code>
+   */
+
+  public static double scalarProduct(float[] v, float[] w) {
+    Validate.isTrue(v.length == w.length);
+    double prod = 0;
+    for (int i = 0; i < v.length; i++) {
+      prod += (double) v[i] * w[i];
+    }
+    return prod;
+  }
+
   /**
    * In-place vector normalization using the regular Euclidean norm.
    *
@@ -46,6 +63,19 @@ public class Vectors {
     }
   }
 
+  /**
+   * In-place normalization of a single precision vector using the regular Euclidean norm.
+   *
+   * @param v A vector
+   */
+
+  public static void normalize2(float[] v) {
+    double scale = 1.0 / norm2(v);
+    for (int i = 0; i < v.length; i++) {
+      v[i] = (float) (v[i] * scale);
+    }
+  }
+
   /**
    * Compute the Euclidean norm of a vector
    *
@@ -61,6 +91,21 @@ public class Vectors {
     return Math.sqrt(norm);
   }
 
+  /**
+   * Compute the Euclidean norm of a single precision vector. The sum is accumulated with double precision.
+   *
+   * @param v A vector
+   * @return Norm of <code>v</code>
+   */
+
+  public static double norm2(float[] v) {
+    double norm = 0;
+    for (float value : v) {
+      norm += (double) value * value;
+    }
+    return Math.sqrt(norm);
+  }
+
   /**
    * In-place vector normalization using the regular Euclidean norm. In addition, this method will modify the sign of the resulting
    * vector entries s.t. the sign of the first entry is always positive.
@@ -76,5 +121,34 @@ public class Vectors {
     }
   }
 
+  /**
+   * Round a vector to single precision
+   *
+   * @param v A vector
+   * @return Single precision copy of <code>v</code>
+   */
+
+  public static float[] toFloat(double[] v) {
+    float[] result = new float[v.length];
+    for (int i = 0; i < v.length; i++) {
+      result[i] = (float) v[i];
+    }
+    return result;
+  }
+
+  /**
+   * Convert a single precision vector to double precision
+   *
+   * @param v A vector
+   * @return Double precision copy of <code>v</code>
+   */
+
+  public static double[] toDouble(float[] v) {
+    double[] result = new double[v.length];
+    for (int i = 0; i < v.length; i++) {
+      result[i] = v[i];
+    }
+    return result;
+  }
 
-}
\ No newline at end of file
+}
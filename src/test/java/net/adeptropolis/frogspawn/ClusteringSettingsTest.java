@@ -8,6 +8,9 @@ package net.adeptropolis.frogspawn;
 import net.adeptropolis.frogspawn.clustering.Cluster;
 import net.adeptropolis.frogspawn.clustering.affiliation.AffiliationMetric;
 import net.adeptropolis.frogspawn.clustering.affiliation.DefaultAffiliationMetric;
+import net.adeptropolis.frogspawn.clustering.execution.DefaultExecutionPolicy;
+import net.adeptropolis.frogspawn.clustering.execution.ExecutionMode;
+import net.adeptropolis.frogspawn.clustering.execution.ExecutionPolicy;
 import net.adeptropolis.frogspawn.clustering.postprocessing.Postprocessor;
 import net.adeptropolis.frogspawn.clustering.postprocessing.SingletonMode;
 import net.adeptropolis.frogspawn.clustering.postprocessing.TreeTraversalMode;
@@ -15,7 +18,9 @@ import net.adeptropolis.frogspawn.clustering.postprocessing.postprocessors.Postp
 import net.adeptropolis.frogspawn.digest.DigestRanking;
 import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.ConstantSigTrailConvergence;
+import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.LanczosSolver;
 import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.PartialConvergenceCriterion;
+import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.PowerIterationSolver;
 import net.adeptropolis.frogspawn.graphs.implementations.SparseGraph;
 import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
 import net.adeptropolis.frogspawn.graphs.similarity.GraphSimilarityMetric;
@@ -24,6 +29,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
 
 import static net.adeptropolis.frogspawn.clustering.postprocessing.SingletonMode.ASSIMILATE;
 import static net.adeptropolis.frogspawn.clustering.postprocessing.SingletonMode.REDISTRIBUTE;
@@ -33,6 +39,8 @@ import static org.hamcrest.Matchers.*;
 
 public class ClusteringSettingsTest {
 
+  private static final ForkJoinPool FORK_JOIN_POOL = new ForkJoinPool(3);
+
   private ClusteringSettings clusteringSettings;
   private Graph graph;
 
@@ -52,9 +60,16 @@ public class ClusteringSettingsTest {
             .minAffiliation(0.465)
             .minClusterSize(4242)
             .maxIterations(42356)
+            .eigenSolver(new LanczosSolver())
+            .multilevelInitialVectors(true)
+            .warmStartInitialVectors(true)
             .trailSize(783)
             .convergenceThreshold(0.74)
             .randomSeed(23857L)
+            .parallelism(17)
+            .executionPolicy(new FakeExecutionPolicy())
+            .forkJoinPool(FORK_JOIN_POOL)
+            .materializationThreshold(0.314)
             .minChildren(1337)
             .customPostprocessors(Collections.singletonList(new FakeCustomPostprocessor()))
             .similarityMetric(new FakeSimilarityMetric())
@@ -76,7 +91,14 @@ public class ClusteringSettingsTest {
     assertThat(defaultSettings.getMinAffiliation(), closeTo(0.2, 1E-6));
     assertThat(defaultSettings.getMinClusterSize(), is(50));
     assertThat(defaultSettings.getMaxIterations(), is(540));
+    assertThat(defaultSettings.getEigenSolver(), instanceOf(PowerIterationSolver.class));
+    assertThat(defaultSettings.isMultilevelInitialVectors(), is(false));
+    assertThat(defaultSettings.isWarmStartInitialVectors(), is(false));
     assertThat(defaultSettings.getRandomSeed(), is(42133742L));
+    assertThat(defaultSettings.getParallelism(), is(Runtime.getRuntime().availableProcessors()));
+    assertThat(defaultSettings.getExecutionPolicy(), instanceOf(DefaultExecutionPolicy.class));
+    assertThat(defaultSettings.getForkJoinPool(), is(nullValue()));
+    assertThat(defaultSettings.getMaterializationThreshold(), closeTo(0.1, 1E-9));
     validateConvergenceCriterion(defaultSettings, 20, 95);
     assertThat(defaultSettings.getSimilarityMetric(), instanceOf(NormalizedCutMetric.class));
     assertThat(defaultSettings.getMinParentSimilarity(), closeTo(0.09, 1E-9));
@@ -121,11 +143,46 @@ public class ClusteringSettingsTest {
     assertThat(clusteringSettings.getMaxIterations(), is(42356));
   }
 
+  @Test
+  public void eigenSolver() {
+    assertThat(clusteringSettings.getEigenSolver(), instanceOf(LanczosSolver.class));
+  }
+
+  @Test
+  public void multilevelInitialVectors() {
+    assertThat(clusteringSettings.isMultilevelInitialVectors(), is(true));
+  }
+
+  @Test
+  public void warmStartInitialVectors() {
+    assertThat(clusteringSettings.isWarmStartInitialVectors(), is(true));
+  }
+
   @Test
   public void randomSeed() {
     assertThat(clusteringSettings.getRandomSeed(), is(23857L));
   }
 
+  @Test
+  public void parallelism() {
+    assertThat(clusteringSettings.getParallelism(), is(17));
+  }
+
+  @Test
+  public void forkJoinPool() {
+    assertThat(clusteringSettings.getForkJoinPool(), is(FORK_JOIN_POOL));
+  }
+
+  @Test
+  public void materializationThreshold() {
+    assertThat(clusteringSettings.getMaterializationThreshold(), closeTo(0.314, 1E-9));
+  }
+
+  @Test
+  public void executionPolicy() {
+    assertThat(clusteringSettings.getExecutionPolicy(), instanceOf(FakeExecutionPolicy.class));
+  }
+
   @Test
   public void convergenceCriterion() {
     validateConvergenceCriterion(clusteringSettings, 783, 74);
@@ -235,6 +292,14 @@ public class ClusteringSettingsTest {
     }
   }
 
+  private static class FakeExecutionPolicy implements ExecutionPolicy {
+
+    @Override
+    public ExecutionMode select(Graph graph, int concurrentProtoclusters) {
+      return ExecutionMode.INTER_GRAPH;
+    }
+  }
+
   private static class FakeSimilarityMetric implements GraphSimilarityMetric {
 
     @Override
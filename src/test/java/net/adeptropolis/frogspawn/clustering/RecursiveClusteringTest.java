@@ -7,6 +7,7 @@ package net.adeptropolis.frogspawn.clustering;
 
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import net.adeptropolis.frogspawn.ClusteringSettings;
+import net.adeptropolis.frogspawn.clustering.execution.ExecutionMode;
 import net.adeptropolis.frogspawn.digest.ClusterDigester;
 import net.adeptropolis.frogspawn.digest.Digest;
 import net.adeptropolis.frogspawn.graphs.Graph;
@@ -19,6 +20,7 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 import static net.adeptropolis.frogspawn.digest.DigestRankings.COMBINED_RANKING;
@@ -77,6 +79,16 @@ public class RecursiveClusteringTest {
     assertThat(allClusterVertices, is(allGraphVertices));
   }
 
+  @Test
+  public void warmStartPreservesVertices() {
+    ClusteringSettings settings = ClusteringSettings.builder().warmStartInitialVectors(true).build();
+    Cluster warmStartRoot = RecursiveClustering.run(defaultGraph, settings);
+    IntOpenHashSet allClusterVertices = new IntOpenHashSet(warmStartRoot.aggregateVertices().iterator());
+    IntOpenHashSet allGraphVertices = new IntOpenHashSet(defaultGraph.collectVertices());
+    assertThat(warmStartRoot.aggregateVertices().size(), is(allClusterVertices.size()));
+    assertThat(allClusterVertices, is(allGraphVertices));
+  }
+
   @Test
   public void verticesAreUnique() {
     int distinctClusterVertices = new IntOpenHashSet(root.aggregateVertices().iterator()).size();
@@ -106,6 +118,74 @@ public class RecursiveClusteringTest {
     verifyDeterminism(graph, settings, 5);
   }
 
+  @Test
+  public void parallelismDoesNotAffectOutcome() {
+    ClusteringSettings sequentialSettings = ClusteringSettings.builder()
+            .minClusterSize(50)
+            .minAffiliation(0.1)
+            .parallelism(1)
+            .build();
+    ClusteringSettings concurrentSettings = ClusteringSettings.builder()
+            .minClusterSize(50)
+            .minAffiliation(0.1)
+            .parallelism(4)
+            .build();
+    assertThat(fingerprint(defaultGraph, concurrentSettings), is(fingerprint(defaultGraph, sequentialSettings)));
+  }
+
+  @Test
+  public void executionModeDoesNotAffectOutcome() {
+    ClusteringSettings intraGraphSettings = ClusteringSettings.builder()
+            .minClusterSize(50)
+            .minAffiliation(0.1)
+            .parallelism(4)
+            .executionPolicy((graph, concurrentProtoclusters) -> ExecutionMode.INTRA_GRAPH)
+            .build();
+    ClusteringSettings interGraphSettings = ClusteringSettings.builder()
+            .minClusterSize(50)
+            .minAffiliation(0.1)
+            .parallelism(4)
+            .executionPolicy((graph, concurrentProtoclusters) -> ExecutionMode.INTER_GRAPH)
+            .build();
+    assertThat(fingerprint(defaultGraph, interGraphSettings), is(fingerprint(defaultGraph, intraGraphSettings)));
+  }
+
+  @Test
+  public void materializationDoesNotAffectOutcome() {
+    ClusteringSettings plainSettings = ClusteringSettings.builder()
+            .minClusterSize(50)
+            .minAffiliation(0.1)
+            .materializationThreshold(0)
+            .build();
+    ClusteringSettings materializingSettings = ClusteringSettings.builder()
+            .minClusterSize(50)
+            .minAffiliation(0.1)
+            .materializationThreshold(1.0)
+            .build();
+    assertThat(fingerprint(defaultGraph, materializingSettings), is(fingerprint(defaultGraph, plainSettings)));
+  }
+
+  @Test
+  public void sharedForkJoinPool() {
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      ClusteringSettings ownPoolSettings = ClusteringSettings.builder()
+              .minClusterSize(50)
+              .minAffiliation(0.1)
+              .parallelism(3)
+              .build();
+      ClusteringSettings sharedPoolSettings = ClusteringSettings.builder()
+              .minClusterSize(50)
+              .minAffiliation(0.1)
+              .forkJoinPool(pool)
+              .build();
+      assertThat(fingerprint(defaultGraph, sharedPoolSettings), is(fingerprint(defaultGraph, ownPoolSettings)));
+      assertThat(pool.isShutdown(), is(false));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test
   public void problematicSmallGraph() {
     SparseGraph graph = new SparseGraphBuilder()
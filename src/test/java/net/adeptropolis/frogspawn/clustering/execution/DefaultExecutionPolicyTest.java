@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.clustering.execution;
+
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class DefaultExecutionPolicyTest extends GraphTestBase {
+
+  @Test
+  public void singleProtocluster() {
+    ExecutionPolicy policy = new DefaultExecutionPolicy();
+    assertThat(policy.select(completeGraph(10), 1), is(ExecutionMode.INTRA_GRAPH));
+  }
+
+  @Test
+  public void smallGraphWithSiblings() {
+    ExecutionPolicy policy = new DefaultExecutionPolicy();
+    assertThat(policy.select(completeGraph(10), 2), is(ExecutionMode.INTER_GRAPH));
+  }
+
+  @Test
+  public void largeGraphWithSiblings() {
+    Graph graph = completeGraph(100);
+    ExecutionPolicy policy = new DefaultExecutionPolicy(graph.size());
+    assertThat(policy.select(graph, 8), is(ExecutionMode.INTRA_GRAPH));
+  }
+
+  @Test
+  public void customThreshold() {
+    Graph graph = completeGraph(100);
+    DefaultExecutionPolicy policy = new DefaultExecutionPolicy(graph.size() + 1);
+    assertThat(policy.getMinIntraGraphSize(), is(graph.size() + 1));
+    assertThat(policy.select(graph, 8), is(ExecutionMode.INTER_GRAPH));
+  }
+
+  @Test
+  public void defaultThreshold() {
+    assertThat(new DefaultExecutionPolicy().getMinIntraGraphSize(), is(1L << 20));
+  }
+
+}
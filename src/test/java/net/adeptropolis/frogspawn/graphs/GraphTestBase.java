@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -322,6 +323,14 @@ public class GraphTestBase {
     return builder.build();
   }
 
+  protected static SparseGraph randomGraph(SparseGraphBuilder builder, int n, int numEdges) {
+    Random random = new Random(1337);
+    for (int i = 0; i < numEdges; i++) {
+      builder.add(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(10));
+    }
+    return builder.build();
+  }
+
   protected Graph butterflyGraph() {
     return new SparseGraphBuilder()
             .add(0, 1, 1)
@@ -372,6 +381,30 @@ public class GraphTestBase {
     return b.build();
   }
 
+  protected static Graph twoCommunities(int cliquesPerCommunity) {
+    SparseGraphBuilder b = new SparseGraphBuilder();
+    Random random = new Random(1337);
+    int communitySize = 4 * cliquesPerCommunity;
+    for (int community = 0; community < 2; community++) {
+      int offset = community * communitySize;
+      for (int clique = 0; clique < cliquesPerCommunity; clique++) {
+        int base = offset + 4 * clique;
+        for (int i = 0; i < 4; i++) {
+          for (int j = i + 1; j < 4; j++) {
+            b.add(base + i, base + j, 2);
+          }
+        }
+        for (int i = 0; i < 8; i++) {
+          b.add(base + random.nextInt(4), offset + random.nextInt(communitySize), 1);
+        }
+      }
+    }
+    for (int i = 0; i < 5; i++) {
+      b.add(random.nextInt(communitySize), communitySize + random.nextInt(communitySize), 1);
+    }
+    return b.build();
+  }
+
   protected long bandedGraphFingerprint(int n, int k) {
     long fp = 0;
     for (long i = 0; i < n; i++) {
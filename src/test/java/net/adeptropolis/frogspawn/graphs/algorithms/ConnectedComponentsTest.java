@@ -5,16 +5,20 @@
 
 package net.adeptropolis.frogspawn.graphs.algorithms;
 
+import it.unimi.dsi.fastutil.ints.IntArrays;
 import it.unimi.dsi.fastutil.ints.IntIterators;
 import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Random;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 
 public class ConnectedComponentsTest extends GraphTestBase {
 
@@ -59,4 +63,38 @@ public class ConnectedComponentsTest extends GraphTestBase {
     assertThat(subgraphs.get(2), contains(4, 5, 6));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void isolatedVertices() {
+    Graph graph = new SparseGraphBuilder().add(1, 3, 1).add(5, 5, 1).build();
+    int[][] components = ConnectedComponents.components(graph);
+    assertThat(components, is(new int[][]{{0}, {1, 3}, {2}, {4}, {5}}));
+  }
+
+  @Test
+  public void manyComponents() {
+    int numComponents = 1000;
+    int size = 200;
+    SparseGraphBuilder builder = new SparseGraphBuilder();
+    Random random = new Random(1337);
+    for (int c = 0; c < numComponents; c++) {
+      int[] members = new int[size];
+      for (int i = 0; i < size; i++) {
+        members[i] = c + i * numComponents;
+      }
+      IntArrays.shuffle(members, random);
+      for (int i = 1; i < size; i++) {
+        builder.add(members[i - 1], members[i], 1);
+        builder.add(members[random.nextInt(i)], members[i], 1);
+      }
+    }
+    int[][] components = ConnectedComponents.components(builder.build());
+    assertThat(components.length, is(numComponents));
+    for (int c = 0; c < numComponents; c++) {
+      assertThat(components[c].length, is(size));
+      for (int i = 0; i < size; i++) {
+        assertThat(components[c][i], is(c + i * numComponents));
+      }
+    }
+  }
+
+}
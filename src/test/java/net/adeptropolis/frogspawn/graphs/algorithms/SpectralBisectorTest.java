@@ -6,7 +6,10 @@
 package net.adeptropolis.frogspawn.graphs.algorithms;
 
 import net.adeptropolis.frogspawn.ClusteringSettings;
+import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.ChebyshevSolver;
+import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.LanczosSolver;
 import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.PowerIteration;
 import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.PowerIterationException;
 import net.adeptropolis.frogspawn.graphs.algorithms.power_iteration.RandomInitialVectorsSource;
@@ -15,7 +18,7 @@ import org.junit.Test;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThrows;
 
 public class SpectralBisectorTest extends GraphTestBase {
@@ -39,6 +42,71 @@ public class SpectralBisectorTest extends GraphTestBase {
     assertThat(partitions.get(1), containsInAnyOrder(5, 6, 7, 8));
   }
 
+  @Test
+  public void lanczosSolver() throws PowerIterationException {
+    ClusteringSettings lanczosSettings = ClusteringSettings.builder()
+            .minClusterSize(0)
+            .minAffiliation(0)
+            .trailSize(100)
+            .convergenceThreshold(0.999)
+            .eigenSolver(new LanczosSolver())
+            .build();
+    SpectralBisector bisector = new SpectralBisector(lanczosSettings, IV_SOURCE);
+    SubgraphCollectingConsumer c = new SubgraphCollectingConsumer();
+    bisector.bisect(completeBipartiteWithWeakLink(), c);
+    List<List<Integer>> partitions = c.vertices();
+    assertThat(partitions.get(0), containsInAnyOrder(0, 1, 2, 3, 4));
+    assertThat(partitions.get(1), containsInAnyOrder(5, 6, 7, 8));
+  }
+
+  @Test
+  public void chebyshevSolver() throws PowerIterationException {
+    ClusteringSettings chebyshevSettings = ClusteringSettings.builder()
+            .minClusterSize(0)
+            .minAffiliation(0)
+            .trailSize(100)
+            .convergenceThreshold(0.999)
+            .eigenSolver(new ChebyshevSolver())
+            .build();
+    SpectralBisector bisector = new SpectralBisector(chebyshevSettings, IV_SOURCE);
+    SubgraphCollectingConsumer c = new SubgraphCollectingConsumer();
+    bisector.bisect(completeBipartiteWithWeakLink(), c);
+    List<List<Integer>> partitions = c.vertices();
+    assertThat(partitions.get(0), containsInAnyOrder(0, 1, 2, 3, 4));
+    assertThat(partitions.get(1), containsInAnyOrder(5, 6, 7, 8));
+  }
+
+  @Test
+  public void multilevelInitialVectors() throws PowerIterationException {
+    ClusteringSettings multilevelSettings = ClusteringSettings.builder()
+            .multilevelInitialVectors(true)
+            .build();
+    SpectralBisector bisector = new SpectralBisector(multilevelSettings, IV_SOURCE);
+    SubgraphCollectingConsumer c = new SubgraphCollectingConsumer();
+    Graph graph = twoCommunities(1000);
+    bisector.bisect(graph, c);
+    List<List<Integer>> partitions = c.vertices();
+    assertThat(partitions, hasSize(2));
+    for (List<Integer> partition : partitions) {
+      assertThat(partition, hasSize(graph.order() / 2));
+      boolean firstCommunity = partition.get(0) < graph.order() / 2;
+      assertThat(partition, everyItem(firstCommunity ? lessThan(graph.order() / 2) : greaterThanOrEqualTo(graph.order() / 2)));
+    }
+  }
+
+  @Test
+  public void countsIterations() throws PowerIterationException {
+    SpectralBisector bisector = new SpectralBisector(settings, IV_SOURCE);
+    bisector.bisect(completeBipartiteWithWeakLink(), graph -> {
+    });
+    assertThat(bisector.getBisections(), is(1L));
+    assertThat(bisector.getIterations(), greaterThanOrEqualTo(100L));
+    assertThrows(PowerIteration.MaxIterationsExceededException.class, () -> bisector.bisect(largeCircle(), graph -> {
+    }));
+    assertThat(bisector.getBisections(), is(2L));
+    assertThat(bisector.getIterations(), greaterThanOrEqualTo(100L + settings.getMaxIterations()));
+  }
+
   @Test
   public void iterationExcessYieldsException() {
     SpectralBisector bisector = new SpectralBisector(settings, IV_SOURCE);
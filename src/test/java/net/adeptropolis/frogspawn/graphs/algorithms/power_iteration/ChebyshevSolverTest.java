@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
+import net.adeptropolis.frogspawn.graphs.matrices.ShiftedNormalizedLaplacian;
+import net.adeptropolis.frogspawn.helpers.Vectors;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThrows;
+
+public class ChebyshevSolverTest extends GraphTestBase {
+
+  private static final RandomInitialVectorsSource RANDOM_IV = new RandomInitialVectorsSource(42133742L);
+
+  @Test
+  public void normalizedLaplacian() throws PowerIterationException {
+    ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(EIGEN_REF_GRAPH);
+    double[] r = new ChebyshevSolver().apply(op, new DeltaNormConvergence(1E-9), RANDOM_IV.generate(op.size()), 1000);
+    Vectors.normalize2Sig(r);
+    assertThat(r[0], closeTo(0.33423, 1E-5));
+    assertThat(r[1], closeTo(0.18452, 1E-5));
+    assertThat(r[2], closeTo(-0.59518, 1E-5));
+    assertThat(r[3], closeTo(0.33423, 1E-5));
+    assertThat(r[4], closeTo(0.18452, 1E-5));
+    assertThat(r[5], closeTo(-0.59518, 1E-5));
+  }
+
+  @Test
+  public void weightedK20NormalizedLaplacian() throws PowerIterationException {
+    ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(WEIGHTED_K20);
+    double[] iv = RANDOM_IV.generate(op.size());
+    double[] r = new ChebyshevSolver(5, 0.8).apply(op, new DeltaNormConvergence(1E-9), iv, 10000);
+    Vectors.normalize2Sig(r);
+    double[] expected = new double[]{0.422554, -0.102237, 0.287406, 0.100775, -0.178143, -0.115820, -0.033225, -0.029026, -0.107263, -0.208185, -0.271339, 0.262986, 0.152637, 0.060499, 0.319281, -0.189389, -0.366464, 0.155779, 0.221442, -0.318028};
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(r[i], closeTo(expected[i], 1E-5));
+    }
+  }
+
+  @Test
+  public void iterationsExcess() {
+    ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(WEIGHTED_K20);
+    double[] iv = RANDOM_IV.generate(op.size());
+    assertThrows(PowerIteration.MaxIterationsExceededException.class,
+            () -> new ChebyshevSolver().apply(op, new DeltaNormConvergence(1E-18), iv, 5));
+  }
+
+  @Test
+  public void invalidParameters() {
+    assertThrows(IllegalArgumentException.class, () -> new ChebyshevSolver(0, 0.9));
+    assertThrows(IllegalArgumentException.class, () -> new ChebyshevSolver(10, 1));
+  }
+
+  @Test
+  public void fewerMultiplicationsThanPowerIteration() throws PowerIterationException {
+    Graph graph = randomGraph(new SparseGraphBuilder(), 2000, 20000);
+    ShiftedNormalizedLaplacian chebyshev = new ShiftedNormalizedLaplacian(graph);
+    ShiftedNormalizedLaplacian powerIteration = new ShiftedNormalizedLaplacian(graph);
+    double[] iv = RANDOM_IV.generate(graph.order());
+    double[] expected = new PowerIterationSolver().apply(powerIteration, new DeltaNormConvergence(1E-8), iv, 100000).clone();
+    double[] r = new ChebyshevSolver().apply(chebyshev, new DeltaNormConvergence(1E-8), iv, 100000);
+    assertThat(Math.abs(Vectors.scalarProduct(r, expected)), closeTo(1, 1E-6));
+    assertThat(chebyshev.getMultiplications() * 2, lessThan(powerIteration.getMultiplications()));
+  }
+
+}
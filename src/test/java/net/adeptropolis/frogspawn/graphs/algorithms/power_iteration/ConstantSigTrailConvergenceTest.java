@@ -40,6 +40,15 @@ public class ConstantSigTrailConvergenceTest extends GraphTestBase {
     assertThat(conv.satisfied(null, new double[]{1, -1, -1}, 5), is(true));
   }
 
+  @Test
+  public void singlePrecisionConvergence() {
+    ConstantSigTrailConvergence conv = new ConstantSigTrailConvergence(K3, 3, 1.0);
+    assertThat(conv.satisfied(null, new float[]{1, -1, 1}, 0), is(false));
+    assertThat(conv.satisfied(null, new float[]{1, -1, -1}, 1), is(false));
+    assertThat(conv.satisfied(null, new double[]{1, -1, -1}, 2), is(false));
+    assertThat(conv.satisfied(null, new float[]{1, -1, -1}, 3), is(true));
+  }
+
   @Test
   public void postprocessing() throws PartialConvergencePostprocessingException {
     SparseGraph graph = new SparseGraphBuilder()
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
+import net.adeptropolis.frogspawn.graphs.matrices.ShiftedNormalizedLaplacian;
+import net.adeptropolis.frogspawn.graphs.matrices.SquareMatrix;
+import net.adeptropolis.frogspawn.helpers.Vectors;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+public class LanczosSolverTest extends GraphTestBase {
+
+  private static final RandomInitialVectorsSource RANDOM_IV = new RandomInitialVectorsSource(42133742L);
+
+  @Test
+  public void normalizedLaplacian() throws PowerIterationException {
+    ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(EIGEN_REF_GRAPH);
+    double[] r = new LanczosSolver().apply(op, new DeltaNormConvergence(1E-9), RANDOM_IV.generate(op.size()), 1000);
+    Vectors.normalize2Sig(r);
+    assertThat(r[0], closeTo(0.33423, 1E-5));
+    assertThat(r[1], closeTo(0.18452, 1E-5));
+    assertThat(r[2], closeTo(-0.59518, 1E-5));
+    assertThat(r[3], closeTo(0.33423, 1E-5));
+    assertThat(r[4], closeTo(0.18452, 1E-5));
+    assertThat(r[5], closeTo(-0.59518, 1E-5));
+  }
+
+  @Test
+  public void weightedK20NormalizedLaplacian() throws PowerIterationException {
+    ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(WEIGHTED_K20);
+    double[] r = new LanczosSolver(4).apply(op, new DeltaNormConvergence(1E-9), RANDOM_IV.generate(op.size()), 10000);
+    Vectors.normalize2Sig(r);
+    double[] expected = new double[]{0.422554, -0.102237, 0.287406, 0.100775, -0.178143, -0.115820, -0.033225, -0.029026, -0.107263, -0.208185, -0.271339, 0.262986, 0.152637, 0.060499, 0.319281, -0.189389, -0.366464, 0.155779, 0.221442, -0.318028};
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(r[i], closeTo(expected[i], 1E-5));
+    }
+  }
+
+  @Test
+  public void tridiagonalEigenvector() {
+    double[] alpha = {2, 2, 2, 2};
+    double[] beta = {-1, -1, -1};
+    double[] vec = LanczosSolver.largestEigenvector(alpha, beta, 4);
+    double sig = Math.signum(vec[0]);
+    double[] expected = {0.371748, -0.601501, 0.601501, -0.371748};
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(sig * vec[i], closeTo(expected[i], 1E-6));
+    }
+  }
+
+  @Test
+  public void iterationsExcess() {
+    ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(WEIGHTED_K20);
+    double[] iv = RANDOM_IV.generate(op.size());
+    assertThrows(PowerIteration.MaxIterationsExceededException.class,
+            () -> new LanczosSolver().apply(op, new DeltaNormConvergence(1E-18), iv, 5));
+  }
+
+  @Test
+  public void fewerMultiplicationsThanPowerIteration() throws PowerIterationException {
+    Graph graph = randomGraph(new SparseGraphBuilder(), 2000, 20000);
+    CountingMatrix lanczos = new CountingMatrix(new ShiftedNormalizedLaplacian(graph));
+    CountingMatrix powerIteration = new CountingMatrix(new ShiftedNormalizedLaplacian(graph));
+    double[] iv = RANDOM_IV.generate(graph.order());
+    double[] expected = new PowerIterationSolver().apply(powerIteration, new DeltaNormConvergence(1E-8), iv, 100000);
+    double[] r = new LanczosSolver().apply(lanczos, new DeltaNormConvergence(1E-8), iv, 100000);
+    assertThat(Math.abs(Vectors.scalarProduct(r, expected)), closeTo(1, 1E-6));
+    assertThat(lanczos.multiplications * 5, lessThan(powerIteration.multiplications));
+  }
+
+  private static class CountingMatrix implements SquareMatrix {
+
+    private final SquareMatrix matrix;
+    private int multiplications = 0;
+
+    CountingMatrix(SquareMatrix matrix) {
+      this.matrix = matrix;
+    }
+
+    @Override
+    public double[] multiply(double[] argument) {
+      multiplications++;
+      return matrix.multiply(argument);
+    }
+
+    @Override
+    public int size() {
+      return matrix.size();
+    }
+
+  }
+
+}
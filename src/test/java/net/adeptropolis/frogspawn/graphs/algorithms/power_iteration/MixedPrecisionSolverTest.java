@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
+import net.adeptropolis.frogspawn.graphs.matrices.FloatSquareMatrix;
+import net.adeptropolis.frogspawn.graphs.matrices.ShiftedNormalizedLaplacian;
+import net.adeptropolis.frogspawn.graphs.matrices.SquareMatrix;
+import net.adeptropolis.frogspawn.helpers.Vectors;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+public class MixedPrecisionSolverTest extends GraphTestBase {
+
+  private static final RandomInitialVectorsSource RANDOM_IV = new RandomInitialVectorsSource(42133742L);
+
+  @Test
+  public void normalizedLaplacian() throws PowerIterationException {
+    ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(EIGEN_REF_GRAPH);
+    double[] r = new MixedPrecisionSolver().apply(op, new DeltaNormConvergence(1E-6), RANDOM_IV.generate(op.size()), 10000);
+    Vectors.normalize2Sig(r);
+    assertThat(r[0], closeTo(0.33423, 1E-4));
+    assertThat(r[1], closeTo(0.18452, 1E-4));
+    assertThat(r[2], closeTo(-0.59518, 1E-4));
+    assertThat(r[3], closeTo(0.33423, 1E-4));
+    assertThat(r[4], closeTo(0.18452, 1E-4));
+    assertThat(r[5], closeTo(-0.59518, 1E-4));
+  }
+
+  @Test
+  public void matchesDoublePrecisionSigns() throws PowerIterationException {
+    Graph graph = twoCommunities(40);
+    double[] iv = RANDOM_IV.generate(graph.order());
+    double[] expected = new PowerIterationSolver().apply(new ShiftedNormalizedLaplacian(graph),
+            new ConstantSigTrailConvergence(graph, 20, 0.99), iv, 10000).clone();
+    double[] r = new MixedPrecisionSolver().apply(new ShiftedNormalizedLaplacian(graph),
+            new ConstantSigTrailConvergence(graph, 20, 0.99), iv, 10000);
+    int agreeing = 0;
+    for (int i = 0; i < r.length; i++) {
+      if (Math.signum(r[i]) == Math.signum(expected[i])) {
+        agreeing++;
+      }
+    }
+    assertThat(agreeing, greaterThanOrEqualTo((int) (0.99 * r.length)));
+  }
+
+  @Test
+  public void refinesAmbiguousSigns() throws PowerIterationException {
+    // The center of a symmetric path has a zero entry in the eigenvector
+    CountingMatrix op = new CountingMatrix(new ShiftedNormalizedLaplacian(path(5)));
+    double[] r = new MixedPrecisionSolver(1E-5, 4).apply(op, new ConstantSigTrailConvergence(path(5), 100, 0.8),
+            RANDOM_IV.generate(5), 1000);
+    assertThat(op.doubleMultiplications, greaterThanOrEqualTo(4));
+    assertThat(Math.signum(r[0]), is(-Math.signum(r[4])));
+  }
+
+  @Test
+  public void unambiguousSignsSkipRefinement() throws PowerIterationException {
+    CountingMatrix op = new CountingMatrix(new ShiftedNormalizedLaplacian(path(6)));
+    double[] r = new MixedPrecisionSolver().apply(op, new ConstantSigTrailConvergence(path(6), 3, 1.0),
+            RANDOM_IV.generate(6), 1000);
+    assertThat(op.doubleMultiplications, is(0));
+    assertThat(op.floatMultiplications, greaterThan(0));
+    assertThat(Math.signum(r[0]), is(Math.signum(r[2])));
+    assertThat(Math.signum(r[0]), is(-Math.signum(r[3])));
+  }
+
+  @Test
+  public void plainMatricesFallBackToDoublePrecision() throws PowerIterationException {
+    ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(WEIGHTED_K20);
+    SquareMatrix plain = new SquareMatrix() {
+      @Override
+      public double[] multiply(double[] argument) {
+        return op.multiply(argument);
+      }
+
+      @Override
+      public int size() {
+        return op.size();
+      }
+    };
+    double[] iv = RANDOM_IV.generate(op.size());
+    double[] expected = new PowerIterationSolver().apply(op, new DeltaNormConvergence(1E-9), iv, 10000).clone();
+    double[] r = new MixedPrecisionSolver().apply(plain, new DeltaNormConvergence(1E-9), iv, 10000);
+    assertThat(r, is(expected));
+  }
+
+  @Test
+  public void iterationsExcess() {
+    ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(WEIGHTED_K20);
+    double[] iv = RANDOM_IV.generate(op.size());
+    assertThrows(PowerIteration.MaxIterationsExceededException.class,
+            () -> new MixedPrecisionSolver().apply(op, new DeltaNormConvergence(1E-18), iv, 5));
+  }
+
+  @Test
+  public void invalidParameters() {
+    assertThrows(IllegalArgumentException.class, () -> new MixedPrecisionSolver(-1, 4));
+    assertThrows(IllegalArgumentException.class, () -> new MixedPrecisionSolver(1E-5, 0));
+  }
+
+  private static Graph path(int n) {
+    SparseGraphBuilder builder = new SparseGraphBuilder();
+    for (int i = 0; i < n - 1; i++) {
+      builder.add(i, i + 1, 1);
+    }
+    return builder.build();
+  }
+
+  private static class CountingMatrix implements FloatSquareMatrix {
+
+    private final ShiftedNormalizedLaplacian matrix;
+    private int doubleMultiplications = 0;
+    private int floatMultiplications = 0;
+
+    CountingMatrix(ShiftedNormalizedLaplacian matrix) {
+      this.matrix = matrix;
+    }
+
+    @Override
+    public double[] multiply(double[] argument) {
+      doubleMultiplications++;
+      return matrix.multiply(argument);
+    }
+
+    @Override
+    public float[] multiply(float[] argument) {
+      floatMultiplications++;
+      return matrix.multiply(argument);
+    }
+
+    @Override
+    public int size() {
+      return matrix.size();
+    }
+
+  }
+
+}
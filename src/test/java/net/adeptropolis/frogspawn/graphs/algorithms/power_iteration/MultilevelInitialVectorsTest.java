@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import net.adeptropolis.frogspawn.ClusteringSettings;
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
+import net.adeptropolis.frogspawn.graphs.matrices.ShiftedNormalizedLaplacian;
+import net.adeptropolis.frogspawn.helpers.Vectors;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MultilevelInitialVectorsTest extends GraphTestBase {
+
+  private static final ClusteringSettings SETTINGS = ClusteringSettings.builder().build();
+  private static final RandomInitialVectorsSource RANDOM_IV = new RandomInitialVectorsSource(42133742L);
+
+  @Test
+  public void separatesCommunities() {
+    Graph graph = twoCommunities(1000);
+    double[] iv = new MultilevelInitialVectors(SETTINGS).refine(graph, RANDOM_IV.generate(graph.order()));
+    assertThat(iv.length, is(graph.order()));
+    assertThat(Vectors.norm2(iv), closeTo(1, 1E-9));
+    int sig = (int) Math.signum(iv[0]);
+    for (int v = 0; v < graph.order(); v++) {
+      assertThat((int) Math.signum(iv[v]), is(v < graph.order() / 2 ? sig : -sig));
+    }
+  }
+
+  @Test
+  public void acceleratesEigensolver() throws PowerIterationException {
+    Graph graph = twoCommunities(1000);
+    double[] random = RANDOM_IV.generate(graph.order());
+    double[] multilevel = new MultilevelInitialVectors(SETTINGS).refine(graph, random);
+    ShiftedNormalizedLaplacian fromRandom = new ShiftedNormalizedLaplacian(graph);
+    ShiftedNormalizedLaplacian fromMultilevel = new ShiftedNormalizedLaplacian(graph);
+    new PowerIterationSolver().apply(fromRandom, new ConstantSigTrailConvergence(graph, 20, 0.95), random, 1000);
+    new PowerIterationSolver().apply(fromMultilevel, new ConstantSigTrailConvergence(graph, 20, 0.95), multilevel, 1000);
+    assertThat(fromMultilevel.getMultiplications(), lessThan(fromRandom.getMultiplications()));
+  }
+
+  @Test
+  public void smallGraphsKeepInitialVector() {
+    Graph graph = largeCircle(1000);
+    double[] iv = RANDOM_IV.generate(graph.order());
+    assertThat(new MultilevelInitialVectors(SETTINGS).refine(graph, iv), sameInstance(iv));
+  }
+
+  @Test
+  public void expanderGraphsKeepInitialVector() {
+    Graph graph = randomGraph(new SparseGraphBuilder(), 5000, 100000);
+    double[] iv = RANDOM_IV.generate(graph.order());
+    assertThat(new MultilevelInitialVectors(SETTINGS).refine(graph, iv), sameInstance(iv));
+  }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.algorithms.power_iteration;
+
+import it.unimi.dsi.fastutil.ints.IntIterators;
+import net.adeptropolis.frogspawn.ClusteringSettings;
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import net.adeptropolis.frogspawn.graphs.algorithms.ConnectedComponents;
+import net.adeptropolis.frogspawn.graphs.algorithms.SpectralBisector;
+import net.adeptropolis.frogspawn.graphs.matrices.ShiftedNormalizedLaplacian;
+import net.adeptropolis.frogspawn.helpers.Vectors;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class WarmStartVectorTest extends GraphTestBase {
+
+  private static final RandomInitialVectorsSource RANDOM_IV = new RandomInitialVectorsSource(42133742L);
+
+  @Test
+  public void orthogonalToTrivialEigenvector() {
+    Graph graph = bandedGraph(100, 10);
+    Graph subgraph = subgraph(graph, 3, 4, 5, 8, 13, 21, 34, 55, 89);
+    double[] restricted = new WarmStartVector(graph, RANDOM_IV.generate(graph.order())).restrict(subgraph);
+    assertThat(restricted.length, is(subgraph.order()));
+    assertThat(Vectors.norm2(restricted), closeTo(1, 1E-9));
+    double v0Product = 0;
+    double[] weights = subgraph.weights();
+    for (int i = 0; i < restricted.length; i++) {
+      v0Product += restricted[i] * Math.sqrt(weights[i] / subgraph.totalWeight());
+    }
+    assertThat(v0Product, closeTo(0, 1E-9));
+  }
+
+  @Test
+  public void restrictsByGlobalIds() {
+    Graph graph = bandedGraph(100, 10);
+    Graph subgraph = subgraph(graph, 10, 11, 12, 13);
+    double[] weights = graph.weights();
+    double[] vec = new double[graph.order()];
+    vec[11] = Math.sqrt(weights[11]);
+    vec[12] = -Math.sqrt(weights[12]);
+    double[] restricted = new WarmStartVector(graph, vec).restrict(subgraph);
+    double[] subgraphWeights = subgraph.weights();
+    for (int i = 0; i < restricted.length; i++) {
+      restricted[i] /= Math.sqrt(subgraphWeights[i]);
+    }
+    assertThat(restricted[1], greaterThan(restricted[0]));
+    assertThat(restricted[2], lessThan(restricted[0]));
+    assertThat(restricted[3], closeTo(restricted[0], 1E-9));
+  }
+
+  @Test
+  public void constantRestrictionYieldsNull() {
+    Graph graph = bandedGraph(100, 10);
+    double[] weights = graph.weights();
+    double[] vec = new double[graph.order()];
+    for (int i = 0; i < vec.length; i++) {
+      vec[i] = (i < 50 ? 1 : -1) * Math.sqrt(weights[i]);
+    }
+    WarmStartVector warmStartVector = new WarmStartVector(graph, vec);
+    assertThat(warmStartVector.restrict(subgraph(graph, 20, 21, 22, 23, 24)), nullValue());
+    assertThat(warmStartVector.restrict(subgraph(graph, 48, 49, 50, 51)), notNullValue());
+  }
+
+  @Test
+  public void acceleratesChildBisection() throws PowerIterationException {
+    Graph graph = twoCommunities(1000);
+    SpectralBisector bisector = new SpectralBisector(ClusteringSettings.builder().build(), RANDOM_IV);
+    List<Graph> partitions = new ArrayList<>();
+    double[] v2 = bisector.bisect(graph, partitions::add);
+    for (Graph partition : partitions) {
+      partition = largestComponent(partition);
+      ShiftedNormalizedLaplacian fromRandom = new ShiftedNormalizedLaplacian(partition);
+      ShiftedNormalizedLaplacian fromWarmStart = new ShiftedNormalizedLaplacian(partition);
+      double[] warmStart = new WarmStartVector(graph, v2).restrict(partition);
+      new PowerIterationSolver().apply(fromRandom, new ConstantSigTrailConvergence(partition, 20, 0.95),
+              RANDOM_IV.generate(partition.order()), 1000);
+      new PowerIterationSolver().apply(fromWarmStart, new ConstantSigTrailConvergence(partition, 20, 0.95),
+              warmStart, 1000);
+      assertThat(fromWarmStart.getMultiplications(), lessThan(fromRandom.getMultiplications()));
+    }
+  }
+
+  private static Graph largestComponent(Graph graph) {
+    int[] largest = new int[0];
+    for (int[] component : ConnectedComponents.components(graph)) {
+      if (component.length > largest.length) {
+        largest = component;
+      }
+    }
+    return graph.localSubgraph(IntIterators.wrap(largest));
+  }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase.CollectingEdgeConsumer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+public class ConcurrentSparseGraphBuilderTest {
+
+  private static final int NUM_THREADS = 8;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void emptyGraph() {
+    SparseGraph graph = new ConcurrentSparseGraphBuilder().build();
+    assertThat(graph.order(), is(0));
+    assertThat(graph.size(), is(0L));
+  }
+
+  @Test
+  public void concurrentProducers() throws Exception {
+    assertMatchesSequentialBuild(new SparseGraphBuilder(), new SparseGraphBuilder(), false);
+  }
+
+  @Test
+  public void directedEdges() throws Exception {
+    assertMatchesSequentialBuild(new SparseGraphBuilder(), new SparseGraphBuilder(), true);
+  }
+
+  @Test
+  public void symmetricStorage() throws Exception {
+    assertMatchesSequentialBuild(new SparseGraphBuilder().symmetric(), new SparseGraphBuilder().symmetric(), false);
+  }
+
+  @Test
+  public void spilling() throws Exception {
+    assertMatchesSequentialBuild(new SparseGraphBuilder().spillTo(folder.newFolder().toPath(), 16 * 20000),
+            new SparseGraphBuilder(), false);
+  }
+
+  @Test
+  public void invalidEdges() {
+    ConcurrentSparseGraphBuilder builder = new ConcurrentSparseGraphBuilder();
+    assertThrows(GraphConstructionException.class, () -> builder.add(0, 1, -1));
+    ConcurrentSparseGraphBuilder symmetric = new ConcurrentSparseGraphBuilder(new SparseGraphBuilder().symmetric());
+    assertThrows(GraphConstructionException.class, () -> symmetric.addDirected(0, 1, 1));
+  }
+
+  @Test
+  public void addingAfterBuildIsRejected() throws Exception {
+    ConcurrentSparseGraphBuilder builder = new ConcurrentSparseGraphBuilder();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      executor.submit(() -> builder.add(0, 1, 1)).get();
+      builder.add(1, 2, 1);
+      SparseGraph graph = builder.build();
+      assertThat(graph.order(), is(3));
+      assertThat(graph.size(), is(4L));
+      ExecutionException e = assertThrows(ExecutionException.class, () -> executor.submit(() -> builder.add(2, 3, 1)).get());
+      assertThat(e.getCause(), instanceOf(GraphConstructionException.class));
+      assertThrows(GraphConstructionException.class, () -> builder.add(2, 3, 1));
+      assertThrows(GraphConstructionException.class, () -> builder.addDirected(2, 3, 1));
+      assertThrows(GraphConstructionException.class, builder::build);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static void assertMatchesSequentialBuild(SparseGraphBuilder target, SparseGraphBuilder reference,
+                                                   boolean directed) throws InterruptedException, ExecutionException {
+    ConcurrentSparseGraphBuilder builder = new ConcurrentSparseGraphBuilder(target);
+    ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < NUM_THREADS; i++) {
+        int seed = i;
+        futures.add(executor.submit(() -> addRandomEdges(builder, seed, directed)));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    for (int i = 0; i < NUM_THREADS; i++) {
+      addRandomEdges(reference, i, directed);
+    }
+    SparseGraph graph = builder.build();
+    SparseGraph expected = reference.build();
+    assertThat(graph.order(), is(expected.order()));
+    assertThat(graph.size(), is(expected.size()));
+    CollectingEdgeConsumer edges = new CollectingEdgeConsumer();
+    CollectingEdgeConsumer expectedEdges = new CollectingEdgeConsumer();
+    graph.traverse(edges);
+    expected.traverse(expectedEdges);
+    assertThat(edges.getEdges(), is(expectedEdges.getEdges()));
+  }
+
+  private static void addRandomEdges(Graph.Builder builder, int seed, boolean directed) {
+    Random random = new Random(seed);
+    for (int i = 0; i < 100000; i++) {
+      int u = random.nextInt(3000);
+      int v = random.nextInt(3000);
+      int weight = 1 + random.nextInt(10);
+      if (directed) {
+        builder.addDirected(u, v, weight);
+      } else {
+        builder.add(u, v, weight);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import net.adeptropolis.frogspawn.graphs.Edge;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThrows;
+
+public class EdgeListFileTest extends GraphTestBase {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void roundTrip() throws IOException {
+    Path file = folder.newFile().toPath();
+    SparseGraphBuilder expected = new SparseGraphBuilder();
+    try (EdgeListWriter writer = new EdgeListWriter(file)) {
+      addRandomEdges(writer, expected, false);
+    }
+    EdgeListFile edgeList = EdgeListFile.open(file);
+    assertThat(edgeList.size(), is(200000L));
+    assertThat(edgeList.hasLongIds(), is(false));
+    assertThat(edgeList.isDirected(), is(false));
+    assertThat(edges(edgeList.graph()), is(edges(expected.build())));
+  }
+
+  @Test
+  public void directedEdges() throws IOException {
+    Path file = folder.newFile().toPath();
+    SparseGraphBuilder expected = new SparseGraphBuilder();
+    try (EdgeListWriter writer = new EdgeListWriter(file).directed()) {
+      addRandomEdges(writer, expected, true);
+    }
+    EdgeListFile edgeList = EdgeListFile.open(file);
+    assertThat(edgeList.isDirected(), is(true));
+    assertThat(edges(edgeList.graph()), is(edges(expected.build())));
+  }
+
+  @Test
+  public void longIdsAndFloatWeights() throws IOException {
+    Path file = folder.newFile().toPath();
+    try (EdgeListWriter writer = new EdgeListWriter(file).longIds().floatWeights()) {
+      writer.add(1L << 40, 7, 0.1);
+      writer.add(7, 1L << 41, 2);
+    }
+    assertThat(Files.size(file), is((long) EdgeListFile.HEADER_BYTES + 2 * 20));
+    EdgeListFile edgeList = EdgeListFile.open(file);
+    assertThat(edgeList.hasLongIds(), is(true));
+    assertThrows(GraphConstructionException.class, edgeList::graph);
+    SparseGraph graph = edgeList.graph(new SparseGraphBuilder(), id -> (int) (id >> 40) + (id == 7 ? 3 : 0));
+    assertThat(edges(graph), is(Arrays.asList(
+            Edge.of(1, 3, (float) 0.1),
+            Edge.of(2, 3, 2),
+            Edge.of(3, 1, (float) 0.1),
+            Edge.of(3, 2, 2))));
+  }
+
+  @Test
+  public void intIdsRejectLargeValues() throws IOException {
+    try (EdgeListWriter writer = new EdgeListWriter(folder.newFile().toPath())) {
+      assertThrows(GraphConstructionException.class, () -> writer.add(1L << 40, 1, 1));
+      writer.add(0, 1, 1);
+      assertThrows(IllegalStateException.class, writer::longIds);
+    }
+  }
+
+  @Test
+  public void emptyEdgeList() throws IOException {
+    Path file = folder.newFile().toPath();
+    new EdgeListWriter(file).close();
+    SparseGraph graph = EdgeListFile.open(file).graph();
+    assertThat(graph.order(), is(0));
+  }
+
+  @Test
+  public void invalidFile() throws IOException {
+    Path file = folder.newFile().toPath();
+    Files.write(file, new byte[40]);
+    IOException e = assertThrows(IOException.class, () -> EdgeListFile.open(file));
+    assertThat(e.getMessage(), startsWith(file + " is not an edge list file"));
+  }
+
+  @Test
+  public void truncatedFile() throws IOException {
+    Path file = writeSmallEdgeList();
+    byte[] content = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(content, content.length - 1));
+    IOException e = assertThrows(IOException.class, () -> EdgeListFile.open(file));
+    assertThat(e.getMessage(), startsWith("Edge list file"));
+  }
+
+  @Test
+  public void corruptedEdges() throws IOException {
+    Path file = writeSmallEdgeList();
+    byte[] content = Files.readAllBytes(file);
+    content[EdgeListFile.HEADER_BYTES] ^= 1;
+    Files.write(file, content);
+    EdgeListFile edgeList = EdgeListFile.open(file);
+    IOException e = assertThrows(IOException.class, edgeList::graph);
+    assertThat(e.getMessage(), startsWith("Checksum mismatch"));
+  }
+
+  @Test
+  public void corruptedEdgesNeverReachBuilder() throws IOException {
+    Path file = writeSmallEdgeList();
+    byte[] content = Files.readAllBytes(file);
+    content[EdgeListFile.HEADER_BYTES + 3] = (byte) 0x80;
+    Files.write(file, content);
+    Path spillDirectory = folder.newFolder().toPath();
+    SparseGraphBuilder builder = new SparseGraphBuilder().spillTo(spillDirectory, 1);
+    IOException e = assertThrows(IOException.class, () -> EdgeListFile.open(file).graph(builder));
+    assertThat(e.getMessage(), startsWith("Checksum mismatch"));
+    assertThat(builder.build().order(), is(0));
+    assertThat(spillDirectory.toFile().list(), emptyArray());
+  }
+
+  @Test
+  public void negativeVertexIds() throws IOException {
+    EdgeListFile edgeList = EdgeListFile.open(writeSmallEdgeList());
+    IOException e = assertThrows(IOException.class, () -> edgeList.graph(new SparseGraphBuilder(), id -> (int) id - 1));
+    assertThat(e.getMessage(), startsWith("Invalid vertex id 0"));
+  }
+
+  private Path writeSmallEdgeList() throws IOException {
+    Path file = folder.newFile().toPath();
+    try (EdgeListWriter writer = new EdgeListWriter(file)) {
+      writer.add(0, 1, 2).add(1, 2, 3);
+    }
+    return file;
+  }
+
+  private static void addRandomEdges(EdgeListWriter writer, SparseGraphBuilder builder, boolean directed)
+          throws IOException {
+    Random random = new Random(1337);
+    for (int i = 0; i < 200000; i++) {
+      int u = random.nextInt(5000);
+      int v = random.nextInt(5000);
+      double weight = 1 + random.nextInt(10);
+      writer.add(u, v, weight);
+      if (directed) {
+        builder.addDirected(u, v, weight);
+      } else {
+        builder.add(u, v, weight);
+      }
+    }
+  }
+
+  private static List<Edge> edges(SparseGraph graph) {
+    CollectingEdgeConsumer consumer = new CollectingEdgeConsumer();
+    graph.traverse(consumer);
+    return consumer.getEdges();
+  }
+
+}
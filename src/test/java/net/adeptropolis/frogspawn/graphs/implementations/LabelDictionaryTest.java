@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThrows;
+
+public class LabelDictionaryTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void roundTrip() throws IOException {
+    List<byte[]> labels = new ArrayList<>();
+    for (int i = 0; i < 50000; i++) {
+      labels.add(("label-" + i).getBytes(StandardCharsets.UTF_8));
+    }
+    labels.add(new byte[0]);
+    labels.add(new byte[200000]);
+    Path file = folder.newFile().toPath();
+    LabelDictionary.write(file, labels);
+    List<byte[]> loaded = new ArrayList<>();
+    assertThat(LabelDictionary.forEach(file, loaded::add), is((long) labels.size()));
+    assertThat(loaded.size(), is(labels.size()));
+    for (int i = 0; i < labels.size(); i++) {
+      assertThat(loaded.get(i), is(labels.get(i)));
+    }
+  }
+
+  @Test
+  public void truncatedFile() throws IOException {
+    Path file = folder.newFile().toPath();
+    LabelDictionary.write(file, Arrays.asList(new byte[]{1, 2, 3}, new byte[]{4, 5}));
+    byte[] content = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(content, content.length - 1));
+    IOException e = assertThrows(IOException.class, () -> LabelDictionary.forEach(file, label -> {
+    }));
+    assertThat(e.getMessage(), startsWith("Label dictionary"));
+  }
+
+  @Test
+  public void corruptedLabels() throws IOException {
+    Path file = folder.newFile().toPath();
+    LabelDictionary.write(file, Arrays.asList(new byte[]{1, 2, 3}, new byte[]{4, 5}));
+    byte[] content = Files.readAllBytes(file);
+    content[content.length - 1] ^= 1;
+    Files.write(file, content);
+    IOException e = assertThrows(IOException.class, () -> LabelDictionary.forEach(file, label -> {
+    }));
+    assertThat(e.getMessage(), startsWith("Checksum mismatch"));
+  }
+
+}
@@ -5,17 +5,37 @@
 
 package net.adeptropolis.frogspawn.graphs.implementations;
 
+import net.adeptropolis.frogspawn.graphs.GraphTestBase.CollectingEdgeConsumer;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.BigFloats;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.ConstantDoubles;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.QuantizedDoubles;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 import static net.adeptropolis.frogspawn.graphs.implementations.SparseGraph.builder;
 import static net.adeptropolis.frogspawn.graphs.implementations.arrays.Helpers.assertEquals;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThrows;
 
 public class SparseGraphBuilderTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void emptyGraph() {
     CSRDatastore datastore = builder().buildDatastore();
@@ -188,4 +208,312 @@ public class SparseGraphBuilderTest {
     });
   }
 
-}
\ No newline at end of file
+  @Test
+  public void largeGraphMatchesReference() {
+    SparseGraphBuilder builder = builder();
+    Map<Long, Double> reference = new TreeMap<>();
+    addRandomEdges(builder, reference, 2000, 300000, false);
+    assertMatchesReference(builder.buildDatastore(), reference);
+  }
+
+  @Test
+  public void skewedGraphMatchesReference() {
+    SparseGraphBuilder builder = builder();
+    Map<Long, Double> reference = new TreeMap<>();
+    addRandomEdges(builder, reference, 50000, 300000, true);
+    assertMatchesReference(builder.buildDatastore(), reference);
+  }
+
+  @Test
+  public void spilling() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    SparseGraphBuilder builder = builder().spillTo(dir, 16 * 40000);
+    Map<Long, Double> reference = new TreeMap<>();
+    addRandomEdges(builder, reference, 2000, 100000, false);
+    SparseGraph graph = builder.build();
+    assertThat(graph.order(), is(2000));
+    assertThat(graph.size(), is((long) reference.size()));
+    graph.traverse((u, v, weight) -> assertThat(weight, closeTo(reference.get(((long) u << 32) | v), 1E-9)));
+    try (Stream<Path> files = Files.list(dir)) {
+      assertThat(files.count(), is(0L));
+    }
+  }
+
+  @Test
+  public void failedMergesLeaveNoFiles() throws IOException {
+    Path dir = folder.newFolder().toPath();
+    SparseGraphBuilder builder = builder().spillTo(dir, 16 * 40000);
+    addRandomEdges(builder, new TreeMap<>(), 2000, 100000, false);
+    try (Stream<Path> files = Files.list(dir)) {
+      Files.delete(files.findFirst().orElseThrow(IllegalStateException::new));
+    }
+    assertThrows(UncheckedIOException.class, builder::build);
+    try (Stream<Path> files = Files.list(dir)) {
+      assertThat(files.count(), is(0L));
+    }
+  }
+
+  @Test
+  public void spillingMatchesInMemoryBuild() throws IOException {
+    SparseGraphBuilder spilling = builder().spillTo(folder.newFolder().toPath(), 16 * 1000);
+    SparseGraphBuilder inMemory = builder();
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      int u = random.nextInt(500);
+      int v = random.nextInt(500);
+      spilling.add(u, v, 1 + u % 7);
+      inMemory.add(u, v, 1 + u % 7);
+    }
+    SparseGraph expected = inMemory.build();
+    SparseGraph actual = spilling.build();
+    assertThat(actual.order(), is(expected.order()));
+    assertThat(actual.size(), is(expected.size()));
+    double[] x = new double[expected.order()];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = Math.cos(i);
+    }
+    double[] y = new double[x.length];
+    double[] z = new double[x.length];
+    expected.multiplyRows(x, y, 0, x.length);
+    actual.multiplyRows(x, z, 0, x.length);
+    for (int i = 0; i < x.length; i++) {
+      assertThat(z[i], closeTo(y[i], 1E-9));
+    }
+  }
+
+  @Test
+  public void symmetricStorage() {
+    CSRDatastore datastore = builder()
+            .symmetric()
+            .add(1, 3, 11)
+            .add(2, 1, 7)
+            .add(0, 6, 2)
+            .add(3, 1, 1)
+            .add(2, 2, 5)
+            .add(0, 4, 3)
+            .buildDatastore();
+    assertThat(datastore.isSymmetric(), is(true));
+    assertGraphSizeMatches(datastore, 7);
+    assertEdgeCountMatches(datastore, 5L);
+    assertPointersMatch(datastore, 0, 0, 0, 2, 3, 4, 4, 5);
+    assertEdgesMatch(datastore, 1, 2, 1, 0, 0);
+    assertWeightsMatch(datastore, 7, 5, 12, 3, 2);
+    assertEquals("Upper pointers", datastore.upperPointers, 0, 2, 4, 4, 4, 4, 4, 4);
+    assertEquals("Upper edges", datastore.upperEdges, 4, 6, 2, 3);
+  }
+
+  @Test
+  public void symmetricStorageRejectsDirectedEdges() {
+    SparseGraphBuilder builder = builder().symmetric();
+    assertThrows(GraphConstructionException.class, () -> builder.addDirected(0, 1, 1));
+  }
+
+  @Test
+  public void symmetricStorageRejectsSpilling() {
+    Path dir = folder.getRoot().toPath();
+    assertThrows(GraphConstructionException.class, () -> builder().symmetric().spillTo(dir, 1000));
+    assertThrows(GraphConstructionException.class, () -> builder().spillTo(dir, 1000).symmetric());
+    assertThrows(GraphConstructionException.class, () -> builder().add(0, 1, 1).symmetric());
+  }
+
+  @Test
+  public void compressedStorage() {
+    CSRDatastore datastore = builder()
+            .compressed()
+            .add(1, 3, 11)
+            .add(1, 2, 7)
+            .add(0, 6, 2)
+            .buildDatastore();
+    assertThat(datastore.isCompressed(), is(true));
+    assertPointersMatch(datastore, 0, 1, 3, 4, 5, 5, 5, 6);
+    assertEdgesMatch(datastore, 6, 2, 3, 1, 1, 0);
+    assertWeightsMatch(datastore, 2, 7, 11, 7, 11, 2);
+  }
+
+  @Test
+  public void compressedStorageRejectsSpilling() {
+    Path dir = folder.getRoot().toPath();
+    assertThrows(GraphConstructionException.class, () -> builder().compressed().spillTo(dir, 1000));
+    assertThrows(GraphConstructionException.class, () -> builder().spillTo(dir, 1000).compressed());
+  }
+
+  @Test
+  public void floatWeights() {
+    CSRDatastore datastore = builder()
+            .weightStorage(WeightStorage.FLOAT)
+            .add(0, 1, 0.1)
+            .add(1, 2, 3)
+            .add(1, 2, 4)
+            .buildDatastore();
+    assertThat(datastore.weights, instanceOf(BigFloats.class));
+    assertWeightsMatch(datastore, (float) 0.1, (float) 0.1, 7, 7);
+  }
+
+  @Test
+  public void quantizedWeights() {
+    CSRDatastore datastore = builder()
+            .weightStorage(WeightStorage.QUANTIZED)
+            .add(0, 1, 2)
+            .add(1, 2, 3)
+            .add(1, 2, 4)
+            .buildDatastore();
+    assertThat(datastore.weights, instanceOf(QuantizedDoubles.class));
+    assertWeightsMatch(datastore, 2, 2, 7, 7);
+  }
+
+  @Test
+  public void quantizedWeightsStayPositive() {
+    SparseGraph graph = builder()
+            .weightStorage(WeightStorage.QUANTIZED)
+            .add(0, 1, 200000)
+            .add(1, 2, 1)
+            .build();
+    for (double weight : graph.weights()) {
+      assertThat(weight, greaterThan(0.0));
+    }
+  }
+
+  @Test
+  public void unitWeights() {
+    CSRDatastore datastore = builder()
+            .weightStorage(WeightStorage.UNIT)
+            .add(0, 1, 2)
+            .add(1, 2, 3)
+            .add(1, 2, 4)
+            .buildDatastore();
+    assertThat(datastore.weights, instanceOf(ConstantDoubles.class));
+    assertWeightsMatch(datastore, 1, 1, 1, 1);
+  }
+
+  @Test
+  public void reducedPrecisionWeightsRejectSpilling() {
+    Path dir = folder.getRoot().toPath();
+    assertThrows(GraphConstructionException.class,
+            () -> builder().weightStorage(WeightStorage.FLOAT).spillTo(dir, 1000));
+    assertThrows(GraphConstructionException.class,
+            () -> builder().spillTo(dir, 1000).weightStorage(WeightStorage.UNIT));
+  }
+
+  @Test
+  public void expectedSize() {
+    SparseGraphBuilder builder = builder().expectedSize(1000000);
+    assertThat(builder.capacity(), is(1000000L));
+    Map<Long, Double> reference = new TreeMap<>();
+    addRandomEdges(builder, reference, 5000, 400000, false);
+    assertThat(builder.capacity(), is(1000000L));
+    assertMatchesReference(builder.buildDatastore(), reference);
+  }
+
+  @Test
+  public void expectedSizeRespectsMemoryBudget() {
+    SparseGraphBuilder builder = builder().spillTo(folder.getRoot().toPath(), 16 * 1000).expectedSize(1000000);
+    assertThat(builder.capacity(), is(1000L));
+  }
+
+  @Test
+  public void duplicatesAreReducedIncrementally() {
+    SparseGraphBuilder builder = builder();
+    long initialCapacity = builder.capacity();
+    for (int i = 0; i < 1000000; i++) {
+      builder.add(i % 100, (i / 100) % 100, 1);
+    }
+    assertThat(builder.capacity(), is(initialCapacity));
+    CSRDatastore datastore = builder.buildDatastore();
+    assertEdgeCountMatches(datastore, 10000L);
+    for (long i = 0; i < datastore.size(); i++) {
+      assertThat(datastore.weights.get(i), is(datastore.edges.get(i) == i / 100 ? 100.0 : 200.0));
+    }
+  }
+
+  @Test
+  public void bufferGrowsWithoutDuplicates() {
+    SparseGraphBuilder builder = builder();
+    long initialCapacity = builder.capacity();
+    for (int i = 0; i < 1000000; i++) {
+      builder.addDirected(i, i + 1, 1);
+    }
+    assertThat(builder.capacity(), greaterThan(initialCapacity));
+    assertEdgeCountMatches(builder.buildDatastore(), 1000000L);
+  }
+
+  @Test
+  public void bulkInsertion() {
+    Random random = new Random(1337);
+    int[] u = new int[100000];
+    int[] v = new int[u.length];
+    double[] weights = new double[u.length];
+    for (int i = 0; i < u.length; i++) {
+      u[i] = random.nextInt(2000);
+      v[i] = random.nextInt(2000);
+      weights[i] = random.nextInt(10) + 0.5;
+    }
+    assertBulkInsertionMatches(builder(), builder(), u, v, weights);
+    assertBulkInsertionMatches(builder().symmetric(), builder().symmetric(), u, v, weights);
+    assertBulkInsertionMatches(builder().spillTo(folder.getRoot().toPath(), 16 * 10000),
+            builder().spillTo(folder.getRoot().toPath(), 16 * 10000), u, v, weights);
+    SparseGraphBuilder directed = builder();
+    SparseGraphBuilder bulkDirected = builder().addAllDirected(u, v, weights);
+    for (int i = 0; i < u.length; i++) {
+      directed.addDirected(u[i], v[i], weights[i]);
+    }
+    assertSameEdges(bulkDirected.build(), directed.build());
+  }
+
+  @Test
+  public void bulkInsertionRejectsInvalidEdges() {
+    assertThrows(GraphConstructionException.class,
+            () -> builder().addAll(new int[]{0, 1}, new int[]{1}, new double[]{1, 1}));
+    assertThrows(GraphConstructionException.class,
+            () -> builder().addAll(new int[]{0}, new int[]{1}, new double[]{-1}));
+    assertThrows(GraphConstructionException.class,
+            () -> builder().symmetric().addAllDirected(new int[]{0}, new int[]{1}, new double[]{1}));
+  }
+
+  private static void assertBulkInsertionMatches(SparseGraphBuilder builder, SparseGraphBuilder bulkBuilder, int[] u,
+                                                 int[] v, double[] weights) {
+    for (int i = 0; i < u.length; i++) {
+      builder.add(u[i], v[i], weights[i]);
+    }
+    bulkBuilder.addAll(u, v, weights);
+    assertSameEdges(bulkBuilder.build(), builder.build());
+  }
+
+  private static void assertSameEdges(SparseGraph graph, SparseGraph expected) {
+    CollectingEdgeConsumer edges = new CollectingEdgeConsumer();
+    CollectingEdgeConsumer expectedEdges = new CollectingEdgeConsumer();
+    graph.traverse(edges);
+    expected.traverse(expectedEdges);
+    assertThat(edges.getEdges(), is(expectedEdges.getEdges()));
+  }
+
+  private static void addRandomEdges(SparseGraphBuilder builder, Map<Long, Double> reference, int order, int numEdges,
+                                     boolean skewed) {
+    Random random = new Random(1337);
+    for (int i = 0; i < numEdges; i++) {
+      int u = skewed ? Math.min(random.nextInt(order), random.nextInt(1 + random.nextInt(order))) : random.nextInt(order);
+      int v = random.nextInt(order);
+      double weight = random.nextInt(10) + 0.5;
+      builder.add(u, v, weight);
+      reference.merge(((long) u << 32) | v, weight, Double::sum);
+      if (u != v) reference.merge(((long) v << 32) | u, weight, Double::sum);
+    }
+  }
+
+  private static void assertMatchesReference(CSRDatastore datastore, Map<Long, Double> reference) {
+    assertEdgeCountMatches(datastore, reference.size());
+    long[] expectedPointers = new long[datastore.order() + 1];
+    long ptr = 0;
+    for (Map.Entry<Long, Double> entry : reference.entrySet()) {
+      int u = (int) (entry.getKey() >> 32);
+      expectedPointers[u + 1]++;
+      assertThat(datastore.edges.get(ptr), is((int) (long) entry.getKey()));
+      assertThat(datastore.weights.get(ptr), closeTo(entry.getValue(), 1E-9));
+      ptr++;
+    }
+    for (int v = 0; v < datastore.order(); v++) {
+      expectedPointers[v + 1] += expectedPointers[v];
+    }
+    assertPointersMatch(datastore, expectedPointers);
+  }
+
+}
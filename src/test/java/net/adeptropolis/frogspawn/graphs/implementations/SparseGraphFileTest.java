@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import net.adeptropolis.frogspawn.graphs.Edge;
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import net.adeptropolis.frogspawn.graphs.matrices.AdjacencyMatrix;
+import net.adeptropolis.frogspawn.graphs.traversal.EdgeConsumer;
+import net.adeptropolis.frogspawn.graphs.traversal.TraversalMode;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+public class SparseGraphFileTest extends GraphTestBase {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void roundTrip() throws IOException {
+    Graph graph = bandedGraph(1000, 20);
+    SparseGraph mapped = writeAndOpen(graph);
+    assertThat(mapped.order(), is(graph.order()));
+    assertThat(mapped.size(), is(graph.size()));
+    assertThat(edges(mapped), is(edges(graph)));
+    assertThat(mapped.collectVertices(), is(graph.collectVertices()));
+  }
+
+  @Test
+  public void mappedRowProducts() throws IOException {
+    Graph graph = bandedGraph(1000, 20);
+    SparseGraph mapped = writeAndOpen(graph);
+    double[] x = new double[graph.order()];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = Math.sin(i);
+    }
+    double[] expected = new AdjacencyMatrix(graph).multiply(x);
+    double[] actual = new AdjacencyMatrix(mapped).multiply(x);
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void subgraphsOfMappedGraphs() throws IOException {
+    Graph graph = bandedGraph(1000, 20);
+    SparseGraph mapped = writeAndOpen(graph);
+    assertThat(edges(subgraph(mapped, 3, 5, 8, 13, 21, 34, 55)), is(edges(subgraph(graph, 3, 5, 8, 13, 21, 34, 55))));
+  }
+
+  @Test
+  public void materializedGraph() throws IOException {
+    Graph graph = bandedGraph(100, 5);
+    SparseGraph materialized = ((SparseSubgraph) subgraph(graph, 7, 8, 9, 10, 42, 43, 99)).materialize();
+    SparseGraph mapped = writeAndOpen(materialized);
+    assertThat(mapped.collectVertices(), is(new int[]{7, 8, 9, 10, 42, 43, 99}));
+    assertThat(mapped.globalVertexId(4), is(42));
+    assertThat(mapped.localVertexId(43), is(5));
+    assertThat(edges(mapped), is(edges(materialized)));
+  }
+
+  @Test
+  public void subgraph() throws IOException {
+    Graph subgraph = subgraph(bandedGraph(100, 5), 7, 8, 9, 10, 42, 43, 99);
+    SparseGraph mapped = writeAndOpen(subgraph);
+    assertThat(mapped.collectVertices(), is(subgraph.collectVertices()));
+    assertThat(edges(mapped), is(edges(subgraph)));
+  }
+
+  @Test
+  public void emptyGraph() throws IOException {
+    SparseGraph mapped = writeAndOpen(SparseGraph.builder().build());
+    assertThat(mapped.order(), is(0));
+    assertThat(mapped.size(), is(0L));
+  }
+
+  @Test
+  public void invalidFile() throws IOException {
+    Path file = folder.newFile().toPath();
+    Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24});
+    assertThrows(IOException.class, () -> SparseGraph.open(file));
+  }
+
+  @Test
+  public void truncatedFile() throws IOException {
+    Path file = folder.newFile().toPath();
+    completeGraph(10).write(file);
+    byte[] content = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(content, content.length - 8));
+    assertThrows(IOException.class, () -> SparseGraph.open(file));
+  }
+
+  @Test
+  public void unsupportedVersion() throws IOException {
+    Path file = folder.newFile().toPath();
+    completeGraph(10).write(file);
+    byte[] content = Files.readAllBytes(file);
+    content[4] = 2;
+    Files.write(file, content);
+    IOException e = assertThrows(IOException.class, () -> SparseGraph.open(file));
+    assertThat(e.getMessage(), startsWith("Unsupported graph file version 2"));
+  }
+
+  @Test
+  public void corruptedHeader() throws IOException {
+    Path file = folder.newFile().toPath();
+    completeGraph(10).write(file);
+    byte[] content = Files.readAllBytes(file);
+    content[8]++;
+    Files.write(file, content);
+    IOException e = assertThrows(IOException.class, () -> SparseGraph.open(file));
+    assertThat(e.getMessage(), startsWith("Header checksum mismatch"));
+  }
+
+  @Test
+  public void corruptedEdgesAreDetectedOnVerification() throws IOException {
+    Path file = folder.newFile().toPath();
+    completeGraph(10).write(file);
+    byte[] content = Files.readAllBytes(file);
+    content[SparseGraphFile.HEADER_BYTES] ^= 1;
+    Files.write(file, content);
+    SparseGraphFile graphFile = SparseGraphFile.open(file);
+    assertThat(graphFile.graph().order(), is(10));
+    IOException e = assertThrows(IOException.class, graphFile::verify);
+    assertThat(e.getMessage(), startsWith("Checksum mismatch in section 2"));
+  }
+
+  @Test
+  public void corruptedPointersAreDetectedOnLoad() throws IOException {
+    Path file = folder.newFile().toPath();
+    completeGraph(10).write(file);
+    byte[] content = Files.readAllBytes(file);
+    content[content.length - 1] ^= 1;
+    Files.write(file, content);
+    SparseGraphFile graphFile = SparseGraphFile.open(file);
+    IOException e = assertThrows(IOException.class, graphFile::graph);
+    assertThat(e.getMessage(), startsWith("Checksum mismatch in section 0"));
+  }
+
+  @Test
+  public void inconsistentSectionLengthsAreRejected() throws IOException {
+    Path file = folder.newFile().toPath();
+    completeGraph(10).write(file);
+    ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    content.putLong(16, content.getLong(16) + 1000);
+    Files.write(file, sealHeader(content));
+    SparseGraphFile graphFile = SparseGraphFile.open(file);
+    IOException e = assertThrows(IOException.class, graphFile::graph);
+    assertThat(e.getMessage(), startsWith("Inconsistent section lengths"));
+  }
+
+  @Test
+  public void inconsistentPointersAreRejected() throws IOException {
+    Path file = folder.newFile().toPath();
+    completeGraph(10).write(file);
+    ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    int offset = (int) content.getLong(24);
+    int length = (int) content.getLong(32);
+    content.putLong(offset + 3 * Long.BYTES, 1000);
+    CRC32 crc = new CRC32();
+    crc.update(content.array(), offset, length);
+    content.putLong(40, crc.getValue());
+    Files.write(file, sealHeader(content));
+    SparseGraphFile graphFile = SparseGraphFile.open(file);
+    IOException e = assertThrows(IOException.class, graphFile::graph);
+    assertThat(e.getMessage(), startsWith("Inconsistent vertex pointers"));
+  }
+
+  @Test
+  public void verifyIntactFile() throws IOException {
+    Path file = folder.newFile().toPath();
+    SparseGraphWriter.write(bandedGraph(100, 10), file);
+    SparseGraphFile graphFile = SparseGraphFile.open(file);
+    graphFile.verify();
+    assertThat(graphFile.order(), is(100));
+    assertThat(graphFile.size(), is(bandedGraph(100, 10).size()));
+    assertThat(graphFile.hasLabels(), is(false));
+  }
+
+  @Test
+  public void smallWindows() throws IOException {
+    Graph subgraph = bandedGraph(1000, 20).subgraph(v -> v % 7 != 3);
+    Path file = folder.newFile().toPath();
+    try (SparseGraphWriter writer = SparseGraphWriter.forGraph(subgraph, file)) {
+      for (int i = 0; i < subgraph.order(); i++) {
+        writer.addLabel(String.format("label %d", i).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    SparseGraphFile graphFile = SparseGraphFile.open(file, 24);
+    graphFile.verify();
+    SparseGraph mapped = graphFile.graph();
+    assertThat(mapped.collectVertices(), is(subgraph.collectVertices()));
+    assertThat(edges(mapped), is(edges(subgraph)));
+    List<String> labels = new ArrayList<>();
+    graphFile.forEachLabel(bytes -> labels.add(new String(bytes, StandardCharsets.UTF_8)));
+    assertThat(labels.size(), is(subgraph.order()));
+    for (int i = 0; i < labels.size(); i++) {
+      assertThat(labels.get(i), is(String.format("label %d", i)));
+    }
+  }
+
+  @Test
+  public void invalidWindowSize() throws IOException {
+    Path file = folder.newFile().toPath();
+    SparseGraphWriter.write(bandedGraph(100, 10), file);
+    assertThrows(IllegalArgumentException.class, () -> SparseGraphFile.open(file, 12));
+  }
+
+  @Test
+  public void failedWritesLeaveNoFiles() {
+    SparseGraph failing = new SparseGraph(((SparseGraph) bandedGraph(100, 10)).datastore()) {
+      @Override
+      public void traverseIncidentEdges(int v, EdgeConsumer consumer, TraversalMode mode) {
+        if (v == 50) {
+          throw new IllegalStateException("Traversal failed");
+        }
+        super.traverseIncidentEdges(v, consumer, mode);
+      }
+    };
+    Path file = folder.getRoot().toPath().resolve("graph.fsg");
+    assertThrows(IllegalStateException.class, () -> SparseGraphWriter.write(failing, file));
+    assertThat(folder.getRoot().list(), emptyArray());
+  }
+
+  private static byte[] sealHeader(ByteBuffer content) {
+    CRC32 crc = new CRC32();
+    crc.update(content.array(), 0, SparseGraphFile.CHECKSUMMED_HEADER_BYTES);
+    content.putLong(SparseGraphFile.CHECKSUMMED_HEADER_BYTES, crc.getValue());
+    return content.array();
+  }
+
+  private SparseGraph writeAndOpen(Graph graph) throws IOException {
+    Path file = folder.newFile().toPath();
+    SparseGraphWriter.write(graph, file);
+    return SparseGraph.open(file);
+  }
+
+  private List<Edge> edges(Graph graph) {
+    CollectingEdgeConsumer edgeConsumer = new CollectingEdgeConsumer();
+    for (int v = 0; v < graph.order(); v++) {
+      graph.traverseIncidentEdges(v, edgeConsumer, TraversalMode.DEFAULT);
+    }
+    return edgeConsumer.getEdges();
+  }
+
+}
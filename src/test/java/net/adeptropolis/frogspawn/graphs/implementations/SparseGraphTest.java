@@ -12,10 +12,18 @@ import net.adeptropolis.frogspawn.graphs.Edge;
 import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.GraphTestBase;
 import net.adeptropolis.frogspawn.graphs.VertexIterator;
+import net.adeptropolis.frogspawn.graphs.implementations.arrays.CompressedInts;
+import net.adeptropolis.frogspawn.graphs.matrices.AdjacencyMatrix;
 import net.adeptropolis.frogspawn.graphs.traversal.TraversalMode;
+import net.adeptropolis.frogspawn.helpers.Vectors;
+import org.junit.Ignore;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 import static net.adeptropolis.frogspawn.graphs.implementations.SparseGraph.builder;
@@ -24,6 +32,8 @@ import static org.hamcrest.Matchers.*;
 
 public class SparseGraphTest extends GraphTestBase {
 
+  private static final Logger LOG = LoggerFactory.getLogger(SparseGraphTest.class.getSimpleName());
+
   private static final SparseGraph defaultGraph = builder()
           .add(0, 1, 2)
           .add(1, 2, 3)
@@ -139,4 +149,149 @@ public class SparseGraphTest extends GraphTestBase {
     }
   }
 
-}
\ No newline at end of file
+  @Test
+  public void edgeBalancedPartition() {
+    SparseGraphBuilder builder = builder();
+    for (int i = 1; i < 1000; i++) {
+      builder.add(0, i, 1);
+    }
+    SparseGraph graph = builder.build();
+    int[] chunks = graph.partition(4);
+    assertThat(chunks.length, is(5));
+    assertThat(chunks[0], is(0));
+    assertThat(chunks[1], is(1));
+    assertThat(chunks[4], is(1000));
+    for (int i = 1; i < chunks.length; i++) {
+      assertThat(chunks[i], greaterThanOrEqualTo(chunks[i - 1]));
+    }
+  }
+
+  @Test
+  public void partitionOfEmptyGraph() {
+    assertThat(builder().build().partition(4), is(new int[]{0, 0}));
+  }
+
+  @Test
+  public void partitionIntoMoreChunksThanVertices() {
+    int[] chunks = defaultGraph.partition(100);
+    assertThat(chunks.length, is(13));
+    assertThat(chunks[12], is(12));
+  }
+
+  @Test
+  public void symmetricStorageBehavesIdentically() {
+    assertBehavesIdentically(randomGraph(builder().symmetric(), 1000, 20000));
+  }
+
+  @Test
+  public void compressedStorageBehavesIdentically() {
+    assertBehavesIdentically(randomGraph(builder().compressed(), 1000, 20000));
+  }
+
+  @Test
+  public void compressedSymmetricStorageBehavesIdentically() {
+    assertBehavesIdentically(randomGraph(builder().compressed().symmetric(), 1000, 20000));
+  }
+
+  @Test
+  public void reducedPrecisionWeightsBehaveIdentically() {
+    assertBehavesIdentically(randomGraph(builder().weightStorage(WeightStorage.FLOAT), 1000, 20000));
+    assertBehavesIdentically(randomGraph(builder().weightStorage(WeightStorage.QUANTIZED), 1000, 20000));
+    assertBehavesIdentically(randomGraph(builder().weightStorage(WeightStorage.QUANTIZED).compressed().symmetric(),
+            1000, 20000));
+  }
+
+  @Test
+  public void unitWeights() {
+    SparseGraph graph = randomGraph(builder().weightStorage(WeightStorage.UNIT), 1000, 20000);
+    SparseGraph weighted = randomGraph(builder(), 1000, 20000);
+    assertThat(graph.size(), is(weighted.size()));
+    graph.traverse((u, v, weight) -> assertThat(weight, is(1.0)));
+    double[] weights = graph.weights();
+    long[] degrees = weighted.degrees();
+    for (int v = 0; v < graph.order(); v++) {
+      assertThat(weights[v], is((double) degrees[v]));
+    }
+  }
+
+  @Test
+  @Ignore("Intended for performance debugging")
+  @SuppressWarnings("squid:S2699")
+  public void compressionBenchmark() {
+    SparseGraphBuilder builder = builder();
+    SparseGraphBuilder compressedBuilder = builder().compressed();
+    Random random = new Random(1337);
+    for (int u = 0; u < 500000; u++) {
+      for (int i = 0; i < 20; i++) {
+        int v = Math.max(0, Math.min(499999, u + (int) (random.nextGaussian() * 1000)));
+        builder.add(u, v, 1);
+        compressedBuilder.add(u, v, 1);
+      }
+    }
+    SparseGraph graph = builder.build();
+    CSRDatastore datastore = compressedBuilder.buildDatastore();
+    SparseGraph compressed = new SparseGraph(datastore);
+    LOG.info("Edges: {} bytes plain, {} bytes compressed", Integer.BYTES * graph.size(),
+            ((CompressedInts) datastore.edges).bytes());
+    double[] x = new double[graph.order()];
+    Arrays.fill(x, 1);
+    for (int i = 0; i < 10; i++) {
+      for (SparseGraph g : new SparseGraph[]{graph, compressed}) {
+        long start = System.nanoTime();
+        new AdjacencyMatrix(g).multiply(x);
+        LOG.info("{}: {} ms", (g == graph) ? "Plain" : "Compressed", (System.nanoTime() - start) / 1000000);
+      }
+    }
+  }
+
+  private void assertBehavesIdentically(SparseGraph graph) {
+    SparseGraph expected = randomGraph(builder(), 1000, 20000);
+    assertThat(graph.order(), is(expected.order()));
+    assertThat(graph.size(), is(expected.size()));
+    assertThat(graph.weights(), is(expected.weights()));
+    CollectingEdgeConsumer expectedEdges = new CollectingEdgeConsumer();
+    CollectingEdgeConsumer edges = new CollectingEdgeConsumer();
+    expected.traverse(expectedEdges);
+    graph.traverse(edges);
+    assertThat(edges.getEdges(), is(expectedEdges.getEdges()));
+    CollectingEdgeConsumer expectedLowerEdges = new CollectingEdgeConsumer();
+    CollectingEdgeConsumer lowerEdges = new CollectingEdgeConsumer();
+    expected.traverse(expectedLowerEdges, TraversalMode.LOWER_TRIANGULAR);
+    graph.traverse(lowerEdges, TraversalMode.LOWER_TRIANGULAR);
+    assertThat(lowerEdges.getEdges(), is(expectedLowerEdges.getEdges()));
+    double[] x = new double[expected.order()];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = Math.sin(i);
+    }
+    double[] expectedProduct = new double[x.length];
+    expected.multiplyRows(x, expectedProduct, 0, x.length);
+    double[] product = new double[x.length];
+    graph.multiplyRows(x, product, 0, x.length);
+    double[] chunkedProduct = new double[x.length];
+    int[] chunks = graph.partition(7);
+    for (int i = 0; i < chunks.length - 1; i++) {
+      graph.multiplyRows(x, chunkedProduct, chunks[i], chunks[i + 1]);
+    }
+    for (int i = 0; i < x.length; i++) {
+      assertThat(product[i], closeTo(expectedProduct[i], 1E-9));
+      assertThat(chunkedProduct[i], closeTo(expectedProduct[i], 1E-9));
+    }
+    float[] floatProduct = new float[x.length];
+    graph.multiplyRows(Vectors.toFloat(x), floatProduct, 0, x.length);
+    for (int i = 0; i < x.length; i++) {
+      assertThat((double) floatProduct[i], closeTo(expectedProduct[i], 1E-5 * (1 + Math.abs(expectedProduct[i]))));
+    }
+  }
+
+  @Test
+  public void symmetricPartitionCountsAllEdges() {
+    SparseGraphBuilder builder = builder();
+    SparseGraphBuilder symmetricBuilder = builder().symmetric();
+    for (int i = 1; i < 1000; i++) {
+      builder.add(0, i, 1);
+      symmetricBuilder.add(0, i, 1);
+    }
+    assertThat(symmetricBuilder.build().partition(4), is(builder.build().partition(4)));
+  }
+
+}
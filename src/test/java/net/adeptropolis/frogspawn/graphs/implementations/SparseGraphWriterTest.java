@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations;
+
+import net.adeptropolis.frogspawn.graphs.Edge;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThrows;
+
+public class SparseGraphWriterTest extends GraphTestBase {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void streamingWrite() throws IOException {
+    Path file = folder.newFile().toPath();
+    try (SparseGraphWriter writer = new SparseGraphWriter(file)) {
+      writer.add(0, 1, 2)
+              .add(1, 0, 2)
+              .add(1, 4, 3)
+              .add(4, 1, 3);
+    }
+    SparseGraph graph = SparseGraph.open(file);
+    assertThat(graph.order(), is(5));
+    assertThat(graph.size(), is(4L));
+    graph.traverse(consumer);
+    assertThat(consumer.getEdges(), containsInAnyOrder(
+            Edge.of(0, 1, 2), Edge.of(1, 0, 2), Edge.of(1, 4, 3), Edge.of(4, 1, 3)));
+    assertThat(graph.degrees(), is(new long[]{1, 2, 0, 0, 1}));
+  }
+
+  @Test
+  public void idMapDefinesOrder() throws IOException {
+    Path file = folder.newFile().toPath();
+    try (SparseGraphWriter writer = new SparseGraphWriter(file)) {
+      writer.setIdMap(new int[]{3, 5, 8, 13})
+              .add(0, 1, 1)
+              .add(1, 0, 1);
+    }
+    SparseGraph graph = SparseGraph.open(file);
+    assertThat(graph.order(), is(4));
+    assertThat(graph.collectVertices(), is(new int[]{3, 5, 8, 13}));
+  }
+
+  @Test
+  public void labels() throws IOException {
+    Path file = folder.newFile().toPath();
+    try (SparseGraphWriter writer = new SparseGraphWriter(file)) {
+      writer.add(0, 1, 1).add(1, 0, 1);
+      writer.addLabel("foo".getBytes(StandardCharsets.UTF_8));
+      writer.addLabel(new byte[0]);
+    }
+    SparseGraphFile graphFile = SparseGraphFile.open(file);
+    assertThat(graphFile.hasLabels(), is(true));
+    List<String> labels = new ArrayList<>();
+    graphFile.forEachLabel(bytes -> labels.add(new String(bytes, StandardCharsets.UTF_8)));
+    assertThat(labels, contains("foo", ""));
+  }
+
+  @Test
+  public void outOfOrderEdgesAreRejected() throws IOException {
+    Path file = folder.newFile().toPath();
+    try (SparseGraphWriter writer = new SparseGraphWriter(file)) {
+      writer.add(1, 2, 1);
+      assertThrows(GraphConstructionException.class, () -> writer.add(0, 1, 1));
+      assertThrows(GraphConstructionException.class, () -> writer.add(1, 2, 1));
+      assertThrows(GraphConstructionException.class, () -> writer.add(2, 1, -1));
+    }
+  }
+
+  @Test
+  public void temporaryFilesAreRemoved() throws IOException {
+    Path file = folder.newFile().toPath();
+    SparseGraphWriter.write(completeGraph(5), file);
+    try (Stream<Path> files = Files.list(file.getParent())) {
+      assertThat(files.count(), is(1L));
+    }
+  }
+
+}
@@ -13,6 +13,7 @@ import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.GraphTestBase;
 import net.adeptropolis.frogspawn.graphs.VertexIterator;
 import net.adeptropolis.frogspawn.graphs.traversal.TraversalMode;
+import net.adeptropolis.frogspawn.helpers.Vectors;
 import org.junit.Test;
 
 import java.util.HashSet;
@@ -183,4 +184,157 @@ public class SparseSubgraphTest extends GraphTestBase {
     }
   }
 
-}
\ No newline at end of file
+  @Test
+  public void materialize() {
+    Graph subgraph = defaultSubgraph(1, 2, 4, 9, 10);
+    SparseGraph materialized = ((SparseSubgraph) subgraph).materialize();
+    assertThat(materialized.order(), is(5));
+    assertThat(materialized.size(), is(6L));
+    assertThat(materialized.collectVertices(), is(new int[]{1, 2, 4, 9, 10}));
+    assertThat(materialized.globalVertexId(3), is(9));
+    assertThat(materialized.localVertexId(9), is(3));
+    assertThat(materialized.localVertexId(11), is(lessThan(0)));
+    materialized.traverseParallel(consumer);
+    assertThat(consumer.getEdges(), containsInAnyOrder(
+            Edge.of(0, 1, 3),
+            Edge.of(1, 0, 3),
+            Edge.of(2, 3, 5),
+            Edge.of(3, 2, 5),
+            Edge.of(2, 4, 7),
+            Edge.of(4, 2, 7)));
+  }
+
+  @Test
+  public void materializedVertexIterator() {
+    VertexIterator it = ((SparseSubgraph) defaultSubgraph(4, 9, 11)).materialize().vertexIterator();
+    IntArrayList localIds = new IntArrayList();
+    IntArrayList globalIds = new IntArrayList();
+    while (it.hasNext()) {
+      localIds.add(it.localId());
+      globalIds.add(it.globalId());
+    }
+    assertThat(localIds, contains(0, 1, 2));
+    assertThat(globalIds, contains(4, 9, 11));
+  }
+
+  @Test
+  public void subgraphOfMaterializedGraph() {
+    SparseGraph materialized = ((SparseSubgraph) defaultSubgraph(1, 2, 4, 9, 10, 11)).materialize();
+    Graph subgraph = subgraph(materialized, 4, 10, 11);
+    assertThat(subgraph.collectVertices(), is(new int[]{4, 10, 11}));
+    assertThat(subgraph.localVertexId(10), is(1));
+    assertThat(subgraph.localVertexId(9), is(lessThan(0)));
+    assertThat(subgraph.localVertexId(3), is(lessThan(0)));
+    subgraph.traverseParallel(consumer);
+    assertThat(consumer.getEdges(), containsInAnyOrder(
+            Edge.of(0, 1, 7),
+            Edge.of(1, 0, 7),
+            Edge.of(0, 2, 11),
+            Edge.of(2, 0, 11)));
+    SparseGraph rematerialized = ((SparseSubgraph) subgraph).materialize();
+    assertThat(rematerialized.collectVertices(), is(new int[]{4, 10, 11}));
+    assertThat(rematerialized.size(), is(4L));
+  }
+
+  @Test
+  public void materializedGraphsBehaveIdentically() {
+    Graph graph = bandedGraph(2000, 30);
+    Graph subgraph = graph.subgraph(v -> v % 5 != 2);
+    Graph materialized = ((SparseSubgraph) subgraph).materialize();
+    assertThat(materialized.size(), is(subgraph.size()));
+    assertThat(materialized.weights(), is(subgraph.weights()));
+    CollectingEdgeConsumer materializedEdges = new CollectingEdgeConsumer();
+    materialized.traverse(materializedEdges);
+    subgraph.traverse(consumer);
+    assertThat(materializedEdges.getEdges(), is(consumer.getEdges()));
+  }
+
+  @Test
+  public void materializationThreshold() {
+    Graph subgraph = defaultSubgraph(1, 2, 4);
+    assertThat(subgraph.materialize(0.25), is(sameInstance(subgraph)));
+    assertThat(subgraph.materialize(0.26), instanceOf(SparseGraph.class));
+    assertThat(defaultGraph.materialize(1.0), is(sameInstance(defaultGraph)));
+  }
+
+  @Test
+  public void symmetricSubgraphsBehaveIdentically() {
+    assertBehavesIdentically(randomGraph(builder().symmetric(), 1000, 20000).subgraph(v -> v % 5 != 2));
+  }
+
+  @Test
+  public void compressedSubgraphsBehaveIdentically() {
+    assertBehavesIdentically(randomGraph(builder().compressed(), 1000, 20000).subgraph(v -> v % 5 != 2));
+    assertBehavesIdentically(randomGraph(builder().compressed().symmetric(), 1000, 20000).subgraph(v -> v % 5 != 2));
+  }
+
+  private void assertBehavesIdentically(Graph graph) {
+    Graph subgraph = randomGraph(builder(), 1000, 20000).subgraph(v -> v % 5 != 2);
+    assertThat(graph.order(), is(subgraph.order()));
+    assertThat(graph.size(), is(subgraph.size()));
+    assertThat(graph.weights(), is(subgraph.weights()));
+    CollectingEdgeConsumer edges = new CollectingEdgeConsumer();
+    CollectingEdgeConsumer expectedEdges = new CollectingEdgeConsumer();
+    graph.traverse(edges);
+    subgraph.traverse(expectedEdges);
+    assertThat(edges.getEdges(), is(expectedEdges.getEdges()));
+    CollectingEdgeConsumer expectedLowerEdges = new CollectingEdgeConsumer();
+    CollectingEdgeConsumer lowerEdges = new CollectingEdgeConsumer();
+    subgraph.traverse(expectedLowerEdges, TraversalMode.LOWER_TRIANGULAR);
+    graph.traverse(lowerEdges, TraversalMode.LOWER_TRIANGULAR);
+    assertThat(lowerEdges.getEdges(), is(expectedLowerEdges.getEdges()));
+    double[] x = new double[subgraph.order()];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = Math.cos(i);
+    }
+    double[] expected = new double[x.length];
+    double[] actual = new double[x.length];
+    subgraph.multiplyRows(x, expected, 0, x.length);
+    graph.multiplyRows(x, actual, 0, x.length);
+    for (int i = 0; i < x.length; i++) {
+      assertThat(actual[i], closeTo(expected[i], 1E-9));
+    }
+    float[] floatExpected = new float[x.length];
+    float[] floatActual = new float[x.length];
+    subgraph.multiplyRows(Vectors.toFloat(x), floatExpected, 0, x.length);
+    graph.multiplyRows(Vectors.toFloat(x), floatActual, 0, x.length);
+    for (int i = 0; i < x.length; i++) {
+      assertThat((double) floatExpected[i], closeTo(expected[i], 1E-5 * (1 + Math.abs(expected[i]))));
+      assertThat((double) floatActual[i], closeTo(expected[i], 1E-5 * (1 + Math.abs(expected[i]))));
+    }
+  }
+
+  @Test
+  public void symmetricSubgraphsMaterialize() {
+    Graph subgraph = randomGraph(builder().symmetric(), 1000, 20000).subgraph(v -> v % 3 == 0);
+    SparseGraph materialized = ((SparseSubgraph) subgraph).materialize();
+    assertThat(materialized.size(), is(subgraph.size()));
+    CollectingEdgeConsumer materializedEdges = new CollectingEdgeConsumer();
+    materialized.traverse(materializedEdges);
+    subgraph.traverse(consumer);
+    assertThat(materializedEdges.getEdges(), is(consumer.getEdges()));
+  }
+
+  @Test
+  public void materializedGraphsKeepStorageLayout() {
+    for (WeightStorage weightStorage : WeightStorage.values()) {
+      Graph subgraph = randomGraph(builder().symmetric().compressed().weightStorage(weightStorage), 1000, 20000)
+              .subgraph(v -> v % 3 == 0);
+      SparseGraph materialized = ((SparseSubgraph) subgraph).materialize();
+      CSRDatastore datastore = materialized.datastore();
+      assertThat(datastore.isSymmetric(), is(true));
+      assertThat(datastore.isCompressed(), is(true));
+      assertThat(WeightStorage.of(datastore.weights), is(weightStorage));
+      CollectingEdgeConsumer materializedEdges = new CollectingEdgeConsumer();
+      CollectingEdgeConsumer expectedEdges = new CollectingEdgeConsumer();
+      materialized.traverse(materializedEdges);
+      subgraph.traverse(expectedEdges);
+      assertThat(materializedEdges.getEdges(), is(expectedEdges.getEdges()));
+    }
+    SparseGraph plain = ((SparseSubgraph) randomGraph(builder(), 1000, 20000).subgraph(v -> v % 3 == 0)).materialize();
+    assertThat(plain.datastore().isSymmetric(), is(false));
+    assertThat(plain.datastore().isCompressed(), is(false));
+    assertThat(WeightStorage.of(plain.datastore().weights), is(WeightStorage.DOUBLE));
+  }
+
+}
@@ -50,6 +50,16 @@ public class BigDoublesTest {
     for (long i = 0; i < 4 * BIN_SIZE; i++) assertThat(b.get(i), is(2.71 * i));
   }
 
+  @Test
+  public void bulkSet() {
+    BigDoubles b = new BigDoubles(4 * BIN_SIZE);
+    double[] values = new double[2 * (int) BIN_SIZE + 10];
+    for (int i = 0; i < values.length; i++) values[i] = 2.71 * i;
+    b.set(BIN_SIZE - 5, values, 3, values.length - 3);
+    assertThat(b.size(), is(3 * BIN_SIZE + 2));
+    for (int i = 3; i < values.length; i++) assertThat(b.get(BIN_SIZE - 8 + i), is(values[i]));
+  }
+
   @Test
   public void equals() {
     BigDoubles b = new BigDoubles(29);
@@ -72,4 +82,13 @@ public class BigDoublesTest {
     assertThat(sorted, is(BigDoubles.of(0d, 1d, 2d, 3d, 4d, 5d, 6d, 7d, 8d, 9d)));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void binAccess() {
+    BigDoubles b = new BigDoubles(0);
+    for (int i = 0; i < 2 * BIN_SIZE; i++) b.set(i, 7 * i);
+    assertThat(b.bin(0)[42], is((double) (7 * 42)));
+    assertThat(b.bin(1)[42], is((double) (7 * (BIN_SIZE + 42))));
+    assertThat(b.get(1, 42), is((double) (7 * (BIN_SIZE + 42))));
+  }
+
+}
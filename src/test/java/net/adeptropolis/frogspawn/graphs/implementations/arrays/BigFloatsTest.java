@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class BigFloatsTest {
+
+  private static final long BIN_SIZE = 1 << BigDoubles.BIN_BITS;
+
+  @Test
+  public void emptySequence() {
+    assertThat(BigFloats.of(new BigDoubles(0)).size(), is(0L));
+  }
+
+  @Test
+  public void valuesAreRounded() {
+    BigDoubles doubles = new BigDoubles(3 * BIN_SIZE);
+    for (long i = 0; i < 3 * BIN_SIZE; i++) {
+      doubles.set(i, i / 3.0);
+    }
+    BigFloats floats = BigFloats.of(doubles);
+    assertThat(floats.size(), is(3 * BIN_SIZE));
+    for (long i = 0; i < 3 * BIN_SIZE; i++) {
+      assertThat(floats.get(i), is((double) (float) (i / 3.0)));
+    }
+  }
+
+  @Test
+  public void binAccess() {
+    BigDoubles doubles = new BigDoubles(0);
+    for (int i = 0; i < 2 * BIN_SIZE; i++) doubles.set(i, 7 * i);
+    BigFloats floats = BigFloats.of(doubles);
+    assertThat(floats.bin(1)[42], is((float) (7 * (BIN_SIZE + 42))));
+    assertThat(floats.get(1, 42), is((double) (7 * (BIN_SIZE + 42))));
+  }
+
+}
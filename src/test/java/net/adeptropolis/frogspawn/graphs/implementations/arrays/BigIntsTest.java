@@ -50,6 +50,16 @@ public class BigIntsTest {
     for (int i = 0; i < 4 * BIN_SIZE; i++) assertThat(b.get(i), is(271 * i));
   }
 
+  @Test
+  public void bulkSet() {
+    BigInts b = new BigInts(4 * BIN_SIZE);
+    int[] values = new int[2 * (int) BIN_SIZE + 10];
+    for (int i = 0; i < values.length; i++) values[i] = 271 * i;
+    b.set(BIN_SIZE - 5, values, 3, values.length - 3);
+    assertThat(b.size(), is(3 * BIN_SIZE + 2));
+    for (int i = 3; i < values.length; i++) assertThat(b.get(BIN_SIZE - 8 + i), is(values[i]));
+  }
+
   @Test
   public void equals() {
     BigInts b = new BigInts(29);
@@ -72,4 +82,12 @@ public class BigIntsTest {
     assertThat(BigInts.of(271, 314).toString(), is("271, 314"));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void binAccess() {
+    BigInts b = new BigInts(0);
+    for (int i = 0; i < 2 * BIN_SIZE; i++) b.set(i, 7 * i);
+    assertThat(b.bin(0)[42], is(7 * 42));
+    assertThat(b.bin(1)[42], is((int) (7 * (BIN_SIZE + 42))));
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class CompressedIntsTest {
+
+  @Test
+  public void emptySequence() {
+    CompressedInts values = CompressedInts.compress(new BigInts(0));
+    assertThat(values.size(), is(0L));
+  }
+
+  @Test
+  public void randomAccess() {
+    BigInts ints = adjacencyLists(10000);
+    CompressedInts values = CompressedInts.compress(ints);
+    assertThat(values.size(), is(ints.size()));
+    for (long i = 0; i < ints.size(); i++) {
+      assertThat(values.get(i), is(ints.get(i)));
+    }
+  }
+
+  @Test
+  public void sequentialAccess() {
+    BigInts ints = adjacencyLists(10000);
+    CompressedInts values = CompressedInts.compress(ints);
+    for (long from : new long[]{0, 1, 63, 64, 65, 5000}) {
+      CompressedInts.Decoder decoder = values.decoder(from);
+      for (long i = from; i < ints.size(); i++) {
+        assertThat(decoder.next(), is(ints.get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void extremeValues() {
+    BigInts ints = BigInts.of(0, Integer.MAX_VALUE, Integer.MIN_VALUE, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    CompressedInts values = CompressedInts.compress(ints);
+    CompressedInts.Decoder decoder = values.decoder(0);
+    for (long i = 0; i < ints.size(); i++) {
+      assertThat(values.get(i), is(ints.get(i)));
+      assertThat(decoder.next(), is(ints.get(i)));
+    }
+  }
+
+  @Test
+  public void multipleSegments() {
+    BigInts ints = adjacencyLists(10000);
+    CompressedInts values = CompressedInts.compress(ints, 10);
+    CompressedInts.Decoder decoder = values.decoder(0);
+    for (long i = 0; i < ints.size(); i++) {
+      assertThat(values.get(i), is(ints.get(i)));
+      assertThat(decoder.next(), is(ints.get(i)));
+    }
+  }
+
+  @Test
+  public void sortedSequencesAreSmall() {
+    BigInts ints = adjacencyLists(100000);
+    CompressedInts values = CompressedInts.compress(ints);
+    assertThat(values.bytes(), lessThan(ints.size() * 2));
+  }
+
+  private static BigInts adjacencyLists(int size) {
+    Random random = new Random(1337);
+    BigInts ints = new BigInts(size);
+    int value = 0;
+    for (int i = 0; i < size; i++) {
+      value = (random.nextInt(20) == 0) ? random.nextInt(1000) : value + 1 + random.nextInt(50);
+      ints.set(i, value);
+    }
+    return ints;
+  }
+
+}
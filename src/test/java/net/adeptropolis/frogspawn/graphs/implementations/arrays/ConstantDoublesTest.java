@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ConstantDoublesTest {
+
+  @Test
+  public void constantValue() {
+    ConstantDoubles values = new ConstantDoubles(1, 1L << 40);
+    assertThat(values.size(), is(1L << 40));
+    assertThat(values.get(0), is(1.0));
+    assertThat(values.get((1L << 40) - 1), is(1.0));
+  }
+
+}
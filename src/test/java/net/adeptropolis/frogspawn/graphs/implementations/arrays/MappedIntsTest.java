@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class MappedIntsTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void mapRegion() throws IOException {
+    Path file = folder.newFile().toPath();
+    ByteBuffer buf = ByteBuffer.allocate(16 + 1000 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buf.putLong(42L).putLong(43L);
+    for (int i = 0; i < 1000; i++) {
+      buf.putInt(3 * i - 7);
+    }
+    buf.flip();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(buf);
+    }
+    MappedInts values;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      values = MappedInts.map(channel, 16, 1000);
+    }
+    assertThat(values.size(), is(1000L));
+    for (int i = 0; i < 1000; i++) {
+      assertThat(values.get(i), is(3 * i - 7));
+    }
+  }
+
+  @Test
+  public void emptyRegion() throws IOException {
+    Path file = folder.newFile().toPath();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      assertThat(MappedInts.map(channel, 0, 0).size(), is(0L));
+    }
+  }
+
+}
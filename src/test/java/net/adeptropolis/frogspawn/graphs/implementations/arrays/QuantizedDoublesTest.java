@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.implementations.arrays;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+public class QuantizedDoublesTest {
+
+  private static final long BIN_SIZE = 1 << BigDoubles.BIN_BITS;
+
+  @Test
+  public void emptySequence() {
+    assertThat(QuantizedDoubles.of(new BigDoubles(0)).size(), is(0L));
+  }
+
+  @Test
+  public void smallIntegersAreExact() {
+    BigDoubles doubles = new BigDoubles(2 * BIN_SIZE);
+    for (long i = 0; i < 2 * BIN_SIZE; i++) {
+      doubles.set(i, i % 65536);
+    }
+    QuantizedDoubles quantized = QuantizedDoubles.of(doubles);
+    assertThat(quantized.scale(), is(1.0));
+    assertThat(quantized.size(), is(2 * BIN_SIZE));
+    for (long i = 0; i < 2 * BIN_SIZE; i++) {
+      assertThat(quantized.get(i), is((double) (i % 65536)));
+    }
+  }
+
+  @Test
+  public void fractionalValuesAreScaled() {
+    BigDoubles doubles = BigDoubles.of(0, 0.5, 1.25, 100, 3.75);
+    QuantizedDoubles quantized = QuantizedDoubles.of(doubles);
+    assertThat(quantized.scale(), is(100.0 / 65535));
+    assertThat(quantized.get(0), is(0.0));
+    assertThat(quantized.get(3), closeTo(100, 1E-9));
+    for (long i = 0; i < doubles.size(); i++) {
+      assertThat(quantized.get(i), closeTo(doubles.get(i), quantized.scale() / 2));
+    }
+  }
+
+  @Test
+  public void largeIntegersAreScaled() {
+    QuantizedDoubles quantized = QuantizedDoubles.of(BigDoubles.of(1, 131070));
+    assertThat(quantized.scale(), is(2.0));
+    assertThat(quantized.get(0), is(2.0));
+    assertThat(quantized.get(1), is(131070.0));
+  }
+
+  @Test
+  public void positiveValuesStayPositive() {
+    QuantizedDoubles quantized = QuantizedDoubles.of(BigDoubles.of(1, 200000, 0, 1E-3));
+    assertThat(quantized.get(0), is(quantized.scale()));
+    assertThat(quantized.get(1), closeTo(200000, 1E-9));
+    assertThat(quantized.get(2), is(0.0));
+    assertThat(quantized.get(3), is(quantized.scale()));
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled;
+
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.DefaultLabeling;
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.StripedLabeling;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ConcurrentLabeledGraphBuilderTest {
+
+  @Test
+  public void concurrentProducers() throws Exception {
+    ConcurrentLabeledGraphBuilder<String> builder = new ConcurrentLabeledGraphBuilder<>(new StripedLabeling<>());
+    LabeledGraphBuilder<String> reference = new LabeledGraphBuilder<>(new DefaultLabeling<>());
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        int seed = t;
+        futures.add(executor.submit(() -> {
+          Random random = new Random(seed);
+          for (int i = 0; i < 20000; i++) {
+            builder.add("v" + random.nextInt(1000), "v" + random.nextInt(1000), 1 + random.nextInt(5));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    for (int t = 0; t < 4; t++) {
+      Random random = new Random(t);
+      for (int i = 0; i < 20000; i++) {
+        reference.add("v" + random.nextInt(1000), "v" + random.nextInt(1000), 1 + random.nextInt(5));
+      }
+    }
+    assertThat(labeledEdges(builder.build()), is(labeledEdges(reference.build())));
+  }
+
+  private static Map<String, Double> labeledEdges(LabeledGraph<String> graph) {
+    Map<String, Double> edges = new TreeMap<>();
+    graph.traverse((left, right, weight) -> edges.put(left + "-" + right, weight));
+    return edges;
+  }
+
+}
@@ -7,10 +7,26 @@ package net.adeptropolis.frogspawn.graphs.labeled;
 
 import net.adeptropolis.frogspawn.graphs.Edge;
 import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import net.adeptropolis.frogspawn.graphs.implementations.EdgeListWriter;
+import net.adeptropolis.frogspawn.graphs.implementations.LabelDictionary;
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.DefaultLabeling;
+import net.adeptropolis.frogspawn.graphs.labeled.labelings.StringLabelCodec;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -18,6 +34,9 @@ import static org.hamcrest.Matchers.is;
 
 public class LabeledGraphSourceTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void tsv() {
     LabeledGraph<String> labeledGraph = LabeledGraphSource.fromTSV(Stream.of("2\t0\t1", "3\t1\t2"));
@@ -39,4 +58,111 @@ public class LabeledGraphSourceTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void tsvFile() throws IOException, URISyntaxException {
+    Path file = Paths.get(ClassLoader.getSystemResource("small_graph.tsv").toURI());
+    LabeledGraph<String> expected;
+    try (Stream<String> lines = Files.lines(file)) {
+      expected = LabeledGraphSource.fromTSV(lines);
+    }
+    LabeledGraph<String> graph = LabeledGraphSource.fromTSV(file);
+    assertThat(graph.order(), is(expected.order()));
+    assertThat(graph.size(), is(expected.size()));
+    assertThat(labeledEdges(graph), is(labeledEdges(expected)));
+  }
+
+  @Test
+  public void chunkedTsvFileAssignsIdsInOrderOfFirstOccurrence() throws IOException {
+    Path file = folder.newFile().toPath();
+    Random random = new Random(1337);
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      lines.add(String.format("%d\tv%d\tv%d", 1 + random.nextInt(100), random.nextInt(2000), random.nextInt(2000)));
+    }
+    Files.write(file, lines);
+    LabeledGraph<String> expected = LabeledGraphSource.fromTSV(lines.stream());
+    LabeledGraph<String> graph = LabeledGraphSource.fromTSV(file, 1024);
+    assertThat(graph.labels().collect(Collectors.toList()), is(expected.labels().collect(Collectors.toList())));
+    assertThat(graph.size(), is(expected.size()));
+    assertThat(labeledEdges(graph), is(labeledEdges(expected)));
+  }
+
+  @Test
+  public void file() throws IOException {
+    LabeledGraph<String> labeledGraph = LabeledGraphSource.fromTSV(Stream.of("2\tx\ty", "3\ty\tzäöü", "5\tw\tx"));
+    Path file = folder.newFile().toPath();
+    labeledGraph.write(file, new StringLabelCodec());
+    LabeledGraph<String> loaded = LabeledGraphSource.fromFile(file, new DefaultLabeling<>(), new StringLabelCodec());
+    assertThat(loaded.getLabel(0), is("x"));
+    assertThat(loaded.getLabel(2), is("zäöü"));
+    assertThat(loaded.getLabel(3), is("w"));
+    assertThat(loaded.order(), is(4));
+    assertThat(loaded.size(), is(6L));
+    GraphTestBase.CollectingEdgeConsumer consumer = new GraphTestBase.CollectingEdgeConsumer();
+    loaded.getGraph().traverse(consumer);
+    GraphTestBase.CollectingEdgeConsumer expected = new GraphTestBase.CollectingEdgeConsumer();
+    labeledGraph.getGraph().traverse(expected);
+    assertThat(consumer.getEdges(), is(expected.getEdges()));
+  }
+
+  @Test
+  public void fileWithSubgraph() throws IOException {
+    LabeledGraph<String> labeledGraph = LabeledGraphSource.fromTSV(Stream.of("2\tx\ty", "3\ty\tz", "5\tw\tx"));
+    Path file = folder.newFile().toPath();
+    labeledGraph.subgraph(Stream.of("y", "z")).write(file, new StringLabelCodec());
+    LabeledGraph<String> loaded = LabeledGraphSource.fromFile(file, new DefaultLabeling<>(), new StringLabelCodec());
+    assertThat(loaded.order(), is(2));
+    assertThat(loaded.labels().toArray(), is(new Object[]{"x", "y", "z", "w"}));
+    List<String> neighbours = new ArrayList<>();
+    loaded.traverse("y", (u, v, weight) -> neighbours.add(v));
+    assertThat(neighbours, is(Arrays.asList("z")));
+  }
+
+  @Test
+  public void edgeListWithLabelDictionary() throws IOException {
+    Path edges = folder.newFile().toPath();
+    Path labels = folder.newFile().toPath();
+    try (EdgeListWriter writer = new EdgeListWriter(edges)) {
+      writer.add(0, 1, 2).add(1, 2, 3).add(3, 0, 5);
+    }
+    StringLabelCodec codec = new StringLabelCodec();
+    LabelDictionary.write(labels, Stream.of("x", "y", "zäöü", "w").map(codec::encode).collect(Collectors.toList()));
+    LabeledGraph<String> loaded = LabeledGraphSource.fromEdgeList(edges, labels, new DefaultLabeling<>(), codec);
+    LabeledGraph<String> expected = LabeledGraphSource.fromTSV(Stream.of("2\tx\ty", "3\ty\tzäöü", "5\tw\tx"));
+    assertThat(labeledEdges(loaded), is(labeledEdges(expected)));
+  }
+
+  @Test
+  public void edgeListWithLongIds() throws IOException {
+    Path edges = folder.newFile().toPath();
+    try (EdgeListWriter writer = new EdgeListWriter(edges).longIds()) {
+      writer.add(1L << 40, 7, 2).add(7, 42, 3);
+    }
+    LabeledGraph<Long> loaded = LabeledGraphSource.fromEdgeList(edges, new DefaultLabeling<>());
+    assertThat(loaded.order(), is(3));
+    assertThat(loaded.labels().toArray(), is(new Object[]{1L << 40, 7L, 42L}));
+    List<Long> neighbours = new ArrayList<>();
+    loaded.traverse(7L, (u, v, weight) -> neighbours.add(v));
+    assertThat(neighbours, is(Arrays.asList(1L << 40, 42L)));
+  }
+
+  @Test
+  public void edgeListWithPrimitiveLabels() throws IOException {
+    Path edges = folder.newFile().toPath();
+    try (EdgeListWriter writer = new EdgeListWriter(edges).longIds()) {
+      writer.add(1L << 40, 7, 2).add(7, 42, 3).add(-5, 42, 1);
+    }
+    LabeledGraph<Long> loaded = LabeledGraphSource.fromEdgeList(edges);
+    assertThat(loaded.labels().toArray(), is(new Object[]{1L << 40, 7L, 42L, -5L}));
+    List<Long> neighbours = new ArrayList<>();
+    loaded.traverse(42L, (u, v, weight) -> neighbours.add(v));
+    assertThat(neighbours, is(Arrays.asList(7L, -5L)));
+  }
+
+  private static Map<String, Double> labeledEdges(LabeledGraph<String> graph) {
+    Map<String, Double> edges = new TreeMap<>();
+    graph.traverse((left, right, weight) -> edges.put(left + "|" + right, weight));
+    return edges;
+  }
+
+}
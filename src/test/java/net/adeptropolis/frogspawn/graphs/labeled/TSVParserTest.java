@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+public class TSVParserTest {
+
+  private static final String CONTENT = "# weight\tleft\tright\n2\ta\tb\r\n  3.5\t\tb\t\tc\n\nx\ty\tz\n4\tonly\n"
+          + "0.25\täöü\tc d\n5\ta\tb";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void lines() {
+    assertThat(parseLines(CONTENT), is(Arrays.asList("a|b|2.0", "b|c|3.5", "äöü|c d|0.25", "a|b|5.0")));
+  }
+
+  @Test
+  public void weights() {
+    for (String weight : new String[]{"0", "1", "1.", ".5", "3.14159", "0.1", "0.000001234", "123456789012345",
+            "1234567890123456789", "0.30000000000000004", "1.00000000000000000000000001"}) {
+      byte[] bytes = weight.getBytes(StandardCharsets.US_ASCII);
+      assertThat(TSVParser.parseWeight(bytes, 0, bytes.length), is(Double.parseDouble(weight)));
+    }
+    Random random = new Random(1337);
+    for (int i = 0; i < 100000; i++) {
+      String weight = String.valueOf(random.nextInt(100000) / Math.pow(10, random.nextInt(8)));
+      if (weight.contains("E")) continue;
+      byte[] bytes = weight.getBytes(StandardCharsets.US_ASCII);
+      assertThat(TSVParser.parseWeight(bytes, 0, bytes.length), is(Double.parseDouble(weight)));
+    }
+  }
+
+  @Test
+  public void invalidWeights() {
+    byte[] bytes = "1.2.3".getBytes(StandardCharsets.US_ASCII);
+    assertThrows(NumberFormatException.class, () -> TSVParser.parseWeight(bytes, 0, bytes.length));
+    byte[] dot = ".".getBytes(StandardCharsets.US_ASCII);
+    assertThrows(NumberFormatException.class, () -> TSVParser.parseWeight(dot, 0, dot.length));
+  }
+
+  @Test
+  public void arbitraryChunkBoundaries() throws IOException {
+    Path file = folder.newFile().toPath();
+    byte[] bytes = CONTENT.getBytes(StandardCharsets.UTF_8);
+    Files.write(file, bytes);
+    List<String> expected = parseLines(CONTENT);
+    for (int split = 0; split <= bytes.length; split++) {
+      List<String> edges = new ArrayList<>();
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        TSVParser.parse(channel, split, false, (left, right, weight) -> edges.add(left + "|" + right + "|" + weight));
+      }
+      if (split < bytes.length) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+          channel.position(Math.max(0, split - 1));
+          TSVParser.parse(channel, bytes.length - Math.max(0, split - 1), split > 0,
+                  (left, right, weight) -> edges.add(left + "|" + right + "|" + weight));
+        }
+      }
+      assertThat(edges, is(expected));
+    }
+  }
+
+  @Test
+  public void largeFile() throws IOException {
+    Path file = folder.newFile().toPath();
+    List<String> expected = new ArrayList<>();
+    try (OutputStream out = Files.newOutputStream(file)) {
+      Random random = new Random(1337);
+      for (int i = 0; i < 2000000; i++) {
+        int weight = random.nextInt(100);
+        String left = "v" + random.nextInt(100000);
+        String right = "v" + random.nextInt(100000);
+        out.write(String.format("%d\t%s\t%s\n", weight, left, right).getBytes(StandardCharsets.UTF_8));
+        expected.add(left + "|" + right + "|" + (double) weight);
+      }
+    }
+    List<String> edges = Collections.synchronizedList(new ArrayList<>());
+    TSVParser.parse(file, () -> (left, right, weight) -> edges.add(left + "|" + right + "|" + weight));
+    Collections.sort(edges);
+    Collections.sort(expected);
+    assertThat(edges, is(expected));
+  }
+
+  @Test
+  public void gzip() throws IOException {
+    Path file = folder.newFile().toPath();
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+      out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+    }
+    List<String> edges = new ArrayList<>();
+    TSVParser.parse(file, () -> (left, right, weight) -> edges.add(left + "|" + right + "|" + weight));
+    assertThat(edges, is(parseLines(CONTENT)));
+  }
+
+  @Test
+  public void emptyFile() throws IOException {
+    List<String> edges = new ArrayList<>();
+    TSVParser.parse(folder.newFile().toPath(), () -> (left, right, weight) -> edges.add(left));
+    assertThat(edges.isEmpty(), is(true));
+  }
+
+  private static List<String> parseLines(String content) {
+    List<String> edges = new ArrayList<>();
+    for (String line : content.split("\n")) {
+      byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+      TSVParser.parseLine(bytes, 0, bytes.length, (left, right, weight) -> edges.add(left + "|" + right + "|" + weight));
+    }
+    return edges;
+  }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled.labelings;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CompactStringLabelingTest {
+
+  @Test
+  public void emptyGraph() {
+    CompactStringLabeling labeling = new CompactStringLabeling();
+    assertThat(labeling.labels().count(), is(0L));
+    assertThat(labeling.id("X"), is(-1));
+    assertThat(labeling.label(42), nullValue());
+  }
+
+  @Test
+  public void fewElements() {
+    CompactStringLabeling labeling = new CompactStringLabeling();
+    labeling.id("A");
+    labeling.id("B");
+    labeling.id("C");
+    assertThat(labeling.id("B"), is(1));
+    assertThat(labeling.label(0), is(("A")));
+    assertThat(labeling.label(1), is(("B")));
+    assertThat(labeling.label(2), is(("C")));
+    assertThat(labeling.id("A"), is(0));
+    assertThat(labeling.id("B"), is(1));
+    assertThat(labeling.id("C"), is(2));
+    assertThat(labeling.labels().collect(Collectors.toList()), contains("A", "B", "C"));
+  }
+
+  @Test
+  public void commitAfterFirstLookup() {
+    CompactStringLabeling labeling = new CompactStringLabeling();
+    labeling.id("A");
+    labeling.label(0);
+    assertThat(labeling.id("B"), is(-1));
+  }
+
+  @Test
+  public void unusualLabels() {
+    CompactStringLabeling labeling = new CompactStringLabeling();
+    String longLabel = String.join("", Collections.nCopies(100000, "xyz"));
+    assertThat(labeling.id(""), is(0));
+    assertThat(labeling.id("Ünïcödé ☃"), is(1));
+    assertThat(labeling.id(longLabel), is(2));
+    assertThat(labeling.id(longLabel.substring(1)), is(3));
+    assertThat(labeling.label(0), is(""));
+    assertThat(labeling.label(1), is("Ünïcödé ☃"));
+    assertThat(labeling.label(2), is(longLabel));
+    assertThat(labeling.label(3), is(longLabel.substring(1)));
+  }
+
+  @Test
+  public void utf8Lookup() {
+    CompactStringLabeling labeling = new CompactStringLabeling();
+    byte[] buf = "\tfoo\tbär\t".getBytes(StandardCharsets.UTF_8);
+    assertThat(labeling.id(buf, 1, 4), is(0));
+    assertThat(labeling.id(buf, 5, buf.length - 1), is(1));
+    assertThat(labeling.id("bär"), is(1));
+    assertThat(labeling.label(0), is("foo"));
+  }
+
+  @Test
+  public void manyElements() {
+    CompactStringLabeling labeling = new CompactStringLabeling();
+    int numLabels = 2000000;
+    for (int i = 0; i < numLabels; i++) {
+      assertThat(labeling.id("label-" + i), is(i));
+    }
+    for (int i = 0; i < numLabels; i++) {
+      assertThat(labeling.id("label-" + i), is(i));
+      assertThat(labeling.label(i), is("label-" + i));
+    }
+    assertThat(labeling.id("label-" + numLabels), is(-1));
+  }
+
+}
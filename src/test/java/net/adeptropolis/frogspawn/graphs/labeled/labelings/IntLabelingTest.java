@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled.labelings;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class IntLabelingTest {
+
+  @Test
+  public void emptyGraph() {
+    IntLabeling labeling = new IntLabeling();
+    assertThat(labeling.labels().count(), is(0L));
+    assertThat(labeling.id(42), is(-1));
+    assertThat(labeling.label(42), nullValue());
+  }
+
+  @Test
+  public void fewElements() {
+    IntLabeling labeling = new IntLabeling();
+    labeling.id(Integer.MAX_VALUE);
+    labeling.id(-3);
+    labeling.id(Integer.valueOf(0));
+    assertThat(labeling.id(-3), is(1));
+    assertThat(labeling.label(0), is(Integer.MAX_VALUE));
+    assertThat(labeling.intLabel(1), is(-3));
+    assertThat(labeling.label(2), is(0));
+    assertThat(labeling.id(Integer.MAX_VALUE), is(0));
+    assertThat(labeling.id(-3), is(1));
+    assertThat(labeling.id(Integer.valueOf(0)), is(2));
+    assertThat(labeling.id(1), is(-1));
+    assertThat(labeling.labels().collect(Collectors.toList()), contains(Integer.MAX_VALUE, -3, 0));
+  }
+
+  @Test
+  public void commitAfterFirstLookup() {
+    IntLabeling labeling = new IntLabeling();
+    labeling.id(1);
+    labeling.label(0);
+    assertThat(labeling.id(2), is(-1));
+  }
+
+  @Test
+  public void manyElements() {
+    IntLabeling labeling = new IntLabeling(16);
+    int[] labels = new Random(1337).ints().map(x -> x & ~1).distinct().limit(100000).toArray();
+    for (int i = 0; i < labels.length; i++) {
+      assertThat(labeling.id(labels[i]), is(i));
+    }
+    for (int i = 0; i < labels.length; i++) {
+      assertThat(labeling.intLabel(i), is(labels[i]));
+      assertThat(labeling.id(labels[i]), is(i));
+      assertThat(labeling.id(labels[i] + 1), is(-1));
+    }
+  }
+
+}
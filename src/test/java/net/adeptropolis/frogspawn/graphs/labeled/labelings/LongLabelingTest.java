@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled.labelings;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LongLabelingTest {
+
+  @Test
+  public void emptyGraph() {
+    LongLabeling labeling = new LongLabeling();
+    assertThat(labeling.labels().count(), is(0L));
+    assertThat(labeling.id(42L), is(-1));
+    assertThat(labeling.label(42), nullValue());
+  }
+
+  @Test
+  public void fewElements() {
+    LongLabeling labeling = new LongLabeling();
+    labeling.id(Long.MAX_VALUE);
+    labeling.id(-3L);
+    labeling.id(Long.valueOf(0));
+    assertThat(labeling.id(-3L), is(1));
+    assertThat(labeling.label(0), is(Long.MAX_VALUE));
+    assertThat(labeling.longLabel(1), is(-3L));
+    assertThat(labeling.label(2), is(0L));
+    assertThat(labeling.id(Long.MAX_VALUE), is(0));
+    assertThat(labeling.id(-3L), is(1));
+    assertThat(labeling.id(Long.valueOf(0)), is(2));
+    assertThat(labeling.id(1L), is(-1));
+    assertThat(labeling.labels().collect(Collectors.toList()), contains(Long.MAX_VALUE, -3L, 0L));
+  }
+
+  @Test
+  public void commitAfterFirstLookup() {
+    LongLabeling labeling = new LongLabeling();
+    labeling.id(1L);
+    labeling.label(0);
+    assertThat(labeling.id(2L), is(-1));
+  }
+
+  @Test
+  public void manyElements() {
+    LongLabeling labeling = new LongLabeling(16);
+    long[] labels = new Random(1337).longs().map(x -> x & ~1L).distinct().limit(100000).toArray();
+    for (int i = 0; i < labels.length; i++) {
+      assertThat(labeling.id(labels[i]), is(i));
+    }
+    for (int i = 0; i < labels.length; i++) {
+      assertThat(labeling.longLabel(i), is(labels[i]));
+      assertThat(labeling.id(labels[i]), is(i));
+      assertThat(labeling.id(labels[i] + 1), is(-1));
+    }
+  }
+
+}
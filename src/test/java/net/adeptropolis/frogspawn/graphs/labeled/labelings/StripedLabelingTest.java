@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.labeled.labelings;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StripedLabelingTest {
+
+  @Test
+  public void emptyGraph() {
+    StripedLabeling<String> labeling = new StripedLabeling<>();
+    assertThat(labeling.labels().count(), is(0L));
+    assertThat(labeling.id("X"), is(-1));
+    assertThat(labeling.label(42), nullValue());
+  }
+
+  @Test
+  public void fewElements() {
+    StripedLabeling<String> labeling = new StripedLabeling<>();
+    labeling.id("A");
+    labeling.id("B");
+    labeling.id("C");
+    assertThat(labeling.label(0), is(("A")));
+    assertThat(labeling.label(1), is(("B")));
+    assertThat(labeling.label(2), is(("C")));
+    assertThat(labeling.id("A"), is(0));
+    assertThat(labeling.id("B"), is(1));
+    assertThat(labeling.id("C"), is(2));
+    assertThat(labeling.labels().collect(Collectors.toList()), contains("A", "B", "C"));
+  }
+
+  @Test
+  public void commitAfterFirstLookup() {
+    StripedLabeling<String> labeling = new StripedLabeling<>();
+    labeling.id("A");
+    labeling.label(0);
+    assertThat(labeling.id("B"), is(-1));
+  }
+
+  @Test
+  public void concurrentUpdates() throws Exception {
+    StripedLabeling<Integer> labeling = new StripedLabeling<>();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<int[]>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(executor.submit(() -> {
+          int[] ids = new int[20000];
+          for (int i = 0; i < ids.length; i++) {
+            ids[i] = labeling.id(i);
+          }
+          return ids;
+        }));
+      }
+      int[] expected = futures.get(0).get();
+      for (Future<int[]> future : futures) {
+        assertThat(future.get(), is(expected));
+      }
+      Set<Integer> distinctIds = new HashSet<>();
+      for (int i = 0; i < expected.length; i++) {
+        assertThat(expected[i], allOf(greaterThanOrEqualTo(0), lessThan(expected.length)));
+        distinctIds.add(expected[i]);
+        assertThat(labeling.label(expected[i]), is(i));
+      }
+      assertThat(distinctIds.size(), is(expected.length));
+      assertThat(labeling.labels().count(), is((long) expected.length));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void nullLabel() {
+    StripedLabeling<String> labeling = new StripedLabeling<>();
+    labeling.id("A");
+    assertThat(labeling.id(null), is(1));
+    assertThat(labeling.id(null), is(1));
+    assertThat(labeling.label(1), nullValue());
+    assertThat(labeling.id(null), is(1));
+  }
+
+  @Test
+  public void concurrentLookupsDuringGrowth() throws Exception {
+    StripedLabeling<Long> labeling = new StripedLabeling<>();
+    int numLabels = 200000;
+    int numThreads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<int[]>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        int offset = t * numLabels / numThreads;
+        futures.add(executor.submit(() -> {
+          int[] ids = new int[numLabels];
+          for (int i = 0; i < numLabels; i++) {
+            int label = (offset + i) % numLabels;
+            ids[label] = labeling.id((long) label);
+            assertThat(labeling.id((long) (offset + i / 2) % numLabels), greaterThanOrEqualTo(0));
+          }
+          return ids;
+        }));
+      }
+      int[] expected = futures.get(0).get();
+      for (Future<int[]> future : futures) {
+        assertThat(future.get(), is(expected));
+      }
+      for (int i = 0; i < numLabels; i++) {
+        assertThat(labeling.label(expected[i]), is((long) i));
+      }
+      assertThat(labeling.labels().count(), is((long) numLabels));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+}
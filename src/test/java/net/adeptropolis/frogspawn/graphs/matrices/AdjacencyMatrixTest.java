@@ -8,6 +8,7 @@ package net.adeptropolis.frogspawn.graphs.matrices;
 import it.unimi.dsi.fastutil.ints.IntIterators;
 import net.adeptropolis.frogspawn.graphs.Graph;
 import net.adeptropolis.frogspawn.graphs.implementations.SparseGraphBuilder;
+import net.adeptropolis.frogspawn.helpers.Vectors;
 import org.junit.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -24,6 +25,14 @@ public class AdjacencyMatrixTest {
     assertThat(y[2], is(593.0));
   }
 
+  @Test
+  public void singlePrecision() {
+    float[] y = new AdjacencyMatrix(defaultGraph()).multiply(new float[]{17, 19, 23});
+    assertThat(y[0], is(206.0f));
+    assertThat(y[1], is(437.0f));
+    assertThat(y[2], is(593.0f));
+  }
+
   private Graph defaultGraph() {
     return new SparseGraphBuilder()
             .add(0, 0, 2)
@@ -43,6 +52,14 @@ public class AdjacencyMatrixTest {
     assertThat(y[1], is(548.0));
   }
 
+  @Test
+  public void singlePrecisionSubset() {
+    float[] y = new AdjacencyMatrix(defaultGraph().subgraph(IntIterators.wrap(new int[]{0, 2})))
+            .multiply(new float[]{29, 31});
+    assertThat(y[0], is(213.0f));
+    assertThat(y[1], is(548.0f));
+  }
+
   @Test
   public void reusability() {
     AdjacencyMatrix op = new AdjacencyMatrix(defaultGraph());
@@ -56,5 +73,42 @@ public class AdjacencyMatrixTest {
     assertThat(r2[2], closeTo(1965, 1E-6));
   }
 
+  @Test
+  public void largeGraph() {
+    Graph graph = bandedGraph(20000, 20);
+    verifyAgainstEdgeTraversal(graph);
+  }
+
+  @Test
+  public void largeSubgraphs() {
+    Graph graph = bandedGraph(20000, 20);
+    verifyAgainstEdgeTraversal(graph.subgraph(v -> v % 7 != 3));
+    verifyAgainstEdgeTraversal(graph.subgraph(v -> v % 1000 < 10));
+  }
+
+  private static void verifyAgainstEdgeTraversal(Graph graph) {
+    double[] x = new double[graph.order()];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = Math.sin(i);
+    }
+    double[] expected = new double[graph.order()];
+    graph.traverse((u, v, weight) -> expected[u] += weight * x[v]);
+    double[] y = new AdjacencyMatrix(graph).multiply(x);
+    assertThat(y, is(expected));
+    float[] z = new AdjacencyMatrix(graph).multiply(Vectors.toFloat(x));
+    for (int i = 0; i < z.length; i++) {
+      assertThat((double) z[i], closeTo(expected[i], 1E-5 * (1 + Math.abs(expected[i]))));
+    }
+  }
+
+  private static Graph bandedGraph(int n, int k) {
+    SparseGraphBuilder builder = new SparseGraphBuilder();
+    for (int i = 0; i < n; i++) {
+      for (int j = i + 1; j < Math.min(i + k, n); j++) {
+        builder.add(i, j, 1 + (i * j) % 13);
+      }
+    }
+    return builder.build();
+  }
 
-}
\ No newline at end of file
+}
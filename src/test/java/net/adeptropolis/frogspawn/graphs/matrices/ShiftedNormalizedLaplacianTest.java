@@ -6,6 +6,7 @@
 package net.adeptropolis.frogspawn.graphs.matrices;
 
 import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import net.adeptropolis.frogspawn.helpers.Vectors;
 import org.junit.Test;
 
 import java.util.stream.IntStream;
@@ -13,6 +14,7 @@ import java.util.stream.IntStream;
 import static net.adeptropolis.frogspawn.graphs.matrices.ShiftedNormalizedLaplacian.computeSqrtWeights;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
 
 public class ShiftedNormalizedLaplacianTest extends GraphTestBase {
 
@@ -102,6 +104,18 @@ public class ShiftedNormalizedLaplacianTest extends GraphTestBase {
     }
   }
 
+  @Test
+  public void singlePrecisionMultiplication() {
+    double[] arg = new double[]{1579, 1583, 1597, 1601, 1607, 1609, 1613};
+    ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(K43);
+    double[] expected = op.multiply(arg).clone();
+    float[] r = op.multiply(Vectors.toFloat(arg));
+    for (int i = 0; i < expected.length; i++) {
+      assertThat((double) r[i], closeTo(expected[i], 1E-3));
+    }
+    assertThat(op.getMultiplications(), is(2));
+  }
+
   @Test
   public void reusability() {
     ShiftedNormalizedLaplacian op = new ShiftedNormalizedLaplacian(K12);
@@ -115,4 +129,13 @@ public class ShiftedNormalizedLaplacianTest extends GraphTestBase {
     assertThat(r1[2], closeTo(-4.4232, 1E-4));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void countsMultiplications() {
+    ShiftedNormalizedLaplacian matrix = new ShiftedNormalizedLaplacian(EIGEN_REF_GRAPH);
+    assertThat(matrix.getMultiplications(), is(0));
+    matrix.multiply(new double[matrix.size()]);
+    matrix.multiply(new double[matrix.size()]);
+    assertThat(matrix.getMultiplications(), is(2));
+  }
+
+}
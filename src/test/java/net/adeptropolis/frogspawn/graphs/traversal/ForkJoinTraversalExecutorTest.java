@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.traversal;
+
+import net.adeptropolis.frogspawn.graphs.Graph;
+import net.adeptropolis.frogspawn.graphs.GraphTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ForkJoinTraversalExecutorTest extends GraphTestBase {
+
+  private ForkJoinPool pool;
+  private ForkJoinTraversalExecutor executor;
+
+  @Before
+  public void setUp() {
+    pool = new ForkJoinPool(3);
+    executor = new ForkJoinTraversalExecutor(pool);
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void processesEveryChunkOnce() {
+    AtomicIntegerArray counts = new AtomicIntegerArray(1000);
+    executor.execute(1000, counts::incrementAndGet);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(counts.get(i), is(1));
+    }
+  }
+
+  @Test
+  public void noChunks() {
+    AtomicInteger count = new AtomicInteger();
+    executor.execute(0, chunk -> count.incrementAndGet());
+    assertThat(count.get(), is(0));
+  }
+
+  @Test
+  public void usesGivenPool() {
+    AtomicInteger foreignThreads = new AtomicInteger();
+    executor.execute(100, chunk -> {
+      if (ForkJoinTask.getPool() != pool) {
+        foreignThreads.incrementAndGet();
+      }
+    });
+    assertThat(foreignThreads.get(), is(0));
+  }
+
+  @Test
+  public void nestedTraversals() {
+    ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+    try {
+      Graph graph = bandedGraph(1000, 10);
+      AtomicLong edges = new AtomicLong();
+      ParallelOps.runWith(new ForkJoinTraversalExecutor(singleThreadPool), () ->
+              ParallelVertexOps.traverse(graph, u -> {
+                if (u % 100 == 0) {
+                  ParallelEdgeOps.traverse(graph, (x, y, weight) -> edges.incrementAndGet(), TraversalMode.DEFAULT);
+                }
+              }));
+      assertThat(edges.get(), is(10 * graph.size()));
+    } finally {
+      singleThreadPool.shutdown();
+    }
+  }
+
+}
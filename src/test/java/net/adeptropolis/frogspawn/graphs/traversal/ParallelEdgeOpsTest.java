@@ -14,6 +14,11 @@ import org.hamcrest.Matchers;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -64,5 +69,62 @@ public class ParallelEdgeOpsTest extends GraphTestBase {
     assertThat(edgeCount.get(), is(75 * 149));
   }
 
-}
+  @Test
+  public void sequentialTraversal() {
+    Graph graph = bandedGraph(20000, 100);
+    Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    AtomicInteger edgeCount = new AtomicInteger();
+    ParallelOps.runSequentially(() -> ParallelEdgeOps.traverse(graph, (u, v, weight) -> {
+      threads.add(Thread.currentThread());
+      edgeCount.incrementAndGet();
+    }, TraversalMode.DEFAULT));
+    assertThat(threads, contains(Thread.currentThread()));
+    assertThat(edgeCount.get(), is((int) graph.size()));
+  }
+
+  @Test
+  public void chunkedTraversal() {
+    Graph graph = bandedGraph(20000, 100);
+    List<FingerprintingEdgeConsumer> consumers = ParallelEdgeOps.traverseChunked(graph, FingerprintingEdgeConsumer::new, TraversalMode.DEFAULT);
+    assertThat(consumers, hasSize(graph.partition(ParallelOps.defaultNumChunks()).length - 1));
+    long fingerprint = 0;
+    for (FingerprintingEdgeConsumer consumer : consumers) {
+      fingerprint += consumer.getFingerprint();
+    }
+    assertThat(fingerprint, is(bandedGraphFingerprint(20000, 100)));
+  }
+
+  @Test
+  public void chunkedTraversalIsDeterministic() {
+    Graph graph = bandedGraph(5000, 10).subgraph(v -> v % 3 != 0);
+    List<FingerprintingEdgeConsumer> parallel = ParallelEdgeOps.traverseChunked(graph, FingerprintingEdgeConsumer::new, TraversalMode.DEFAULT);
+    List<List<FingerprintingEdgeConsumer>> sequential = new ArrayList<>();
+    ParallelOps.runSequentially(() -> sequential.add(ParallelEdgeOps.traverseChunked(graph, FingerprintingEdgeConsumer::new, TraversalMode.DEFAULT)));
+    assertThat(parallel.size(), is(sequential.get(0).size()));
+    for (int i = 0; i < parallel.size(); i++) {
+      assertThat(parallel.get(i).getFingerprint(), is(sequential.get(0).get(i).getFingerprint()));
+    }
+  }
+
+  @Test
+  public void uniformChunks() {
+    assertThat(ParallelOps.uniformChunks(10, 3), is(new int[]{0, 3, 6, 10}));
+    assertThat(ParallelOps.uniformChunks(2, 3), is(new int[]{0, 1, 2}));
+    assertThat(ParallelOps.uniformChunks(0, 3), is(new int[]{0, 0}));
+  }
 
+  @Test
+  public void scopedExecutor() {
+    Graph graph = bandedGraph(20000, 100);
+    AtomicInteger executions = new AtomicInteger();
+    TraversalExecutor executor = (numChunks, action) -> {
+      executions.incrementAndGet();
+      SequentialTraversalExecutor.INSTANCE.execute(numChunks, action);
+    };
+    long[] fingerprint = new long[1];
+    ParallelOps.runWith(executor, () -> fingerprint[0] = traverseFingerprint(graph));
+    assertThat(executions.get(), is(1));
+    assertThat(fingerprint[0], is(bandedGraphFingerprint(20000, 100)));
+  }
+
+}
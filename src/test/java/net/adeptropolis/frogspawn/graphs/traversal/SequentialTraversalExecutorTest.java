@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) Florian Schaefer 2021.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.adeptropolis.frogspawn.graphs.traversal;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class SequentialTraversalExecutorTest {
+
+  @Test
+  public void processesChunksInOrder() {
+    IntArrayList chunks = new IntArrayList();
+    SequentialTraversalExecutor.INSTANCE.execute(4, chunks::add);
+    assertThat(chunks, contains(0, 1, 2, 3));
+  }
+
+  @Test
+  public void runsOnCallingThread() {
+    Thread caller = Thread.currentThread();
+    IntArrayList foreignChunks = new IntArrayList();
+    SequentialTraversalExecutor.INSTANCE.execute(4, chunk -> {
+      if (Thread.currentThread() != caller) {
+        foreignChunks.add(chunk);
+      }
+    });
+    assertThat(foreignChunks.isEmpty(), is(true));
+  }
+
+}
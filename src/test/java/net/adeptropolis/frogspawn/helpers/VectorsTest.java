@@ -9,6 +9,7 @@ import org.junit.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
 
 public class VectorsTest {
 
@@ -46,4 +47,28 @@ public class VectorsTest {
     assertThat(v[2], closeTo(0.84515, 1E-5));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void singlePrecisionScalarProduct() {
+    float[] v = new float[]{2, 3, 5};
+    float[] w = new float[]{7, 11, 13};
+    assertThat(Vectors.scalarProduct(v, w), closeTo(112, 1E-9));
+  }
+
+  @Test
+  public void singlePrecisionNormalize2() {
+    float[] v = new float[]{-1, 3, -5};
+    Vectors.normalize2(v);
+    assertThat((double) v[0], closeTo(-0.16903, 1E-5));
+    assertThat((double) v[1], closeTo(0.50709, 1E-5));
+    assertThat((double) v[2], closeTo(-0.84515, 1E-5));
+  }
+
+  @Test
+  public void precisionConversion() {
+    double[] v = Vectors.toDouble(Vectors.toFloat(new double[]{0.5, -3, 1.0 / 3}));
+    assertThat(v[0], is(0.5));
+    assertThat(v[1], is(-3.0));
+    assertThat(v[2], closeTo(1.0 / 3, 1E-7));
+  }
+
+}